@@ -2,8 +2,14 @@ package app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 
+import app.entities.Usuario;
+
+// 🔹 Só as entidades de app.entities: as dos benchmarks, no classpath de testes,
+// ficam fora do contexto da aplicação
 @SpringBootApplication
+@EntityScan(basePackageClasses = Usuario.class)
 public class GranaguruApplication {
 
 	public static void main(String[] args) {
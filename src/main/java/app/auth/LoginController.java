@@ -1,5 +1,7 @@
 package app.auth;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,10 +20,11 @@ public class LoginController {
 	private LoginService loginService;
 
 	@PostMapping
-	public ResponseEntity<String> logar(@RequestBody Login login) {
+	public CompletableFuture<ResponseEntity<String>> logar(@RequestBody Login login) {
 
-		String token = loginService.logar(login);
-		return new ResponseEntity<>(token, HttpStatus.OK);
+		// Resposta assíncrona: a thread da requisição é liberada enquanto o BCrypt roda
+		return loginService.logar(login)
+				.thenApply(token -> new ResponseEntity<>(token, HttpStatus.OK));
 
 	}
 
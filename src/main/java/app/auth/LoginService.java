@@ -1,6 +1,8 @@
 //AuthenticationService.java
 package app.auth;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -9,6 +11,7 @@ import org.springframework.stereotype.Service;
 import app.config.JwtServiceGenerator;
 import app.entities.Usuario;
 import app.repositories.UsuarioRepository;
+import app.services.SenhaService;
 
 @Service
 public class LoginService {
@@ -19,11 +22,13 @@ public class LoginService {
 	private JwtServiceGenerator jwtService;
 	@Autowired
 	private AuthenticationManager authenticationManager;
+	@Autowired
+	private SenhaService senhaService;
 
-	public String logar(Login login) {
+	// A verificação do BCrypt (e o rehash, se o custo mudou) roda no pool de senhas
+	public CompletableFuture<String> logar(Login login) {
 
-		String token = this.gerarToken(login);
-		return token;
+		return senhaService.executar(() -> this.gerarToken(login));
 
 	}
 
@@ -0,0 +1,38 @@
+package app.auth;
+
+import java.security.Principal;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Usuário de uma requisição autenticada, montado só com as claims do token,
+ * sem consultar o banco.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@RequiredArgsConstructor
+public class UsuarioAutenticado implements Principal {
+
+	private final Long id;
+	private final String email;
+	private final String nome;
+	private final String role;
+
+	@Override
+	public String getName() {
+		return email;
+	}
+
+	// 🔹 Mesmas authorities de Usuario.getAuthorities
+	public List<GrantedAuthority> getAuthorities() {
+		return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+	}
+}
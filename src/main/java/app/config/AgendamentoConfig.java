@@ -0,0 +1,94 @@
+package app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Tarefas agendadas. O materializador de recorrências roda em um executor
+ * próprio, para não disputar threads com outras tarefas nem com requisições.
+ * As demais tarefas (fechamento mensal dos saldos, limpeza dos baldes do
+ * limite de requisições) usam o agendador padrão. Os alertas de orçamento têm
+ * seus próprios workers, e o hash de senhas (login e cadastro) roda em um pool
+ * limitado, ver {@code SenhaService}. A verificação das réplicas de leitura
+ * tem uma thread só dela, para não esperar atrás de um lote do materializador.
+ * <p>
+ * Como estes executores existem, o Spring Boot deixa de criar o executor e o
+ * agendador padrão; os dois são declarados aqui, com os tamanhos de
+ * {@code spring.task.execution.*} e {@code spring.task.scheduling.*}.
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+
+    public static final String MATERIALIZADOR_SCHEDULER = "materializadorScheduler";
+    public static final String ALERTAS_EXECUTOR = "alertasExecutor";
+    public static final String SENHAS_EXECUTOR = "senhasExecutor";
+    public static final String REPLICAS_SCHEDULER = "replicasScheduler";
+
+    // 🔹 Requisições assíncronas do MVC (streaming e exportação de transações):
+    // pool limitado, em vez do SimpleAsyncTaskExecutor de uma thread por tarefa
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = ScheduledAnnotationBeanPostProcessor.DEFAULT_TASK_SCHEDULER_BEAN_NAME)
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = MATERIALIZADOR_SCHEDULER)
+    public ThreadPoolTaskScheduler materializadorScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("materializador-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+
+    @Bean(name = REPLICAS_SCHEDULER)
+    public ThreadPoolTaskScheduler replicasScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("replicas-");
+        return scheduler;
+    }
+
+    // 🔹 Uma thread por worker de AlertaOrcamentoService; a fila de trabalho fica
+    // no próprio serviço
+    @Bean(name = ALERTAS_EXECUTOR)
+    public ThreadPoolTaskExecutor alertasExecutor(@Value("${granaguru.alertas.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("alertas-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    // 🔹 Bulkhead do BCrypt: poucas threads e fila curta. Com a fila cheia a
+    // tarefa é rejeitada na hora (TaskRejectedException) em vez de esperar
+    @Bean(name = SENHAS_EXECUTOR)
+    public ThreadPoolTaskExecutor senhasExecutor(@Value("${granaguru.senhas.workers:2}") int workers,
+            @Value("${granaguru.senhas.capacidade-fila:50}") int capacidadeFila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(capacidadeFila);
+        executor.setThreadNamePrefix("senhas-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
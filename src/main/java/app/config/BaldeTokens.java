@@ -0,0 +1,41 @@
+package app.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens guardado em um único {@code long}: o instante (nanoTime) em
+ * que o balde estaria cheio de novo. Cada requisição empurra esse instante um
+ * intervalo para frente; se ele passaria de {@code capacidade} intervalos
+ * adiante de agora, o balde está vazio. A atualização é um CAS, sem locks.
+ */
+final class BaldeTokens {
+
+	private final AtomicLong cheioEm;
+
+	BaldeTokens(long agora) {
+		this.cheioEm = new AtomicLong(agora);
+	}
+
+	/**
+	 * Consome um token. Retorna 0 se havia token, ou quantos nanossegundos
+	 * faltam para o próximo.
+	 */
+	long consumir(long agora, long intervalo, long capacidade) {
+		while (true) {
+			long atual = cheioEm.get();
+			long novo = Math.max(atual, agora) + intervalo;
+			long espera = novo - agora - capacidade * intervalo;
+			if (espera > 0) {
+				return espera;
+			}
+			if (cheioEm.compareAndSet(atual, novo)) {
+				return 0;
+			}
+		}
+	}
+
+	// 🔹 Balde cheio: removê-lo equivale a recriá-lo na próxima requisição
+	boolean ocioso(long agora) {
+		return cheioEm.get() - agora <= 0;
+	}
+}
@@ -0,0 +1,94 @@
+package app.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.CacheSettings;
+import org.hibernate.cfg.SessionEventSettings;
+import org.hibernate.cfg.StatisticsSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Cache de segundo nível do Hibernate para as entidades de referência
+ * (Usuario, Conta, Categoria e Tag) e cache de consultas para as listagens
+ * por usuário, em regiões Caffeine locais e limitadas.
+ *
+ * A invalidação é do próprio Hibernate: gravar ou excluir pelo repositório
+ * (os métodos save/delete dos serviços) atualiza ou remove a entrada da
+ * entidade e marca a tabela como alterada, o que descarta as consultas em
+ * cache que a leem. Escritas em SQL nativo precisam declarar as tabelas que
+ * alteram ({@code HibernateHints.HINT_NATIVE_SPACES}), senão esvaziam todas as
+ * regiões. Escritas feitas por outras instâncias só são vistas aqui depois de
+ * {@code granaguru.cache.ttl}.
+ *
+ * Acertos e falhas saem nas métricas {@code hibernate.second.level.cache.requests}
+ * e {@code hibernate.cache.query.requests}, por região.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String REGIAO_USUARIOS = "usuarios";
+    public static final String REGIAO_CONTAS = "contas";
+    public static final String REGIAO_CATEGORIAS = "categorias";
+    public static final String REGIAO_TAGS = "tags";
+    public static final String REGIAO_CONSULTAS_REFERENCIA = "consultas-referencia";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(@Value("${granaguru.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${granaguru.cache.ttl:PT10M}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("granaguru-hibernate"), getClass().getClassLoader());
+
+        for (String regiao : List.of(REGIAO_USUARIOS, REGIAO_CONTAS, REGIAO_CATEGORIAS, REGIAO_TAGS,
+                REGIAO_CONSULTAS_REFERENCIA, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)) {
+            criar(cacheManager, regiao, OptionalLong.of(tamanhoMaximo), OptionalLong.of(ttl.toNanos()));
+        }
+        // 🔍 Quando cada tabela foi alterada pela última vez: se uma entrada sumir
+        // antes das consultas que dependem dela, uma consulta velha pode ser servida
+        criar(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, OptionalLong.empty(),
+                OptionalLong.empty());
+        return cacheManager;
+    }
+
+    // 🔹 Ligado aqui, e não no application.properties, para que contextos sem esta
+    // configuração (ex.: benchmarks) subam sem cache em vez de falhar
+    @Bean
+    public HibernatePropertiesCustomizer cacheHibernate(CacheManager cacheManagerHibernate) {
+        return propriedades -> {
+            propriedades.put(CacheSettings.USE_SECOND_LEVEL_CACHE, true);
+            propriedades.put(CacheSettings.USE_QUERY_CACHE, true);
+            propriedades.put(CacheSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // 🔹 Estatísticas para as métricas de acerto, sem o log por sessão
+            propriedades.put(StatisticsSettings.GENERATE_STATISTICS, true);
+            propriedades.put(SessionEventSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    private static void criar(CacheManager cacheManager, String regiao, OptionalLong tamanhoMaximo,
+            OptionalLong expiracaoNanos) {
+        if (cacheManager.getCache(regiao) != null) {
+            return;
+        }
+        // 🔹 O Hibernate já guarda cópias desmontadas das entidades; sem cópia extra
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setStoreByValue(false);
+        configuracao.setMaximumSize(tamanhoMaximo);
+        configuracao.setExpireAfterWrite(expiracaoNanos);
+        cacheManager.createCache(regiao, configuracao);
+    }
+}
@@ -0,0 +1,60 @@
+package app.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard escolhido explicitamente para a thread atual (ver {@link ShardsDataSource}).
+ * Vale para as transações que começam dentro de {@link #executar}; uma
+ * transação já aberta continua no banco em que começou. Sem shard explícito,
+ * vale o do usuário autenticado e, sem usuário, o catálogo.
+ */
+public final class ContextoShard {
+
+    /**
+     * O banco de {@code spring.datasource}: usuários, tags, diretório e os dados
+     * dos usuários que não foram para outro shard.
+     */
+    public static final int CATALOGO = 0;
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ContextoShard() {
+    }
+
+    public static Integer atual() {
+        return SHARD.get();
+    }
+
+    public static <T> T executar(int shard, Supplier<T> acao) {
+        Integer anterior = definir(shard);
+        try {
+            return acao.get();
+        } finally {
+            restaurar(anterior);
+        }
+    }
+
+    public static void executar(int shard, Runnable acao) {
+        executar(shard, () -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    /**
+     * Define o shard da thread e devolve o anterior, para {@link #restaurar}.
+     */
+    static Integer definir(int shard) {
+        Integer anterior = SHARD.get();
+        SHARD.set(shard);
+        return anterior;
+    }
+
+    static void restaurar(Integer anterior) {
+        if (anterior == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(anterior);
+        }
+    }
+}
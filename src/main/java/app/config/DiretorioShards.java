@@ -0,0 +1,245 @@
+package app.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.auth.UsuarioAutenticado;
+import app.exceptions.UsuarioEmMovimentacaoException;
+
+/**
+ * Em que shard ficam os dados de cada usuário (ver {@link ShardsConfig}). O
+ * diretório é a tabela {@code shards_usuarios} do catálogo; usuários sem linha
+ * ficam no catálogo (shard 0). Um usuário novo vai para um dos shards de
+ * {@code granaguru.shards.novos-usuarios}, escolhido pelo hash do id, e fica
+ * lá até ser movido (ver {@code ShardService#mover}): acrescentar um shard não
+ * muda o lugar de ninguém.
+ *
+ * As consultas ao diretório ficam em cache por {@code granaguru.shards.diretorio-ttl};
+ * a mudança feita por outra instância só é vista depois disso. Enquanto um
+ * usuário é movido, a linha dele tem o shard de destino em {@code movendo_para}
+ * e {@link #shardDe} recusa o acesso aos dados dele
+ * ({@link UsuarioEmMovimentacaoException}).
+ */
+public class DiretorioShards implements AutoCloseable {
+
+    /**
+     * IDs reservados para cada shard: os contadores de {@code sequencias_ids} do
+     * shard N começam em N × FAIXA_IDS, então um usuário movido leva os seus IDs
+     * sem colidir com os do destino.
+     */
+    public static final long FAIXA_IDS = 1L << 40;
+
+    public static final int TAMANHO_CACHE = 100_000;
+
+    private static final Logger log = LoggerFactory.getLogger(DiretorioShards.class);
+
+    private final List<DataSource> bancos;
+    private final List<Integer> novosUsuarios;
+    private final JdbcTemplate catalogo;
+    private final Duration ttl;
+    private final Cache<Long, Localizacao> localizacoes;
+
+    /**
+     * @param bancos os bancos na ordem dos shards; o primeiro é o catálogo
+     */
+    public DiretorioShards(List<DataSource> bancos, List<Integer> novosUsuarios, Duration ttl) {
+        for (Integer shard : novosUsuarios) {
+            if (shard < 0 || shard >= bancos.size()) {
+                throw new IllegalArgumentException("Shard inexistente em granaguru.shards.novos-usuarios: " + shard);
+            }
+        }
+        this.bancos = List.copyOf(bancos);
+        this.novosUsuarios = List.copyOf(novosUsuarios);
+        this.catalogo = new JdbcTemplate(bancos.get(ContextoShard.CATALOGO));
+        this.ttl = ttl;
+        this.localizacoes = Caffeine.newBuilder().maximumSize(TAMANHO_CACHE).expireAfterWrite(ttl).build();
+    }
+
+    public int total() {
+        return bancos.size();
+    }
+
+    public DataSource banco(int shard) {
+        return bancos.get(shard);
+    }
+
+    /**
+     * Shard dos dados do usuário; recusa se ele estiver sendo movido.
+     */
+    public int shardDe(Long usuarioId) {
+        Localizacao localizacao = localizar(usuarioId);
+        if (localizacao.emMovimentacao()) {
+            throw new UsuarioEmMovimentacaoException(usuarioId);
+        }
+        return localizacao.shard();
+    }
+
+    /**
+     * Linha do usuário no diretório (pelo cache), sem recusar quem está sendo movido.
+     */
+    public Localizacao localizar(Long usuarioId) {
+        return localizacoes.get(usuarioId, id -> catalogo.query(
+                "SELECT shard, movendo_para FROM shards_usuarios WHERE usuario_id = ?",
+                rs -> rs.next() ? new Localizacao(rs.getInt(1), rs.getObject(2, Integer.class))
+                        : new Localizacao(ContextoShard.CATALOGO, null),
+                id));
+    }
+
+    /**
+     * Relê a linha do usuário no diretório, sem passar pelo cache.
+     */
+    public Localizacao relocalizar(Long usuarioId) {
+        localizacoes.invalidate(usuarioId);
+        return localizar(usuarioId);
+    }
+
+    /**
+     * Shard das transações que começarem agora nesta thread: o explícito de
+     * {@link ContextoShard}, senão o do usuário autenticado, senão o catálogo.
+     */
+    public int shardAtual() {
+        Integer shard = ContextoShard.atual();
+        if (shard != null) {
+            return shard;
+        }
+        Long usuarioId = usuarioAtual();
+        return usuarioId != null ? shardDe(usuarioId) : ContextoShard.CATALOGO;
+    }
+
+    /**
+     * Shard para um usuário novo.
+     */
+    public int posicionar(Long usuarioId) {
+        // 🔹 Embaralha os bits do id: IDs saem em blocos sequenciais por instância
+        long hash = usuarioId * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return novosUsuarios.get(Math.floorMod((int) hash, novosUsuarios.size()));
+    }
+
+    /**
+     * Registra o shard do usuário e encerra a movimentação, se houver uma.
+     */
+    public void registrar(Long usuarioId, int shard) {
+        if (catalogo.update("UPDATE shards_usuarios SET shard = ?, movendo_para = NULL WHERE usuario_id = ?", shard,
+                usuarioId) == 0) {
+            catalogo.update("INSERT INTO shards_usuarios (usuario_id, shard) VALUES (?, ?)", usuarioId, shard);
+        }
+        localizacoes.put(usuarioId, new Localizacao(shard, null));
+    }
+
+    /**
+     * Marca o usuário como em movimentação da origem para o destino. As outras
+     * instâncias passam a recusá-lo quando o cache delas expirar (ver
+     * {@link #aguardarPropagacao}).
+     */
+    public void iniciarMovimentacao(Long usuarioId, int origem, int destino) {
+        if (catalogo.update("UPDATE shards_usuarios SET movendo_para = ? WHERE usuario_id = ?", destino,
+                usuarioId) == 0) {
+            catalogo.update("INSERT INTO shards_usuarios (usuario_id, shard, movendo_para) VALUES (?, ?, ?)", usuarioId,
+                    origem, destino);
+        }
+        localizacoes.put(usuarioId, new Localizacao(origem, destino));
+    }
+
+    /**
+     * Espera o diretório em cache expirar em todas as instâncias, e outro tanto
+     * para as transações que o leram antes disso terminarem.
+     */
+    public void aguardarPropagacao() {
+        try {
+            Thread.sleep(ttl.multipliedBy(2).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando o diretório de shards propagar", e);
+        }
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public void remover(Long usuarioId) {
+        catalogo.update("DELETE FROM shards_usuarios WHERE usuario_id = ?", usuarioId);
+        localizacoes.invalidate(usuarioId);
+    }
+
+    /**
+     * Relê o shard do usuário no diretório, sem passar pelo cache.
+     */
+    public int recarregar(Long usuarioId) {
+        return relocalizar(usuarioId).shard();
+    }
+
+    public <T> T noShardDo(Long usuarioId, Supplier<T> acao) {
+        return ContextoShard.executar(shardDe(usuarioId), acao);
+    }
+
+    /**
+     * Executa a ação uma vez em cada shard (tarefas em segundo plano que varrem
+     * todos os usuários). A falha em um shard é registrada e não impede os demais.
+     */
+    public void emCadaShard(Runnable acao) {
+        for (int shard = 0; shard < bancos.size(); shard++) {
+            try {
+                ContextoShard.executar(shard, acao);
+            } catch (RuntimeException e) {
+                log.error("Falha ao executar no shard {}", shard, e);
+            }
+        }
+    }
+
+    /**
+     * Leva os contadores de IDs do shard para a faixa dele, se ainda estiverem
+     * abaixo. Usuários e tags são globais e têm os IDs tirados do catálogo.
+     */
+    void reservarFaixaIds(int shard) {
+        long inicio = shard * FAIXA_IDS;
+        int contadores = new JdbcTemplate(banco(shard)).update(
+                "UPDATE sequencias_ids SET proximo_id = ? WHERE proximo_id < ? AND entidade NOT IN ('usuarios', 'tags')",
+                inicio, inicio);
+        if (contadores > 0) {
+            log.info("Contadores de IDs do shard {} levados para {}", shard, inicio);
+        }
+    }
+
+    // 🔹 O catálogo é um bean e é fechado pelo Spring
+    @Override
+    public void close() throws Exception {
+        for (DataSource banco : bancos.subList(1, bancos.size())) {
+            if (banco instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    /**
+     * Shard em que estão os dados do usuário e, durante uma movimentação, o
+     * shard para onde eles vão.
+     */
+    public record Localizacao(int shard, Integer destino) {
+
+        public boolean emMovimentacao() {
+            return destino != null;
+        }
+    }
+
+    static Long usuarioAtual() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            return usuario.getId();
+        }
+        return null;
+    }
+}
@@ -3,6 +3,7 @@ package app.config;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -10,12 +11,15 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import app.exceptions.SenhasSobrecarregadoException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 
 @ControllerAdvice
 public class GlobalExceptionHandlerAuth {
 
+	public static final int SEGUNDOS_RETRY_AFTER = 1;
+
 	//TRATAMENTO DE ERROS DE VALIDATIONS
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	public ResponseEntity<Map<String, String>> handle01(MethodArgumentNotValidException ex) {
@@ -36,6 +40,14 @@ public class GlobalExceptionHandlerAuth {
 		return new ResponseEntity<Map<String, String>>(erros, HttpStatus.BAD_REQUEST);
 	}
 
+	//POOL DE SENHAS SATURADO (LOGIN EM MASSA): 503 PARA O CLIENTE TENTAR DE NOVO
+	@ExceptionHandler(SenhasSobrecarregadoException.class)
+	public ResponseEntity<String> handleSenhasSobrecarregado(SenhasSobrecarregadoException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(SEGUNDOS_RETRY_AFTER))
+				.body(ex.getMessage());
+	}
+
 	//TRATAMENTO DOS DEMAIS ERROS DA APLICAÇÃO E DE REGRAS DE NEGÓCIO
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<String> handle03(Exception ex) {
@@ -0,0 +1,24 @@
+package app.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+
+/**
+ * Serialização das entidades sem open-in-view. Associações LAZY que não foram
+ * carregadas saem só com o id ({@code "usuario": {"id": 1}}) e coleções não
+ * carregadas saem como {@code null}, em vez de disparar consultas (ou falhar)
+ * depois que a transação do serviço terminou. O que cada resposta traz
+ * completo é definido pelos grafos de entidade dos repositórios.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Hibernate6Module hibernate6Module() {
+        Hibernate6Module modulo = new Hibernate6Module();
+        modulo.enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+        return modulo;
+    }
+}
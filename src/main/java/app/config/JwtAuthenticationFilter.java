@@ -8,12 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import app.auth.UsuarioAutenticado;
+import app.services.VersaoSegurancaService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,7 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	@Autowired
 	private JwtServiceGenerator jwtService;
 	@Autowired
-	private UserDetailsService userDetailsService;
+	private VersaoSegurancaService versaoSegurancaService;
 
 	@Override
 	protected void doFilterInternal(
@@ -40,14 +41,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 			return;
 		}
 		jwt = authHeader.substring(7);
-		userEmail = jwtService.extractUsername(jwt);
+		// Assinatura verificada só na primeira requisição com o token (ver JwtServiceGenerator)
+		final Claims claims = jwtService.extractAllClaims(jwt);
+		userEmail = claims.getSubject();
 		if(userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-			UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-			if(jwtService.isTokenValid(jwt, userDetails)) {
+			// Principal montado das claims; o banco só é consultado (via cache) para a versão de segurança
+			UsuarioAutenticado usuario = jwtService.extractPrincipal(claims);
+			if(!jwtService.isExpirado(claims)
+					&& versaoSegurancaService.valida(usuario.getId(), jwtService.extractVersao(claims))) {
 				UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-						userDetails,
+						usuario,
 						null,
-						userDetails.getAuthorities()
+						usuario.getAuthorities()
 						);
 				authToken.setDetails(
 						new WebAuthenticationDetailsSource().buildDetails(request)
@@ -2,17 +2,28 @@ package app.config;
 
 //JwtService.java
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import app.auth.UsuarioAutenticado;
 import app.entities.Usuario;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -27,6 +38,39 @@ public class JwtServiceGenerator {
 	public static final SignatureAlgorithm ALGORITMO_ASSINATURA = SignatureAlgorithm.HS256;
 	public static final int HORAS_EXPIRACAO_TOKEN = 1;
 
+	// 🔹 Versão de segurança do usuário na emissão (ver VersaoSegurancaService)
+	public static final String CLAIM_VERSAO = "versao";
+
+	// 🔹 Limite de tokens verificados mantidos em memória
+	public static final int TAMANHO_CACHE_TOKENS = 10_000;
+
+	// 🔹 A chave é decodificada uma única vez e o parser (thread-safe) é reutilizado
+	private static final Key CHAVE_ASSINATURA = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+	private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(CHAVE_ASSINATURA).build();
+
+	// 🔹 Claims de tokens já verificados, pelo hash do token. Cada entrada expira
+	// junto com o token, então um token vencido volta a ser verificado (e rejeitado)
+	private final Cache<String, Claims> tokensVerificados = Caffeine.newBuilder()
+			.maximumSize(TAMANHO_CACHE_TOKENS)
+			.expireAfter(new Expiry<String, Claims>() {
+				@Override
+				public long expireAfterCreate(String chave, Claims claims, long agora) {
+					long restante = claims.getExpiration().getTime() - System.currentTimeMillis();
+					return TimeUnit.MILLISECONDS.toNanos(Math.max(restante, 0));
+				}
+
+				@Override
+				public long expireAfterUpdate(String chave, Claims claims, long agora, long duracaoAtual) {
+					return duracaoAtual;
+				}
+
+				@Override
+				public long expireAfterRead(String chave, Claims claims, long agora, long duracaoAtual) {
+					return duracaoAtual;
+				}
+			})
+			.build();
+
 	public Map<String, Object> gerarPayload(Usuario usuario) {
 		// AQUI VOCÊ PODE COLOCAR O QUE MAIS VAI COMPOR O PAYLOAD DO TOKEN
 
@@ -35,6 +79,7 @@ public class JwtServiceGenerator {
 		payloadData.put("id", usuario.getId().toString());
 		payloadData.put("role", usuario.getRole());
 		payloadData.put("Nome", usuario.getNome());
+		payloadData.put(CLAIM_VERSAO, usuario.getVersaoSeguranca() != null ? usuario.getVersaoSeguranca() : 0);
 
 		return payloadData;
 	}
@@ -55,31 +100,54 @@ public class JwtServiceGenerator {
 				.compact();
 	}
 
-	private Claims extractAllClaims(String token) {
-		return Jwts
-				.parserBuilder()
-				.setSigningKey(getSigningKey())
-				.build()
-				.parseClaimsJws(token)
-				.getBody();
+	/**
+	 * Claims do token, verificando assinatura e expiração apenas na primeira vez
+	 * que o token é visto. Tokens inválidos lançam a exceção do parser e não
+	 * entram no cache.
+	 */
+	public Claims extractAllClaims(String token) {
+		String chave = resumo(token);
+		Claims claims = tokensVerificados.getIfPresent(chave);
+		if (claims == null) {
+			claims = PARSER.parseClaimsJws(token).getBody();
+			if (claims.getExpiration() != null) {
+				tokensVerificados.put(chave, claims);
+			}
+		}
+		return claims;
 	}
 
 	public boolean isTokenValid(String token, UserDetails userDetails) {
-		final String username = extractUsername(token);
-		return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+		return isTokenValid(extractAllClaims(token), userDetails);
+	}
+
+	public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+		return claims.getSubject().equals(userDetails.getUsername()) && !isExpirado(claims);
 	}
 
-	private boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
+	public boolean isExpirado(Claims claims) {
+		return claims.getExpiration().before(new Date());
 	}
 
-	private Date extractExpiration(String token) {
-		return extractClaim(token, Claims::getExpiration);
+	/**
+	 * Usuário autenticado montado só com as claims do token.
+	 */
+	public UsuarioAutenticado extractPrincipal(Claims claims) {
+		return new UsuarioAutenticado(Long.valueOf(claims.get("id", String.class)), claims.getSubject(),
+				claims.get("Nome", String.class), claims.get("role", String.class));
+	}
+
+	/**
+	 * Versão de segurança com que o token foi emitido. Tokens anteriores à
+	 * claim valem como versão 0.
+	 */
+	public int extractVersao(Claims claims) {
+		Integer versao = claims.get(CLAIM_VERSAO, Integer.class);
+		return versao != null ? versao : 0;
 	}
 
 	private Key getSigningKey() {
-		byte[] keyBytes = Decoders.BASE64.decode(JwtServiceGenerator.SECRET_KEY);
-		return Keys.hmacShaKeyFor(keyBytes);
+		return CHAVE_ASSINATURA;
 	}
 
 	public String extractUsername(String token) {
@@ -91,4 +159,13 @@ public class JwtServiceGenerator {
 		return claimsResolver.apply(claims);
 	}
 
+	private static String resumo(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 }
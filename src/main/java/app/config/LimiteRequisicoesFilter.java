@@ -0,0 +1,146 @@
+package app.config;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import app.auth.UsuarioAutenticado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limite de requisições por usuário e classe de endpoint (leitura ou
+ * escrita), aplicado depois do {@link JwtAuthenticationFilter}. Cada par
+ * usuário/classe tem um {@link BaldeTokens}; sem token a resposta é 429 com
+ * {@code Retry-After}. Os baldes ficam em mapas concorrentes e os que já
+ * encheram de novo são removidos periodicamente, então a memória acompanha só
+ * os usuários ativos. Requisições sem usuário autenticado não são limitadas.
+ */
+@Component
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+	public enum Classe {
+		LEITURA, ESCRITA
+	}
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${granaguru.limites.habilitado:true}")
+	private boolean habilitado;
+
+	@Value("${granaguru.limites.leitura.por-segundo:20}")
+	private long leituraPorSegundo;
+
+	@Value("${granaguru.limites.leitura.capacidade:40}")
+	private long leituraCapacidade;
+
+	@Value("${granaguru.limites.escrita.por-segundo:5}")
+	private long escritaPorSegundo;
+
+	@Value("${granaguru.limites.escrita.capacidade:10}")
+	private long escritaCapacidade;
+
+	private final Map<Classe, ConcurrentHashMap<Long, BaldeTokens>> baldes = new EnumMap<>(Classe.class);
+	private final Map<Classe, Counter> rejeitadas = new EnumMap<>(Classe.class);
+	private final Map<Classe, long[]> limites = new EnumMap<>(Classe.class);
+
+	@PostConstruct
+	void iniciar() {
+		limites.put(Classe.LEITURA, new long[] { intervalo(leituraPorSegundo), leituraCapacidade });
+		limites.put(Classe.ESCRITA, new long[] { intervalo(escritaPorSegundo), escritaCapacidade });
+		for (Classe classe : Classe.values()) {
+			baldes.put(classe, new ConcurrentHashMap<>());
+			rejeitadas.put(classe, Counter.builder("granaguru.limites.rejeitadas")
+					.description("Requisições rejeitadas pelo limite por usuário")
+					.tag("classe", classe.name().toLowerCase()).register(meterRegistry));
+		}
+		Gauge.builder("granaguru.limites.baldes", this, LimiteRequisicoesFilter::totalBaldes)
+				.description("Baldes de usuários ativos em memória").register(meterRegistry);
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain
+			) throws ServletException, IOException {
+		Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+		if (!habilitado || autenticacao == null
+				|| !(autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		Classe classe = classe(request);
+		long[] limite = limites.get(classe);
+		long agora = System.nanoTime();
+		long espera = baldes.get(classe).computeIfAbsent(usuario.getId(), id -> new BaldeTokens(agora))
+				.consumir(agora, limite[0], limite[1]);
+		if (espera > 0) {
+			rejeitadas.get(classe).increment();
+			response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos(espera)));
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.setCharacterEncoding("UTF-8");
+			response.getWriter().write("Limite de requisições excedido. Tente novamente em instantes.");
+			return;
+		}
+		filterChain.doFilter(request, response);
+	}
+
+	/**
+	 * Remove os baldes que já encheram de novo.
+	 */
+	@Scheduled(fixedDelayString = "${granaguru.limites.limpeza:PT1M}")
+	public void removerOciosos() {
+		long agora = System.nanoTime();
+		for (ConcurrentHashMap<Long, BaldeTokens> porUsuario : baldes.values()) {
+			porUsuario.values().removeIf(balde -> balde.ocioso(agora));
+		}
+	}
+
+	int totalBaldes() {
+		int total = 0;
+		for (ConcurrentHashMap<Long, BaldeTokens> porUsuario : baldes.values()) {
+			total += porUsuario.size();
+		}
+		return total;
+	}
+
+	static Classe classe(HttpServletRequest request) {
+		String metodo = request.getMethod();
+		return HttpMethod.GET.matches(metodo) || HttpMethod.HEAD.matches(metodo) || HttpMethod.OPTIONS.matches(metodo)
+				? Classe.LEITURA
+				: Classe.ESCRITA;
+	}
+
+	private static long intervalo(long porSegundo) {
+		return TimeUnit.SECONDS.toNanos(1) / Math.max(porSegundo, 1);
+	}
+
+	private static long segundos(long nanos) {
+		return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+	}
+}
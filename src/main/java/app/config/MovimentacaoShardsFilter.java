@@ -0,0 +1,47 @@
+package app.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Recusa com 503 as requisições de um usuário enquanto os dados dele são
+ * movidos de shard (ver {@link DiretorioShards#iniciarMovimentacao}), antes de
+ * qualquer transação. Roda depois dos filtros do Spring Security, com o
+ * usuário autenticado já definido.
+ */
+public class MovimentacaoShardsFilter extends OncePerRequestFilter {
+
+	private final DiretorioShards diretorio;
+
+	public MovimentacaoShardsFilter(DiretorioShards diretorio) {
+		this.diretorio = diretorio;
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain
+			) throws ServletException, IOException {
+		Long usuarioId = DiretorioShards.usuarioAtual();
+		if (usuarioId != null && diretorio.localizar(usuarioId).emMovimentacao()) {
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, diretorio.ttl().toSeconds())));
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.setCharacterEncoding("UTF-8");
+			response.getWriter().write("Os dados do usuário estão sendo movidos. Tente novamente em instantes.");
+			return;
+		}
+		filterChain.doFilter(request, response);
+	}
+}
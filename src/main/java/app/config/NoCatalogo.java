@@ -0,0 +1,18 @@
+package app.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Métodos (ou todos os métodos da classe) que leem e gravam dados globais
+ * (usuários, tags) e por isso rodam no catálogo, qualquer que seja o usuário
+ * autenticado. Só tem efeito com shards (ver {@link ShardsConfig}).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface NoCatalogo {
+}
@@ -0,0 +1,19 @@
+package app.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Métodos que rodam no shard do usuário cujo id é o primeiro parâmetro, e não
+ * no do usuário autenticado (ex.: um administrador consultando outro usuário).
+ * Prevalece sobre {@link NoCatalogo} da classe. Só tem efeito com shards (ver
+ * {@link ShardsConfig}).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface NoShardDoUsuario {
+}
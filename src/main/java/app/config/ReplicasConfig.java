@@ -0,0 +1,117 @@
+package app.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Leituras nas réplicas do MySQL. Com {@code granaguru.replicas.habilitado},
+ * as transações {@code readOnly} (os métodos de leitura dos repositórios e os
+ * {@code @Transactional(readOnly = true)} dos serviços) pegam a conexão de
+ * {@link ReplicasDataSource}; as demais, e tudo o que roda fora de transação,
+ * vão ao banco principal. A escolha é feita na primeira instrução SQL, quando
+ * a transação já sabe se é somente leitura.
+ *
+ * Desligado (o padrão), o DataSource é o do Spring Boot, só com o principal.
+ */
+@Configuration
+@ConditionalOnProperty(name = "granaguru.replicas.habilitado", havingValue = "true")
+public class ReplicasConfig {
+
+    // 🔹 Mesmo pool que o Spring Boot criaria, com as propriedades spring.datasource.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primario(DataSourceProperties propriedades) {
+        HikariDataSource primario = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicasDataSource replicasDataSource(HikariDataSource primario, DataSourceProperties propriedades,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${granaguru.replicas.urls}") List<String> urls,
+            @Value("${granaguru.replicas.usuario:${spring.datasource.username:}}") String usuario,
+            @Value("${granaguru.replicas.senha:${spring.datasource.password:}}") String senha,
+            @Value("${granaguru.replicas.tamanho-pool:10}") int tamanhoPool,
+            @Value("${granaguru.replicas.timeout-conexao:PT2S}") Duration timeoutConexao,
+            @Value("${granaguru.replicas.janela-leitura-propria:PT5S}") Duration janelaLeituraPropria) {
+        // 🔹 Sem réplicas todas as leituras iriam ao principal sem aviso: falha na subida
+        List<String> enderecos = urls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (enderecos.isEmpty()) {
+            throw new IllegalStateException(
+                    "granaguru.replicas.habilitado=true exige ao menos uma URL em granaguru.replicas.urls.");
+        }
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : enderecos) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url);
+            replica.setUsername(usuario);
+            replica.setPassword(senha);
+            replica.setDriverClassName(propriedades.determineDriverClassName());
+            replica.setMaximumPoolSize(tamanhoPool);
+            replica.setReadOnly(true);
+            // 🔹 Réplica fora do ar: falha rápido (e a leitura vai ao principal)
+            // e não impede a aplicação de subir
+            replica.setConnectionTimeout(timeoutConexao.toMillis());
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicasDataSource(primario, replicas, janelaLeituraPropria);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicasDataSource replicasDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicasDataSource.escritas());
+        dataSource.setReadOnlyDataSource(replicasDataSource);
+        return dataSource;
+    }
+
+    /**
+     * Transações somente leitura não gravam no cache de segundo nível (ver
+     * CacheConfig): uma réplica atrasada devolveria a versão anterior de uma
+     * entidade recém-alterada, que ficaria no cache até o TTL, também para quem
+     * a alterou. Elas continuam lendo do cache; quem o preenche são as
+     * transações de escrita, que leem do principal.
+     */
+    @Bean
+    public TransactionExecutionListener leiturasNaoGravamNoCache(EntityManagerFactory entityManagerFactory) {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterBegin(TransactionExecution transacao, Throwable falha) {
+                if (falha != null || !transacao.isReadOnly()) {
+                    return;
+                }
+                EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                if (entityManager != null) {
+                    entityManager.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package app.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.auth.UsuarioAutenticado;
+
+/**
+ * Conexões das transações somente leitura (ver {@link ReplicasConfig}): vêm das
+ * réplicas saudáveis, em rodízio, e do banco principal quando nenhuma réplica
+ * está saudável ou quando o usuário da requisição gravou algo há menos de
+ * {@code granaguru.replicas.janela-leitura-propria}, para que ele veja a própria
+ * escrita mesmo com a réplica atrasada. As escritas são registradas por
+ * {@link #escritas()}, a fonte das conexões de escrita.
+ *
+ * Uma réplica que falha ao entregar uma conexão sai do rodízio na hora e volta
+ * quando a verificação periódica ({@code granaguru.replicas.verificacao}) a
+ * encontra respondendo. O atraso de replicação não é medido: leituras de outros
+ * usuários podem ver dados atrasados nesse intervalo.
+ */
+public class ReplicasDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasDataSource.class);
+
+    private static final int TIMEOUT_VERIFICACAO_SEGUNDOS = 2;
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final long janelaNanos;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    // 🔹 Usuário -> instante (nanoTime) até quando as leituras dele vão ao principal
+    private final ConcurrentHashMap<Long, Long> leituraPropriaAte = new ConcurrentHashMap<>();
+
+    public ReplicasDataSource(DataSource primario, List<DataSource> replicas, Duration janelaLeituraPropria) {
+        this.primario = primario;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.janelaNanos = janelaLeituraPropria.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Long usuarioId = usuarioAtual();
+        if (usuarioId != null && dentroDaJanela(usuarioId, System.nanoTime())) {
+            return primario.getConnection();
+        }
+        int total = replicas.size();
+        for (int tentativa = 0; tentativa < total; tentativa++) {
+            Replica replica = replicas.get(Math.floorMod(proxima.getAndIncrement(), total));
+            if (!replica.saudavel) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.marcar(false, e);
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("As réplicas usam as credenciais dos próprios pools.");
+    }
+
+    /**
+     * Fonte das conexões de escrita: o banco principal, registrando que o
+     * usuário da requisição gravou. A janela de leitura própria conta de novo a
+     * partir do fim da transação, que pode ser longa.
+     */
+    public DataSource escritas() {
+        return new DelegatingDataSource(primario) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                registrarEscrita();
+                return super.getConnection();
+            }
+        };
+    }
+
+    /**
+     * Devolve ao rodízio as réplicas que voltaram a responder (e tira as que
+     * pararam) e esquece as janelas de leitura própria vencidas.
+     */
+    @Scheduled(fixedDelayString = "${granaguru.replicas.verificacao:PT5S}",
+            scheduler = AgendamentoConfig.REPLICAS_SCHEDULER)
+    public void verificar() {
+        for (Replica replica : replicas) {
+            try (Connection conexao = replica.dataSource.getConnection()) {
+                replica.marcar(conexao.isValid(TIMEOUT_VERIFICACAO_SEGUNDOS), null);
+            } catch (SQLException e) {
+                replica.marcar(false, e);
+            }
+        }
+        long agora = System.nanoTime();
+        leituraPropriaAte.values().removeIf(ate -> ate - agora <= 0);
+    }
+
+    int replicasSaudaveis() {
+        return (int) replicas.stream().filter(replica -> replica.saudavel).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    private void registrarEscrita() {
+        Long usuarioId = usuarioAtual();
+        if (usuarioId == null || janelaNanos <= 0) {
+            return;
+        }
+        abrirJanela(usuarioId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    abrirJanela(usuarioId);
+                }
+            });
+        }
+    }
+
+    private void abrirJanela(Long usuarioId) {
+        leituraPropriaAte.put(usuarioId, System.nanoTime() + janelaNanos);
+    }
+
+    private boolean dentroDaJanela(Long usuarioId, long agora) {
+        Long ate = leituraPropriaAte.get(usuarioId);
+        return ate != null && ate - agora > 0;
+    }
+
+    private static Long usuarioAtual() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            return usuario.getId();
+        }
+        return null;
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean saudavel = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void marcar(boolean agora, SQLException erro) {
+            if (saudavel && !agora) {
+                log.warn("Réplica {} fora do rodízio de leituras", dataSource, erro);
+            } else if (!saudavel && agora) {
+                log.info("Réplica {} de volta ao rodízio de leituras", dataSource);
+            }
+            saudavel = agora;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package app.config;
+
+import java.lang.reflect.Method;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Aplica {@link NoCatalogo} e {@link NoShardDoUsuario}. Roda por fora de
+ * {@code @Transactional}, para o shard já estar definido quando a transação
+ * pegar a conexão.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RoteamentoShardsAspect {
+
+    private final DiretorioShards diretorio;
+
+    public RoteamentoShardsAspect(DiretorioShards diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    @Around("@within(app.config.NoCatalogo) || @annotation(app.config.NoCatalogo)"
+            + " || @annotation(app.config.NoShardDoUsuario)")
+    public Object rotear(ProceedingJoinPoint chamada) throws Throwable {
+        Method metodo = ((MethodSignature) chamada.getSignature()).getMethod();
+        int shard = metodo.isAnnotationPresent(NoShardDoUsuario.class)
+                ? diretorio.shardDe((Long) chamada.getArgs()[0])
+                : ContextoShard.CATALOGO;
+        Integer anterior = ContextoShard.definir(shard);
+        try {
+            return chamada.proceed();
+        } finally {
+            ContextoShard.restaurar(anterior);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package app.config;
 
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +15,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -24,6 +26,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import app.dto.Pagina;
+import app.entities.Usuario;
 import app.repositories.UsuarioRepository;
 
 @Configuration
@@ -34,8 +38,18 @@ public class SecurityConfig {
     /* ---------- 1.  Beans de autenticação ---------- */
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();              // BCrypt
+    public PasswordEncoder passwordEncoder(@Value("${granaguru.senhas.custo-bcrypt:10}") int custo) {
+        return new BCryptPasswordEncoder(custo);         // BCrypt
+    }
+
+    // Rehash no login bem-sucedido quando o hash gravado tem custo menor que o configurado
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService(UsuarioRepository repo) {
+        return (user, novaSenha) -> {
+            repo.atualizarSenha(user.getUsername(), novaSenha);
+            ((Usuario) user).setSenha(novaSenha);
+            return user;
+        };
     }
 
     @Bean
@@ -48,10 +62,12 @@ public class SecurityConfig {
     @Bean
     public DaoAuthenticationProvider authenticationProvider(
             UserDetailsService userDetailsService,
+            UserDetailsPasswordService userDetailsPasswordService,
             PasswordEncoder passwordEncoder) {
 
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
@@ -68,6 +84,7 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
             JwtAuthenticationFilter jwtAuthFilter,
+            LimiteRequisicoesFilter limiteRequisicoesFilter,
             DaoAuthenticationProvider authenticationProvider) throws Exception {
 
         http.csrf(csrf -> csrf.disable())
@@ -77,6 +94,7 @@ public class SecurityConfig {
                     .anyRequest().authenticated())
             .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(limiteRequisicoesFilter, JwtAuthenticationFilter.class)
             .sessionManagement(sess ->
                     sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
@@ -99,6 +117,7 @@ public class SecurityConfig {
                 HttpMethod.POST.name(),
                 HttpMethod.PUT.name(),
                 HttpMethod.DELETE.name()));
+        cfg.setExposedHeaders(Arrays.asList(Pagina.CABECALHO_PROXIMO_CURSOR));
         cfg.setMaxAge(3600L);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,122 @@
+package app.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Dados dos usuários divididos entre vários bancos MySQL (shards), com todas
+ * as linhas de um usuário no mesmo banco. O banco de {@code spring.datasource}
+ * é o catálogo e também o shard 0; os demais vêm de {@code granaguru.shards.urls}.
+ *
+ * - O catálogo guarda os dados globais: usuários (login, e-mail único, versão
+ *   de segurança), tags e o diretório ({@link DiretorioShards}). Os serviços
+ *   desses dados rodam nele ({@link NoCatalogo}).
+ * - Cada requisição autenticada vai ao shard do usuário do token; tarefas em
+ *   segundo plano passam por todos ({@link DiretorioShards#emCadaShard}).
+ *   Enquanto o usuário é movido, as requisições dele recebem 503
+ *   ({@link MovimentacaoShardsFilter}).
+ * - Todos os bancos têm o esquema inteiro (as migrações rodam em cada um). Um
+ *   shard guarda a cópia da linha de {@code usuarios} de quem mora nele e das
+ *   tags que as transações dele usam, para as chaves estrangeiras e junções
+ *   continuarem valendo; as cópias são atualizadas pelo {@code ShardService}.
+ *
+ * Não combina com as réplicas de leitura (ver {@link ReplicasConfig}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "granaguru.shards.habilitado", havingValue = "true")
+public class ShardsConfig {
+
+    // 🔹 Mesmo pool que o Spring Boot criaria, com as propriedades spring.datasource.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource catalogo(DataSourceProperties propriedades) {
+        HikariDataSource catalogo = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        catalogo.setPoolName("shard-0");
+        return catalogo;
+    }
+
+    @Bean(destroyMethod = "close")
+    public DiretorioShards diretorioShards(HikariDataSource catalogo, DataSourceProperties propriedades,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${granaguru.replicas.habilitado:false}") boolean replicas,
+            @Value("${granaguru.shards.urls}") List<String> urls,
+            @Value("${granaguru.shards.usuario:${spring.datasource.username:}}") String usuario,
+            @Value("${granaguru.shards.senha:${spring.datasource.password:}}") String senha,
+            @Value("${granaguru.shards.tamanho-pool:10}") int tamanhoPool,
+            @Value("${granaguru.shards.novos-usuarios:}") List<Integer> novosUsuarios,
+            @Value("${granaguru.shards.diretorio-ttl:PT30S}") Duration ttl) {
+        if (replicas) {
+            throw new IllegalStateException("granaguru.shards e granaguru.replicas não podem ser habilitados juntos.");
+        }
+        List<DataSource> bancos = new ArrayList<>();
+        bancos.add(catalogo);
+        for (String url : urls) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + bancos.size());
+            shard.setJdbcUrl(url.trim());
+            shard.setUsername(usuario);
+            shard.setPassword(senha);
+            shard.setDriverClassName(propriedades.determineDriverClassName());
+            shard.setMaximumPoolSize(tamanhoPool);
+            meterRegistry.ifAvailable(shard::setMetricRegistry);
+            bancos.add(shard);
+        }
+        // 🔹 Sem lista, os usuários novos se espalham por todos os shards
+        List<Integer> abertos = novosUsuarios.isEmpty() ? IntStream.range(0, bancos.size()).boxed().toList()
+                : novosUsuarios;
+        return new DiretorioShards(bancos, abertos, ttl);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DiretorioShards diretorioShards) {
+        return new ShardsDataSource(diretorioShards);
+    }
+
+    @Bean
+    public RoteamentoShardsAspect roteamentoShardsAspect(DiretorioShards diretorioShards) {
+        return new RoteamentoShardsAspect(diretorioShards);
+    }
+
+    // 🔹 Ordem padrão (a última): roda depois do Spring Security, que define o usuário
+    @Bean
+    public FilterRegistrationBean<MovimentacaoShardsFilter> movimentacaoShardsFilter(DiretorioShards diretorioShards) {
+        return new FilterRegistrationBean<>(new MovimentacaoShardsFilter(diretorioShards));
+    }
+
+    /**
+     * Migra o catálogo e depois cada shard, com a mesma configuração do Flyway,
+     * e reserva a faixa de IDs de cada shard.
+     */
+    @Bean
+    public FlywayMigrationStrategy migrarShards(DiretorioShards diretorioShards) {
+        return flyway -> {
+            flyway.migrate();
+            for (int shard = 1; shard < diretorioShards.total(); shard++) {
+                Flyway.configure().configuration(flyway.getConfiguration())
+                        .dataSource(diretorioShards.banco(shard)).load().migrate();
+                diretorioShards.reservarFaixaIds(shard);
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package app.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Conexões do banco do shard atual (ver {@link DiretorioShards#shardAtual()}).
+ * O banco é escolhido quando a transação pega a conexão, na primeira instrução
+ * SQL, e vale até o fim dela.
+ */
+public class ShardsDataSource extends AbstractRoutingDataSource {
+
+    private final DiretorioShards diretorio;
+
+    public ShardsDataSource(DiretorioShards diretorio) {
+        this.diretorio = diretorio;
+        Map<Object, Object> bancos = new HashMap<>();
+        for (int shard = 0; shard < diretorio.total(); shard++) {
+            bancos.put(shard, diretorio.banco(shard));
+        }
+        setTargetDataSources(bancos);
+        setDefaultTargetDataSource(diretorio.banco(ContextoShard.CATALOGO));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return diretorio.shardAtual();
+    }
+}
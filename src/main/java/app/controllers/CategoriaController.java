@@ -18,11 +18,12 @@ public class CategoriaController {
 	private CategoriaService categoriaService;
 
 	/**
-	 * Retorna todas as categorias cadastradas.
+	 * Retorna as categorias cadastradas, paginadas por cursor.
 	 */
 	@GetMapping
-	public List<Categoria> findAll() {
-		return categoriaService.findAll();
+	public ResponseEntity<List<Categoria>> findAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamanho) {
+		return categoriaService.findAll(cursor, tamanho).comoResposta();
 	}
 
 	/**
@@ -1,14 +1,18 @@
 package app.controllers;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import app.dto.SaldoDTO;
 import app.entities.Conta;
 import app.services.ContaService;
+import app.services.SaldoContaService;
 
 @RestController
 @RequestMapping("/contas")
@@ -18,13 +22,17 @@ public class ContaController {
 	@Autowired
 	private ContaService contaService;
 
+	@Autowired
+	private SaldoContaService saldoContaService;
+
 	/**
-	 * Retorna todas as contas cadastradas.
+	 * Retorna as contas cadastradas, paginadas por cursor.
 	 */
 	
 	@GetMapping
-	public List<Conta> findAll() {
-		return contaService.findAll();
+	public ResponseEntity<List<Conta>> findAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamanho) {
+		return contaService.findAll(cursor, tamanho).comoResposta();
 	}
 
 	/**
@@ -37,6 +45,17 @@ public class ContaController {
 		return ResponseEntity.ok(conta);
 	}
 
+	/**
+	 * Saldo atual da conta ou, com o parâmetro {@code data}, o saldo naquele
+	 * instante.
+	 */
+
+	@GetMapping("/{id}/saldo")
+	public ResponseEntity<SaldoDTO> saldo(@PathVariable Long id,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime data) {
+		return ResponseEntity.ok(saldoContaService.consultar(id, data));
+	}
+
 	/**
 	 * Retorna as contas de um usuário específico pelo ID do usuário.
 	 */
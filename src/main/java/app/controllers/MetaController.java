@@ -19,11 +19,12 @@ public class MetaController {
     private MetaService metaService;
 
     /**
-     * Retorna todas as metas cadastradas.
+     * Retorna as metas cadastradas, paginadas por cursor.
      */
     @GetMapping
-    public List<Meta> listAll() {
-        return metaService.listAll();
+    public ResponseEntity<List<Meta>> listAll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return metaService.listAll(cursor, tamanho).comoResposta();
     }
 
     /**
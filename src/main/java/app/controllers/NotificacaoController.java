@@ -18,11 +18,12 @@ public class NotificacaoController {
 	private NotificacaoService notificacaoService;
 
 	/**
-	 * Retorna todas as notificações cadastradas.
+	 * Retorna as notificações cadastradas, paginadas por cursor.
 	 */
 	@GetMapping
-	public List<Notificacao> findAll() {
-		return notificacaoService.findAll();
+	public ResponseEntity<List<Notificacao>> findAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamanho) {
+		return notificacaoService.findAll(cursor, tamanho).comoResposta();
 	}
 
 	/**
@@ -35,11 +36,13 @@ public class NotificacaoController {
 	}
 
 	/**
-	 * Retorna as notificações de um usuário específico pelo ID do usuário.
+	 * Retorna as notificações de um usuário específico pelo ID do usuário,
+	 * paginadas por cursor.
 	 */
 	@GetMapping("/usuario/{usuarioId}")
-	public List<Notificacao> findByUsuarioId(@PathVariable Long usuarioId) {
-		return notificacaoService.findByUsuarioId(usuarioId);
+	public ResponseEntity<List<Notificacao>> findByUsuarioId(@PathVariable Long usuarioId,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho) {
+		return notificacaoService.findByUsuarioId(usuarioId, cursor, tamanho).comoResposta();
 	}
 
 	/**
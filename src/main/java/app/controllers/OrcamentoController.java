@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.util.List;
 
+import app.dto.StatusOrcamentoDTO;
 import app.entities.Orcamento;
 import app.services.OrcamentoService;
 
@@ -17,11 +18,12 @@ public class OrcamentoController {
 	private OrcamentoService orcamentoService;
 
 	/**
-	 * Retorna todos os orçamentos cadastrados.
+	 * Retorna os orçamentos cadastrados, paginados por cursor.
 	 */
 	@GetMapping
-	public List<Orcamento> findAll() {
-		return orcamentoService.findAll();
+	public ResponseEntity<List<Orcamento>> findAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamanho) {
+		return orcamentoService.findAll(cursor, tamanho).comoResposta();
 	}
 
 	/**
@@ -41,6 +43,15 @@ public class OrcamentoController {
 		return orcamentoService.findByUsuarioId(usuarioId);
 	}
 
+	/**
+	 * Retorna os orçamentos de um usuário com o consumo e o percentual do limite
+	 * no período atual de cada um.
+	 */
+	@GetMapping("/usuario/{usuarioId}/status")
+	public List<StatusOrcamentoDTO> statusPorUsuario(@PathVariable Long usuarioId) {
+		return orcamentoService.statusPorUsuario(usuarioId);
+	}
+
 	/**
 	 * Cria um novo orçamento.
 	 */
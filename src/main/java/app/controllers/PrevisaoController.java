@@ -0,0 +1,39 @@
+package app.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import app.dto.PrevisaoSaldoDTO;
+import app.enums.GranularidadePrevisao;
+import app.services.PrevisaoSaldoService;
+
+@RestController
+@RequestMapping("/previsoes")
+@CrossOrigin(origins = "http://localhost:4200")
+public class PrevisaoController {
+
+	@Autowired
+	private PrevisaoSaldoService previsaoSaldoService;
+
+	/**
+	 * Saldo projetado das contas de um usuário para os próximos meses (12 por
+	 * padrão), considerando as transações recorrentes vigentes.
+	 */
+	@GetMapping("/usuario/{usuarioId}")
+	public ResponseEntity<PrevisaoSaldoDTO> preverPorUsuario(@PathVariable Long usuarioId,
+			@RequestParam(required = false) Integer meses,
+			@RequestParam(defaultValue = "MENSAL") GranularidadePrevisao granularidade) {
+		return ResponseEntity.ok(previsaoSaldoService.preverPorUsuario(usuarioId, meses, granularidade));
+	}
+
+	/**
+	 * Saldo projetado de uma única conta.
+	 */
+	@GetMapping("/conta/{contaId}")
+	public ResponseEntity<PrevisaoSaldoDTO> preverPorConta(@PathVariable Long contaId,
+			@RequestParam(required = false) Integer meses,
+			@RequestParam(defaultValue = "MENSAL") GranularidadePrevisao granularidade) {
+		return ResponseEntity.ok(previsaoSaldoService.preverPorConta(contaId, meses, granularidade));
+	}
+}
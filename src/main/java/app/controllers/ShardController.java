@@ -0,0 +1,44 @@
+package app.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import app.dto.ResultadoMovimentacaoDTO;
+import app.services.ShardService;
+
+/**
+ * Administração dos shards (ver ShardService). Só existe com
+ * {@code granaguru.shards.habilitado=true}.
+ */
+@RestController
+@RequestMapping("/admin/shards")
+@CrossOrigin(origins = "http://localhost:4200")
+@ConditionalOnProperty(name = "granaguru.shards.habilitado", havingValue = "true")
+public class ShardController {
+
+    @Autowired
+    private ShardService shardService;
+
+    /**
+     * Shard em que estão os dados do usuário (0 é o catálogo)
+     */
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/usuarios/{id}")
+    public ResponseEntity<Integer> shardDoUsuario(@PathVariable Long id) {
+        return ResponseEntity.ok(shardService.shardDe(id));
+    }
+
+    /**
+     * Move os dados do usuário para outro shard. Os tokens dele são revogados e
+     * as requisições dele recebem 503 até o fim; se falhar, chamar de novo com o
+     * mesmo destino retoma. Retorna quantas linhas de cada tabela foram movidas.
+     */
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/usuarios/{id}/mover")
+    public ResponseEntity<ResultadoMovimentacaoDTO> mover(@PathVariable Long id, @RequestParam int destino) {
+        return ResponseEntity.ok(shardService.mover(id, destino));
+    }
+}
@@ -19,12 +19,13 @@ public class TagController {
     private TagService tagService;
 
     /**
-     * Lista todas as tags
+     * Lista as tags, paginadas por cursor
      */
     @PreAuthorize("hasAuthority('USER')")
     @GetMapping
-    public List<Tag> findAll() {
-        return tagService.findAll();
+    public ResponseEntity<List<Tag>> findAll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return tagService.findAll(cursor, tamanho).comoResposta();
     }
 
     /**
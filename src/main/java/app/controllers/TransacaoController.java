@@ -1,14 +1,40 @@
 package app.controllers;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import app.dto.Pagina;
+import app.dto.ResultadoImportacaoDTO;
+import app.dto.ResultadoLoteDTO;
+import app.dto.TransacaoDTO;
+import app.dto.TransacaoFiltro;
 import app.entities.Transacao;
+import app.enums.FormatoExtrato;
 import app.enums.Periodicidade;
 import app.enums.TipoTransacao;
+import app.exceptions.FormatoExportacaoInvalidoException;
+import app.services.EscritorCsvTransacoes;
+import app.services.ImportacaoExtratoService;
+import app.services.TransacaoLoteService;
 import app.services.TransacaoService;
 import jakarta.validation.Valid;
 
@@ -17,22 +43,40 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "http://localhost:4200")
 public class TransacaoController {
 
+    private static final int TAMANHO_BUFFER_GZIP = 64 * 1024;
+
     @Autowired
     private TransacaoService transacaoService;
 
+    @Autowired
+    private TransacaoLoteService transacaoLoteService;
+
+    @Autowired
+    private ImportacaoExtratoService importacaoExtratoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Lista as transações da mais recente para a mais antiga, paginadas por cursor.
+     * O cursor da próxima página vem no cabeçalho X-Next-Cursor.
+     */
     @GetMapping
-    public List<Transacao> findAll() {
-        return transacaoService.findAll();
+    public ResponseEntity<List<TransacaoDTO>> findAll(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer tamanho) {
+        return transacaoService.findAll(cursor, tamanho).comoResposta();
     }
 
+    /**
+     * Busca transações por qualquer combinação de filtros (tipo, categoria, conta, usuário,
+     * período, faixa de valor, tags, descrição e origem recorrente), com ordenação e limite
+     * aplicados no banco. Ex.: /transacoes/filtro?usuarioId=1&dataInicio=2025-01-01&tagIds=2,3
+     */
     @GetMapping("/filtro")
-    public ResponseEntity<List<Transacao>> buscarComFiltros(
-            @RequestParam(required = false) String tipo,
-            @RequestParam(required = false) Long categoriaId,
-            @RequestParam(required = false) Long contaId,
-            @RequestParam(required = false) Long usuarioId
-    ) {
-        List<Transacao> transacoes = transacaoService.buscarComFiltros(tipo, categoriaId, contaId, usuarioId);
+    public ResponseEntity<List<TransacaoDTO>> buscarComFiltros(TransacaoFiltro filtro) {
+        List<TransacaoDTO> transacoes = filtro.getUsuarioId() != null
+                ? transacaoService.buscarComFiltrosDoUsuario(filtro.getUsuarioId(), filtro)
+                : transacaoService.buscarComFiltros(filtro);
         return transacoes.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(transacoes);
     }
 
@@ -43,43 +87,110 @@ public class TransacaoController {
     }
 
     @GetMapping("/conta/{contaId}")
-    public ResponseEntity<List<Transacao>> findByContaId(@PathVariable Long contaId) {
-        List<Transacao> transacoes = transacaoService.findByContaId(contaId);
-        return ResponseEntity.ok(transacoes);
+    public ResponseEntity<List<TransacaoDTO>> findByContaId(@PathVariable Long contaId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer tamanho) {
+        return transacaoService.findByContaId(contaId, cursor, tamanho).comoResposta();
     }
 
     @GetMapping("/categoria/{categoriaId}")
-    public ResponseEntity<List<Transacao>> findByCategoriaId(@PathVariable Long categoriaId) {
-        List<Transacao> transacoes = transacaoService.findByCategoriaId(categoriaId);
-        return ResponseEntity.ok(transacoes);
+    public ResponseEntity<List<TransacaoDTO>> findByCategoriaId(@PathVariable Long categoriaId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer tamanho) {
+        return transacaoService.findByCategoriaId(categoriaId, cursor, tamanho).comoResposta();
     }
 
     @GetMapping("/usuario/{usuarioId}/tipo/{tipo}")
-    public ResponseEntity<List<Transacao>> findByUsuarioAndTipo(@PathVariable Long usuarioId,
-                                                                 @PathVariable TipoTransacao tipo) {
-        List<Transacao> transacoes = transacaoService.findByUsuarioAndTipo(usuarioId, tipo);
-        return ResponseEntity.ok(transacoes);
+    public ResponseEntity<List<TransacaoDTO>> findByUsuarioAndTipo(@PathVariable Long usuarioId,
+                                                                 @PathVariable TipoTransacao tipo,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer tamanho) {
+        return transacaoService.findByUsuarioAndTipo(usuarioId, tipo, cursor, tamanho).comoResposta();
     }
 
     /**
      * Retorna todas as transações filtradas por periodicidade (DIÁRIA, SEMANAL ou MENSAL)
      */
     @GetMapping("/periodicidade/{periodicidade}")
-    public ResponseEntity<List<Transacao>> findByPeriodicidade(@PathVariable Periodicidade periodicidade) {
-        List<Transacao> transacoes = transacaoService.findByPeriodicidade(periodicidade);
-        return transacoes.isEmpty()
+    public ResponseEntity<List<TransacaoDTO>> findByPeriodicidade(@PathVariable Periodicidade periodicidade,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer tamanho) {
+        Pagina<TransacaoDTO> pagina = transacaoService.findByPeriodicidade(periodicidade, cursor, tamanho);
+        return pagina.getItens().isEmpty()
                 ? ResponseEntity.noContent().build()
-                : ResponseEntity.ok(transacoes);
+                : pagina.comoResposta();
     }
 
     /**
      * Retorna todas as transações de um usuário filtradas por periodicidade
      */
     @GetMapping("/usuario/{usuarioId}/periodicidade/{periodicidade}")
-    public ResponseEntity<List<Transacao>> findByUsuarioAndPeriodicidade(@PathVariable Long usuarioId,
-                                                                          @PathVariable Periodicidade periodicidade) {
-        List<Transacao> transacoes = transacaoService.findByUsuarioAndPeriodicidade(usuarioId, periodicidade);
-        return ResponseEntity.ok(transacoes);
+    public ResponseEntity<List<TransacaoDTO>> findByUsuarioAndPeriodicidade(@PathVariable Long usuarioId,
+                                                                          @PathVariable Periodicidade periodicidade,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer tamanho) {
+        return transacaoService.findByUsuarioAndPeriodicidade(usuarioId, periodicidade, cursor, tamanho)
+                .comoResposta();
+    }
+
+    /**
+     * Exporta todo o histórico de um usuário em NDJSON (uma transação por linha).
+     * Cada linha é escrita no socket assim que sai do banco, sem montar a lista
+     * inteira em memória.
+     */
+    @GetMapping(value = "/usuario/{usuarioId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByUsuarioId(@PathVariable Long usuarioId) {
+        transacaoService.verificarUsuario(usuarioId);
+        ObjectWriter escritor = objectMapper.writerFor(TransacaoDTO.class);
+        StreamingResponseBody corpo = saida -> {
+            OutputStream buffer = new BufferedOutputStream(saida);
+            transacaoService.transmitirHistorico(usuarioId, linha -> {
+                try {
+                    buffer.write(escritor.writeValueAsBytes(linha));
+                    buffer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    /**
+     * Exporta todo o histórico de um usuário em CSV, da transação mais recente
+     * para a mais antiga. Com gzip=true, o arquivo sai compactado (.csv.gz). As
+     * linhas vêm do banco por um cursor e são escritas na resposta à medida que
+     * chegam, então a memória usada não depende do tamanho do histórico.
+     * Ex.: /transacoes/export?usuarioId=1&formato=csv&gzip=true
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam Long usuarioId,
+                                                          @RequestParam(defaultValue = "csv") String formato,
+                                                          @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!formato.equalsIgnoreCase("csv")) {
+            throw new FormatoExportacaoInvalidoException("Formato de exportação não suportado: " + formato + ". Use csv.");
+        }
+        transacaoService.verificarUsuario(usuarioId);
+        StreamingResponseBody corpo = saida -> {
+            // 🔹 Compactação mais rápida: o gargalo deve ser a rede, não a CPU
+            OutputStream destino = gzip ? new GZIPOutputStream(saida, TAMANHO_BUFFER_GZIP) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            } : saida;
+            EscritorCsvTransacoes csv = new EscritorCsvTransacoes(destino);
+            transacaoService.exportarHistorico(usuarioId, csv::escrever);
+            csv.terminar();
+            if (destino instanceof GZIPOutputStream compactado) {
+                compactado.finish();
+            }
+        };
+        String arquivo = "transacoes-usuario-" + usuarioId + (gzip ? ".csv.gz" : ".csv");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+                .body(corpo);
     }
 
     /**
@@ -91,6 +202,33 @@ public class TransacaoController {
         return ResponseEntity.ok(nova);
     }
 
+    /**
+     * Cria várias transações de uma vez (até granaguru.lote.maximo-transacoes).
+     * Transações inválidas são recusadas uma a uma, sem impedir as demais; a
+     * resposta traz o ID ou o erro de cada transação, na ordem enviada.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDTO> saveAll(@RequestBody List<Transacao> transacoes) {
+        return ResponseEntity.ok(transacaoLoteService.importar(transacoes));
+    }
+
+    /**
+     * Importa um extrato bancário (CSV com cabeçalho ou OFX) para a conta, com
+     * os lançamentos na categoria informada. Lançamentos que já foram importados
+     * na conta são ignorados, então o mesmo extrato pode ser reenviado.
+     * Ex.: curl -F arquivo=@extrato.ofx "/transacoes/importacao?contaId=1&categoriaId=2&formato=OFX"
+     */
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResultadoImportacaoDTO> importarExtrato(@RequestParam Long contaId,
+                                                                  @RequestParam Long categoriaId,
+                                                                  @RequestParam FormatoExtrato formato,
+                                                                  @RequestParam(defaultValue = "UTF-8") String codificacao,
+                                                                  @RequestParam MultipartFile arquivo) throws IOException {
+        try (InputStream entrada = arquivo.getInputStream()) {
+            return ResponseEntity.ok(importacaoExtratoService.importar(contaId, categoriaId, formato, entrada, codificacao));
+        }
+    }
+
     /**
      * Atualiza uma transação existente pelo ID.
      */
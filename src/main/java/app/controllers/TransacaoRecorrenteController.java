@@ -19,11 +19,12 @@ public class TransacaoRecorrenteController {
 	private TransacaoRecorrenteService transacaoRecorrenteService;
 
 	/**
-	 * Retorna todas as transações recorrentes cadastradas.
+	 * Retorna as transações recorrentes cadastradas, paginadas por cursor.
 	 */
 	@GetMapping
-	public List<TransacaoRecorrente> findAll() {
-		return transacaoRecorrenteService.findAll();
+	public ResponseEntity<List<TransacaoRecorrente>> findAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamanho) {
+		return transacaoRecorrenteService.findAll(cursor, tamanho).comoResposta();
 	}
 
 	/**
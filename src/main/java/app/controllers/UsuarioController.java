@@ -33,14 +33,15 @@ public class UsuarioController {
 
 	@PreAuthorize("hasRole('ADMIN')")
 	@GetMapping
-	public List<Usuario> listAll() {
-		return usuarioService.listAll();
+	public ResponseEntity<List<Usuario>> listAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamanho) {
+		return usuarioService.listAll(cursor, tamanho).comoResposta();
 	}
 
 	@PreAuthorize("hasAuthority('ADMIN')")
 	@GetMapping("/{id}")
 	public ResponseEntity<Usuario> findById(@PathVariable Long id) {
-		Usuario usuario = usuarioService.findById(id);
+		Usuario usuario = usuarioService.findComMetasById(id);
 		return ResponseEntity.ok(usuario);
 	}
 
@@ -0,0 +1,100 @@
+package app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import app.exceptions.CursorInvalidoException;
+
+/**
+ * Posição de leitura usada na paginação por cursor (keyset). O cliente recebe
+ * apenas uma string opaca; internamente ela guarda a chave de ordenação do
+ * último item entregue, usada como predicado de busca da próxima página.
+ */
+public final class Cursor {
+
+	// 🔹 Ponto de partida das listagens ordenadas de forma decrescente
+	public static final LocalDateTime DATA_MAXIMA = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+	private static final String SEPARADOR = "|";
+
+	private final LocalDateTime data;
+	private final long id;
+
+	private Cursor(LocalDateTime data, long id) {
+		this.data = data;
+		this.id = id;
+	}
+
+	public LocalDateTime getData() {
+		return data;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Primeira posição de uma listagem ordenada por (data DESC, id DESC).
+	 */
+	public static Cursor inicioDecrescente() {
+		return new Cursor(DATA_MAXIMA, Long.MAX_VALUE);
+	}
+
+	public static String codificar(Long id) {
+		return base64(String.valueOf(id));
+	}
+
+	public static String codificar(LocalDateTime data, Long id) {
+		return base64(data + SEPARADOR + id);
+	}
+
+	/**
+	 * Decodifica um cursor gerado por {@link #codificar(Long)}. Quando o cursor
+	 * não é informado, devolve o valor inicial recebido.
+	 */
+	public static long decodificarId(String cursor, long inicio) {
+		if (cursor == null || cursor.isBlank()) {
+			return inicio;
+		}
+		try {
+			return Long.parseLong(texto(cursor));
+		} catch (NumberFormatException e) {
+			throw new CursorInvalidoException(cursor);
+		}
+	}
+
+	/**
+	 * Decodifica um cursor gerado por {@link #codificar(LocalDateTime, Long)}.
+	 * Sem cursor, a leitura começa pelo registro mais recente.
+	 */
+	public static Cursor decodificarDataEId(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return inicioDecrescente();
+		}
+		String valor = texto(cursor);
+		int separador = valor.lastIndexOf(SEPARADOR);
+		if (separador < 0) {
+			throw new CursorInvalidoException(cursor);
+		}
+		try {
+			return new Cursor(LocalDateTime.parse(valor.substring(0, separador)),
+					Long.parseLong(valor.substring(separador + 1)));
+		} catch (DateTimeParseException | NumberFormatException e) {
+			throw new CursorInvalidoException(cursor);
+		}
+	}
+
+	private static String base64(String valor) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String texto(String cursor) {
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new CursorInvalidoException(cursor);
+		}
+	}
+}
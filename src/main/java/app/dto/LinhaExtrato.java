@@ -0,0 +1,26 @@
+package app.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Um lançamento lido de um extrato bancário. O valor vem com sinal (negativo é
+ * saída). {@code numero} localiza o lançamento no arquivo (a linha do CSV ou a
+ * posição no OFX) e {@code erro}, quando preenchido, diz por que ele não pôde
+ * ser lido; nesse caso os demais campos podem estar vazios.
+ */
+@Getter
+@AllArgsConstructor
+public class LinhaExtrato {
+	private int numero;
+	private LocalDate data;
+	private Double valor;
+	private String descricao;
+	private String erro;
+
+	public static LinhaExtrato invalida(int numero, String erro) {
+		return new LinhaExtrato(numero, null, null, null, erro);
+	}
+}
@@ -0,0 +1,36 @@
+package app.dto;
+
+import java.time.LocalDateTime;
+
+import app.enums.TipoTransacao;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Efeito de uma transação nos agregados (saldo da conta e gastos por
+ * categoria): usuário, conta, categoria, data e valor.
+ */
+@Getter
+@AllArgsConstructor
+public class MovimentoTransacao {
+	private Long usuarioId;
+	private Long contaId;
+	private Long categoriaId;
+	private LocalDateTime dataTransacao;
+	private TipoTransacao tipo;
+	private Double valor;
+
+	public double valorComSinal() {
+		return valorComSinal(tipo, valor);
+	}
+
+	/**
+	 * Entradas somam e saídas subtraem do saldo.
+	 */
+	public static double valorComSinal(TipoTransacao tipo, Double valor) {
+		if (valor == null) {
+			return 0.0;
+		}
+		return tipo == TipoTransacao.ENTRADA ? valor : -valor;
+	}
+}
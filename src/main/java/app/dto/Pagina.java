@@ -0,0 +1,67 @@
+package app.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+
+import lombok.Getter;
+
+/**
+ * Uma página de resultados de uma listagem paginada por cursor. O corpo da
+ * resposta continua sendo a lista de itens; o cursor da próxima página vai no
+ * cabeçalho {@value #CABECALHO_PROXIMO_CURSOR} (ausente na última página).
+ */
+@Getter
+public class Pagina<T> {
+
+	public static final int TAMANHO_PADRAO = 50;
+	public static final int TAMANHO_MAXIMO = 500;
+	public static final String CABECALHO_PROXIMO_CURSOR = "X-Next-Cursor";
+
+	private final List<T> itens;
+	private final String proximoCursor;
+
+	public Pagina(List<T> itens, String proximoCursor) {
+		this.itens = itens;
+		this.proximoCursor = proximoCursor;
+	}
+
+	/**
+	 * Normaliza o tamanho de página pedido pelo cliente.
+	 */
+	public static int tamanho(Integer solicitado) {
+		if (solicitado == null || solicitado <= 0) {
+			return TAMANHO_PADRAO;
+		}
+		return Math.min(solicitado, TAMANHO_MAXIMO);
+	}
+
+	/**
+	 * Limite da consulta: busca um registro a mais que o tamanho da página para
+	 * saber se existe uma próxima página sem precisar de COUNT.
+	 */
+	public static Limit limiteConsulta(int tamanho) {
+		return Limit.of(tamanho + 1);
+	}
+
+	/**
+	 * Monta a página a partir das linhas lidas com {@link #limiteConsulta(int)}.
+	 */
+	public static <T> Pagina<T> de(List<T> linhas, int tamanho, Function<T, String> cursorDoItem) {
+		if (linhas.size() <= tamanho) {
+			return new Pagina<>(linhas, null);
+		}
+		List<T> itens = linhas.subList(0, tamanho);
+		return new Pagina<>(itens, cursorDoItem.apply(itens.get(tamanho - 1)));
+	}
+
+	public ResponseEntity<List<T>> comoResposta() {
+		ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+		if (proximoCursor != null) {
+			resposta.header(CABECALHO_PROXIMO_CURSOR, proximoCursor);
+		}
+		return resposta.body(itens);
+	}
+}
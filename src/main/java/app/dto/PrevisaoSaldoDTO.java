@@ -0,0 +1,21 @@
+package app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import app.enums.GranularidadePrevisao;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Previsão de saldo: para cada data da série (fim de cada dia ou de cada mês),
+ * o saldo projetado de cada conta e o total somado de todas elas.
+ */
+@Getter
+@AllArgsConstructor
+public class PrevisaoSaldoDTO {
+	private GranularidadePrevisao granularidade;
+	private List<LocalDate> datas;
+	private double[] total;
+	private List<SerieSaldoConta> contas;
+}
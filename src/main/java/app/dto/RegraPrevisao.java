@@ -0,0 +1,25 @@
+package app.dto;
+
+import java.time.LocalDateTime;
+
+import app.enums.Periodicidade;
+import app.enums.TipoTransacao;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Campos de uma transação recorrente necessários para projetar suas ocorrências
+ * futuras, lidos sem carregar a entidade e suas associações.
+ */
+@Getter
+@AllArgsConstructor
+public class RegraPrevisao {
+	private Long contaId;
+	private TipoTransacao tipo;
+	private Double valor;
+	private Periodicidade periodicidade;
+	private LocalDateTime dataInicial;
+	private LocalDateTime dataFinal;
+	private Integer totalParcelas;
+	private boolean despesaFixa;
+}
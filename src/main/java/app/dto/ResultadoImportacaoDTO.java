@@ -0,0 +1,21 @@
+package app.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado da importação de um extrato: quantos lançamentos foram lidos,
+ * gravados, ignorados por já existirem na conta e recusados, com o motivo das
+ * recusas (limitado às primeiras).
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoImportacaoDTO {
+	private int lidas;
+	private int importadas;
+	private int duplicadas;
+	private int recusadas;
+	private List<String> erros;
+}
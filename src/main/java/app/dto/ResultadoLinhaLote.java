@@ -0,0 +1,16 @@
+package app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de uma transação de um lote: o ID gravado ou o motivo da recusa.
+ * {@code indice} é a posição da transação no lote enviado.
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoLinhaLote {
+	private int indice;
+	private Long id;
+	private String erro;
+}
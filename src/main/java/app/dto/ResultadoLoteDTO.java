@@ -0,0 +1,19 @@
+package app.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de um lote de transações, com uma linha por transação enviada, na
+ * mesma ordem.
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+	private int recebidas;
+	private int inseridas;
+	private int recusadas;
+	private List<ResultadoLinhaLote> linhas;
+}
@@ -0,0 +1,19 @@
+package app.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado da movimentação de um usuário entre shards: de onde, para onde e
+ * quantas linhas foram copiadas de cada tabela.
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoMovimentacaoDTO {
+	private Long usuarioId;
+	private int origem;
+	private int destino;
+	private Map<String, Integer> linhas;
+}
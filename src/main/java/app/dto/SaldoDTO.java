@@ -0,0 +1,17 @@
+package app.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Saldo de uma conta em uma data (ou o saldo atual, quando a data é nula).
+ */
+@Getter
+@AllArgsConstructor
+public class SaldoDTO {
+	private Long contaId;
+	private LocalDateTime data;
+	private double saldo;
+}
@@ -0,0 +1,16 @@
+package app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Saldo projetado de uma conta em cada data de {@link PrevisaoSaldoDTO#getDatas()}.
+ */
+@Getter
+@AllArgsConstructor
+public class SerieSaldoConta {
+	private Long contaId;
+	private String nomeConta;
+	private double saldoAtual;
+	private double[] saldos;
+}
@@ -0,0 +1,23 @@
+package app.dto;
+
+import java.time.LocalDate;
+
+import app.enums.PeriodoOrcamento;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Consumo de um orçamento no intervalo atual do seu período.
+ */
+@Getter
+@AllArgsConstructor
+public class StatusOrcamentoDTO {
+	private Long orcamentoId;
+	private Long categoriaId;
+	private String nomeCategoria;
+	private PeriodoOrcamento periodo;
+	private LocalDate inicioPeriodo;
+	private double valorLimite;
+	private double consumido;
+	private double percentual;
+}
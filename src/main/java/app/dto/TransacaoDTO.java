@@ -1,8 +1,15 @@
 package app.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
+import app.entities.Transacao;
 import app.enums.TipoTransacao;
 
+/**
+ * Linha plana de uma transação (ids e nomes, sem o grafo de entidades), usada
+ * nas listagens e no histórico em streaming.
+ */
 public class TransacaoDTO {
     private Long id;
     private Long usuarioId;
@@ -17,6 +24,59 @@ public class TransacaoDTO {
     private Double valor;
     private String formaPagamento;
     private Integer parcelaAtual;
+    private Long transacaoRecorrenteId;
+    private List<Long> tagIds; // preenchido nas listagens; ausente no streaming
+
+    public TransacaoDTO() {
+    }
+
+    /**
+     * Usado pelas consultas com expressão de construtor (SELECT new ...), que
+     * montam a linha direto do resultado, sem carregar a entidade.
+     */
+    public TransacaoDTO(Long id, Long usuarioId, String usuarioNome, Long contaId, String contaNome,
+            Long categoriaId, String categoriaNome, LocalDateTime dataTransacao, TipoTransacao tipo,
+            String descricao, Double valor, String formaPagamento, Integer parcelaAtual,
+            Long transacaoRecorrenteId) {
+        this.id = id;
+        this.usuarioId = usuarioId;
+        this.usuarioNome = usuarioNome;
+        this.contaId = contaId;
+        this.contaNome = contaNome;
+        this.categoriaId = categoriaId;
+        this.categoriaNome = categoriaNome;
+        this.dataTransacao = dataTransacao;
+        this.tipo = tipo;
+        this.descricao = descricao;
+        this.valor = valor;
+        this.formaPagamento = formaPagamento;
+        this.parcelaAtual = parcelaAtual;
+        this.transacaoRecorrenteId = transacaoRecorrenteId;
+    }
+
+    /**
+     * Converte a entidade em uma linha plana, sem coleções, para serialização.
+     */
+    public static TransacaoDTO de(Transacao transacao) {
+        TransacaoDTO dto = new TransacaoDTO();
+        dto.setId(transacao.getId());
+        dto.setUsuarioId(transacao.getUsuario().getId());
+        dto.setUsuarioNome(transacao.getUsuario().getNome());
+        dto.setContaId(transacao.getConta().getId());
+        dto.setContaNome(transacao.getConta().getNomeConta());
+        dto.setCategoriaId(transacao.getCategoria().getId());
+        dto.setCategoriaNome(transacao.getCategoria().getNomeCategoria());
+        dto.setDataTransacao(transacao.getDataTransacao());
+        dto.setTipo(transacao.getTipo());
+        dto.setDescricao(transacao.getDescricao());
+        dto.setValor(transacao.getValor());
+        dto.setFormaPagamento(transacao.getFormaPagamento());
+        dto.setParcelaAtual(transacao.getParcelaAtual());
+        if (transacao.getTransacaoRecorrente() != null) {
+            dto.setTransacaoRecorrenteId(transacao.getTransacaoRecorrente().getId());
+        }
+        return dto;
+    }
 
     // getters e setters
     public Long getId() { return id; }
@@ -45,4 +105,8 @@ public class TransacaoDTO {
     public void setFormaPagamento(String formaPagamento) { this.formaPagamento = formaPagamento; }
     public Integer getParcelaAtual() { return parcelaAtual; }
     public void setParcelaAtual(Integer parcelaAtual) { this.parcelaAtual = parcelaAtual; }
+    public Long getTransacaoRecorrenteId() { return transacaoRecorrenteId; }
+    public void setTransacaoRecorrenteId(Long transacaoRecorrenteId) { this.transacaoRecorrenteId = transacaoRecorrenteId; }
+    public List<Long> getTagIds() { return tagIds; }
+    public void setTagIds(List<Long> tagIds) { this.tagIds = tagIds; }
 }
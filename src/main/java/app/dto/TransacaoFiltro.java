@@ -0,0 +1,57 @@
+package app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Critérios aceitos pelo endpoint /transacoes/filtro. Todos os campos são
+ * opcionais; os informados são combinados com AND em uma única consulta.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransacaoFiltro {
+
+	public static final int LIMITE_PADRAO = 100;
+	public static final int LIMITE_MAXIMO = 1000;
+
+	private String tipo;
+	private Long categoriaId;
+	private Long contaId;
+	private Long usuarioId;
+
+	// Intervalo de datas (inclusivo nas duas pontas)
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate dataInicio;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate dataFim;
+
+	private Double valorMinimo;
+	private Double valorMaximo;
+
+	// Retorna transações que possuem pelo menos uma das tags informadas
+	private List<Long> tagIds;
+
+	// Trecho da descrição (sem diferenciar maiúsculas/minúsculas)
+	private String descricao;
+
+	// true = somente geradas por recorrência, false = somente avulsas
+	private Boolean recorrente;
+	private Long transacaoRecorrenteId;
+
+	// dataTransacao, valor, descricao ou id
+	private String ordenarPor;
+	// ASC ou DESC
+	private String direcao;
+	private Integer limite;
+}
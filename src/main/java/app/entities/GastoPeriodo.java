@@ -0,0 +1,55 @@
+package app.entities;
+
+import java.time.LocalDate;
+
+import app.enums.PeriodoOrcamento;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Total gasto (transações de SAÍDA) por um usuário em uma categoria dentro de
+ * um intervalo de um período de orçamento, mantido a cada escrita de
+ * transação.
+ */
+@Entity
+@Table(name = "gastos_periodo", uniqueConstraints = @UniqueConstraint(name = "uk_gastos_periodo",
+		columnNames = { "usuario_id", "categoria_id", "periodo", "inicio" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GastoPeriodo {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "usuario_id", nullable = false)
+	private Long usuarioId;
+
+	@Column(name = "categoria_id", nullable = false)
+	private Long categoriaId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 10)
+	private PeriodoOrcamento periodo;
+
+	@Column(nullable = false)
+	private LocalDate inicio;
+
+	@Column(nullable = false)
+	private Double total;
+}
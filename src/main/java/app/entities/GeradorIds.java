@@ -0,0 +1,31 @@
+package app.entities;
+
+/**
+ * Geração dos IDs em blocos (hi-lo), numa tabela com um contador por entidade,
+ * no lugar do auto_increment. Com IDENTITY o Hibernate precisa executar cada
+ * INSERT na hora para saber o ID, o que desliga o envio em lote; com um bloco
+ * reservado, os INSERTs esperam o flush e saem juntos
+ * ({@code hibernate.jdbc.batch_size}).
+ *
+ * O contador guarda o primeiro ID do próximo bloco livre (otimizador
+ * {@code pooled-lo}), então mudar {@link #TAMANHO_BLOCO} entre versões não
+ * repete IDs. Linhas inseridas fora do Hibernate nessas tabelas tiram o ID do
+ * mesmo gerador (ver {@link app.repositories.AlocadorIds}).
+ *
+ * GastoPeriodo e SaldoContaMensal continuam com IDENTITY: só são gravados por
+ * SQL nativo e JDBC, que já agrupam as linhas.
+ */
+public final class GeradorIds {
+
+	public static final String TABELA = "sequencias_ids";
+	public static final String COLUNA_ENTIDADE = "entidade";
+	public static final String COLUNA_PROXIMO = "proximo_id";
+
+	/**
+	 * IDs reservados por ida à tabela de contadores.
+	 */
+	public static final int TAMANHO_BLOCO = 50;
+
+	private GeradorIds() {
+	}
+}
@@ -17,10 +17,12 @@ import lombok.*;
 public class Meta {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_metas")
+	@TableGenerator(name = "ids_metas", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+			valueColumnName = GeradorIds.COLUNA_PROXIMO, pkColumnValue = "metas", allocationSize = GeradorIds.TAMANHO_BLOCO)
 	private Long id;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "usuario_id", nullable = false)
 	@NotNull(message = "O usuário da meta é obrigatório.")
 	@JsonIgnoreProperties({ "metas" }) // Evita referência cíclica ao serializar
@@ -2,16 +2,23 @@ package app.entities;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import app.enums.TipoNotificacao;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
@@ -23,7 +30,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "notificacoes")
+@Table(name = "notificacoes", indexes = @Index(name = "idx_notificacoes_usuario", columnList = "usuario_id, id"),
+		uniqueConstraints = @UniqueConstraint(name = "uk_notificacoes_chave_alerta", columnNames = "chave_alerta"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,10 +40,12 @@ import lombok.Setter;
 public class Notificacao {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_notificacoes")
+	@TableGenerator(name = "ids_notificacoes", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+			valueColumnName = GeradorIds.COLUNA_PROXIMO, pkColumnValue = "notificacoes", allocationSize = GeradorIds.TAMANHO_BLOCO)
 	private Long id;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "usuario_id", nullable = false)
 	@NotNull(message = "O usuário da notificação é obrigatório.")
 	private Usuario usuario;
@@ -57,4 +67,11 @@ public class Notificacao {
 	private LocalDateTime dataEnvio;
 
 	private boolean lida;
+
+	// 🔹 Identifica um alerta de orçamento (orçamento, limiar e intervalo) para que
+	// ele seja enviado uma única vez; nulo nas demais notificações. Não muda em
+	// atualizações vindas da API
+	@JsonIgnore
+	@Column(name = "chave_alerta", length = 100, updatable = false)
+	private String chaveAlerta;
 }
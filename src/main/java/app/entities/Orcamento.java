@@ -4,12 +4,16 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
@@ -22,6 +26,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@NamedEntityGraph(name = Orcamento.GRAFO_DETALHES, attributeNodes = @NamedAttributeNode("categoria"))
 @Table(name = "orcamentos")
 @Getter
 @Setter
@@ -30,16 +35,20 @@ import lombok.Setter;
 @Builder
 public class Orcamento {
 
+	public static final String GRAFO_DETALHES = "Orcamento.detalhes";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_orcamentos")
+	@TableGenerator(name = "ids_orcamentos", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+			valueColumnName = GeradorIds.COLUNA_PROXIMO, pkColumnValue = "orcamentos", allocationSize = GeradorIds.TAMANHO_BLOCO)
 	private Long id;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "usuario_id", nullable = false)
 	@NotNull(message = "O usuário do orçamento é obrigatório.")
 	private Usuario usuario;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "categoria_id")
 	@NotNull(message = "A categoria do orçamento é obrigatória.")
 	private Categoria categoria;
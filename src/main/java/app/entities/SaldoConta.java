@@ -0,0 +1,33 @@
+package app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Saldo movimentado de uma conta (entradas menos saídas de todas as suas
+ * transações), mantido a cada escrita para que o saldo atual seja lido sem
+ * somar o histórico. O saldo da conta é {@code saldoInicial + saldo}.
+ */
+@Entity
+@Table(name = "saldos_conta")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaldoConta {
+
+	@Id
+	@Column(name = "conta_id")
+	private Long contaId;
+
+	@Column(nullable = false)
+	private Double saldo;
+}
@@ -0,0 +1,45 @@
+package app.entities;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Checkpoint mensal do saldo movimentado de uma conta: o valor de
+ * {@link SaldoConta#getSaldo()} ao fim do mês {@code mes} (guardado como o
+ * primeiro dia do mês).
+ */
+@Entity
+@Table(name = "saldos_conta_mensais", uniqueConstraints = @UniqueConstraint(name = "uk_saldos_conta_mes",
+		columnNames = { "conta_id", "mes" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaldoContaMensal {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "conta_id", nullable = false)
+	private Long contaId;
+
+	@Column(nullable = false)
+	private LocalDate mes;
+
+	@Column(nullable = false)
+	private Double saldoFinal;
+}
@@ -0,0 +1,37 @@
+package app.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Lease de uma tarefa em segundo plano: indica qual instância da aplicação está
+ * autorizada a executá-la e até quando.
+ */
+@Entity
+@Table(name = "tarefas_lease")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TarefaLease {
+
+	@Id
+	@Column(length = 100)
+	private String nome;
+
+	@Column(length = 200)
+	private String dono;
+
+	@Column(nullable = false)
+	private LocalDateTime expiraEm;
+}
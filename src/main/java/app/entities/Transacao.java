@@ -3,18 +3,26 @@ package app.entities;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import app.enums.TipoTransacao;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -25,7 +33,24 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "transacoes")
+// 🔹 Associações lidas junto com a transação nas listagens; as tags vêm em
+// lotes (default_batch_fetch_size) e o usuário é serializado só com o id
+@NamedEntityGraph(name = Transacao.GRAFO_DETALHES, attributeNodes = { @NamedAttributeNode("conta"),
+		@NamedAttributeNode("categoria"), @NamedAttributeNode("transacaoRecorrente") })
+// 🔹 Índices que sustentam a paginação por cursor (data_transacao, id); o
+// esquema em si é criado pelas migrações em db/migration
+@Table(name = "transacoes", indexes = {
+		@Index(name = "idx_transacoes_data", columnList = "data_transacao, id"),
+		@Index(name = "idx_transacoes_conta_data", columnList = "conta_id, data_transacao, id"),
+		@Index(name = "idx_transacoes_categoria_data", columnList = "categoria_id, data_transacao, id"),
+		@Index(name = "idx_transacoes_usuario_tipo_data", columnList = "usuario_id, tipo, data_transacao, id"),
+		@Index(name = "idx_transacoes_usuario_data", columnList = "usuario_id, data_transacao, id") },
+		uniqueConstraints = {
+				// 🔹 Uma ocorrência por recorrência e data
+				@UniqueConstraint(name = "uk_transacoes_recorrente_data",
+						columnNames = { "transacao_recorrente_id", "data_transacao" }),
+				// 🔹 Uma transação importada por linha de extrato (ver ImportacaoExtratoService)
+				@UniqueConstraint(name = "uk_transacoes_conta_impressao", columnNames = { "conta_id", "impressao_digital" }) })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,21 +58,25 @@ import lombok.Setter;
 @Builder
 public class Transacao {
 
+	public static final String GRAFO_DETALHES = "Transacao.detalhes";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_transacoes")
+	@TableGenerator(name = "ids_transacoes", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+			valueColumnName = GeradorIds.COLUNA_PROXIMO, pkColumnValue = "transacoes", allocationSize = GeradorIds.TAMANHO_BLOCO)
 	private Long id;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "usuario_id", nullable = false)
 	@NotNull(message = "O usuário é obrigatório.")
 	private Usuario usuario;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "conta_id", nullable = false)
 	@NotNull(message = "A conta é obrigatória.")
 	private Conta conta;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "categoria_id", nullable = false)
 	@NotNull(message = "A categoria é obrigatória.")
 	private Categoria categoria;
@@ -70,7 +99,12 @@ public class Transacao {
 
 	private Integer parcelaAtual; // Será null para transações únicas.
 
-	@ManyToOne
+	// Só nas transações importadas de extratos: identifica a linha do extrato
+	// para que reenviar o arquivo não duplique a transação
+	@JsonIgnore
+	private Long impressaoDigital;
+
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "transacao_recorrente_id")
 	private TransacaoRecorrente transacaoRecorrente;
 
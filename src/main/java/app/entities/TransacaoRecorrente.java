@@ -7,12 +7,17 @@ import app.enums.TipoTransacao;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -23,7 +28,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "transacoes_recorrentes")
+@NamedEntityGraph(name = TransacaoRecorrente.GRAFO_DETALHES, attributeNodes = { @NamedAttributeNode("conta"),
+		@NamedAttributeNode("categoria") })
+@Table(name = "transacoes_recorrentes", indexes = @Index(name = "idx_recorrentes_proxima_execucao", columnList = "proxima_execucao, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,21 +38,25 @@ import lombok.Setter;
 @Builder
 public class TransacaoRecorrente {
 
+	public static final String GRAFO_DETALHES = "TransacaoRecorrente.detalhes";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_transacoes_recorrentes")
+	@TableGenerator(name = "ids_transacoes_recorrentes", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+			valueColumnName = GeradorIds.COLUNA_PROXIMO, pkColumnValue = "transacoes_recorrentes", allocationSize = GeradorIds.TAMANHO_BLOCO)
 	private Long id;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "usuario_id", nullable = false)
 	@NotNull(message = "O usuário é obrigatório.")
 	private Usuario usuario;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "conta_id", nullable = false)
 	@NotNull(message = "A conta é obrigatória.")
 	private Conta conta;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "categoria_id", nullable = false)
 	@NotNull(message = "A categoria é obrigatória.")
 	private Categoria categoria;
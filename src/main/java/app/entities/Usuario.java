@@ -5,6 +5,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,8 +14,10 @@ import org.springframework.security.core.userdetails.UserDetails;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import app.config.CacheConfig;
 import app.enums.Role;
 import app.enums.StatusUsuario;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -23,6 +27,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -35,6 +40,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGIAO_USUARIOS)
 @Table(name = "usuarios")
 @Getter
 @Setter
@@ -44,7 +51,9 @@ import lombok.Setter;
 public class Usuario implements UserDetails {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_usuarios")
+	@TableGenerator(name = "ids_usuarios", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+			valueColumnName = GeradorIds.COLUNA_PROXIMO, pkColumnValue = "usuarios", allocationSize = GeradorIds.TAMANHO_BLOCO)
 	private Long id;
 
 	@NotBlank(message = "O nome do usuário não pode estar em branco.")
@@ -75,6 +84,14 @@ public class Usuario implements UserDetails {
 	@NotNull(message = "O status do usuário é obrigatório.")
 	private StatusUsuario status;
 
+	// 🔹 Incrementada a cada alteração de dados, status ou exclusão do usuário;
+	// tokens emitidos com uma versão anterior deixam de valer. Só muda pelo
+	// UsuarioRepository.incrementarVersaoSeguranca
+	@Builder.Default
+	@JsonIgnore
+	@Column(name = "versao_seguranca", nullable = false, updatable = false, columnDefinition = "INT NOT NULL DEFAULT 0")
+	private Integer versaoSeguranca = 0;
+
 	@OneToMany(mappedBy = "usuario")
 	@JsonIgnoreProperties({ "usuario" }) // Evita referência cíclica ao serializar metas
 	private List<Meta> metas;
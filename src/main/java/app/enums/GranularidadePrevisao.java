@@ -0,0 +1,6 @@
+package app.enums;
+
+public enum GranularidadePrevisao {
+    DIARIA,
+    MENSAL
+}
@@ -0,0 +1,31 @@
+package app.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Períodos de um orçamento ({@code Orcamento.periodo}). Cada período divide o
+ * calendário em intervalos identificados pela data de início.
+ */
+public enum PeriodoOrcamento {
+    DIARIO,
+    SEMANAL,
+    MENSAL,
+    ANUAL;
+
+    /**
+     * Início do intervalo que contém a data (semanas começam na segunda-feira).
+     */
+    public LocalDate inicio(LocalDate data) {
+        switch (this) {
+            case DIARIO:
+                return data;
+            case SEMANAL:
+                return data.with(DayOfWeek.MONDAY);
+            case MENSAL:
+                return data.withDayOfMonth(1);
+            default:
+                return data.withDayOfYear(1);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package app.events;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Publicado quando o gasto de um usuário em uma categoria aumenta. Carrega só
+ * a chave (usuário, categoria): quem consome lê os totais atualizados depois
+ * do commit.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@RequiredArgsConstructor
+public class GastoRegistradoEvent {
+	private final Long usuarioId;
+	private final Long categoriaId;
+}
@@ -0,0 +1,7 @@
+package app.exceptions;
+
+public class CursorInvalidoException extends RuntimeException {
+    public CursorInvalidoException(String cursor) {
+        super("Cursor de paginação inválido: " + cursor);
+    }
+}
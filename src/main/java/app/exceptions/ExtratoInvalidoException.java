@@ -0,0 +1,7 @@
+package app.exceptions;
+
+public class ExtratoInvalidoException extends RuntimeException {
+    public ExtratoInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
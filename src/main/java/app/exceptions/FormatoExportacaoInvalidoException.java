@@ -0,0 +1,7 @@
+package app.exceptions;
+
+public class FormatoExportacaoInvalidoException extends RuntimeException {
+    public FormatoExportacaoInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
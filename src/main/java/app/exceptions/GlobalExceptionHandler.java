@@ -66,6 +66,48 @@ public class GlobalExceptionHandler {
         return ex.getMessage();
     }
 
+    // === PAGINAÇÃO ===
+
+    @ExceptionHandler(CursorInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleCursorInvalidoException(CursorInvalidoException ex) {
+        return ex.getMessage();
+    }
+
+    // === LOTES E IMPORTAÇÕES ===
+
+    @ExceptionHandler(LoteInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleLoteInvalidoException(LoteInvalidoException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(ExtratoInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleExtratoInvalidoException(ExtratoInvalidoException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(FormatoExportacaoInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleFormatoExportacaoInvalidoException(FormatoExportacaoInvalidoException ex) {
+        return ex.getMessage();
+    }
+
+    // === SHARDS ===
+
+    @ExceptionHandler(MovimentacaoShardInvalidaException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleMovimentacaoShardInvalidaException(MovimentacaoShardInvalidaException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(UsuarioEmMovimentacaoException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleUsuarioEmMovimentacaoException(UsuarioEmMovimentacaoException ex) {
+        return ex.getMessage();
+    }
+
     // === VALIDATIONS (bean validation - @Valid / @Validated) ===
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -0,0 +1,7 @@
+package app.exceptions;
+
+public class LoteInvalidoException extends RuntimeException {
+    public LoteInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
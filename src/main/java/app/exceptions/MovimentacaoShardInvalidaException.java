@@ -0,0 +1,7 @@
+package app.exceptions;
+
+public class MovimentacaoShardInvalidaException extends RuntimeException {
+    public MovimentacaoShardInvalidaException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,7 @@
+package app.exceptions;
+
+public class SenhasSobrecarregadoException extends RuntimeException {
+    public SenhasSobrecarregadoException() {
+        super("Serviço de autenticação sobrecarregado. Tente novamente em instantes.");
+    }
+}
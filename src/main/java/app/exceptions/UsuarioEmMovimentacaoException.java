@@ -0,0 +1,7 @@
+package app.exceptions;
+
+public class UsuarioEmMovimentacaoException extends RuntimeException {
+    public UsuarioEmMovimentacaoException(Long usuarioId) {
+        super("Os dados do usuário " + usuarioId + " estão sendo movidos de shard. Tente novamente em instantes.");
+    }
+}
@@ -0,0 +1,29 @@
+package app.repositories;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * IDs para linhas inseridas fora do Hibernate (JDBC em lote, SQL nativo) em
+ * tabelas cujas entidades usam {@link app.entities.GeradorIds}. Saem do mesmo
+ * gerador e do mesmo bloco em memória, então não colidem com os IDs que o
+ * Hibernate reservou. Deve ser chamado dentro da transação que vai inserir.
+ */
+@Repository
+public class AlocadorIds {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public long proximo(Class<?> entidade) {
+		SharedSessionContractImplementor sessao = entityManager.unwrap(SharedSessionContractImplementor.class);
+		BeforeExecutionGenerator gerador = (BeforeExecutionGenerator) sessao.getFactory().getMappingMetamodel()
+				.getEntityDescriptor(entidade).getGenerator();
+		return ((Number) gerador.generate(sessao, null, null, EventType.INSERT)).longValue();
+	}
+}
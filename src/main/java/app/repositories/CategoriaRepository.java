@@ -1,24 +1,38 @@
 package app.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import app.config.CacheConfig;
 import app.entities.Categoria;
 import app.enums.TipoCategoria;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
+public interface CategoriaRepository extends JpaRepository<Categoria, Long>, PaginacaoPorIdRepository<Categoria> {
 
 	// 🔹 Métodos automáticos
+	// Listagens por usuário ficam no cache de consultas (ver CacheConfig)
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REGIAO_CONSULTAS_REFERENCIA) })
 	List<Categoria> findByUsuarioId(Long usuarioId);
 
 	List<Categoria> findByTipo(TipoCategoria tipo);
 
 	// 🔹 Método JPQL
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REGIAO_CONSULTAS_REFERENCIA) })
 	@Query("SELECT c FROM Categoria c WHERE c.usuario.id = :usuarioId AND c.tipo = :tipo")
 	List<Categoria> findByUsuarioAndTipo(@Param("usuarioId") Long usuarioId, @Param("tipo") TipoCategoria tipo);
+
+	// 🔹 Pares (id da categoria, id do usuário) dos ids que existem, numa consulta só
+	@Query("SELECT c.id, c.usuario.id FROM Categoria c WHERE c.id IN :ids")
+	List<Object[]> findIdsEUsuarios(@Param("ids") Collection<Long> ids);
 }
@@ -1,24 +1,38 @@
 package app.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import app.config.CacheConfig;
 import app.entities.Conta;
 import app.enums.TipoConta;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface ContaRepository extends JpaRepository<Conta, Long> {
+public interface ContaRepository extends JpaRepository<Conta, Long>, PaginacaoPorIdRepository<Conta> {
 
 	// 🔹 Métodos automáticos
+	// Listagens por usuário ficam no cache de consultas (ver CacheConfig)
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REGIAO_CONSULTAS_REFERENCIA) })
 	List<Conta> findByUsuarioId(Long usuarioId);
 
 	List<Conta> findByTipoConta(TipoConta tipoConta);
 
 	// 🔹 Método JPQL
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REGIAO_CONSULTAS_REFERENCIA) })
 	@Query("SELECT c FROM Conta c WHERE c.usuario.id = :usuarioId AND c.status = 'ATIVA'")
 	List<Conta> findAtivasPorUsuario(@Param("usuarioId") Long usuarioId);
+
+	// 🔹 Pares (id da conta, id do usuário) dos ids que existem, numa consulta só
+	@Query("SELECT c.id, c.usuario.id FROM Conta c WHERE c.id IN :ids")
+	List<Object[]> findIdsEUsuarios(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,37 @@
+package app.repositories;
+
+import java.sql.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import app.entities.GastoPeriodo;
+
+/**
+ * Inserção de gastos por período em lote via JDBC, usada na reconstrução da
+ * tabela a partir do histórico. Intervalos que já existem são ignorados.
+ */
+@Repository
+public class GastoPeriodoLoteRepository {
+
+	private static final String INSERIR = "INSERT IGNORE INTO gastos_periodo (usuario_id, categoria_id, periodo,"
+			+ " inicio, total) VALUES (?, ?, ?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	public void inserir(List<GastoPeriodo> gastos) {
+		if (gastos.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate(INSERIR, gastos, TransacaoLoteRepository.TAMANHO_LOTE, (ps, gasto) -> {
+			ps.setLong(1, gasto.getUsuarioId());
+			ps.setLong(2, gasto.getCategoriaId());
+			ps.setString(3, gasto.getPeriodo().name());
+			ps.setDate(4, Date.valueOf(gasto.getInicio()));
+			ps.setDouble(5, gasto.getTotal());
+		});
+	}
+}
@@ -0,0 +1,46 @@
+package app.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import app.entities.GastoPeriodo;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface GastoPeriodoRepository extends JpaRepository<GastoPeriodo, Long> {
+
+	// 🔹 Soma o valor ao intervalo, criando a linha se for o primeiro gasto dele.
+	// Concorrentes se serializam no lock da linha.
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "gastos_periodo"))
+	@Query(value = "INSERT INTO gastos_periodo (usuario_id, categoria_id, periodo, inicio, total)"
+			+ " VALUES (:usuarioId, :categoriaId, :periodo, :inicio, :valor)"
+			+ " ON DUPLICATE KEY UPDATE total = total + :valor", nativeQuery = true)
+	int somar(@Param("usuarioId") Long usuarioId, @Param("categoriaId") Long categoriaId,
+			@Param("periodo") String periodo, @Param("inicio") LocalDate inicio, @Param("valor") double valor);
+
+	// 🔍 Gastos do usuário nos intervalos que contêm hoje: no máximo uma linha por
+	// categoria e período
+	@Query("SELECT g FROM GastoPeriodo g WHERE g.usuarioId = :usuarioId AND ("
+			+ " (g.periodo = app.enums.PeriodoOrcamento.DIARIO AND g.inicio = :dia)"
+			+ " OR (g.periodo = app.enums.PeriodoOrcamento.SEMANAL AND g.inicio = :semana)"
+			+ " OR (g.periodo = app.enums.PeriodoOrcamento.MENSAL AND g.inicio = :mes)"
+			+ " OR (g.periodo = app.enums.PeriodoOrcamento.ANUAL AND g.inicio = :ano))")
+	List<GastoPeriodo> findAtuaisByUsuarioId(@Param("usuarioId") Long usuarioId, @Param("dia") LocalDate dia,
+			@Param("semana") LocalDate semana, @Param("mes") LocalDate mes, @Param("ano") LocalDate ano);
+
+	// 🔹 Saídas do histórico somadas por usuário, categoria e dia, para reconstruir
+	// a tabela. Cada linha: usuário, categoria, dia e total.
+	@Query("SELECT t.usuario.id, t.categoria.id, CAST(t.dataTransacao AS LocalDate), SUM(t.valor)"
+			+ " FROM Transacao t WHERE t.tipo = app.enums.TipoTransacao.SAIDA AND t.valor IS NOT NULL"
+			+ " GROUP BY t.usuario.id, t.categoria.id, CAST(t.dataTransacao AS LocalDate)")
+	List<Object[]> somarSaidasPorDia();
+}
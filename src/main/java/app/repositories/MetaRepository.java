@@ -12,7 +12,7 @@ import app.entities.Usuario;
 import app.enums.StatusMeta;
 
 @Repository
-public interface MetaRepository extends JpaRepository<Meta, Long> {
+public interface MetaRepository extends JpaRepository<Meta, Long>, PaginacaoPorIdRepository<Meta> {
 
 	// 🔹 Métodos automáticos
 	List<Meta> findByUsuarioId(Long usuarioId);
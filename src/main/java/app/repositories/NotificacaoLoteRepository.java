@@ -0,0 +1,48 @@
+package app.repositories;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import app.entities.Notificacao;
+
+/**
+ * Inserção de notificações em lote via JDBC. Notificações com uma chave de
+ * alerta já gravada são ignoradas pelo banco, então um alerta nunca é enviado
+ * duas vezes, mesmo que dois workers o avaliem ao mesmo tempo. Os IDs vêm do
+ * gerador da entidade ({@link AlocadorIds}).
+ */
+@Repository
+public class NotificacaoLoteRepository {
+
+	private static final String INSERIR = "INSERT IGNORE INTO notificacoes (id, usuario_id, titulo, mensagem, tipo,"
+			+ " data_envio, lida, chave_alerta) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private AlocadorIds alocadorIds;
+
+	public void inserir(List<Notificacao> notificacoes) {
+		if (notificacoes.isEmpty()) {
+			return;
+		}
+		for (Notificacao notificacao : notificacoes) {
+			notificacao.setId(alocadorIds.proximo(Notificacao.class));
+		}
+		jdbcTemplate.batchUpdate(INSERIR, notificacoes, TransacaoLoteRepository.TAMANHO_LOTE, (ps, notificacao) -> {
+			ps.setLong(1, notificacao.getId());
+			ps.setLong(2, notificacao.getUsuario().getId());
+			ps.setString(3, notificacao.getTitulo());
+			ps.setString(4, notificacao.getMensagem());
+			ps.setString(5, notificacao.getTipo().name());
+			ps.setTimestamp(6, Timestamp.valueOf(notificacao.getDataEnvio()));
+			ps.setBoolean(7, notificacao.isLida());
+			ps.setString(8, notificacao.getChaveAlerta());
+		});
+	}
+}
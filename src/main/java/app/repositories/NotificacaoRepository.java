@@ -1,7 +1,9 @@
 package app.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,10 +16,19 @@ import app.enums.TipoNotificacao;
 public interface NotificacaoRepository extends JpaRepository<Notificacao, Long> {
 
 	// 🔹 Métodos automáticos
-	List<Notificacao> findByUsuarioId(Long usuarioId);
-
 	List<Notificacao> findByLida(boolean lida);
 
+	// 🔹 Paginação por cursor, das notificações mais recentes para as mais antigas
+	@Query("SELECT n FROM Notificacao n WHERE n.id < :id ORDER BY n.id DESC")
+	List<Notificacao> findPaginaAntesDoId(@Param("id") Long id, Limit limite);
+
+	@Query("SELECT n FROM Notificacao n WHERE n.usuario.id = :usuarioId AND n.id < :id ORDER BY n.id DESC")
+	List<Notificacao> findPaginaByUsuarioId(@Param("usuarioId") Long usuarioId, @Param("id") Long id, Limit limite);
+
+	// 🔍 Chaves de alerta já enviadas, dentre as informadas
+	@Query("SELECT n.chaveAlerta FROM Notificacao n WHERE n.chaveAlerta IN :chaves")
+	List<String> findChavesAlertaExistentes(@Param("chaves") Collection<String> chaves);
+
 	// 🔹 Método JPQL
 	@Query("SELECT n FROM Notificacao n WHERE n.usuario.id = :usuarioId AND n.tipo = :tipo")
 	List<Notificacao> findByUsuarioAndTipo(@Param("usuarioId") Long usuarioId, @Param("tipo") TipoNotificacao tipo);
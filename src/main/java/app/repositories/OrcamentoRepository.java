@@ -1,7 +1,11 @@
 package app.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,13 +14,32 @@ import org.springframework.stereotype.Repository;
 import app.entities.Orcamento;
 
 @Repository
-public interface OrcamentoRepository extends JpaRepository<Orcamento, Long> {
+public interface OrcamentoRepository extends JpaRepository<Orcamento, Long>, PaginacaoPorIdRepository<Orcamento> {
+
+	// 🔹 Listagem e detalhe já com a categoria (Orcamento.GRAFO_DETALHES)
+	@Override
+	@EntityGraph(Orcamento.GRAFO_DETALHES)
+	@Query("SELECT e FROM #{#entityName} e WHERE e.id > :id ORDER BY e.id")
+	List<Orcamento> findPaginaAposId(@Param("id") Long id, Limit limite);
+
+	@EntityGraph(Orcamento.GRAFO_DETALHES)
+	Optional<Orcamento> findComDetalhesById(Long id);
 
 	// 🔹 Métodos automáticos
+	@EntityGraph(Orcamento.GRAFO_DETALHES)
 	List<Orcamento> findByUsuarioId(Long usuarioId);
 
 	List<Orcamento> findByCategoriaId(Long categoriaId);
 
+	// 🔍 Orçamentos do usuário já com a categoria, para o status de consumo
+	@Query("SELECT o FROM Orcamento o JOIN FETCH o.categoria WHERE o.usuario.id = :usuarioId ORDER BY o.id")
+	List<Orcamento> findComCategoriaByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+	@Query("SELECT o FROM Orcamento o JOIN FETCH o.categoria WHERE o.usuario.id = :usuarioId"
+			+ " AND o.categoria.id IN :categoriaIds ORDER BY o.id")
+	List<Orcamento> findComCategoriaByUsuarioIdAndCategoriaIds(@Param("usuarioId") Long usuarioId,
+			@Param("categoriaIds") Collection<Long> categoriaIds);
+
 	// 🔹 Método JPQL
 	@Query("SELECT o FROM Orcamento o WHERE o.usuario.id = :usuarioId AND o.valorLimite > :valor")
 	List<Orcamento> findByUsuarioAndLimiteMaiorQue(@Param("usuarioId") Long usuarioId, @Param("valor") Double valor);
@@ -0,0 +1,20 @@
+package app.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Listagem paginada por cursor usando o id como chave (WHERE id > :id ORDER BY
+ * id), sem OFFSET: qualquer página custa o mesmo que a primeira.
+ */
+@NoRepositoryBean
+public interface PaginacaoPorIdRepository<T> extends Repository<T, Long> {
+
+	@Query("SELECT e FROM #{#entityName} e WHERE e.id > :id ORDER BY e.id")
+	List<T> findPaginaAposId(@Param("id") Long id, Limit limite);
+}
@@ -0,0 +1,43 @@
+package app.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.entities.SaldoContaMensal;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface SaldoContaMensalRepository extends JpaRepository<SaldoContaMensal, Long> {
+
+	// 🔍 Checkpoint mais recente anterior ao mês informado
+	Optional<SaldoContaMensal> findFirstByContaIdAndMesLessThanOrderByMesDesc(Long contaId, LocalDate mes);
+
+	// 🔹 Uma transação com data retroativa altera todos os checkpoints a partir do
+	// mês dela
+	@Modifying
+	@Query("UPDATE SaldoContaMensal s SET s.saldoFinal = s.saldoFinal + :valor"
+			+ " WHERE s.contaId = :contaId AND s.mes >= :mes")
+	int ajustarAPartirDe(@Param("contaId") Long contaId, @Param("mes") LocalDate mes, @Param("valor") double valor);
+
+	// 🔹 Grava o checkpoint de um mês para todas as contas com saldo: o saldo atual
+	// menos o que foi movimentado depois do fim do mês. Meses já fechados são
+	// ignorados. Roda em transação própria quando chamado pelo agendamento.
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "saldos_conta_mensais"))
+	@Query(value = "INSERT IGNORE INTO saldos_conta_mensais (conta_id, mes, saldo_final)"
+			+ " SELECT s.conta_id, :mes, s.saldo - COALESCE((SELECT SUM(CASE WHEN t.tipo = 'ENTRADA'"
+			+ " THEN t.valor ELSE -t.valor END) FROM transacoes t WHERE t.conta_id = s.conta_id"
+			+ " AND t.data_transacao >= :fimDoMes), 0) FROM saldos_conta s", nativeQuery = true)
+	int fecharMes(@Param("mes") LocalDate mes, @Param("fimDoMes") LocalDateTime fimDoMes);
+}
@@ -0,0 +1,30 @@
+package app.repositories;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import app.entities.SaldoConta;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface SaldoContaRepository extends JpaRepository<SaldoConta, Long> {
+
+	// 🔹 Cria o saldo de uma conta que ainda não tem, somando o histórico uma única
+	// vez. Se outra transação criou a linha antes, não faz nada.
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "saldos_conta"))
+	@Query(value = "INSERT IGNORE INTO saldos_conta (conta_id, saldo)"
+			+ " SELECT :contaId, COALESCE(SUM(CASE WHEN t.tipo = 'ENTRADA' THEN t.valor ELSE -t.valor END), 0)"
+			+ " FROM transacoes t WHERE t.conta_id = :contaId", nativeQuery = true)
+	int inicializar(@Param("contaId") Long contaId);
+
+	// 🔹 Incremento atômico: concorrentes se serializam no lock da linha
+	@Modifying
+	@Query("UPDATE SaldoConta s SET s.saldo = s.saldo + :valor WHERE s.contaId = :contaId")
+	int somar(@Param("contaId") Long contaId, @Param("valor") double valor);
+}
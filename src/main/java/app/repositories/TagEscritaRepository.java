@@ -0,0 +1,23 @@
+package app.repositories;
+
+import java.util.Collection;
+
+import app.entities.Tag;
+
+/**
+ * Escrita em lote de tags por nome, fora do ciclo de vida das entidades.
+ */
+public interface TagEscritaRepository {
+
+	/**
+	 * Cria as tags dos nomes que ainda não existem, em um único INSERT. Nomes já
+	 * cadastrados são ignorados.
+	 */
+	void inserirAusentes(Collection<String> nomes);
+
+	/**
+	 * Grava as tags com os mesmos IDs e nomes, atualizando as que já existem.
+	 * Usado para copiar tags do catálogo para um shard (ver ShardService).
+	 */
+	void copiar(Collection<Tag> tags);
+}
@@ -0,0 +1,70 @@
+package app.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import app.entities.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Upsert das tags com um parâmetro por nome. A unicidade de {@code tags.nome}
+ * resolve a corrida entre requisições que criam a mesma tag ao mesmo tempo.
+ * Cada linha leva um ID do gerador da entidade ({@link AlocadorIds}); o de uma
+ * tag que já existia fica sem uso.
+ */
+public class TagEscritaRepositoryImpl implements TagEscritaRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private AlocadorIds alocadorIds;
+
+	@Override
+	public void inserirAusentes(Collection<String> nomes) {
+		if (nomes.isEmpty()) {
+			return;
+		}
+		List<String> valores = List.copyOf(nomes);
+		StringBuilder sql = new StringBuilder("INSERT INTO tags (id, nome) VALUES ");
+		for (int i = 0; i < valores.size(); i++) {
+			sql.append(i > 0 ? ", " : "").append("(?").append(2 * i + 1).append(", ?").append(2 * i + 2).append(')');
+		}
+		sql.append(" ON DUPLICATE KEY UPDATE nome = nome");
+
+		Query insert = entityManager.createNativeQuery(sql.toString());
+		// 🔹 Invalida só as consultas em cache que leem tags (ver CacheConfig)
+		insert.setHint(HibernateHints.HINT_NATIVE_SPACES, "tags");
+		for (int i = 0; i < valores.size(); i++) {
+			insert.setParameter(2 * i + 1, alocadorIds.proximo(Tag.class));
+			insert.setParameter(2 * i + 2, valores.get(i));
+		}
+		insert.executeUpdate();
+	}
+
+	@Override
+	public void copiar(Collection<Tag> tags) {
+		if (tags.isEmpty()) {
+			return;
+		}
+		List<Tag> valores = List.copyOf(tags);
+		StringBuilder sql = new StringBuilder("INSERT INTO tags (id, nome) VALUES ");
+		for (int i = 0; i < valores.size(); i++) {
+			sql.append(i > 0 ? ", " : "").append("(?").append(2 * i + 1).append(", ?").append(2 * i + 2).append(')');
+		}
+		sql.append(" ON DUPLICATE KEY UPDATE nome = VALUES(nome)");
+
+		Query insert = entityManager.createNativeQuery(sql.toString());
+		insert.setHint(HibernateHints.HINT_NATIVE_SPACES, "tags");
+		for (int i = 0; i < valores.size(); i++) {
+			insert.setParameter(2 * i + 1, valores.get(i).getId());
+			insert.setParameter(2 * i + 2, valores.get(i).getNome());
+		}
+		insert.executeUpdate();
+	}
+}
@@ -1,17 +1,32 @@
 package app.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import app.config.CacheConfig;
 import app.entities.Tag;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long> {
-	
+public interface TagRepository extends JpaRepository<Tag, Long>, PaginacaoPorIdRepository<Tag>, TagEscritaRepository {
+
+	// 🔹 Consulta de referência, fica no cache de consultas (ver CacheConfig)
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REGIAO_CONSULTAS_REFERENCIA) })
 	Optional<Tag> findByNome(String nome);
 
-    // Se precisar de métodos customizados, adicione aqui.
+	List<Tag> findByNomeIn(Collection<String> nomes);
+
+	// 🔍 Nome e id de todas as tags, para o dicionário do TagService
+	@Query("SELECT t.nome, t.id FROM Tag t WHERE t.nome IS NOT NULL")
+	List<Object[]> findNomesEIds();
 }
 
 
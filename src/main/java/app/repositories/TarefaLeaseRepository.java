@@ -0,0 +1,46 @@
+package app.repositories;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.entities.TarefaLease;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface TarefaLeaseRepository extends JpaRepository<TarefaLease, String> {
+
+	// 🔹 Cada operação roda em sua própria transação curta, fora da transação de
+	// quem executa a tarefa.
+
+	// 🔹 Assume (ou renova) o lease se estiver livre, expirado ou já for deste
+	// dono. O UPDATE é atômico: só uma instância consegue alterar a linha.
+	@Transactional
+	@Modifying
+	@Query("UPDATE TarefaLease l SET l.dono = :dono, l.expiraEm = :expiraEm"
+			+ " WHERE l.nome = :nome AND (l.dono IS NULL OR l.dono = :dono OR l.expiraEm < :agora)")
+	int adquirir(@Param("nome") String nome, @Param("dono") String dono, @Param("agora") LocalDateTime agora,
+			@Param("expiraEm") LocalDateTime expiraEm);
+
+	// 🔹 Cria a linha da tarefa já com o lease; falha com chave duplicada se outra
+	// instância a criou antes
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tarefas_lease"))
+	@Query(value = "INSERT INTO tarefas_lease (nome, dono, expira_em) VALUES (:nome, :dono, :expiraEm)",
+			nativeQuery = true)
+	int criar(@Param("nome") String nome, @Param("dono") String dono, @Param("expiraEm") LocalDateTime expiraEm);
+
+	// 🔹 Libera o lease, apenas se ainda pertencer a este dono
+	@Transactional
+	@Modifying
+	@Query("UPDATE TarefaLease l SET l.dono = NULL, l.expiraEm = :agora WHERE l.nome = :nome AND l.dono = :dono")
+	int liberar(@Param("nome") String nome, @Param("dono") String dono, @Param("agora") LocalDateTime agora);
+}
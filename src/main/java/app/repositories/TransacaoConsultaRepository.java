@@ -0,0 +1,18 @@
+package app.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import app.dto.TransacaoDTO;
+import app.entities.Transacao;
+
+/**
+ * Consultas dinâmicas de transações (ver {@link TransacaoSpecifications}) que
+ * devolvem a linha plana {@link TransacaoDTO} em vez da entidade.
+ */
+public interface TransacaoConsultaRepository {
+
+	List<TransacaoDTO> buscarLinhas(Specification<Transacao> especificacao, Sort ordenacao, int limite);
+}
@@ -0,0 +1,56 @@
+package app.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import app.dto.TransacaoDTO;
+import app.entities.Categoria;
+import app.entities.Conta;
+import app.entities.Transacao;
+import app.entities.TransacaoRecorrente;
+import app.entities.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Monta o mesmo SELECT de {@link TransacaoRepository#SELECT_DTO} pela Criteria
+ * API, para aplicar as {@link Specification}s do filtro com uma expressão de
+ * construtor.
+ */
+public class TransacaoConsultaRepositoryImpl implements TransacaoConsultaRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<TransacaoDTO> buscarLinhas(Specification<Transacao> especificacao, Sort ordenacao, int limite) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<TransacaoDTO> consulta = cb.createQuery(TransacaoDTO.class);
+		Root<Transacao> t = consulta.from(Transacao.class);
+		Join<Transacao, Usuario> u = t.join("usuario");
+		Join<Transacao, Conta> c = t.join("conta");
+		Join<Transacao, Categoria> cat = t.join("categoria");
+		Join<Transacao, TransacaoRecorrente> tr = t.join("transacaoRecorrente", JoinType.LEFT);
+
+		consulta.select(cb.construct(TransacaoDTO.class, t.get("id"), u.get("id"), u.get("nome"), c.get("id"),
+				c.get("nomeConta"), cat.get("id"), cat.get("nomeCategoria"), t.get("dataTransacao"), t.get("tipo"),
+				t.get("descricao"), t.get("valor"), t.get("formaPagamento"), t.get("parcelaAtual"), tr.get("id")));
+
+		Predicate filtro = especificacao.toPredicate(t, consulta, cb);
+		if (filtro != null) {
+			consulta.where(filtro);
+		}
+		consulta.orderBy(QueryUtils.toOrders(ordenacao, t, cb));
+
+		return entityManager.createQuery(consulta).setMaxResults(limite).getResultList();
+	}
+}
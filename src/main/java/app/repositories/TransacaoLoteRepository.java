@@ -0,0 +1,89 @@
+package app.repositories;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import app.entities.Tag;
+import app.entities.Transacao;
+
+/**
+ * Inserção de transações em lote via JDBC, para gerar muitas linhas de uma vez
+ * (ex.: ocorrências atrasadas de uma recorrência) sem um INSERT por ida ao
+ * banco. Participa da transação corrente do Spring. As transações inseridas
+ * recebem o ID do gerador da entidade ({@link AlocadorIds}), mas não ficam
+ * gerenciadas pelo contexto de persistência. As tags de cada transação já
+ * precisam estar gravadas (ver TagService#resolverTodas).
+ */
+@Repository
+public class TransacaoLoteRepository {
+
+	public static final int TAMANHO_LOTE = 500;
+
+	private static final String INSERIR = "INSERT INTO transacoes (id, usuario_id, conta_id, categoria_id,"
+			+ " data_transacao, tipo, descricao, valor, forma_pagamento, parcela_atual, transacao_recorrente_id,"
+			+ " impressao_digital) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String INSERIR_TAG = "INSERT INTO transacoes_tags (transacao_id, tag_id) VALUES (?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private AlocadorIds alocadorIds;
+
+	public void inserir(List<Transacao> transacoes) {
+		if (transacoes.isEmpty()) {
+			return;
+		}
+		for (Transacao transacao : transacoes) {
+			transacao.setId(alocadorIds.proximo(Transacao.class));
+		}
+		jdbcTemplate.batchUpdate(INSERIR, transacoes, TAMANHO_LOTE, (ps, transacao) -> {
+			ps.setLong(1, transacao.getId());
+			ps.setLong(2, transacao.getUsuario().getId());
+			ps.setLong(3, transacao.getConta().getId());
+			ps.setLong(4, transacao.getCategoria().getId());
+			ps.setTimestamp(5, Timestamp.valueOf(transacao.getDataTransacao()));
+			ps.setString(6, transacao.getTipo().name());
+			ps.setString(7, transacao.getDescricao());
+			ps.setDouble(8, transacao.getValor());
+			ps.setString(9, transacao.getFormaPagamento());
+			if (transacao.getParcelaAtual() != null) {
+				ps.setInt(10, transacao.getParcelaAtual());
+			} else {
+				ps.setNull(10, Types.INTEGER);
+			}
+			if (transacao.getTransacaoRecorrente() != null) {
+				ps.setLong(11, transacao.getTransacaoRecorrente().getId());
+			} else {
+				ps.setNull(11, Types.BIGINT);
+			}
+			if (transacao.getImpressaoDigital() != null) {
+				ps.setLong(12, transacao.getImpressaoDigital());
+			} else {
+				ps.setNull(12, Types.BIGINT);
+			}
+		});
+
+		List<long[]> tags = new ArrayList<>();
+		for (Transacao transacao : transacoes) {
+			if (transacao.getTag() != null) {
+				for (Tag tag : transacao.getTag()) {
+					tags.add(new long[] { transacao.getId(), tag.getId() });
+				}
+			}
+		}
+		if (!tags.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERIR_TAG, tags, TAMANHO_LOTE, (ps, par) -> {
+				ps.setLong(1, par[0]);
+				ps.setLong(2, par[1]);
+			});
+		}
+	}
+}
@@ -1,18 +1,51 @@
 package app.repositories;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import app.dto.RegraPrevisao;
 import app.entities.TransacaoRecorrente;
 
 @Repository
-public interface TransacaoRecorrenteRepository extends JpaRepository<TransacaoRecorrente, Long> {
+public interface TransacaoRecorrenteRepository extends JpaRepository<TransacaoRecorrente, Long>, PaginacaoPorIdRepository<TransacaoRecorrente> {
 
-	// 🔍 Busca transações recorrentes pendentes de execução
-	@Query("SELECT tr FROM TransacaoRecorrente tr WHERE tr.proximaExecucao <= CURRENT_TIMESTAMP")
-	List<TransacaoRecorrente> findRecorrenciasParaProcessar();
+	// 🔹 Listagem e detalhe já com conta e categoria (TransacaoRecorrente.GRAFO_DETALHES)
+	@Override
+	@EntityGraph(TransacaoRecorrente.GRAFO_DETALHES)
+	@Query("SELECT e FROM #{#entityName} e WHERE e.id > :id ORDER BY e.id")
+	List<TransacaoRecorrente> findPaginaAposId(@Param("id") Long id, Limit limite);
+
+	@EntityGraph(TransacaoRecorrente.GRAFO_DETALHES)
+	Optional<TransacaoRecorrente> findComDetalhesById(Long id);
+
+	// 🔍 IDs das transações recorrentes pendentes de execução, em lotes ordenados
+	// por id: cada lote continua a partir do último id do lote anterior
+	@Query("SELECT tr.id FROM TransacaoRecorrente tr WHERE tr.proximaExecucao <= :agora AND tr.id > :id ORDER BY tr.id")
+	List<Long> findIdsParaProcessar(@Param("agora") LocalDateTime agora, @Param("id") Long id, Limit limite);
+
+	// 🔍 Próxima execução mais antiga, usada para medir o atraso do materializador
+	@Query("SELECT MIN(tr.proximaExecucao) FROM TransacaoRecorrente tr")
+	Optional<LocalDateTime> findProximaExecucaoMaisAntiga();
+
+	// 🔍 Regras ainda vigentes, só com os campos usados na previsão de saldo
+	String REGRA_PREVISAO = "SELECT new app.dto.RegraPrevisao(tr.conta.id, tr.tipo, tr.valor, tr.periodicidade,"
+			+ " tr.dataInicial, tr.dataFinal, tr.totalParcelas, tr.despesaFixa) FROM TransacaoRecorrente tr"
+			+ " WHERE (tr.dataFinal IS NULL OR tr.dataFinal > :agora) AND ";
+
+	@Query(REGRA_PREVISAO + "tr.usuario.id = :usuarioId")
+	List<RegraPrevisao> findRegrasPrevisaoByUsuarioId(@Param("usuarioId") Long usuarioId,
+			@Param("agora") LocalDateTime agora);
+
+	@Query(REGRA_PREVISAO + "tr.conta.id = :contaId")
+	List<RegraPrevisao> findRegrasPrevisaoByContaId(@Param("contaId") Long contaId,
+			@Param("agora") LocalDateTime agora);
 
 }
@@ -1,40 +1,116 @@
 package app.repositories;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import app.dto.MovimentoTransacao;
+import app.dto.TransacaoDTO;
 import app.entities.Transacao;
 import app.entities.TransacaoRecorrente;
 import app.enums.Periodicidade;
 import app.enums.TipoTransacao;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
+public interface TransacaoRepository extends JpaRepository<Transacao, Long>, JpaSpecificationExecutor<Transacao>,
+		TransacaoConsultaRepository {
+
+	// 🔹 As listagens abaixo são paginadas por cursor (keyset): ordenam por
+	// (dataTransacao, id) decrescente e continuam a partir do último item lido,
+	// sem OFFSET. Na primeira página use Cursor.inicioDecrescente(). Devolvem a
+	// linha plana (TransacaoDTO) montada direto do resultado, sem carregar
+	// entidades no contexto de persistência.
+	String APOS_CURSOR = " (t.dataTransacao < :data OR (t.dataTransacao = :data AND t.id < :id)) ";
+	String ORDEM_CURSOR = " ORDER BY t.dataTransacao DESC, t.id DESC";
+	String SELECT_DTO = "SELECT new app.dto.TransacaoDTO(t.id, u.id, u.nome, c.id, c.nomeConta, cat.id,"
+			+ " cat.nomeCategoria, t.dataTransacao, t.tipo, t.descricao, t.valor, t.formaPagamento, t.parcelaAtual,"
+			+ " tr.id) FROM Transacao t JOIN t.usuario u JOIN t.conta c JOIN t.categoria cat"
+			+ " LEFT JOIN t.transacaoRecorrente tr";
+
+	// 🔹 Linhas trazidas do banco por ida ao servidor na leitura em streaming
+	int TAMANHO_LOTE_STREAM = 500;
+
+	// 🔹 Histórico completo de um usuário, lido aos poucos com um cursor no
+	// servidor. As associações vêm no mesmo SELECT para não disparar consultas
+	// extras enquanto o cursor está aberto. O Stream deve ser fechado e
+	// consumido dentro de uma transação.
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANHO_LOTE_STREAM),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("SELECT t FROM Transacao t JOIN FETCH t.usuario JOIN FETCH t.conta JOIN FETCH t.categoria"
+			+ " LEFT JOIN FETCH t.transacaoRecorrente WHERE t.usuario.id = :usuarioId" + ORDEM_CURSOR)
+	Stream<Transacao> streamByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+	// 🔹 O mesmo histórico já como linha plana, com os nomes de conta e categoria
+	// vindos no próprio SELECT (exportação em CSV). Nenhuma entidade entra no
+	// contexto de persistência, então a memória não cresce com o histórico. O
+	// Stream deve ser fechado e consumido dentro de uma transação.
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANHO_LOTE_STREAM),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query(SELECT_DTO + " WHERE t.usuario.id = :usuarioId" + ORDEM_CURSOR)
+	Stream<TransacaoDTO> streamDtoByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+	// 🔹 Impressões digitais das transações importadas de uma conta (ver
+	// ImportacaoExtratoService), lidas só do índice (conta_id, impressao_digital).
+	// O Stream deve ser fechado e consumido dentro de uma transação.
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANHO_LOTE_STREAM),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("SELECT t.impressaoDigital FROM Transacao t WHERE t.conta.id = :contaId AND t.impressaoDigital IS NOT NULL")
+	Stream<Long> streamImpressoesDigitaisByContaId(@Param("contaId") Long contaId);
+
+	// 🔹 Todas as transações
+	@Query(SELECT_DTO + " WHERE" + APOS_CURSOR + ORDEM_CURSOR)
+	List<TransacaoDTO> findPagina(@Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
 
 	// 🔹 Busca transações por conta específica
-	List<Transacao> findByContaId(Long contaId);
+	@Query(SELECT_DTO + " WHERE t.conta.id = :contaId AND" + APOS_CURSOR + ORDEM_CURSOR)
+	List<TransacaoDTO> findPaginaByContaId(@Param("contaId") Long contaId, @Param("data") LocalDateTime data,
+			@Param("id") Long id, Limit limite);
 
 	// 🔹 Busca transações por categoria específica
-	List<Transacao> findByCategoriaId(Long categoriaId);
+	@Query(SELECT_DTO + " WHERE t.categoria.id = :categoriaId AND" + APOS_CURSOR + ORDEM_CURSOR)
+	List<TransacaoDTO> findPaginaByCategoriaId(@Param("categoriaId") Long categoriaId,
+			@Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
 
 	// 🔹 Busca transações de um usuário filtradas por tipo (Entrada ou Saída)
-	@Query("SELECT t FROM Transacao t WHERE t.usuario.id = :usuarioId AND t.tipo = :tipo")
-	List<Transacao> findByUsuarioAndTipo(@Param("usuarioId") Long usuarioId, @Param("tipo") TipoTransacao tipo);
+	@Query(SELECT_DTO + " WHERE t.usuario.id = :usuarioId AND t.tipo = :tipo AND" + APOS_CURSOR
+			+ ORDEM_CURSOR)
+	List<TransacaoDTO> findPaginaByUsuarioAndTipo(@Param("usuarioId") Long usuarioId, @Param("tipo") TipoTransacao tipo,
+			@Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
 
 	// 🔍 Busca transações associadas a uma transação recorrente com base na
 	// periodicidade
-	@Query("SELECT t FROM Transacao t JOIN t.transacaoRecorrente tr WHERE tr.periodicidade = :periodicidade")
-	List<Transacao> findByPeriodicidade(@Param("periodicidade") Periodicidade periodicidade);
+	@Query(SELECT_DTO + " WHERE tr.periodicidade = :periodicidade AND"
+			+ APOS_CURSOR + ORDEM_CURSOR)
+	List<TransacaoDTO> findPaginaByPeriodicidade(@Param("periodicidade") Periodicidade periodicidade,
+			@Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
 
 	// 🔍 Busca transações de um usuário filtrando pela periodicidade da recorrência
-	@Query("SELECT t FROM Transacao t JOIN t.transacaoRecorrente tr WHERE t.usuario.id = :usuarioId AND tr.periodicidade = :periodicidade")
-	List<Transacao> findByUsuarioAndPeriodicidade(@Param("usuarioId") Long usuarioId,
-			@Param("periodicidade") Periodicidade periodicidade);
+	@Query(SELECT_DTO + " WHERE t.usuario.id = :usuarioId"
+			+ " AND tr.periodicidade = :periodicidade AND" + APOS_CURSOR + ORDEM_CURSOR)
+	List<TransacaoDTO> findPaginaByUsuarioAndPeriodicidade(@Param("usuarioId") Long usuarioId,
+			@Param("periodicidade") Periodicidade periodicidade, @Param("data") LocalDateTime data,
+			@Param("id") Long id, Limit limite);
+
+	// 🔍 Pares (id da transação, id da tag) de uma página de transações
+	@Query("SELECT t.id, tg.id FROM Transacao t JOIN t.tag tg WHERE t.id IN :ids")
+	List<Object[]> findTagIdsByTransacaoIds(@Param("ids") Collection<Long> ids);
+
+	// 🔍 Uma transação com as associações do grafo de detalhes
+	@EntityGraph(Transacao.GRAFO_DETALHES)
+	Optional<Transacao> findComDetalhesById(Long id);
 
 	// 🔍 Busca todas as transações associadas a uma transação recorrente específica
 	@Query("SELECT t FROM Transacao t WHERE t.transacaoRecorrente.id = :recorrenteId")
@@ -43,6 +119,35 @@ public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
 	@Query("SELECT COUNT(t) FROM Transacao t WHERE t.transacaoRecorrente.id = :recorrenteId")
 	int countByTransacaoRecorrenteId(@Param("recorrenteId") Long recorrenteId);
 
+	// 🔍 Datas já materializadas de uma transação recorrente dentro de um intervalo,
+	// para descobrir de uma só vez quais ocorrências ainda faltam gerar
+	@Query("SELECT t.dataTransacao FROM Transacao t WHERE t.transacaoRecorrente.id = :recorrenteId"
+			+ " AND t.dataTransacao BETWEEN :inicio AND :fim")
+	List<LocalDateTime> findDatasByTransacaoRecorrenteIdEntre(@Param("recorrenteId") Long recorrenteId,
+			@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+	// 🔍 Saldo das movimentações (entradas menos saídas) de uma conta, no total
+	// ou dentro de um intervalo
+	String VALOR_COM_SINAL = "CASE WHEN t.tipo = app.enums.TipoTransacao.ENTRADA THEN t.valor ELSE -t.valor END";
+
+	@Query("SELECT COALESCE(SUM(" + VALOR_COM_SINAL + "), 0) FROM Transacao t WHERE t.conta.id = :contaId")
+	Double somarPorConta(@Param("contaId") Long contaId);
+
+	@Query("SELECT COALESCE(SUM(" + VALOR_COM_SINAL + "), 0) FROM Transacao t"
+			+ " WHERE t.conta.id = :contaId AND t.dataTransacao <= :ate")
+	Double somarPorContaAte(@Param("contaId") Long contaId, @Param("ate") LocalDateTime ate);
+
+	@Query("SELECT COALESCE(SUM(" + VALOR_COM_SINAL + "), 0) FROM Transacao t"
+			+ " WHERE t.conta.id = :contaId AND t.dataTransacao >= :inicio AND t.dataTransacao <= :fim")
+	Double somarPorContaEntre(@Param("contaId") Long contaId, @Param("inicio") LocalDateTime inicio,
+			@Param("fim") LocalDateTime fim);
+
+	// 🔍 Efeito de uma transação já gravada nos agregados, para desfazê-lo ao
+	// alterar ou excluir
+	@Query("SELECT new app.dto.MovimentoTransacao(t.usuario.id, t.conta.id, t.categoria.id, t.dataTransacao,"
+			+ " t.tipo, t.valor) FROM Transacao t WHERE t.id = :id")
+	Optional<MovimentoTransacao> findMovimentoById(@Param("id") Long id);
+
 	// 🔍 Verifica se já existe uma transação gerada para a próxima execução da
 	// transação recorrente
 	boolean existsByTransacaoRecorrenteAndDataTransacao(TransacaoRecorrente transacaoRecorrente,
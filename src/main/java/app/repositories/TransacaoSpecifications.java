@@ -0,0 +1,94 @@
+package app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import app.entities.Tag;
+import app.entities.Transacao;
+import app.enums.TipoTransacao;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * Predicados reutilizáveis para montar consultas dinâmicas sobre transações.
+ * Cada método devolve uma {@link Specification} que pode ser combinada com as
+ * demais, gerando um único SELECT filtrado no banco.
+ */
+public final class TransacaoSpecifications {
+
+	private TransacaoSpecifications() {
+	}
+
+	public static Specification<Transacao> doTipo(TipoTransacao tipo) {
+		return (root, query, cb) -> cb.equal(root.get("tipo"), tipo);
+	}
+
+	public static Specification<Transacao> doUsuario(Long usuarioId) {
+		return (root, query, cb) -> cb.equal(root.get("usuario").get("id"), usuarioId);
+	}
+
+	public static Specification<Transacao> daConta(Long contaId) {
+		return (root, query, cb) -> cb.equal(root.get("conta").get("id"), contaId);
+	}
+
+	public static Specification<Transacao> daCategoria(Long categoriaId) {
+		return (root, query, cb) -> cb.equal(root.get("categoria").get("id"), categoriaId);
+	}
+
+	// 🔹 Intervalo semiaberto [inicio, fim) para aproveitar o índice por data
+	public static Specification<Transacao> dataAPartirDe(LocalDateTime inicio) {
+		return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dataTransacao"), inicio);
+	}
+
+	public static Specification<Transacao> dataAntesDe(LocalDateTime fim) {
+		return (root, query, cb) -> cb.lessThan(root.get("dataTransacao"), fim);
+	}
+
+	public static Specification<Transacao> valorMinimo(Double valor) {
+		return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("valor"), valor);
+	}
+
+	public static Specification<Transacao> valorMaximo(Double valor) {
+		return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("valor"), valor);
+	}
+
+	public static Specification<Transacao> descricaoContem(String trecho) {
+		String padrao = "%" + escaparLike(trecho.toLowerCase(Locale.ROOT)) + "%";
+		return (root, query, cb) -> cb.like(cb.lower(root.get("descricao")), padrao, '\\');
+	}
+
+	/**
+	 * Usa EXISTS em vez de JOIN para não duplicar linhas quando a transação
+	 * possui mais de uma das tags procuradas.
+	 */
+	public static Specification<Transacao> comAlgumaTag(Collection<Long> tagIds) {
+		return (root, query, cb) -> {
+			Subquery<Long> subquery = query.subquery(Long.class);
+			Join<Transacao, Tag> tag = subquery.correlate(root).join("tag");
+			subquery.select(tag.get("id")).where(tag.get("id").in(tagIds));
+			return cb.exists(subquery);
+		};
+	}
+
+	public static Specification<Transacao> geradaPorRecorrencia(boolean recorrente) {
+		return (root, query, cb) -> recorrente
+				? cb.isNotNull(root.get("transacaoRecorrente"))
+				: cb.isNull(root.get("transacaoRecorrente"));
+	}
+
+	public static Specification<Transacao> daRecorrencia(Long transacaoRecorrenteId) {
+		return (root, query, cb) -> cb.equal(root.get("transacaoRecorrente").get("id"), transacaoRecorrenteId);
+	}
+
+	// 🔹 Nenhuma linha atende (usado quando o filtro recebido é inválido)
+	public static Specification<Transacao> nenhuma() {
+		return (root, query, cb) -> cb.disjunction();
+	}
+
+	private static String escaparLike(String texto) {
+		return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
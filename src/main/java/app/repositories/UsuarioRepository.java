@@ -1,18 +1,22 @@
 package app.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import app.entities.Usuario;
 import app.enums.StatusUsuario;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, PaginacaoPorIdRepository<Usuario> {
 
 	// 🔹 Métodos automáticos
 	List<Usuario> findByNomeContainingIgnoreCase(String nome);
@@ -24,4 +28,27 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 	List<Usuario> findByStatus(@Param("status") StatusUsuario status);
 	
 	public Optional<Usuario> findByEmail(String email);
+
+	// 🔍 Detalhe do usuário já com as metas no mesmo SELECT
+	@EntityGraph(attributePaths = "metas")
+	Optional<Usuario> findComMetasById(Long id);
+
+	// 🔹 Versão de segurança do usuário (ver VersaoSegurancaService)
+	@Query("SELECT u.versaoSeguranca FROM Usuario u WHERE u.id = :id")
+	Optional<Integer> findVersaoSegurancaById(@Param("id") Long id);
+
+	@Modifying
+	@Transactional
+	@Query("UPDATE Usuario u SET u.versaoSeguranca = u.versaoSeguranca + 1 WHERE u.id = :id")
+	int incrementarVersaoSeguranca(@Param("id") Long id);
+
+	// 🔹 Rehash da senha no login (mesma senha, novo custo): não revoga tokens
+	@Modifying
+	@Transactional
+	@Query("UPDATE Usuario u SET u.senha = :senha WHERE u.email = :email")
+	int atualizarSenha(@Param("email") String email, @Param("senha") String senha);
+
+	// 🔹 Quais dos ids existem, numa consulta só (ver TransacaoLoteService)
+	@Query("SELECT u.id FROM Usuario u WHERE u.id IN :ids")
+	List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
 }
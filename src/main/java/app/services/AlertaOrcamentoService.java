@@ -0,0 +1,233 @@
+package app.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.config.AgendamentoConfig;
+import app.config.ContextoShard;
+import app.config.DiretorioShards;
+import app.dto.StatusOrcamentoDTO;
+import app.entities.Notificacao;
+import app.entities.Usuario;
+import app.enums.TipoNotificacao;
+import app.events.GastoRegistradoEvent;
+import app.repositories.NotificacaoLoteRepository;
+import app.repositories.NotificacaoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Gera notificações ALERTA_DESPESA quando o consumo de um orçamento atinge um
+ * dos limiares configurados (por padrão 80% e 100%), fora do caminho de escrita
+ * das transações.
+ *
+ * Depois do commit, cada {@link GastoRegistradoEvent} só coloca a chave
+ * (usuário, categoria) em uma fila limitada em memória; chaves que já estão na
+ * fila não entram de novo. Os workers retiram lotes da fila, leem o status dos
+ * orçamentos afetados e gravam as notificações em lote. Cada limiar dispara uma
+ * única vez por intervalo do período do orçamento (ver
+ * {@link Notificacao#getChaveAlerta()}). Com a fila cheia, o evento é
+ * descartado e o alerta sai no próximo gasto da categoria.
+ *
+ * Métricas publicadas:
+ * - granaguru.alertas.fila: chaves aguardando avaliação
+ * - granaguru.alertas.descartados: eventos descartados com a fila cheia
+ * - granaguru.alertas.enviados: notificações geradas
+ */
+@Service
+public class AlertaOrcamentoService {
+
+	private static final Logger log = LoggerFactory.getLogger(AlertaOrcamentoService.class);
+
+	@Autowired
+	private OrcamentoService orcamentoService;
+
+	@Autowired
+	private NotificacaoRepository notificacaoRepository;
+
+	@Autowired
+	private NotificacaoLoteRepository notificacaoLoteRepository;
+
+	@Autowired
+	@Qualifier(AgendamentoConfig.ALERTAS_EXECUTOR)
+	private ThreadPoolTaskExecutor executor;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired(required = false)
+	private DiretorioShards diretorioShards;
+
+	@Value("${granaguru.alertas.habilitado:true}")
+	private boolean habilitado;
+
+	@Value("${granaguru.alertas.workers:2}")
+	private int workers;
+
+	@Value("${granaguru.alertas.capacidade-fila:10000}")
+	private int capacidadeFila;
+
+	@Value("${granaguru.alertas.tamanho-lote:100}")
+	private int tamanhoLote;
+
+	@Value("${granaguru.alertas.limiares:80,100}")
+	private List<Integer> limiares;
+
+	private BlockingQueue<GastoRegistradoEvent> fila;
+	private final Set<GastoRegistradoEvent> pendentes = ConcurrentHashMap.newKeySet();
+	private volatile boolean ativo;
+	private Counter descartados;
+	private Counter enviados;
+
+	@PostConstruct
+	void iniciar() {
+		fila = new ArrayBlockingQueue<>(capacidadeFila);
+		descartados = Counter.builder("granaguru.alertas.descartados")
+				.description("Eventos de gasto descartados com a fila cheia").register(meterRegistry);
+		enviados = Counter.builder("granaguru.alertas.enviados")
+				.description("Alertas de orçamento gerados").register(meterRegistry);
+		Gauge.builder("granaguru.alertas.fila", pendentes, Set::size)
+				.description("Chaves (usuário, categoria) aguardando avaliação").register(meterRegistry);
+		if (!habilitado) {
+			return;
+		}
+		ativo = true;
+		for (int i = 0; i < workers; i++) {
+			executor.execute(this::trabalhar);
+		}
+	}
+
+	@PreDestroy
+	void parar() {
+		ativo = false;
+	}
+
+	/**
+	 * Enfileira a chave do gasto depois do commit. Não bloqueia: se a chave já
+	 * está pendente ou a fila está cheia, retorna na hora.
+	 */
+	@TransactionalEventListener
+	public void aoRegistrarGasto(GastoRegistradoEvent evento) {
+		if (!ativo || !pendentes.add(evento)) {
+			return;
+		}
+		if (!fila.offer(evento)) {
+			pendentes.remove(evento);
+			descartados.increment();
+		}
+	}
+
+	private void trabalhar() {
+		List<GastoRegistradoEvent> lote = new ArrayList<>(tamanhoLote);
+		while (ativo) {
+			try {
+				GastoRegistradoEvent primeiro = fila.poll(1, TimeUnit.SECONDS);
+				if (primeiro == null) {
+					continue;
+				}
+				lote.add(primeiro);
+				fila.drainTo(lote, tamanhoLote - 1);
+				// 🔹 Sai de pendentes antes da avaliação: um gasto que chegue durante ela
+				// volta para a fila e é avaliado de novo
+				pendentes.removeAll(lote);
+				avaliarPorShard(lote);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Falha ao avaliar alertas de orçamento para {}", lote, e);
+			} finally {
+				lote.clear();
+			}
+		}
+	}
+
+	// 🔹 Os workers não têm usuário autenticado: cada shard avalia os gastos dos
+	// seus usuários. Os de quem está mudando de shard são descartados; o alerta
+	// sai no próximo gasto
+	private void avaliarPorShard(List<GastoRegistradoEvent> lote) {
+		if (diretorioShards == null) {
+			avaliar(lote);
+			return;
+		}
+		lote.stream().filter(evento -> !diretorioShards.localizar(evento.getUsuarioId()).emMovimentacao())
+				.collect(Collectors.groupingBy(evento -> diretorioShards.localizar(evento.getUsuarioId()).shard()))
+				.forEach((shard, eventos) -> ContextoShard.executar(shard, () -> avaliar(eventos)));
+	}
+
+	/**
+	 * Avalia os orçamentos das chaves do lote e grava, em um único lote, os
+	 * alertas de limiares atingidos que ainda não foram enviados. Retorna quantos
+	 * alertas foram gerados.
+	 */
+	public int avaliar(List<GastoRegistradoEvent> lote) {
+		Map<Long, Set<Long>> categoriasPorUsuario = lote.stream().collect(Collectors.groupingBy(
+				GastoRegistradoEvent::getUsuarioId,
+				Collectors.mapping(GastoRegistradoEvent::getCategoriaId, Collectors.toSet())));
+
+		Map<String, Notificacao> candidatos = new LinkedHashMap<>();
+		LocalDateTime agora = LocalDateTime.now();
+		categoriasPorUsuario.forEach((usuarioId, categoriaIds) -> {
+			for (StatusOrcamentoDTO status : orcamentoService.statusPorCategorias(usuarioId, categoriaIds)) {
+				for (Integer limiar : limiares) {
+					if (status.getPercentual() >= limiar) {
+						String chave = chave(status, limiar);
+						candidatos.put(chave, montarAlerta(usuarioId, status, limiar, chave, agora));
+					}
+				}
+			}
+		});
+		if (candidatos.isEmpty()) {
+			return 0;
+		}
+
+		// 🔹 A maior parte dos limiares atingidos já foi avisada antes
+		Set<String> enviadas = new HashSet<>(notificacaoRepository.findChavesAlertaExistentes(candidatos.keySet()));
+		List<Notificacao> novas = candidatos.entrySet().stream().filter(e -> !enviadas.contains(e.getKey()))
+				.map(Map.Entry::getValue).toList();
+		notificacaoLoteRepository.inserir(novas);
+		enviados.increment(novas.size());
+		return novas.size();
+	}
+
+	private static String chave(StatusOrcamentoDTO status, int limiar) {
+		return "orcamento:" + status.getOrcamentoId() + ":" + limiar + ":" + status.getInicioPeriodo();
+	}
+
+	private static Notificacao montarAlerta(Long usuarioId, StatusOrcamentoDTO status, int limiar, String chave,
+			LocalDateTime agora) {
+		String titulo = limiar >= 100 ? "Orçamento de " + status.getNomeCategoria() + " estourado"
+				: "Orçamento de " + status.getNomeCategoria() + " em " + limiar + "%";
+		String mensagem = String.format(Locale.forLanguageTag("pt-BR"),
+				"Você já gastou R$ %.2f de R$ %.2f (%.0f%%) no orçamento %s da categoria %s.",
+				status.getConsumido(), status.getValorLimite(), status.getPercentual(),
+				status.getPeriodo().name().toLowerCase(), status.getNomeCategoria());
+		return Notificacao.builder().usuario(Usuario.builder().id(usuarioId).build())
+				.titulo(titulo.length() > 100 ? titulo.substring(0, 100) : titulo)
+				.mensagem(mensagem.length() > 500 ? mensagem.substring(0, 500) : mensagem)
+				.tipo(TipoNotificacao.ALERTA_DESPESA).dataEnvio(agora).lida(false).chaveAlerta(chave).build();
+	}
+}
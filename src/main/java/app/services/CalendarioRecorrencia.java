@@ -0,0 +1,142 @@
+package app.services;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import app.entities.TransacaoRecorrente;
+import app.enums.Periodicidade;
+
+/**
+ * Calendário de ocorrências de uma recorrência. A ocorrência N é sempre
+ * calculada a partir da data inicial (início + (N - 1) períodos), sem percorrer
+ * as anteriores. Assim o fim de mês não "escorrega": uma recorrência mensal que
+ * começa em 31/01 cai em 28/02 (ou 29/02) e volta para 31/03.
+ *
+ * As ocorrências são numeradas a partir de 1, que é a própria data inicial.
+ */
+public final class CalendarioRecorrencia {
+
+	private final LocalDateTime inicio;
+	private final Periodicidade periodicidade;
+
+	public CalendarioRecorrencia(LocalDateTime inicio, Periodicidade periodicidade) {
+		if (inicio == null) {
+			throw new IllegalArgumentException("A transação recorrente precisa ter uma data inicial definida.");
+		}
+		if (periodicidade == null) {
+			throw new IllegalArgumentException("Periodicidade inválida: " + periodicidade);
+		}
+		this.inicio = inicio;
+		this.periodicidade = periodicidade;
+	}
+
+	public static CalendarioRecorrencia de(TransacaoRecorrente recorrente) {
+		return new CalendarioRecorrencia(recorrente.getDataInicial(), recorrente.getPeriodicidade());
+	}
+
+	/**
+	 * Data da ocorrência de número {@code n} (a primeira é 1).
+	 */
+	public LocalDateTime ocorrencia(long n) {
+		if (n < 1) {
+			throw new IllegalArgumentException("O número da ocorrência deve ser maior que zero: " + n);
+		}
+		long passos = n - 1;
+		switch (periodicidade) {
+			case DIARIA:
+				return inicio.plusDays(passos);
+			case SEMANAL:
+				return inicio.plusDays(passos * 7);
+			case MENSAL:
+				return inicio.plusMonths(passos);
+			case ANUAL:
+				return inicio.plusYears(passos);
+			default:
+				throw new IllegalArgumentException("Periodicidade inválida: " + periodicidade);
+		}
+	}
+
+	/**
+	 * Número da última ocorrência até {@code data}, inclusive (ou seja, a parcela
+	 * vigente nessa data). Retorna 0 se a data for anterior à data inicial.
+	 */
+	public long indiceDe(LocalDateTime data) {
+		if (data.isBefore(inicio)) {
+			return 0;
+		}
+		long passos;
+		switch (periodicidade) {
+			case DIARIA:
+				passos = ChronoUnit.DAYS.between(inicio, data);
+				break;
+			case SEMANAL:
+				passos = ChronoUnit.DAYS.between(inicio, data) / 7;
+				break;
+			case MENSAL:
+				passos = mesesEntre(data);
+				break;
+			case ANUAL:
+				passos = mesesEntre(data) / 12;
+				break;
+			default:
+				throw new IllegalArgumentException("Periodicidade inválida: " + periodicidade);
+		}
+		// 🔹 Meses e anos são estimados pelo calendário; se a ocorrência estimada
+		// ainda não chegou (dia ou horário posterior), a vigente é a anterior
+		if (passos > 0 && ocorrencia(passos + 1).isAfter(data)) {
+			passos--;
+		}
+		return passos + 1;
+	}
+
+	/**
+	 * Primeira ocorrência estritamente posterior a {@code data}.
+	 */
+	public LocalDateTime proximaApos(LocalDateTime data) {
+		return ocorrencia(indiceDe(data) + 1);
+	}
+
+	/**
+	 * Ocorrências dentro da janela [{@code de}, {@code ate}], em ordem. As datas
+	 * são calculadas sob demanda durante a iteração.
+	 */
+	public Iterable<LocalDateTime> ocorrenciasEntre(LocalDateTime de, LocalDateTime ate) {
+		long indice = indiceDe(de);
+		long primeira = indice == 0 || ocorrencia(indice).isBefore(de) ? indice + 1 : indice;
+		return () -> new Janela(primeira, ate);
+	}
+
+	private long mesesEntre(LocalDateTime data) {
+		return (data.getYear() - inicio.getYear()) * 12L + (data.getMonthValue() - inicio.getMonthValue());
+	}
+
+	private final class Janela implements Iterator<LocalDateTime> {
+
+		private final LocalDateTime fim;
+		private long indice;
+		private LocalDateTime proxima;
+
+		private Janela(long primeira, LocalDateTime fim) {
+			this.fim = fim;
+			this.indice = primeira;
+			this.proxima = ocorrencia(primeira);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !proxima.isAfter(fim);
+		}
+
+		@Override
+		public LocalDateTime next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			LocalDateTime atual = proxima;
+			proxima = ocorrencia(++indice);
+			return atual;
+		}
+	}
+}
@@ -5,7 +5,11 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import app.config.NoShardDoUsuario;
+import app.dto.Cursor;
+import app.dto.Pagina;
 import app.entities.Categoria;
 import app.entities.Usuario;
 import app.exceptions.CategoriaNotFoundException;
@@ -23,15 +27,21 @@ public class CategoriaService {
 	private UsuarioRepository usuarioRepository;
 
 	/**
-	 * Retorna todas as categorias cadastradas.
+	 * Retorna uma página das categorias cadastradas, em ordem de ID.
 	 */
-	public List<Categoria> findAll() {
-		return categoriaRepository.findAll();
+	@Transactional(readOnly = true)
+	public Pagina<Categoria> findAll(String cursor, Integer tamanho) {
+		int limite = Pagina.tamanho(tamanho);
+		List<Categoria> linhas = categoriaRepository.findPaginaAposId(Cursor.decodificarId(cursor, 0L),
+				Pagina.limiteConsulta(limite));
+		return Pagina.de(linhas, limite, item -> Cursor.codificar(item.getId()));
 	}
 
 	/**
 	 * Retorna as categorias de um usuário específico pelo ID do usuário.
 	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
 	public List<Categoria> findByUsuarioId(Long usuarioId) {
 		if (!usuarioRepository.existsById(usuarioId)) {
 			throw new CategoriaNotFoundException("Usuário não encontrado para o ID: " + usuarioId);
@@ -42,6 +52,7 @@ public class CategoriaService {
 	/**
 	 * Busca uma categoria pelo ID. Lança exceção se não for encontrada.
 	 */
+	@Transactional(readOnly = true)
 	public Categoria findById(Long id) {
 		return categoriaRepository.findById(id).orElseThrow(() -> new CategoriaNotFoundException(id));
 	}
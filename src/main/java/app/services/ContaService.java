@@ -5,7 +5,11 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import app.config.NoShardDoUsuario;
+import app.dto.Cursor;
+import app.dto.Pagina;
 import app.entities.Conta;
 import app.entities.Usuario;
 import app.exceptions.ContaNotFoundException;
@@ -23,15 +27,21 @@ public class ContaService {
 	private UsuarioRepository usuarioRepository;
 
 	/**
-	 * Retorna todas as contas cadastradas.
+	 * Retorna uma página das contas cadastradas, em ordem de ID.
 	 */
-	public List<Conta> findAll() {
-		return contaRepository.findAll();
+	@Transactional(readOnly = true)
+	public Pagina<Conta> findAll(String cursor, Integer tamanho) {
+		int limite = Pagina.tamanho(tamanho);
+		List<Conta> linhas = contaRepository.findPaginaAposId(Cursor.decodificarId(cursor, 0L),
+				Pagina.limiteConsulta(limite));
+		return Pagina.de(linhas, limite, item -> Cursor.codificar(item.getId()));
 	}
 
 	/**
 	 * Retorna as contas de um usuário específico pelo ID do usuário.
 	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
 	public List<Conta> findByUsuarioId(Long usuarioId) {
 		if (!usuarioRepository.existsById(usuarioId)) {
 			throw new ContaNotFoundException("Usuário não encontrado para o ID: " + usuarioId);
@@ -42,6 +52,7 @@ public class ContaService {
 	/**
 	 * Busca uma conta pelo ID. Lança exceção se não for encontrada.
 	 */
+	@Transactional(readOnly = true)
 	public Conta findById(Long id) {
 		return contaRepository.findById(id).orElseThrow(() -> new ContaNotFoundException(id));
 	}
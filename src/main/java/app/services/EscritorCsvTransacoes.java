@@ -0,0 +1,159 @@
+package app.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import app.dto.TransacaoDTO;
+import app.enums.TipoTransacao;
+
+/**
+ * Escreve transações em CSV (RFC 4180, UTF-8, separado por vírgulas). Cada
+ * linha é montada num mesmo StringBuilder, reaproveitado, e sai por um buffer
+ * de tamanho fixo, então a memória usada não depende do número de linhas.
+ *
+ * O valor sai com sinal (saídas negativas) e com ponto decimal. As colunas
+ * data, descricao e valor são as que a importação de extratos lê, então o
+ * arquivo pode ser importado de volta (ver LeitorExtratoCsv).
+ */
+public final class EscritorCsvTransacoes {
+
+	static final String CABECALHO = "id,data,tipo,valor,descricao,conta,categoria,forma_pagamento,parcela_atual,"
+			+ "transacao_recorrente_id\r\n";
+
+	private static final int TAMANHO_BUFFER = 64 * 1024;
+
+	private final Writer saida;
+	private final StringBuilder linha = new StringBuilder(256);
+	// 🔹 Cópia da linha para o Writer: append(CharSequence) criaria uma String por linha
+	private char[] caracteres = new char[256];
+
+	public EscritorCsvTransacoes(OutputStream destino) throws IOException {
+		saida = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+		saida.write(CABECALHO);
+	}
+
+	/**
+	 * Escreve uma linha. Erros de escrita (ex.: o cliente desconectou) saem como
+	 * {@link UncheckedIOException}, para uso direto como {@code Consumer}.
+	 */
+	public void escrever(TransacaoDTO transacao) {
+		linha.setLength(0);
+		numero(transacao.getId());
+		linha.append(',');
+		data(transacao.getDataTransacao());
+		linha.append(',');
+		if (transacao.getTipo() != null) {
+			linha.append(transacao.getTipo().name());
+		}
+		linha.append(',');
+		valor(transacao.getTipo(), transacao.getValor());
+		linha.append(',');
+		texto(transacao.getDescricao());
+		linha.append(',');
+		texto(transacao.getContaNome());
+		linha.append(',');
+		texto(transacao.getCategoriaNome());
+		linha.append(',');
+		texto(transacao.getFormaPagamento());
+		linha.append(',');
+		numero(transacao.getParcelaAtual());
+		linha.append(',');
+		numero(transacao.getTransacaoRecorrenteId());
+		linha.append('\r').append('\n');
+		if (caracteres.length < linha.length()) {
+			caracteres = new char[linha.capacity()];
+		}
+		linha.getChars(0, linha.length(), caracteres, 0);
+		try {
+			saida.write(caracteres, 0, linha.length());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Esvazia o buffer no destino, sem fechá-lo.
+	 */
+	public void terminar() throws IOException {
+		saida.flush();
+	}
+
+	private void numero(Number numero) {
+		if (numero != null) {
+			linha.append(numero.longValue());
+		}
+	}
+
+	// 🔹 AAAA-MM-DD HH:MM:SS montado à mão: o DateTimeFormatter aloca a cada data
+	private void data(LocalDateTime data) {
+		if (data == null) {
+			return;
+		}
+		linha.append(data.getYear()).append('-');
+		doisDigitos(data.getMonthValue());
+		linha.append('-');
+		doisDigitos(data.getDayOfMonth());
+		linha.append(' ');
+		doisDigitos(data.getHour());
+		linha.append(':');
+		doisDigitos(data.getMinute());
+		linha.append(':');
+		doisDigitos(data.getSecond());
+	}
+
+	private void doisDigitos(long numero) {
+		if (numero < 10) {
+			linha.append('0');
+		}
+		linha.append(numero);
+	}
+
+	// 🔹 Em centavos, para não passar por Double.toString (que usa notação
+	// científica em valores grandes) nem criar um BigDecimal por linha
+	private void valor(TipoTransacao tipo, Double valor) {
+		if (valor == null) {
+			return;
+		}
+		long centavos = Math.round(valor * 100);
+		if (tipo == TipoTransacao.SAIDA) {
+			centavos = -centavos;
+		}
+		if (centavos < 0) {
+			linha.append('-');
+			centavos = -centavos;
+		}
+		linha.append(centavos / 100).append('.');
+		doisDigitos(centavos % 100);
+	}
+
+	// 🔹 Entre aspas só quando o texto tem vírgula, aspas ou quebra de linha
+	private void texto(String texto) {
+		if (texto == null) {
+			return;
+		}
+		boolean aspas = false;
+		for (int i = 0; i < texto.length() && !aspas; i++) {
+			char c = texto.charAt(i);
+			aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!aspas) {
+			linha.append(texto);
+			return;
+		}
+		linha.append('"');
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if (c == '"') {
+				linha.append('"');
+			}
+			linha.append(c);
+		}
+		linha.append('"');
+	}
+}
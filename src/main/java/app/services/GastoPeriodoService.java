@@ -0,0 +1,182 @@
+package app.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.config.DiretorioShards;
+import app.entities.GastoPeriodo;
+import app.entities.Transacao;
+import app.enums.PeriodoOrcamento;
+import app.enums.TipoTransacao;
+import app.events.GastoRegistradoEvent;
+import app.repositories.GastoPeriodoLoteRepository;
+import app.repositories.GastoPeriodoRepository;
+
+/**
+ * Mantém o total gasto por usuário, categoria e intervalo de cada período de
+ * orçamento ({@link GastoPeriodo}). Cada saída soma seu valor nos intervalos
+ * diário, semanal, mensal e anual que contêm a data dela, então o consumo de um
+ * orçamento é lido em uma linha em vez de somar as transações.
+ *
+ * Os métodos de escrita devem ser chamados na mesma transação que grava ou
+ * exclui a transação. Na subida, se a tabela estiver vazia, ela é reconstruída
+ * a partir do histórico.
+ */
+@Service
+public class GastoPeriodoService {
+
+	public static final String TAREFA_RECONSTRUCAO = "reconstrucao-gastos";
+
+	private static final Logger log = LoggerFactory.getLogger(GastoPeriodoService.class);
+
+	@Autowired
+	private GastoPeriodoRepository gastoPeriodoRepository;
+
+	@Autowired
+	private GastoPeriodoLoteRepository gastoPeriodoLoteRepository;
+
+	@Autowired
+	private LeaseService leaseService;
+
+	@Autowired(required = false)
+	private DiretorioShards diretorioShards;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ApplicationEventPublisher eventos;
+
+	@Value("${granaguru.gastos.reconstrucao-habilitada:true}")
+	private boolean reconstrucaoHabilitada;
+
+	/**
+	 * Registra o efeito de uma transação nos gastos. Entradas não contam; um
+	 * valor negativo desfaz um registro anterior. Gastos novos publicam um
+	 * {@link GastoRegistradoEvent}.
+	 */
+	@Transactional
+	public void registrar(Long usuarioId, Long categoriaId, TipoTransacao tipo, LocalDateTime data, Double valor) {
+		if (tipo != TipoTransacao.SAIDA || valor == null || valor == 0.0) {
+			return;
+		}
+		LocalDate dia = data.toLocalDate();
+		for (PeriodoOrcamento periodo : PeriodoOrcamento.values()) {
+			gastoPeriodoRepository.somar(usuarioId, categoriaId, periodo.name(), periodo.inicio(dia), valor);
+		}
+		if (valor > 0) {
+			eventos.publishEvent(new GastoRegistradoEvent(usuarioId, categoriaId));
+		}
+	}
+
+	/**
+	 * Registra um lote de transações novas com uma atualização por intervalo, em
+	 * vez de quatro por transação.
+	 */
+	@Transactional
+	public void registrar(List<Transacao> transacoes) {
+		Map<Intervalo, Double> porIntervalo = new HashMap<>();
+		for (Transacao transacao : transacoes) {
+			if (transacao.getTipo() != TipoTransacao.SAIDA || transacao.getValor() == null) {
+				continue;
+			}
+			LocalDate dia = transacao.getDataTransacao().toLocalDate();
+			for (PeriodoOrcamento periodo : PeriodoOrcamento.values()) {
+				porIntervalo.merge(new Intervalo(transacao.getUsuario().getId(), transacao.getCategoria().getId(),
+						periodo, periodo.inicio(dia)), transacao.getValor(), Double::sum);
+			}
+		}
+		porIntervalo.forEach((intervalo, valor) -> gastoPeriodoRepository.somar(intervalo.usuarioId(),
+				intervalo.categoriaId(), intervalo.periodo().name(), intervalo.inicio(), valor));
+
+		// 🔹 Um evento por (usuário, categoria) do lote
+		porIntervalo.keySet().stream().map(intervalo -> new GastoRegistradoEvent(intervalo.usuarioId(),
+				intervalo.categoriaId())).distinct().forEach(eventos::publishEvent);
+	}
+
+	/**
+	 * Gastos do usuário nos intervalos que contêm a data, indexados por categoria
+	 * e período.
+	 */
+	@Transactional(readOnly = true)
+	public Map<Long, Map<PeriodoOrcamento, Double>> atuais(Long usuarioId, LocalDate hoje) {
+		Map<Long, Map<PeriodoOrcamento, Double>> gastos = new HashMap<>();
+		for (GastoPeriodo gasto : gastoPeriodoRepository.findAtuaisByUsuarioId(usuarioId, hoje,
+				PeriodoOrcamento.SEMANAL.inicio(hoje), PeriodoOrcamento.MENSAL.inicio(hoje),
+				PeriodoOrcamento.ANUAL.inicio(hoje))) {
+			gastos.computeIfAbsent(gasto.getCategoriaId(), id -> new HashMap<>()).put(gasto.getPeriodo(),
+					gasto.getTotal());
+		}
+		return gastos;
+	}
+
+	/**
+	 * Reconstrói a tabela a partir do histórico quando ela ainda está vazia (ex.:
+	 * primeira subida com transações já cadastradas). Apenas uma instância
+	 * executa, controlada por lease; com shards, em cada um deles.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void reconstruirSeVazio() {
+		if (!reconstrucaoHabilitada) {
+			return;
+		}
+		if (diretorioShards != null) {
+			diretorioShards.emCadaShard(this::reconstruirNoShardSeVazio);
+		} else {
+			reconstruirNoShardSeVazio();
+		}
+	}
+
+	private void reconstruirNoShardSeVazio() {
+		if (gastoPeriodoRepository.count() > 0
+				|| !leaseService.adquirir(TAREFA_RECONSTRUCAO, Duration.ofMinutes(10))) {
+			return;
+		}
+		try {
+			Integer intervalos = new TransactionTemplate(transactionManager)
+					.execute(status -> gastoPeriodoRepository.count() == 0 ? reconstruir() : 0);
+			log.info("Gastos por período reconstruídos: {} intervalos", intervalos);
+		} finally {
+			leaseService.liberar(TAREFA_RECONSTRUCAO);
+		}
+	}
+
+	// 🔹 Uma consulta agrupada por dia; os dias são somados em cada período em
+	// memória e gravados em lote
+	private int reconstruir() {
+		Map<Intervalo, Double> porIntervalo = new HashMap<>();
+		for (Object[] linha : gastoPeriodoRepository.somarSaidasPorDia()) {
+			LocalDate dia = (LocalDate) linha[2];
+			for (PeriodoOrcamento periodo : PeriodoOrcamento.values()) {
+				porIntervalo.merge(new Intervalo((Long) linha[0], (Long) linha[1], periodo, periodo.inicio(dia)),
+						((Number) linha[3]).doubleValue(), Double::sum);
+			}
+		}
+		List<GastoPeriodo> gastos = new ArrayList<>(porIntervalo.size());
+		porIntervalo.forEach((intervalo, total) -> gastos.add(GastoPeriodo.builder().usuarioId(intervalo.usuarioId())
+				.categoriaId(intervalo.categoriaId()).periodo(intervalo.periodo()).inicio(intervalo.inicio())
+				.total(total).build()));
+		gastoPeriodoLoteRepository.inserir(gastos);
+		return gastos.size();
+	}
+
+	private record Intervalo(Long usuarioId, Long categoriaId, PeriodoOrcamento periodo, LocalDate inicio) {
+	}
+}
@@ -0,0 +1,257 @@
+package app.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.dto.LinhaExtrato;
+import app.dto.ResultadoImportacaoDTO;
+import app.entities.Categoria;
+import app.entities.Conta;
+import app.entities.Transacao;
+import app.enums.FormatoExtrato;
+import app.enums.TipoTransacao;
+import app.exceptions.CategoriaNotFoundException;
+import app.exceptions.ContaNotFoundException;
+import app.exceptions.ExtratoInvalidoException;
+import app.repositories.CategoriaRepository;
+import app.repositories.ContaRepository;
+import app.repositories.TransacaoLoteRepository;
+import app.repositories.TransacaoRepository;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Importação de extratos bancários (CSV ou OFX) para uma conta. O arquivo é
+ * lido um lançamento por vez ({@link LeitorExtrato}) e os lançamentos novos
+ * são gravados em blocos de {@code granaguru.lote.transacoes-por-bloco}, cada
+ * um na sua própria transação do banco, como em {@link TransacaoLoteService}.
+ *
+ * Cada lançamento recebe uma impressão digital: um hash de 64 bits da data, do
+ * valor, da descrição normalizada e de quantas vezes o mesmo lançamento já
+ * apareceu no arquivo (dois cafés iguais no mesmo dia são duas transações).
+ * As impressões já gravadas na conta são carregadas uma vez, num conjunto em
+ * memória, então reenviar um extrato, ou um que se sobrepõe a outro, só grava
+ * o que falta, sem uma consulta por linha. A memória usada cresce com o número
+ * de lançamentos importados na conta (um long por lançamento), não com o
+ * tamanho do arquivo.
+ */
+@Service
+public class ImportacaoExtratoService {
+
+	private static final Logger log = LoggerFactory.getLogger(ImportacaoExtratoService.class);
+
+	private static final int TAMANHO_TEXTO = 255;
+	// 🔹 Motivos de recusa devolvidos na resposta; os demais só entram na contagem
+	private static final int MAXIMO_ERROS = 100;
+
+	private static final Pattern ACENTOS = Pattern.compile("\\p{M}");
+	private static final Pattern NAO_ALFANUMERICOS = Pattern.compile("[^A-Z0-9]+");
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	@Autowired
+	private TransacaoRepository transacaoRepository;
+
+	@Autowired
+	private TransacaoLoteRepository transacaoLoteRepository;
+
+	@Autowired
+	private SaldoContaService saldoContaService;
+
+	@Autowired
+	private GastoPeriodoService gastoPeriodoService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${granaguru.lote.transacoes-por-bloco:1000}")
+	private int transacoesPorBloco;
+
+	private TransactionTemplate transacao;
+	private TransactionTemplate leitura;
+
+	@PostConstruct
+	void iniciar() {
+		transacao = new TransactionTemplate(transactionManager);
+		leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+	}
+
+	/**
+	 * Importa o extrato para a conta informada. Os lançamentos vão para a
+	 * categoria informada, que precisa ser do mesmo usuário da conta; saídas
+	 * (valores negativos) viram transações de SAIDA e as demais de ENTRADA.
+	 */
+	public ResultadoImportacaoDTO importar(Long contaId, Long categoriaId, FormatoExtrato formato, InputStream arquivo,
+			String codificacao) {
+		Charset charset = charset(codificacao);
+		Conta conta = contaRepository.findById(contaId).orElseThrow(() -> new ContaNotFoundException(contaId));
+		Categoria categoria = categoriaRepository.findById(categoriaId)
+				.orElseThrow(() -> new CategoriaNotFoundException(categoriaId));
+		if (!categoria.getUsuario().getId().equals(conta.getUsuario().getId())) {
+			throw new ExtratoInvalidoException(
+					"A categoria " + categoriaId + " não pertence ao usuário da conta " + contaId + ".");
+		}
+
+		Set<Long> conhecidas = impressoesDigitais(contaId);
+		Map<Long, Integer> ocorrencias = new HashMap<>();
+		Importacao importacao = new Importacao();
+		List<Transacao> bloco = new ArrayList<>(transacoesPorBloco);
+		try (BufferedReader entrada = new BufferedReader(new InputStreamReader(arquivo, charset))) {
+			LeitorExtrato leitor = LeitorExtrato.de(formato, entrada);
+			for (LinhaExtrato linha = leitor.proxima(); linha != null; linha = leitor.proxima()) {
+				importacao.lidas++;
+				if (linha.getErro() != null) {
+					importacao.recusar(1, linha.getErro());
+					continue;
+				}
+				if (linha.getValor() == 0.0) {
+					importacao.recusar(1, "Lançamento de valor zero ignorado (" + posicao(formato, linha) + ").");
+					continue;
+				}
+
+				String chave = chave(linha);
+				long base = hash(chave);
+				int ocorrencia = ocorrencias.merge(base, 1, Integer::sum);
+				long impressao = ocorrencia == 1 ? base : hash(chave + "|" + ocorrencia);
+				if (!conhecidas.add(impressao)) {
+					importacao.duplicadas++;
+					continue;
+				}
+
+				bloco.add(transacao(conta, categoria, linha, impressao));
+				if (bloco.size() == transacoesPorBloco) {
+					gravar(bloco, importacao);
+					bloco = new ArrayList<>(transacoesPorBloco);
+				}
+			}
+		} catch (IOException e) {
+			throw new ExtratoInvalidoException("Não foi possível ler o arquivo: " + e.getMessage());
+		} finally {
+			// 🔹 O que já foi lido é gravado mesmo se o resto do arquivo for inválido;
+			// reenviar o arquivo corrigido não duplica essas transações
+			gravar(bloco, importacao);
+		}
+		return new ResultadoImportacaoDTO(importacao.lidas, importacao.importadas, importacao.duplicadas,
+				importacao.recusadas, importacao.erros);
+	}
+
+	private Set<Long> impressoesDigitais(Long contaId) {
+		return leitura.execute(status -> {
+			Set<Long> impressoes = new HashSet<>();
+			try (Stream<Long> lidas = transacaoRepository.streamImpressoesDigitaisByContaId(contaId)) {
+				lidas.forEach(impressoes::add);
+			}
+			return impressoes;
+		});
+	}
+
+	private void gravar(List<Transacao> bloco, Importacao importacao) {
+		if (bloco.isEmpty()) {
+			return;
+		}
+		try {
+			transacao.executeWithoutResult(status -> {
+				saldoContaService.registrar(bloco);
+				gastoPeriodoService.registrar(bloco);
+				transacaoLoteRepository.inserir(bloco);
+			});
+			importacao.importadas += bloco.size();
+		} catch (RuntimeException e) {
+			log.warn("Falha ao gravar {} lançamentos importados na conta {}", bloco.size(),
+					bloco.get(0).getConta().getId(), e);
+			importacao.recusar(bloco.size(), "Falha ao gravar " + bloco.size()
+					+ " lançamentos; envie o arquivo de novo (os já gravados serão ignorados).");
+		}
+	}
+
+	private static Transacao transacao(Conta conta, Categoria categoria, LinhaExtrato linha, long impressao) {
+		String descricao = linha.getDescricao();
+		return Transacao.builder().usuario(conta.getUsuario()).conta(conta).categoria(categoria)
+				.dataTransacao(linha.getData().atStartOfDay())
+				.tipo(linha.getValor() < 0 ? TipoTransacao.SAIDA : TipoTransacao.ENTRADA)
+				.valor(Math.abs(linha.getValor()))
+				.descricao(descricao.length() > TAMANHO_TEXTO ? descricao.substring(0, TAMANHO_TEXTO) : descricao)
+				.parcelaAtual(1).impressaoDigital(impressao).build();
+	}
+
+	/**
+	 * Data, valor em centavos e descrição normalizada (sem acentos, em
+	 * maiúsculas e só com letras e números), para que a mesma linha exportada
+	 * de novo pelo banco, com outra formatação, gere a mesma chave.
+	 */
+	static String chave(LinhaExtrato linha) {
+		String descricao = ACENTOS.matcher(Normalizer.normalize(linha.getDescricao(), Normalizer.Form.NFD))
+				.replaceAll("").toUpperCase(Locale.ROOT);
+		descricao = NAO_ALFANUMERICOS.matcher(descricao).replaceAll(" ").trim();
+		return linha.getData() + "|" + Math.round(linha.getValor() * 100) + "|" + descricao;
+	}
+
+	// 🔹 Primeiros 64 bits do SHA-256
+	static long hash(String chave) {
+		try {
+			byte[] resumo = MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(resumo).getLong();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String posicao(FormatoExtrato formato, LinhaExtrato linha) {
+		return (formato == FormatoExtrato.CSV ? "linha " : "lançamento ") + linha.getNumero();
+	}
+
+	private static Charset charset(String codificacao) {
+		try {
+			return codificacao == null ? StandardCharsets.UTF_8 : Charset.forName(codificacao);
+		} catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+			throw new ExtratoInvalidoException("Codificação desconhecida: " + codificacao);
+		}
+	}
+
+	// 🔹 Contagens de uma importação em andamento
+	private static final class Importacao {
+		private int lidas;
+		private int importadas;
+		private int duplicadas;
+		private int recusadas;
+		private final List<String> erros = new ArrayList<>();
+
+		private void recusar(int quantidade, String erro) {
+			recusadas += quantidade;
+			if (erros.size() < MAXIMO_ERROS) {
+				erros.add(erro);
+			}
+		}
+	}
+}
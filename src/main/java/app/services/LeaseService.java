@@ -0,0 +1,65 @@
+package app.services;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import app.repositories.TarefaLeaseRepository;
+
+/**
+ * Exclusão mútua entre instâncias da aplicação para tarefas em segundo plano,
+ * usando uma linha por tarefa na tabela tarefas_lease. Quem detém o lease deve
+ * renová-lo antes de expirar; se a instância cair, outra assume após a expiração.
+ */
+@Service
+public class LeaseService {
+
+	@Autowired
+	private TarefaLeaseRepository tarefaLeaseRepository;
+
+	private final String dono = identificarInstancia();
+
+	/**
+	 * Tenta adquirir ou renovar o lease da tarefa pela duração informada.
+	 * Retorna false se outra instância detém um lease ainda válido.
+	 */
+	public boolean adquirir(String tarefa, Duration duracao) {
+		LocalDateTime agora = LocalDateTime.now();
+		if (tarefaLeaseRepository.adquirir(tarefa, dono, agora, agora.plus(duracao)) == 1) {
+			return true;
+		}
+		if (tarefaLeaseRepository.existsById(tarefa)) {
+			return false;
+		}
+		// 🔹 Primeira execução da tarefa: cria a linha já com o lease
+		try {
+			return tarefaLeaseRepository.criar(tarefa, dono, agora.plus(duracao)) == 1;
+		} catch (DataIntegrityViolationException e) {
+			return false; // Outra instância criou a linha ao mesmo tempo
+		}
+	}
+
+	public void liberar(String tarefa) {
+		tarefaLeaseRepository.liberar(tarefa, dono, LocalDateTime.now());
+	}
+
+	public String getDono() {
+		return dono;
+	}
+
+	private static String identificarInstancia() {
+		String host;
+		try {
+			host = InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			host = "desconhecido";
+		}
+		return host + "-" + UUID.randomUUID();
+	}
+}
@@ -0,0 +1,75 @@
+package app.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import app.dto.LinhaExtrato;
+import app.enums.FormatoExtrato;
+import app.exceptions.ExtratoInvalidoException;
+
+/**
+ * Leitura de um extrato bancário um lançamento por vez, sem carregar o arquivo
+ * inteiro em memória. Um lançamento que não pode ser lido volta com o erro
+ * preenchido (ver {@link LinhaExtrato}) e a leitura continua; um arquivo que
+ * não é do formato informado lança {@link ExtratoInvalidoException}.
+ *
+ * Quem abre o {@link Reader} é quem o fecha.
+ */
+public abstract class LeitorExtrato {
+
+	// 🔹 Limite de um campo ou marcação: protege a memória de uma aspa sem
+	// fechamento ou de um arquivo binário enviado por engano
+	static final int TAMANHO_MAXIMO_CAMPO = 4096;
+
+	private static final Pattern ESPACOS = Pattern.compile("[\\s\\u00A0]");
+	private static final Pattern NUMERO = Pattern.compile("[+-]?\\d+(\\.\\d+)?");
+	private static final Pattern ACENTOS = Pattern.compile("\\p{M}");
+
+	protected final BufferedReader entrada;
+
+	protected LeitorExtrato(Reader entrada) {
+		this.entrada = entrada instanceof BufferedReader buffer ? buffer : new BufferedReader(entrada);
+	}
+
+	public static LeitorExtrato de(FormatoExtrato formato, Reader entrada) {
+		return formato == FormatoExtrato.OFX ? new LeitorExtratoOfx(entrada) : new LeitorExtratoCsv(entrada);
+	}
+
+	/**
+	 * Próximo lançamento do extrato, ou {@code null} no fim do arquivo.
+	 */
+	public abstract LinhaExtrato proxima() throws IOException;
+
+	/**
+	 * Valor com sinal, ou {@code null} se o texto não for um número. Aceita
+	 * "1234.56", "1.234,56", "1,234.56" e "-R$ 10,00": o último separador é o
+	 * decimal e o outro, de milhar.
+	 */
+	static Double valor(String texto) {
+		if (texto == null) {
+			return null;
+		}
+		String numero = ESPACOS.matcher(texto.replace("R$", "")).replaceAll("");
+		int virgula = numero.lastIndexOf(',');
+		int ponto = numero.lastIndexOf('.');
+		numero = virgula > ponto ? numero.replace(".", "").replace(',', '.') : numero.replace(",", "");
+		return NUMERO.matcher(numero).matches() ? Double.valueOf(numero) : null;
+	}
+
+	// 🔹 Sem acentos, em minúsculas e com os espaços em volta removidos
+	static String semAcentos(String texto) {
+		return ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+				.toLowerCase(Locale.ROOT).trim();
+	}
+
+	static void limitar(StringBuilder texto, String onde) {
+		if (texto.length() >= TAMANHO_MAXIMO_CAMPO) {
+			throw new ExtratoInvalidoException(
+					onde + ": campo com mais de " + TAMANHO_MAXIMO_CAMPO + " caracteres; o arquivo está no formato certo?");
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package app.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import app.dto.LinhaExtrato;
+import app.exceptions.ExtratoInvalidoException;
+
+/**
+ * Extrato em CSV com cabeçalho. As colunas são achadas pelo nome (data,
+ * descrição e valor, com ou sem acento, e os nomes usuais dos bancos) e o
+ * separador (ponto e vírgula, vírgula ou tabulação) pelo próprio cabeçalho.
+ * Campos entre aspas podem conter o separador, quebras de linha e aspas
+ * dobradas ("").
+ */
+final class LeitorExtratoCsv extends LeitorExtrato {
+
+	private static final Set<String> COLUNAS_DATA = Set.of("data", "date", "data lancamento", "data do lancamento",
+			"data movimento");
+	private static final Set<String> COLUNAS_DESCRICAO = Set.of("descricao", "historico", "description", "lancamento",
+			"memo");
+	private static final Set<String> COLUNAS_VALOR = Set.of("valor", "amount", "valor r$", "valor (r$)");
+
+	private static final List<DateTimeFormatter> FORMATOS_DATA = List.of(DateTimeFormatter.ISO_LOCAL_DATE,
+			DateTimeFormatter.ofPattern("d/M/uuuu").withResolverStyle(ResolverStyle.STRICT));
+
+	private char separador;
+	private int colunaData = -1;
+	private int colunaDescricao = -1;
+	private int colunaValor = -1;
+	// 🔹 Linhas do arquivo já lidas: um campo entre aspas pode ocupar várias
+	private int linhas;
+
+	LeitorExtratoCsv(Reader entrada) {
+		super(entrada);
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		if (separador == 0) {
+			lerCabecalho();
+		}
+		List<String> campos;
+		int numero;
+		do {
+			numero = linhas + 1;
+			campos = registro();
+			if (campos == null) {
+				return null;
+			}
+		} while (vazio(campos));
+
+		if (campos.size() <= Math.max(colunaData, Math.max(colunaDescricao, colunaValor))) {
+			return LinhaExtrato.invalida(numero, "Linha " + numero + ": faltam colunas.");
+		}
+		LocalDate data = data(campos.get(colunaData));
+		if (data == null) {
+			return LinhaExtrato.invalida(numero, "Linha " + numero + ": data inválida: " + campos.get(colunaData));
+		}
+		Double valor = valor(campos.get(colunaValor));
+		if (valor == null) {
+			return LinhaExtrato.invalida(numero, "Linha " + numero + ": valor inválido: " + campos.get(colunaValor));
+		}
+		String descricao = campos.get(colunaDescricao).trim();
+		if (descricao.isEmpty()) {
+			return LinhaExtrato.invalida(numero, "Linha " + numero + ": descrição vazia.");
+		}
+		return new LinhaExtrato(numero, data, valor, descricao, null);
+	}
+
+	private void lerCabecalho() throws IOException {
+		separador = detectarSeparador();
+		List<String> cabecalho;
+		do {
+			cabecalho = registro();
+			if (cabecalho == null) {
+				throw new ExtratoInvalidoException("O arquivo CSV está vazio.");
+			}
+		} while (vazio(cabecalho));
+
+		for (int i = 0; i < cabecalho.size(); i++) {
+			String nome = semAcentos(cabecalho.get(i).replace("\uFEFF", "")).replaceAll("\\s+", " ");
+			if (colunaData < 0 && COLUNAS_DATA.contains(nome)) {
+				colunaData = i;
+			} else if (colunaDescricao < 0 && COLUNAS_DESCRICAO.contains(nome)) {
+				colunaDescricao = i;
+			} else if (colunaValor < 0 && COLUNAS_VALOR.contains(nome)) {
+				colunaValor = i;
+			}
+		}
+		if (colunaData < 0 || colunaDescricao < 0 || colunaValor < 0) {
+			throw new ExtratoInvalidoException(
+					"O CSV precisa de um cabeçalho com as colunas data, descricao e valor; veio: " + String.join(" | ", cabecalho));
+		}
+	}
+
+	// 🔹 O separador que mais aparece fora de aspas na primeira linha
+	private char detectarSeparador() throws IOException {
+		entrada.mark(TAMANHO_MAXIMO_CAMPO + 1);
+		int pontoEVirgula = 0;
+		int virgula = 0;
+		int tabulacao = 0;
+		boolean aspas = false;
+		int c;
+		for (int lidos = 0; lidos < TAMANHO_MAXIMO_CAMPO && (c = entrada.read()) != -1 && c != '\n'; lidos++) {
+			if (c == '"') {
+				aspas = !aspas;
+			} else if (!aspas && c == ';') {
+				pontoEVirgula++;
+			} else if (!aspas && c == ',') {
+				virgula++;
+			} else if (!aspas && c == '\t') {
+				tabulacao++;
+			}
+		}
+		entrada.reset();
+		if (pontoEVirgula >= virgula && pontoEVirgula >= tabulacao && pontoEVirgula > 0) {
+			return ';';
+		}
+		return tabulacao > virgula ? '\t' : ',';
+	}
+
+	/**
+	 * Campos do próximo registro, ou {@code null} no fim do arquivo.
+	 */
+	private List<String> registro() throws IOException {
+		int c = entrada.read();
+		if (c == -1) {
+			return null;
+		}
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean aspas = false;
+		for (; c != -1; c = entrada.read()) {
+			if (aspas) {
+				if (c == '"') {
+					entrada.mark(1);
+					if (entrada.read() == '"') {
+						campo.append('"');
+					} else {
+						aspas = false;
+						entrada.reset();
+					}
+				} else {
+					if (c == '\n') {
+						linhas++;
+					}
+					limitar(campo, "Linha " + (linhas + 1));
+					campo.append((char) c);
+				}
+			} else if (c == '"') {
+				aspas = true;
+			} else if (c == separador) {
+				campos.add(campo.toString());
+				campo.setLength(0);
+			} else if (c == '\n') {
+				break;
+			} else if (c != '\r') {
+				limitar(campo, "Linha " + (linhas + 1));
+				campo.append((char) c);
+			}
+		}
+		linhas++;
+		campos.add(campo.toString());
+		return campos;
+	}
+
+	private static boolean vazio(List<String> campos) {
+		return campos.stream().allMatch(String::isBlank);
+	}
+
+	// 🔹 Aceita 2024-01-31 e 31/01/2024, com ou sem hora depois
+	private static LocalDate data(String texto) {
+		String data = texto.trim();
+		if (data.length() > 10) {
+			data = data.substring(0, 10);
+		}
+		for (DateTimeFormatter formato : FORMATOS_DATA) {
+			try {
+				return LocalDate.parse(data, formato);
+			} catch (DateTimeParseException e) {
+				// tenta o próximo formato
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,140 @@
+package app.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import app.dto.LinhaExtrato;
+import app.exceptions.ExtratoInvalidoException;
+
+/**
+ * Extrato em OFX, tanto o 1.x (SGML, em que os campos não têm marcação de
+ * fechamento) quanto o 2.x (XML). O arquivo é percorrido marcação a marcação
+ * e cada bloco STMTTRN vira um lançamento: data de DTPOSTED, valor de TRNAMT
+ * e descrição de NAME e MEMO. O cabeçalho e as demais marcações são ignorados.
+ */
+final class LeitorExtratoOfx extends LeitorExtrato {
+
+	private boolean ofx;
+	private int lancamentos;
+
+	// 🔹 Última marcação lida (ex.: "STMTTRN" ou "/STMTTRN") e o texto logo após ela
+	private String marcacao;
+	private String texto;
+
+	LeitorExtratoOfx(Reader entrada) {
+		super(entrada);
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		while (avancar()) {
+			if (marcacao.equals("OFX")) {
+				ofx = true;
+			} else if (marcacao.equals("STMTTRN")) {
+				return lancamento();
+			}
+		}
+		if (!ofx) {
+			throw new ExtratoInvalidoException("O arquivo não é um extrato OFX.");
+		}
+		return null;
+	}
+
+	private LinhaExtrato lancamento() throws IOException {
+		int numero = ++lancamentos;
+		String data = null;
+		String valor = null;
+		String nome = null;
+		String memo = null;
+		while (avancar() && !marcacao.equals("/STMTTRN")) {
+			switch (marcacao) {
+				case "DTPOSTED" -> data = texto;
+				case "TRNAMT" -> valor = texto;
+				case "NAME" -> nome = texto;
+				case "MEMO" -> memo = texto;
+				default -> {
+				}
+			}
+		}
+
+		LocalDate dataLancamento = data(data);
+		if (dataLancamento == null) {
+			return LinhaExtrato.invalida(numero, "Lançamento " + numero + ": data inválida: " + data);
+		}
+		Double valorLancamento = valor(valor);
+		if (valorLancamento == null) {
+			return LinhaExtrato.invalida(numero, "Lançamento " + numero + ": valor inválido: " + valor);
+		}
+		String descricao = descricao(nome, memo);
+		if (descricao.isEmpty()) {
+			return LinhaExtrato.invalida(numero, "Lançamento " + numero + ": descrição vazia.");
+		}
+		return new LinhaExtrato(numero, dataLancamento, valorLancamento, descricao, null);
+	}
+
+	/**
+	 * Lê a próxima marcação e o texto que a segue, até a marcação seguinte.
+	 * Devolve {@code false} no fim do arquivo.
+	 */
+	private boolean avancar() throws IOException {
+		int c = entrada.read();
+		while (c != -1 && c != '<') {
+			c = entrada.read();
+		}
+		if (c == -1) {
+			return false;
+		}
+		StringBuilder nome = new StringBuilder();
+		while ((c = entrada.read()) != -1 && c != '>') {
+			limitar(nome, "Lançamento " + (lancamentos + 1));
+			nome.append((char) c);
+		}
+		StringBuilder valor = new StringBuilder();
+		entrada.mark(1);
+		while ((c = entrada.read()) != -1 && c != '<') {
+			limitar(valor, "Lançamento " + (lancamentos + 1));
+			valor.append((char) c);
+			entrada.mark(1);
+		}
+		if (c == '<') {
+			entrada.reset();
+		}
+		marcacao = nome.toString().trim().toUpperCase(Locale.ROOT);
+		texto = entidades(valor.toString().trim());
+		return true;
+	}
+
+	// 🔹 DTPOSTED vem como AAAAMMDD seguido ou não de hora e fuso
+	private static LocalDate data(String texto) {
+		if (texto == null || texto.length() < 8) {
+			return null;
+		}
+		try {
+			return LocalDate.parse(texto.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	// 🔹 Cada banco usa NAME e MEMO de um jeito; quando os dois vêm e diferem, junta
+	private static String descricao(String nome, String memo) {
+		String n = nome == null ? "" : nome.trim();
+		String m = memo == null ? "" : memo.trim();
+		if (n.isEmpty() || n.equalsIgnoreCase(m)) {
+			return m;
+		}
+		return m.isEmpty() ? n : n + " - " + m;
+	}
+
+	private static String entidades(String texto) {
+		if (texto.indexOf('&') < 0) {
+			return texto;
+		}
+		return texto.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'")
+				.replace("&nbsp;", " ").replace("&amp;", "&");
+	}
+}
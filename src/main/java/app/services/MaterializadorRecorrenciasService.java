@@ -0,0 +1,195 @@
+package app.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.config.AgendamentoConfig;
+import app.config.ContextoShard;
+import app.config.DiretorioShards;
+import app.entities.TransacaoRecorrente;
+import app.repositories.TransacaoRecorrenteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Gera em segundo plano as transações das recorrências vencidas, tirando essa
+ * escrita do caminho de leitura das transações. Apenas uma instância executa
+ * por vez, controlada por lease no banco (ver {@link LeaseService}). Com
+ * shards, cada execução passa por todos eles, com um lease em cada um.
+ *
+ * Métricas publicadas:
+ * - granaguru.materializador.ocorrencias: transações geradas
+ * - granaguru.materializador.recorrencias: recorrências processadas
+ * - granaguru.materializador.falhas: recorrências que falharam
+ * - granaguru.materializador.execucao: duração de cada execução
+ * - granaguru.materializador.atraso: segundos desde a execução pendente mais antiga
+ *   (com shards, a maior entre eles)
+ */
+@Service
+public class MaterializadorRecorrenciasService {
+
+	public static final String TAREFA = "materializador-recorrencias";
+
+	private static final Logger log = LoggerFactory.getLogger(MaterializadorRecorrenciasService.class);
+
+	@Autowired
+	private TransacaoRecorrenteRepository transacaoRecorrenteRepository;
+
+	@Autowired
+	private TransacaoRecorrenteService transacaoRecorrenteService;
+
+	@Autowired
+	private LeaseService leaseService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired(required = false)
+	private DiretorioShards diretorioShards;
+
+	@Value("${granaguru.materializador.habilitado:true}")
+	private boolean habilitado;
+
+	@Value("${granaguru.materializador.tamanho-lote:200}")
+	private int tamanhoLote;
+
+	@Value("${granaguru.materializador.duracao-lease:PT5M}")
+	private Duration duracaoLease;
+
+	private TransactionTemplate transacao;
+	private Counter ocorrencias;
+	private Counter recorrencias;
+	private Counter falhas;
+	private Timer execucao;
+	// 🔹 Atraso por shard; sem shards, só o do catálogo
+	private final Map<Integer, Long> atrasoSegundos = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	void registrarMetricas() {
+		transacao = new TransactionTemplate(transactionManager);
+		ocorrencias = Counter.builder("granaguru.materializador.ocorrencias")
+				.description("Transações geradas a partir de recorrências").register(meterRegistry);
+		recorrencias = Counter.builder("granaguru.materializador.recorrencias")
+				.description("Recorrências vencidas processadas").register(meterRegistry);
+		falhas = Counter.builder("granaguru.materializador.falhas")
+				.description("Recorrências cujo processamento falhou").register(meterRegistry);
+		execucao = Timer.builder("granaguru.materializador.execucao")
+				.description("Duração de cada execução do materializador").register(meterRegistry);
+		Gauge.builder("granaguru.materializador.atraso", atrasoSegundos,
+				atrasos -> atrasos.values().stream().mapToLong(Long::longValue).max().orElse(0L))
+				.description("Segundos desde a execução pendente mais antiga").baseUnit("seconds")
+				.register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${granaguru.materializador.intervalo:PT1M}",
+			initialDelayString = "${granaguru.materializador.atraso-inicial:PT30S}",
+			scheduler = AgendamentoConfig.MATERIALIZADOR_SCHEDULER)
+	public void executar() {
+		if (!habilitado) {
+			return;
+		}
+		if (diretorioShards != null) {
+			diretorioShards.emCadaShard(this::executarNoShard);
+		} else {
+			executarNoShard();
+		}
+	}
+
+	private void executarNoShard() {
+		if (!leaseService.adquirir(TAREFA, duracaoLease)) {
+			return;
+		}
+		Timer.Sample inicio = Timer.start(meterRegistry);
+		try {
+			int geradas = materializarPendentes();
+			if (geradas > 0) {
+				log.info("Materializador gerou {} transações recorrentes", geradas);
+			}
+		} finally {
+			inicio.stop(execucao);
+			leaseService.liberar(TAREFA);
+		}
+	}
+
+	/**
+	 * Processa as recorrências vencidas em lotes de {@code tamanhoLote} ids, cada
+	 * recorrência em sua própria transação. O lease é renovado a cada lote; se
+	 * for perdido, a execução para e outra instância continua de onde parou.
+	 * Retorna o total de transações geradas.
+	 */
+	public int materializarPendentes() {
+		LocalDateTime agora = LocalDateTime.now();
+		long ultimoId = 0L;
+		int total = 0;
+		List<Long> lote;
+		do {
+			lote = transacaoRecorrenteRepository.findIdsParaProcessar(agora, ultimoId, Limit.of(tamanhoLote));
+			for (Long id : lote) {
+				total += processar(id, agora);
+			}
+			if (!lote.isEmpty()) {
+				ultimoId = lote.get(lote.size() - 1);
+				if (!leaseService.adquirir(TAREFA, duracaoLease)) {
+					log.warn("Lease {} perdido; interrompendo o materializador", TAREFA);
+					break;
+				}
+			}
+		} while (lote.size() == tamanhoLote);
+
+		atualizarAtraso();
+		return total;
+	}
+
+	private int processar(Long id, LocalDateTime agora) {
+		try {
+			Integer geradas = transacao.execute(status -> transacaoRecorrenteRepository.findById(id)
+					.filter(recorrente -> !recorrente.getProximaExecucao().isAfter(agora))
+					.filter(recorrente -> !emMovimentacao(recorrente))
+					.map(transacaoRecorrenteService::processarTransacoesRecorrentes)
+					.orElse(0));
+			recorrencias.increment();
+			ocorrencias.increment(geradas);
+			return geradas;
+		} catch (RuntimeException e) {
+			falhas.increment();
+			log.error("Falha ao materializar a transação recorrente {}", id, e);
+			return 0;
+		}
+	}
+
+	// 🔹 Ocorrências do usuário que está mudando de shard ficam para depois: as
+	// gravadas agora na origem se perderiam
+	private boolean emMovimentacao(TransacaoRecorrente recorrente) {
+		return diretorioShards != null
+				&& diretorioShards.localizar(recorrente.getUsuario().getId()).emMovimentacao();
+	}
+
+	private void atualizarAtraso() {
+		LocalDateTime agora = LocalDateTime.now();
+		long atraso = transacaoRecorrenteRepository.findProximaExecucaoMaisAntiga()
+				.filter(data -> data.isBefore(agora))
+				.map(data -> Duration.between(data, agora).toSeconds())
+				.orElse(0L);
+		Integer shard = ContextoShard.atual();
+		atrasoSegundos.put(shard != null ? shard : ContextoShard.CATALOGO, atraso);
+	}
+}
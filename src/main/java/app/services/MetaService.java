@@ -5,12 +5,15 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import app.config.NoShardDoUsuario;
+import app.dto.Cursor;
+import app.dto.Pagina;
 import app.entities.Meta;
 import app.entities.Usuario;
 import app.exceptions.MetaNotFoundException;
 import app.repositories.MetaRepository;
 import app.repositories.UsuarioRepository;
-import jakarta.transaction.Transactional;
 
 @Service
 @Transactional
@@ -23,15 +26,21 @@ public class MetaService {
     private UsuarioRepository usuarioRepository;
 
     /**
-     * Retorna todas as metas cadastradas.
+     * Retorna uma página das metas cadastradas, em ordem de ID.
      */
-    public List<Meta> listAll() {
-        return metaRepository.findAll();
+    @Transactional(readOnly = true)
+    public Pagina<Meta> listAll(String cursor, Integer tamanho) {
+        int limite = Pagina.tamanho(tamanho);
+        List<Meta> linhas = metaRepository.findPaginaAposId(Cursor.decodificarId(cursor, 0L),
+                Pagina.limiteConsulta(limite));
+        return Pagina.de(linhas, limite, item -> Cursor.codificar(item.getId()));
     }
 
     /**
      * Retorna todas as metas "EM ANDAMENTO" de um usuário específico.
      */
+    @NoShardDoUsuario
+    @Transactional(readOnly = true)
     public List<Meta> buscarMetasEmAndamento(Long usuarioId) {
         return metaRepository.findMetasEmAndamentoPorUsuario(usuarioId);
     }
@@ -39,6 +48,7 @@ public class MetaService {
     /**
      * Busca uma meta pelo ID. Lança exceção se não for encontrada.
      */
+    @Transactional(readOnly = true)
     public Meta findById(Long id) {
         return metaRepository.findById(id)
                 .orElseThrow(() -> new MetaNotFoundException(id));
@@ -4,7 +4,11 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import app.config.NoShardDoUsuario;
+import app.dto.Cursor;
+import app.dto.Pagina;
 import app.entities.Notificacao;
 import app.exceptions.NotificacaoNotFoundException;
 import app.repositories.NotificacaoRepository;
@@ -20,26 +24,38 @@ public class NotificacaoService {
     private UsuarioRepository usuarioRepository;
 
     /**
-     * Retorna todas as notificações cadastradas.
+     * Retorna uma página das notificações cadastradas, das mais recentes para as
+     * mais antigas.
      */
-    public List<Notificacao> findAll() {
-        return notificacaoRepository.findAll();
+    @Transactional(readOnly = true)
+    public Pagina<Notificacao> findAll(String cursor, Integer tamanho) {
+        int limite = Pagina.tamanho(tamanho);
+        List<Notificacao> linhas = notificacaoRepository.findPaginaAntesDoId(
+                Cursor.decodificarId(cursor, Long.MAX_VALUE), Pagina.limiteConsulta(limite));
+        return Pagina.de(linhas, limite, n -> Cursor.codificar(n.getId()));
     }
 
     /**
-     * Retorna as notificações de um usuário específico pelo ID do usuário.
+     * Retorna uma página das notificações de um usuário específico pelo ID do
+     * usuário, das mais recentes para as mais antigas.
      */
-    public List<Notificacao> findByUsuarioId(Long usuarioId) {
+    @NoShardDoUsuario
+    @Transactional(readOnly = true)
+    public Pagina<Notificacao> findByUsuarioId(Long usuarioId, String cursor, Integer tamanho) {
         if (!usuarioRepository.existsById(usuarioId)) {
             throw new NotificacaoNotFoundException("Usuário não encontrado para o ID: " + usuarioId);
         }
-        return notificacaoRepository.findByUsuarioId(usuarioId);
+        int limite = Pagina.tamanho(tamanho);
+        List<Notificacao> linhas = notificacaoRepository.findPaginaByUsuarioId(usuarioId,
+                Cursor.decodificarId(cursor, Long.MAX_VALUE), Pagina.limiteConsulta(limite));
+        return Pagina.de(linhas, limite, n -> Cursor.codificar(n.getId()));
     }
 
     /**
      * Busca uma notificação pelo ID.
      * Lança exceção se não for encontrada.
      */
+    @Transactional(readOnly = true)
     public Notificacao findById(Long id) {
         return notificacaoRepository.findById(id)
                 .orElseThrow(() -> new NotificacaoNotFoundException(id));
@@ -1,11 +1,21 @@
 package app.services;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import app.config.NoShardDoUsuario;
+import app.dto.Cursor;
+import app.dto.Pagina;
+import app.dto.StatusOrcamentoDTO;
 import app.entities.Orcamento;
+import app.enums.PeriodoOrcamento;
 import app.exceptions.OrcamentoNotFoundException;
 import app.repositories.OrcamentoRepository;
 import app.repositories.UsuarioRepository;
@@ -19,16 +29,25 @@ public class OrcamentoService {
 	@Autowired
 	private UsuarioRepository usuarioRepository;
 
+	@Autowired
+	private GastoPeriodoService gastoPeriodoService;
+
 	/**
-	 * Retorna todos os orçamentos cadastrados.
+	 * Retorna uma página dos orçamentos cadastrados, em ordem de ID.
 	 */
-	public List<Orcamento> findAll() {
-		return orcamentoRepository.findAll();
+	@Transactional(readOnly = true)
+	public Pagina<Orcamento> findAll(String cursor, Integer tamanho) {
+		int limite = Pagina.tamanho(tamanho);
+		List<Orcamento> linhas = orcamentoRepository.findPaginaAposId(Cursor.decodificarId(cursor, 0L),
+				Pagina.limiteConsulta(limite));
+		return Pagina.de(linhas, limite, item -> Cursor.codificar(item.getId()));
 	}
 
 	/**
 	 * Retorna os orçamentos de um usuário específico pelo ID do usuário.
 	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
 	public List<Orcamento> findByUsuarioId(Long usuarioId) {
 		if (!usuarioRepository.existsById(usuarioId)) {
 			throw new OrcamentoNotFoundException("Usuário não encontrado para o ID: " + usuarioId);
@@ -36,11 +55,52 @@ public class OrcamentoService {
 		return orcamentoRepository.findByUsuarioId(usuarioId);
 	}
 
+	/**
+	 * Retorna todos os orçamentos de um usuário com o valor consumido no
+	 * intervalo atual de cada período, lido dos gastos agregados
+	 * ({@link GastoPeriodoService}) em uma única consulta.
+	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
+	public List<StatusOrcamentoDTO> statusPorUsuario(Long usuarioId) {
+		if (!usuarioRepository.existsById(usuarioId)) {
+			throw new OrcamentoNotFoundException("Usuário não encontrado para o ID: " + usuarioId);
+		}
+		return status(usuarioId, orcamentoRepository.findComCategoriaByUsuarioId(usuarioId));
+	}
+
+	/**
+	 * Status apenas dos orçamentos do usuário nas categorias informadas.
+	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
+	public List<StatusOrcamentoDTO> statusPorCategorias(Long usuarioId, Collection<Long> categoriaIds) {
+		List<Orcamento> orcamentos = orcamentoRepository.findComCategoriaByUsuarioIdAndCategoriaIds(usuarioId,
+				categoriaIds);
+		return orcamentos.isEmpty() ? List.of() : status(usuarioId, orcamentos);
+	}
+
+	private List<StatusOrcamentoDTO> status(Long usuarioId, List<Orcamento> orcamentos) {
+		LocalDate hoje = LocalDate.now();
+		Map<Long, Map<PeriodoOrcamento, Double>> gastos = gastoPeriodoService.atuais(usuarioId, hoje);
+
+		return orcamentos.stream().map(orcamento -> {
+			PeriodoOrcamento periodo = PeriodoOrcamento.valueOf(orcamento.getPeriodo());
+			double consumido = gastos.getOrDefault(orcamento.getCategoria().getId(), Collections.emptyMap())
+					.getOrDefault(periodo, 0.0);
+			double limite = orcamento.getValorLimite();
+			return new StatusOrcamentoDTO(orcamento.getId(), orcamento.getCategoria().getId(),
+					orcamento.getCategoria().getNomeCategoria(), periodo, periodo.inicio(hoje), limite, consumido,
+					consumido * 100.0 / limite);
+		}).toList();
+	}
+
 	/**
 	 * Busca um orçamento pelo ID. Lança exceção se não for encontrado.
 	 */
+	@Transactional(readOnly = true)
 	public Orcamento findById(Long id) {
-		return orcamentoRepository.findById(id).orElseThrow(() -> new OrcamentoNotFoundException(id));
+		return orcamentoRepository.findComDetalhesById(id).orElseThrow(() -> new OrcamentoNotFoundException(id));
 	}
 
 	/**
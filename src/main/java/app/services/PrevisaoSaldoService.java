@@ -0,0 +1,209 @@
+package app.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.config.NoShardDoUsuario;
+import app.dto.MovimentoTransacao;
+import app.dto.PrevisaoSaldoDTO;
+import app.dto.RegraPrevisao;
+import app.dto.SerieSaldoConta;
+import app.entities.Conta;
+import app.enums.GranularidadePrevisao;
+import app.exceptions.ContaNotFoundException;
+import app.exceptions.UsuarioNotFoundException;
+import app.repositories.ContaRepository;
+import app.repositories.TransacaoRecorrenteRepository;
+import app.repositories.UsuarioRepository;
+
+/**
+ * Projeta o saldo futuro das contas a partir do saldo atual (lido do
+ * livro-razão, ver {@link SaldoContaService}) e das transações recorrentes
+ * vigentes. As ocorrências futuras são expandidas em memória com
+ * {@link CalendarioRecorrencia} e nada é gravado no banco.
+ */
+@Service
+public class PrevisaoSaldoService {
+
+	public static final int MESES_PADRAO = 12;
+	public static final int MESES_MAXIMO = 60;
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private SaldoContaService saldoContaService;
+
+	@Autowired
+	private TransacaoRecorrenteRepository transacaoRecorrenteRepository;
+
+	/**
+	 * Previsão de todas as contas de um usuário, com a série total somada.
+	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
+	public PrevisaoSaldoDTO preverPorUsuario(Long usuarioId, Integer meses, GranularidadePrevisao granularidade) {
+		if (!usuarioRepository.existsById(usuarioId)) {
+			throw new UsuarioNotFoundException(usuarioId);
+		}
+		LocalDateTime agora = LocalDateTime.now();
+		List<Conta> contas = contaRepository.findByUsuarioId(usuarioId);
+
+		Map<Long, Double> movimentado = saldoContaService
+				.movimentado(contas.stream().map(Conta::getId).toList());
+		Map<Long, List<RegraPrevisao>> regras = transacaoRecorrenteRepository
+				.findRegrasPrevisaoByUsuarioId(usuarioId, agora).stream()
+				.collect(Collectors.groupingBy(RegraPrevisao::getContaId));
+
+		return prever(contas, movimentado, regras, agora, meses, granularidade);
+	}
+
+	/**
+	 * Previsão de uma única conta.
+	 */
+	@Transactional(readOnly = true)
+	public PrevisaoSaldoDTO preverPorConta(Long contaId, Integer meses, GranularidadePrevisao granularidade) {
+		Conta conta = contaRepository.findById(contaId).orElseThrow(() -> new ContaNotFoundException(contaId));
+		LocalDateTime agora = LocalDateTime.now();
+
+		Map<Long, Double> movimentado = saldoContaService.movimentado(List.of(contaId));
+		Map<Long, List<RegraPrevisao>> regras = Map.of(contaId,
+				transacaoRecorrenteRepository.findRegrasPrevisaoByContaId(contaId, agora));
+
+		return prever(List.of(conta), movimentado, regras, agora, meses, granularidade);
+	}
+
+	/**
+	 * Normaliza o horizonte pedido pelo cliente, em meses.
+	 */
+	public static int meses(Integer solicitado) {
+		if (solicitado == null || solicitado <= 0) {
+			return MESES_PADRAO;
+		}
+		return Math.min(solicitado, MESES_MAXIMO);
+	}
+
+	private PrevisaoSaldoDTO prever(List<Conta> contas, Map<Long, Double> movimentado,
+			Map<Long, List<RegraPrevisao>> regras, LocalDateTime agora, Integer mesesSolicitados,
+			GranularidadePrevisao granularidade) {
+
+		Horizonte horizonte = new Horizonte(agora, meses(mesesSolicitados),
+				granularidade != null ? granularidade : GranularidadePrevisao.MENSAL);
+
+		// 🔹 Cada conta é projetada de forma independente, em paralelo
+		List<SerieSaldoConta> series = contas.parallelStream().map(conta -> {
+			double saldoAtual = SaldoContaService.saldoInicial(conta) + movimentado.getOrDefault(conta.getId(), 0.0);
+			return new SerieSaldoConta(conta.getId(), conta.getNomeConta(), saldoAtual,
+					horizonte.projetar(saldoAtual, regras.getOrDefault(conta.getId(), Collections.emptyList())));
+		}).toList();
+
+		double[] total = new double[horizonte.pontos];
+		for (SerieSaldoConta serie : series) {
+			double[] saldos = serie.getSaldos();
+			for (int i = 0; i < total.length; i++) {
+				total[i] += saldos[i];
+			}
+		}
+		return new PrevisaoSaldoDTO(horizonte.granularidade, horizonte.datas(), total, series);
+	}
+
+	/**
+	 * Pontos da série: o fim de cada dia ou de cada mês, de hoje até o fim do
+	 * horizonte. Cada ocorrência futura cai em um único ponto (um índice do
+	 * vetor de variações) e o saldo de cada ponto é a soma acumulada.
+	 */
+	private static final class Horizonte {
+
+		private final LocalDateTime agora;
+		private final LocalDate hoje;
+		private final GranularidadePrevisao granularidade;
+		private final int pontos;
+		private final LocalDateTime limite;
+
+		private Horizonte(LocalDateTime agora, int meses, GranularidadePrevisao granularidade) {
+			this.agora = agora;
+			this.hoje = agora.toLocalDate();
+			this.granularidade = granularidade;
+			if (granularidade == GranularidadePrevisao.DIARIA) {
+				this.pontos = (int) ChronoUnit.DAYS.between(hoje, hoje.plusMonths(meses)) + 1;
+			} else {
+				this.pontos = meses + 1;
+			}
+			this.limite = data(pontos - 1).atTime(LocalTime.MAX);
+		}
+
+		private LocalDate data(int ponto) {
+			return granularidade == GranularidadePrevisao.DIARIA ? hoje.plusDays(ponto)
+					: YearMonth.from(hoje).plusMonths(ponto).atEndOfMonth();
+		}
+
+		private int ponto(LocalDateTime ocorrencia) {
+			LocalDate dia = ocorrencia.toLocalDate();
+			return granularidade == GranularidadePrevisao.DIARIA ? (int) ChronoUnit.DAYS.between(hoje, dia)
+					: (int) ChronoUnit.MONTHS.between(YearMonth.from(hoje), YearMonth.from(dia));
+		}
+
+		private List<LocalDate> datas() {
+			List<LocalDate> datas = new ArrayList<>(pontos);
+			for (int i = 0; i < pontos; i++) {
+				datas.add(data(i));
+			}
+			return datas;
+		}
+
+		private double[] projetar(double saldoAtual, List<RegraPrevisao> regras) {
+			double[] saldos = new double[pontos];
+			for (RegraPrevisao regra : regras) {
+				if (regra.getDataInicial() == null || regra.getPeriodicidade() == null || regra.getValor() == null) {
+					continue;
+				}
+				CalendarioRecorrencia calendario = new CalendarioRecorrencia(regra.getDataInicial(),
+						regra.getPeriodicidade());
+
+				// 🔹 A regra para no que vier primeiro: fim do horizonte, data final ou
+				// última parcela de um parcelamento fechado
+				LocalDateTime fim = limite;
+				if (regra.getDataFinal() != null && regra.getDataFinal().isBefore(fim)) {
+					fim = regra.getDataFinal();
+				}
+				if (!regra.isDespesaFixa() && regra.getTotalParcelas() != null) {
+					if (regra.getTotalParcelas() < 1) {
+						continue;
+					}
+					LocalDateTime ultimaParcela = calendario.ocorrencia(regra.getTotalParcelas());
+					if (ultimaParcela.isBefore(fim)) {
+						fim = ultimaParcela;
+					}
+				}
+
+				double valor = MovimentoTransacao.valorComSinal(regra.getTipo(), regra.getValor());
+				for (LocalDateTime ocorrencia : calendario.ocorrenciasEntre(calendario.proximaApos(agora), fim)) {
+					saldos[ponto(ocorrencia)] += valor;
+				}
+			}
+
+			// 🔹 Variações por ponto viram saldo acumulado
+			double saldo = saldoAtual;
+			for (int i = 0; i < pontos; i++) {
+				saldo += saldos[i];
+				saldos[i] = saldo;
+			}
+			return saldos;
+		}
+	}
+}
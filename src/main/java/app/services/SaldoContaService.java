@@ -0,0 +1,197 @@
+package app.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.config.DiretorioShards;
+import app.dto.MovimentoTransacao;
+import app.dto.SaldoDTO;
+import app.entities.Conta;
+import app.entities.SaldoConta;
+import app.entities.Transacao;
+import app.exceptions.ContaNotFoundException;
+import app.repositories.ContaRepository;
+import app.repositories.SaldoContaMensalRepository;
+import app.repositories.SaldoContaRepository;
+import app.repositories.TransacaoRepository;
+
+/**
+ * Livro-razão dos saldos das contas. Cada escrita de transação soma seu valor
+ * ao saldo da conta ({@link SaldoConta}), então o saldo atual é lido em uma
+ * única linha. Ao fim de cada mês um checkpoint guarda o saldo daquele mês; o
+ * saldo em uma data passada é o checkpoint anterior mais as transações do mês
+ * da data.
+ *
+ * As contas que já tinham transações antes do livro-razão são inicializadas na
+ * primeira escrita, somando o histórico uma única vez. Os métodos de escrita
+ * devem ser chamados antes de a transação ser gravada ou excluída.
+ */
+@Service
+public class SaldoContaService {
+
+	public static final String TAREFA_FECHAMENTO = "fechamento-saldos";
+
+	private static final Logger log = LoggerFactory.getLogger(SaldoContaService.class);
+
+	@Autowired
+	private SaldoContaRepository saldoContaRepository;
+
+	@Autowired
+	private SaldoContaMensalRepository saldoContaMensalRepository;
+
+	@Autowired
+	private TransacaoRepository transacaoRepository;
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private LeaseService leaseService;
+
+	@Autowired(required = false)
+	private DiretorioShards diretorioShards;
+
+	@Value("${granaguru.saldos.fechamento-habilitado:true}")
+	private boolean fechamentoHabilitado;
+
+	/**
+	 * Registra o efeito de uma transação (valor com sinal) no saldo da conta.
+	 */
+	@Transactional
+	public void registrar(Long contaId, LocalDateTime data, double valor) {
+		TreeMap<LocalDate, Double> porMes = new TreeMap<>();
+		porMes.put(mes(data), valor);
+		aplicar(contaId, porMes);
+	}
+
+	/**
+	 * Registra um lote de transações novas: uma atualização de saldo por conta e
+	 * um ajuste de checkpoints por mês, em vez de um por transação.
+	 */
+	@Transactional
+	public void registrar(List<Transacao> transacoes) {
+		Map<Long, TreeMap<LocalDate, Double>> porConta = new HashMap<>();
+		for (Transacao transacao : transacoes) {
+			porConta.computeIfAbsent(transacao.getConta().getId(), id -> new TreeMap<>()).merge(
+					mes(transacao.getDataTransacao()),
+					MovimentoTransacao.valorComSinal(transacao.getTipo(), transacao.getValor()), Double::sum);
+		}
+		porConta.forEach(this::aplicar);
+	}
+
+	/**
+	 * Saldo atual da conta ou, se {@code data} for informada, o saldo ao fim
+	 * daquele instante.
+	 */
+	@Transactional(readOnly = true)
+	public SaldoDTO consultar(Long contaId, LocalDateTime data) {
+		Conta conta = contaRepository.findById(contaId).orElseThrow(() -> new ContaNotFoundException(contaId));
+		double movimentado = data == null ? movimentado(contaId) : movimentadoAte(contaId, data);
+		return new SaldoDTO(contaId, data, saldoInicial(conta) + movimentado);
+	}
+
+	/**
+	 * Saldo movimentado atual de cada conta, lido do livro-razão.
+	 */
+	@Transactional(readOnly = true)
+	public Map<Long, Double> movimentado(Collection<Long> contaIds) {
+		Map<Long, Double> saldos = new HashMap<>();
+		for (SaldoConta saldo : saldoContaRepository.findAllById(contaIds)) {
+			saldos.put(saldo.getContaId(), saldo.getSaldo());
+		}
+		// 🔹 Contas ainda não inicializadas: soma o histórico
+		for (Long contaId : contaIds) {
+			if (!saldos.containsKey(contaId)) {
+				saldos.put(contaId, transacaoRepository.somarPorConta(contaId));
+			}
+		}
+		return saldos;
+	}
+
+	public static double saldoInicial(Conta conta) {
+		return conta.getSaldoInicial() != null ? conta.getSaldoInicial() : 0.0;
+	}
+
+	/**
+	 * Fecha o mês anterior no primeiro dia de cada mês. Apenas uma instância
+	 * executa, controlada por lease; com shards, em cada um deles.
+	 */
+	@Scheduled(cron = "${granaguru.saldos.fechamento-cron:0 5 0 1 * *}")
+	public void executarFechamento() {
+		if (!fechamentoHabilitado) {
+			return;
+		}
+		if (diretorioShards != null) {
+			diretorioShards.emCadaShard(this::fecharNoShard);
+		} else {
+			fecharNoShard();
+		}
+	}
+
+	private void fecharNoShard() {
+		if (!leaseService.adquirir(TAREFA_FECHAMENTO, Duration.ofMinutes(10))) {
+			return;
+		}
+		try {
+			YearMonth mes = YearMonth.now().minusMonths(1);
+			log.info("Checkpoints de saldo de {} gravados para {} contas", mes, fecharMes(mes));
+		} finally {
+			leaseService.liberar(TAREFA_FECHAMENTO);
+		}
+	}
+
+	/**
+	 * Grava o checkpoint do mês para todas as contas do livro-razão. Pode ser
+	 * executado de novo sem efeito para as contas já fechadas.
+	 */
+	@Transactional
+	public int fecharMes(YearMonth mes) {
+		return saldoContaMensalRepository.fecharMes(mes.atDay(1), mes.plusMonths(1).atDay(1).atStartOfDay());
+	}
+
+	private void aplicar(Long contaId, TreeMap<LocalDate, Double> porMes) {
+		double total = 0.0;
+		for (Double valor : porMes.values()) {
+			total += valor;
+		}
+		// 🔹 Soma direto na linha que já existe; só soma o histórico (inicializar)
+		// na primeira vez que a conta recebe uma transação
+		if (saldoContaRepository.somar(contaId, total) == 0) {
+			saldoContaRepository.inicializar(contaId);
+			saldoContaRepository.somar(contaId, total);
+		}
+		porMes.forEach((mes, valor) -> saldoContaMensalRepository.ajustarAPartirDe(contaId, mes, valor));
+	}
+
+	private double movimentado(Long contaId) {
+		return saldoContaRepository.findById(contaId).map(SaldoConta::getSaldo)
+				.orElseGet(() -> transacaoRepository.somarPorConta(contaId));
+	}
+
+	private double movimentadoAte(Long contaId, LocalDateTime data) {
+		// 🔹 Checkpoint do último mês fechado antes da data + transações depois dele
+		return saldoContaMensalRepository.findFirstByContaIdAndMesLessThanOrderByMesDesc(contaId, mes(data))
+				.map(checkpoint -> checkpoint.getSaldoFinal() + transacaoRepository.somarPorContaEntre(contaId,
+						checkpoint.getMes().plusMonths(1).atStartOfDay(), data))
+				.orElseGet(() -> transacaoRepository.somarPorContaAte(contaId, data));
+	}
+
+	private static LocalDate mes(LocalDateTime data) {
+		return data.toLocalDate().withDayOfMonth(1);
+	}
+}
@@ -0,0 +1,88 @@
+package app.services;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import app.config.AgendamentoConfig;
+import app.exceptions.SenhasSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Executa o trabalho com BCrypt (login e codificação de senhas) no pool
+ * limitado {@link AgendamentoConfig#SENHAS_EXECUTOR}, para que uma rajada de
+ * logins não ocupe as threads que atendem o resto da API. Com o pool
+ * saturado a tarefa falha na hora com {@link SenhasSobrecarregadoException}
+ * (503); uma tarefa que esperou na fila mais que
+ * {@code granaguru.senhas.espera-maxima} também é descartada sem calcular o
+ * hash, porque o cliente provavelmente já desistiu.
+ */
+@Service
+public class SenhaService {
+
+	@Autowired
+	@Qualifier(AgendamentoConfig.SENHAS_EXECUTOR)
+	private ThreadPoolTaskExecutor executor;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${granaguru.senhas.espera-maxima:PT2S}")
+	private Duration esperaMaxima;
+
+	private Counter rejeitadas;
+
+	@PostConstruct
+	void iniciar() {
+		rejeitadas = Counter.builder("granaguru.senhas.rejeitadas")
+				.description("Tarefas de senha rejeitadas com o pool saturado").register(meterRegistry);
+	}
+
+	/**
+	 * Agenda a tarefa no pool de senhas. O futuro falha com
+	 * {@link SenhasSobrecarregadoException} se não houver lugar na fila.
+	 */
+	public <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+		long limite = System.nanoTime() + esperaMaxima.toNanos();
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				if (System.nanoTime() > limite) {
+					rejeitadas.increment();
+					throw new SenhasSobrecarregadoException();
+				}
+				return tarefa.get();
+			}, executor);
+		} catch (RejectedExecutionException e) {
+			rejeitadas.increment();
+			return CompletableFuture.failedFuture(new SenhasSobrecarregadoException());
+		}
+	}
+
+	/**
+	 * Codifica a senha no pool de senhas, aguardando o resultado.
+	 */
+	public String codificar(String senha) {
+		try {
+			return executar(() -> passwordEncoder.encode(senha)).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException causa) {
+				throw causa;
+			}
+			throw e;
+		}
+	}
+}
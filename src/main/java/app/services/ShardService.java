@@ -0,0 +1,424 @@
+package app.services;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.config.ContextoShard;
+import app.config.DiretorioShards;
+import app.config.DiretorioShards.Localizacao;
+import app.dto.ResultadoMovimentacaoDTO;
+import app.exceptions.MovimentacaoShardInvalidaException;
+import app.exceptions.UsuarioEmMovimentacaoException;
+import app.exceptions.UsuarioNotFoundException;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cópias dos dados globais nos shards e movimentação de usuários entre eles
+ * (ver {@link app.config.ShardsConfig}). O catálogo é a origem dos usuários e
+ * das tags; a cópia de um usuário no shard dele é atualizada depois de cada
+ * commit no catálogo, e uma falha aí só é registrada no log (a cópia é refeita
+ * na próxima alteração ou movimentação).
+ */
+@Service
+@ConditionalOnProperty(name = "granaguru.shards.habilitado", havingValue = "true")
+public class ShardService {
+
+	private static final Logger log = LoggerFactory.getLogger(ShardService.class);
+
+	private static final int TAMANHO_LOTE = 1000;
+
+	private static final Tabela USUARIOS = new Tabela("usuarios", "id = ?", Copia.ATUALIZANDO);
+
+	// 🔹 Linhas de um usuário, na ordem das chaves estrangeiras; a exclusão vai na
+	// ordem inversa. As tags são globais: só são copiadas, nunca excluídas
+	private static final List<Tabela> TABELAS = List.of(
+			new Tabela("categorias", "usuario_id = ?", Copia.COM_ID),
+			new Tabela("contas", "usuario_id = ?", Copia.COM_ID),
+			new Tabela("transacoes_recorrentes", "usuario_id = ?", Copia.COM_ID),
+			new Tabela("transacoes", "usuario_id = ?", Copia.COM_ID),
+			new Tabela("tags", "id IN (SELECT tt.tag_id FROM transacoes_tags tt JOIN transacoes t"
+					+ " ON t.id = tt.transacao_id WHERE t.usuario_id = ?)", Copia.ATUALIZANDO),
+			new Tabela("transacoes_tags", "transacao_id IN (SELECT id FROM transacoes WHERE usuario_id = ?)",
+					Copia.COM_ID),
+			new Tabela("metas", "usuario_id = ?", Copia.COM_ID),
+			new Tabela("orcamentos", "usuario_id = ?", Copia.COM_ID),
+			new Tabela("notificacoes", "usuario_id = ?", Copia.COM_ID),
+			new Tabela("saldos_conta", "conta_id IN (SELECT id FROM contas WHERE usuario_id = ?)", Copia.COM_ID),
+			// 🔹 IDs por auto_increment de cada banco: o destino gera os seus
+			new Tabela("gastos_periodo", "usuario_id = ?", Copia.SEM_ID),
+			new Tabela("saldos_conta_mensais", "conta_id IN (SELECT id FROM contas WHERE usuario_id = ?)",
+					Copia.SEM_ID));
+
+	@Autowired
+	private DiretorioShards diretorio;
+
+	@Autowired
+	private VersaoSegurancaService versaoSegurancaService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transacaoNova;
+
+	@PostConstruct
+	void iniciar() {
+		transacaoNova = new TransactionTemplate(transactionManager);
+		transacaoNova.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Indica se as transações que começarem agora nesta thread vão a um shard
+	 * que não é o catálogo.
+	 */
+	public boolean emShard() {
+		return diretorio.shardAtual() != ContextoShard.CATALOGO;
+	}
+
+	/**
+	 * Shard do usuário, lido do diretório sem passar pelo cache. Durante uma
+	 * movimentação, ainda o de origem.
+	 */
+	public int shardDe(Long usuarioId) {
+		return diretorio.recarregar(usuarioId);
+	}
+
+	/**
+	 * Executa a ação no catálogo, numa transação própria, mesmo de dentro de uma
+	 * transação aberta em um shard.
+	 */
+	public <T> T noCatalogo(Supplier<T> acao) {
+		return ContextoShard.executar(ContextoShard.CATALOGO, () -> transacaoNova.execute(status -> acao.get()));
+	}
+
+	/**
+	 * Depois do commit do cadastro, escolhe o shard do usuário novo, copia o
+	 * usuário para ele e só então o registra no diretório: se a cópia falhar, o
+	 * usuário fica no catálogo.
+	 */
+	public void aoCadastrar(Long usuarioId) {
+		aposCommit(() -> {
+			int shard = diretorio.posicionar(usuarioId);
+			if (shard != ContextoShard.CATALOGO) {
+				copiarUsuario(usuarioId, shard);
+				diretorio.registrar(usuarioId, shard);
+			}
+		});
+	}
+
+	/**
+	 * Atualiza a cópia do usuário no shard dele. Durante uma movimentação não faz
+	 * nada: a cópia é refeita no destino ao final dela.
+	 */
+	public void aoAlterar(Long usuarioId) {
+		aposCommit(() -> {
+			Localizacao localizacao = diretorio.localizar(usuarioId);
+			if (localizacao.shard() != ContextoShard.CATALOGO && !localizacao.emMovimentacao()) {
+				copiarUsuario(usuarioId, localizacao.shard());
+			}
+		});
+	}
+
+	/**
+	 * Exclui a cópia do usuário antes da exclusão no catálogo; falha, como lá,
+	 * se ele ainda tem dados, e também durante uma movimentação.
+	 */
+	public void aoExcluir(Long usuarioId) {
+		Localizacao localizacao = diretorio.relocalizar(usuarioId);
+		if (localizacao.emMovimentacao()) {
+			throw new UsuarioEmMovimentacaoException(usuarioId);
+		}
+		if (localizacao.shard() != ContextoShard.CATALOGO) {
+			jdbc(localizacao.shard()).update("DELETE FROM usuarios WHERE id = ?", usuarioId);
+		}
+		aposCommit(() -> diretorio.remover(usuarioId));
+	}
+
+	public void aoRenomearTag(Long tagId, String nome) {
+		aposCommit(() -> {
+			for (int shard = 1; shard < diretorio.total(); shard++) {
+				jdbc(shard).update("UPDATE tags SET nome = ? WHERE id = ?", nome, tagId);
+			}
+		});
+	}
+
+	/**
+	 * Exclui as cópias da tag antes da exclusão no catálogo; falha se algum
+	 * shard ainda a usa.
+	 */
+	public void aoExcluirTag(Long tagId) {
+		for (int shard = 1; shard < diretorio.total(); shard++) {
+			jdbc(shard).update("DELETE FROM tags WHERE id = ?", tagId);
+		}
+	}
+
+	/**
+	 * Move todas as linhas do usuário para o shard de destino, mantendo os IDs.
+	 *
+	 * 1. O usuário é marcado no diretório como em movimentação e os tokens dele
+	 *    são revogados; espera-se o cache do diretório expirar nas outras
+	 *    instâncias, e a partir daí as requisições e tarefas dele são recusadas
+	 *    em todas (ver {@link DiretorioShards#shardDe}).
+	 * 2. As linhas são copiadas da origem, lidas em uma única transação, para o
+	 *    destino, em outra.
+	 * 3. As linhas são excluídas da origem e o usuário é registrado no destino,
+	 *    o que encerra a movimentação.
+	 *
+	 * Se algum passo falhar o usuário continua bloqueado, e a movimentação é
+	 * retomada chamando de novo com o mesmo destino: a cópia é pulada se já
+	 * estiver no destino, e a exclusão na origem pode ser repetida.
+	 */
+	public ResultadoMovimentacaoDTO mover(Long usuarioId, int destino) {
+		if (destino < 0 || destino >= diretorio.total()) {
+			throw new MovimentacaoShardInvalidaException("Shard inexistente: " + destino);
+		}
+		if (jdbc(ContextoShard.CATALOGO).queryForObject("SELECT COUNT(*) FROM usuarios WHERE id = ?", Integer.class,
+				usuarioId) == 0) {
+			throw new UsuarioNotFoundException("Usuário não encontrado com o ID: " + usuarioId);
+		}
+		Localizacao localizacao = diretorio.relocalizar(usuarioId);
+		int origem = localizacao.shard();
+		JdbcTemplate jdbcOrigem = jdbc(origem);
+		JdbcTemplate jdbcDestino = jdbc(destino);
+		boolean copiado;
+		if (localizacao.emMovimentacao()) {
+			if (localizacao.destino() != destino) {
+				throw new MovimentacaoShardInvalidaException("O usuário " + usuarioId
+						+ " já está sendo movido para o shard " + localizacao.destino() + ".");
+			}
+			copiado = temDados(jdbcDestino, usuarioId, destino);
+			log.info("Retomando a movimentação do usuário {} do shard {} para o {}", usuarioId, origem, destino);
+		} else {
+			if (origem == destino) {
+				throw new MovimentacaoShardInvalidaException("O usuário " + usuarioId + " já está no shard " + destino
+						+ ".");
+			}
+			for (Tabela tabela : TABELAS) {
+				if (tabela.copia() != Copia.ATUALIZANDO && contar(jdbcDestino, tabela, usuarioId) > 0) {
+					throw new MovimentacaoShardInvalidaException("O shard " + destino + " já tem linhas de "
+							+ tabela.nome() + " do usuário " + usuarioId + ".");
+				}
+			}
+			diretorio.iniciarMovimentacao(usuarioId, origem, destino);
+			noCatalogo(() -> {
+				versaoSegurancaService.revogar(usuarioId);
+				return null;
+			});
+			copiado = false;
+		}
+		diretorio.aguardarPropagacao();
+
+		Map<String, Integer> linhas = new LinkedHashMap<>();
+		if (copiado) {
+			for (Tabela tabela : TABELAS) {
+				linhas.put(tabela.nome(), contar(jdbcDestino, tabela, usuarioId));
+			}
+		} else {
+			// 🔹 A leitura da origem em uma transação só vê todas as tabelas no mesmo momento
+			TransactionTemplate leitura = transacao(origem);
+			leitura.setReadOnly(true);
+			transacao(destino).executeWithoutResult(escrita -> leitura.executeWithoutResult(status -> {
+				if (destino != ContextoShard.CATALOGO) {
+					copiar(jdbc(ContextoShard.CATALOGO), jdbcDestino, USUARIOS, usuarioId);
+				}
+				for (Tabela tabela : TABELAS) {
+					linhas.put(tabela.nome(), copiar(jdbcOrigem, jdbcDestino, tabela, usuarioId));
+				}
+			}));
+		}
+
+		transacao(origem).executeWithoutResult(status -> {
+			for (int i = TABELAS.size() - 1; i >= 0; i--) {
+				Tabela tabela = TABELAS.get(i);
+				if (tabela.copia() != Copia.ATUALIZANDO) {
+					jdbcOrigem.update("DELETE FROM " + tabela.nome() + " WHERE " + tabela.filtro(), usuarioId);
+				}
+			}
+			if (origem != ContextoShard.CATALOGO) {
+				jdbcOrigem.update("DELETE FROM usuarios WHERE id = ?", usuarioId);
+			}
+		});
+		// 🔹 Alterações do usuário no catálogo durante a movimentação não foram copiadas
+		if (destino != ContextoShard.CATALOGO) {
+			copiarUsuario(usuarioId, destino);
+		}
+		diretorio.registrar(usuarioId, destino);
+		log.info("Usuário {} movido do shard {} para o {}: {}", usuarioId, origem, destino, linhas);
+		return new ResultadoMovimentacaoDTO(usuarioId, origem, destino, linhas);
+	}
+
+	// 🔹 A cópia para o destino é uma transação só: ou tem tudo ou não tem nada
+	private static boolean temDados(JdbcTemplate jdbc, Long usuarioId, int shard) {
+		if (shard != ContextoShard.CATALOGO) {
+			return jdbc.queryForObject("SELECT COUNT(*) FROM usuarios WHERE id = ?", Integer.class, usuarioId) > 0;
+		}
+		for (Tabela tabela : TABELAS) {
+			if (tabela.copia() != Copia.ATUALIZANDO && contar(jdbc, tabela, usuarioId) > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int contar(JdbcTemplate jdbc, Tabela tabela, Long usuarioId) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM " + tabela.nome() + " WHERE " + tabela.filtro(), Integer.class,
+				usuarioId);
+	}
+
+	private void copiarUsuario(Long usuarioId, int shard) {
+		copiar(jdbc(ContextoShard.CATALOGO), jdbc(shard), USUARIOS, usuarioId);
+	}
+
+	/**
+	 * Copia as linhas da tabela que passam no filtro, lendo da origem aos poucos
+	 * e gravando no destino em lotes. Retorna quantas linhas foram copiadas.
+	 */
+	private static int copiar(JdbcTemplate origem, JdbcTemplate destino, Tabela tabela, Long usuarioId) {
+		Gravacao gravacao = new Gravacao(destino, tabela);
+		origem.query("SELECT * FROM " + tabela.nome() + " WHERE " + tabela.filtro(), gravacao, usuarioId);
+		gravacao.terminar();
+		return gravacao.linhas;
+	}
+
+	private JdbcTemplate jdbc(int shard) {
+		JdbcTemplate jdbc = new JdbcTemplate(diretorio.banco(shard));
+		jdbc.setFetchSize(TAMANHO_LOTE);
+		return jdbc;
+	}
+
+	private TransactionTemplate transacao(int shard) {
+		return new TransactionTemplate(new DataSourceTransactionManager(diretorio.banco(shard)));
+	}
+
+	// 🔹 Sem transação, roda na hora; falhas depois do commit só vão para o log
+	private static void aposCommit(Runnable acao) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			acao.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				try {
+					acao.run();
+				} catch (RuntimeException e) {
+					log.error("Falha ao atualizar as cópias nos shards", e);
+				}
+			}
+		});
+	}
+
+	private enum Copia {
+		COM_ID,
+		SEM_ID,
+		// 🔹 A linha pode já existir no destino (dados globais): atualiza ou insere
+		ATUALIZANDO
+	}
+
+	private record Tabela(String nome, String filtro, Copia copia) {
+	}
+
+	/**
+	 * Grava no destino as linhas lidas da origem. O INSERT é montado com as
+	 * colunas da primeira linha, então serve para qualquer tabela.
+	 */
+	private static final class Gravacao implements RowCallbackHandler {
+
+		private final JdbcTemplate destino;
+		private final Tabela tabela;
+		private final List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+		private List<String> colunas;
+		private int[] indices;
+		private int linhas;
+
+		private Gravacao(JdbcTemplate destino, Tabela tabela) {
+			this.destino = destino;
+			this.tabela = tabela;
+		}
+
+		@Override
+		public void processRow(ResultSet rs) throws SQLException {
+			if (colunas == null) {
+				iniciar(rs.getMetaData());
+			}
+			Object[] valores = new Object[indices.length];
+			for (int i = 0; i < indices.length; i++) {
+				valores[i] = rs.getObject(indices[i]);
+			}
+			lote.add(valores);
+			if (lote.size() == TAMANHO_LOTE) {
+				gravar();
+			}
+		}
+
+		private void iniciar(ResultSetMetaData metadados) throws SQLException {
+			colunas = new ArrayList<>();
+			List<Integer> selecionados = new ArrayList<>();
+			for (int i = 1; i <= metadados.getColumnCount(); i++) {
+				String coluna = metadados.getColumnLabel(i).toLowerCase();
+				if (tabela.copia() != Copia.SEM_ID || !coluna.equals("id")) {
+					colunas.add(coluna);
+					selecionados.add(i);
+				}
+			}
+			indices = selecionados.stream().mapToInt(Integer::intValue).toArray();
+		}
+
+		private void terminar() {
+			if (!lote.isEmpty()) {
+				gravar();
+			}
+		}
+
+		private void gravar() {
+			String insert = "INSERT INTO " + tabela.nome() + " (" + String.join(", ", colunas) + ") VALUES ("
+					+ String.join(", ", colunas.stream().map(coluna -> "?").toList()) + ")";
+			if (tabela.copia() == Copia.ATUALIZANDO) {
+				atualizarOuInserir(insert);
+			} else {
+				destino.batchUpdate(insert, lote);
+			}
+			linhas += lote.size();
+			lote.clear();
+		}
+
+		// 🔹 Poucas linhas (o usuário, as tags dele): uma a uma, pelo id
+		private void atualizarOuInserir(String insert) {
+			int id = colunas.indexOf("id");
+			List<String> demais = colunas.stream().filter(coluna -> !coluna.equals("id")).toList();
+			String update = "UPDATE " + tabela.nome() + " SET "
+					+ String.join(", ", demais.stream().map(coluna -> coluna + " = ?").toList()) + " WHERE id = ?";
+			for (Object[] valores : lote) {
+				List<Object> parametros = new ArrayList<>(valores.length);
+				for (int i = 0; i < valores.length; i++) {
+					if (i != id) {
+						parametros.add(valores[i]);
+					}
+				}
+				parametros.add(valores[id]);
+				if (destino.update(update, parametros.toArray()) == 0) {
+					destino.update(insert, valores);
+				}
+			}
+		}
+	}
+}
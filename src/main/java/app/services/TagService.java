@@ -1,17 +1,43 @@
 package app.services;
 
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import app.config.NoCatalogo;
+import app.dto.Cursor;
+import app.dto.Pagina;
 import app.entities.Tag;
 import app.exceptions.TagNotFoundException;
 import app.repositories.TagRepository;
-import jakarta.transaction.Transactional;
+import jakarta.annotation.PostConstruct;
 
+/**
+ * Cadastro de tags e resolução das tags de uma transação. Um dicionário em
+ * memória (nome → id), carregado na subida e atualizado a cada criação,
+ * renomeação e exclusão, evita consultar o banco por nome. Tags criadas por
+ * outras instâncias entram no dicionário na primeira vez que são usadas aqui;
+ * entradas que ficaram velhas são descartadas quando a tag lida não confere.
+ *
+ * Com shards, as tags são cadastradas no catálogo; cada shard tem cópias das
+ * tags que as transações dele usam (ver ShardService).
+ */
 @Service
 @Transactional
 public class TagService {
@@ -19,10 +45,29 @@ public class TagService {
     @Autowired
     private TagRepository tagRepository;
 
-    public List<Tag> findAll() {
-        return tagRepository.findAll();
+    @Autowired(required = false)
+    private ShardService shardService;
+
+    private final Map<String, Long> idsPorNome = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void carregarDicionario() {
+        for (Object[] linha : tagRepository.findNomesEIds()) {
+            idsPorNome.put(chave((String) linha[0]), (Long) linha[1]);
+        }
     }
 
+    @NoCatalogo
+    @Transactional(readOnly = true)
+    public Pagina<Tag> findAll(String cursor, Integer tamanho) {
+        int limite = Pagina.tamanho(tamanho);
+        List<Tag> linhas = tagRepository.findPaginaAposId(Cursor.decodificarId(cursor, 0L),
+                Pagina.limiteConsulta(limite));
+        return Pagina.de(linhas, limite, item -> Cursor.codificar(item.getId()));
+    }
+
+    @NoCatalogo
+    @Transactional(readOnly = true)
     public Tag findById(Long id) {
         Optional<Tag> tagOptional = tagRepository.findById(id);
         if (tagOptional.isEmpty()) {
@@ -31,26 +76,194 @@ public class TagService {
         return tagOptional.get();
     }
 
+    @NoCatalogo
     public Tag save(Tag tag) {
-        Optional<Tag> existente = tagRepository.findByNome(tag.getNome());
-
-        // Se for criação (tag sem ID) e nome já existe
-        if (tag.getId() == null && existente.isPresent()) {
-            throw new DataIntegrityViolationException("Já existe uma tag com esse nome.");
+        // 🔹 O nome é único no banco: o dicionário barra o caso comum sem consulta e
+        // a constraint barra o que o dicionário ainda não conhece
+        Long existente = tag.getNome() != null ? idsPorNome.get(chave(tag.getNome())) : null;
+        if (existente != null && !existente.equals(tag.getId())) {
+            // 🔍 Só confirma no banco quando há conflito, caso a entrada esteja velha
+            if (tagRepository.findById(existente).map(Tag::getNome).map(TagService::chave)
+                    .filter(chave(tag.getNome())::equals).isPresent()) {
+                throw new DataIntegrityViolationException("Já existe uma tag com esse nome.");
+            }
+            idsPorNome.remove(chave(tag.getNome()), existente);
         }
 
-        // Se for edição e nome já existe em outra tag
-        if (tag.getId() != null && existente.isPresent() && !existente.get().getId().equals(tag.getId())) {
-            throw new DataIntegrityViolationException("Já existe uma tag com esse nome.");
+        boolean renomeada = tag.getId() != null;
+        Tag salva = tagRepository.save(tag);
+        if (renomeada && shardService != null) {
+            shardService.aoRenomearTag(salva.getId(), salva.getNome());
         }
-
-        return tagRepository.save(tag);
+        aposCommit(() -> {
+            idsPorNome.values().remove(salva.getId());
+            registrar(salva);
+        });
+        return salva;
     }
 
+    @NoCatalogo
     public void deleteById(Long id) {
         if (!tagRepository.existsById(id)) {
             throw new TagNotFoundException("Tag não encontrada com o ID: " + id);
         }
+        if (shardService != null) {
+            shardService.aoExcluirTag(id);
+        }
         tagRepository.deleteById(id);
+        aposCommit(() -> idsPorNome.values().remove(id));
+    }
+
+    /**
+     * Troca as tags informadas em uma transação pelas entidades gravadas. Tags
+     * com id precisam existir; tags só com nome são buscadas pelo nome e criadas
+     * se ainda não existirem. No caso comum (nomes já conhecidos) custa uma
+     * única consulta, pelos ids.
+     */
+    public List<Tag> resolver(List<Tag> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return tags;
+        }
+        Resolucao resolucao = resolverTodas(tags);
+
+        // 🔹 Mesma ordem do pedido, sem repetir tags
+        Map<Long, Tag> resolvidas = new LinkedHashMap<>();
+        for (Tag tag : tags) {
+            Tag resolvida = resolucao.de(tag);
+            if (resolvida == null) {
+                throw new DataIntegrityViolationException("Tag não encontrada com ID: " + tag.getId());
+            }
+            resolvidas.putIfAbsent(resolvida.getId(), resolvida);
+        }
+        return new ArrayList<>(resolvidas.values());
+    }
+
+    /**
+     * Resolve de uma vez as tags de várias transações (ex.: um lote importado),
+     * com as mesmas consultas de {@link #resolver(List)}. Tags com id inexistente
+     * ficam sem resolução em vez de lançar exceção, para quem chama recusar só as
+     * transações que as usam.
+     */
+    public Resolucao resolverTodas(Collection<Tag> tags) {
+        if (shardService == null || !shardService.emShard()) {
+            return resolverNoBanco(tags);
+        }
+        // 🔹 Tags novas só nascem no catálogo; o shard recebe cópias das usadas
+        Resolucao resolucao = shardService.noCatalogo(() -> resolverNoBanco(tags));
+        tagRepository.copiar(resolucao.todas());
+        return resolucao;
+    }
+
+    private Resolucao resolverNoBanco(Collection<Tag> tags) {
+        Set<Long> idsInformados = new LinkedHashSet<>();
+        Map<Long, String> nomesPorId = new HashMap<>();
+        Set<String> nomesNovos = new LinkedHashSet<>();
+        for (Tag tag : tags) {
+            if (tag.getId() != null) {
+                idsInformados.add(tag.getId());
+            } else if (tag.getNome() == null || tag.getNome().isBlank()) {
+                throw new DataIntegrityViolationException("A tag precisa de um ID ou de um nome.");
+            } else {
+                Long id = idsPorNome.get(chave(tag.getNome()));
+                if (id != null) {
+                    nomesPorId.put(id, tag.getNome());
+                } else {
+                    nomesNovos.add(tag.getNome());
+                }
+            }
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(idsInformados);
+        ids.addAll(nomesPorId.keySet());
+        Map<Long, Tag> encontradas = new HashMap<>();
+        if (!ids.isEmpty()) {
+            tagRepository.findAllById(ids).forEach(tag -> encontradas.put(tag.getId(), tag));
+        }
+
+        // 🔍 Entrada velha no dicionário (tag excluída ou renomeada em outra
+        // instância): descarta e resolve o nome pelo banco
+        Map<String, Tag> porNome = new HashMap<>();
+        nomesPorId.forEach((id, nome) -> {
+            Tag tag = encontradas.get(id);
+            if (tag != null && tag.getNome() != null && chave(tag.getNome()).equals(chave(nome))) {
+                porNome.put(chave(nome), tag);
+            } else {
+                idsPorNome.remove(chave(nome), id);
+                nomesNovos.add(nome);
+            }
+        });
+
+        if (!nomesNovos.isEmpty()) {
+            tagRepository.inserirAusentes(nomesNovos);
+            for (Tag tag : tagRepository.findByNomeIn(nomesNovos)) {
+                porNome.put(chave(tag.getNome()), tag);
+            }
+            for (String nome : nomesNovos) {
+                // 🔍 Nome que o banco considera igual a outro de um jeito que chave() não cobre
+                porNome.computeIfAbsent(chave(nome), k -> tagRepository.findByNome(nome)
+                        .orElseThrow(() -> new DataIntegrityViolationException("Tag não encontrada: " + nome)));
+            }
+            List<Tag> criadas = List.copyOf(porNome.values());
+            aposCommit(() -> criadas.forEach(this::registrar));
+        }
+
+        encontradas.keySet().retainAll(idsInformados);
+        return new Resolucao(encontradas, porNome);
+    }
+
+    /**
+     * Tags gravadas, pelo id ou pelo nome com que foram informadas.
+     */
+    public static final class Resolucao {
+
+        private final Map<Long, Tag> porId;
+        private final Map<String, Tag> porNome;
+
+        private Resolucao(Map<Long, Tag> porId, Map<String, Tag> porNome) {
+            this.porId = porId;
+            this.porNome = porNome;
+        }
+
+        /**
+         * A tag gravada correspondente à informada, ou null se o id não existe.
+         */
+        public Tag de(Tag tag) {
+            return tag.getId() != null ? porId.get(tag.getId()) : porNome.get(chave(tag.getNome()));
+        }
+
+        Collection<Tag> todas() {
+            Map<Long, Tag> todas = new LinkedHashMap<>(porId);
+            porNome.values().forEach(tag -> todas.putIfAbsent(tag.getId(), tag));
+            return todas.values();
+        }
+    }
+
+    private void registrar(Tag tag) {
+        if (tag.getNome() != null) {
+            idsPorNome.put(chave(tag.getNome()), tag.getId());
+        }
+    }
+
+    // 🔹 O dicionário só muda depois do commit, para não apontar para tags que
+    // acabaram desfeitas no rollback
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    /**
+     * Chave do dicionário: a comparação de nomes do banco ignora maiúsculas e
+     * acentos, então "Mercado" e "mércado" são a mesma tag.
+     */
+    static String chave(String nome) {
+        return Normalizer.normalize(nome.toLowerCase(Locale.ROOT), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
     }
 }
@@ -0,0 +1,330 @@
+package app.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.config.ContextoShard;
+import app.config.DiretorioShards;
+import app.dto.ResultadoLinhaLote;
+import app.dto.ResultadoLoteDTO;
+import app.entities.Tag;
+import app.entities.Transacao;
+import app.exceptions.LoteInvalidoException;
+import app.repositories.CategoriaRepository;
+import app.repositories.ContaRepository;
+import app.repositories.TransacaoLoteRepository;
+import app.repositories.UsuarioRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Gravação de muitas transações de uma vez (POST /transacoes/lote). O lote é
+ * gravado em blocos de {@code granaguru.lote.transacoes-por-bloco}, cada um na
+ * sua própria transação do banco. Em cada bloco, usuários, contas, categorias e
+ * tags são conferidos com uma consulta IN por tipo, as transações inválidas
+ * são recusadas uma a uma e as demais são inseridas via JDBC em lote, com o
+ * saldo e os gastos atualizados uma vez por conta e por intervalo.
+ *
+ * Uma falha ao gravar um bloco recusa só as transações daquele bloco; os
+ * blocos já gravados continuam gravados. Com shards, as transações são
+ * separadas pelo shard do usuário de cada uma e cada parte é gravada no seu.
+ */
+@Service
+public class TransacaoLoteService {
+
+	private static final Logger log = LoggerFactory.getLogger(TransacaoLoteService.class);
+
+	private static final int TAMANHO_TEXTO = 255;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	@Autowired
+	private TagService tagService;
+
+	@Autowired
+	private SaldoContaService saldoContaService;
+
+	@Autowired
+	private GastoPeriodoService gastoPeriodoService;
+
+	@Autowired
+	private TransacaoLoteRepository transacaoLoteRepository;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired(required = false)
+	private DiretorioShards diretorioShards;
+
+	@Value("${granaguru.lote.maximo-transacoes:10000}")
+	private int maximoTransacoes;
+
+	@Value("${granaguru.lote.transacoes-por-bloco:1000}")
+	private int transacoesPorBloco;
+
+	private TransactionTemplate transacao;
+
+	@PostConstruct
+	void iniciar() {
+		transacao = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Grava as transações válidas do lote e devolve, para cada transação enviada
+	 * e na mesma ordem, o ID gravado ou o motivo da recusa.
+	 */
+	public ResultadoLoteDTO importar(List<Transacao> transacoes) {
+		if (transacoes == null || transacoes.isEmpty()) {
+			throw new LoteInvalidoException("O lote não tem transações.");
+		}
+		if (transacoes.size() > maximoTransacoes) {
+			throw new LoteInvalidoException("O lote pode ter no máximo " + maximoTransacoes + " transações.");
+		}
+
+		String[] erros = new String[transacoes.size()];
+		if (diretorioShards == null) {
+			gravar(transacoes, erros);
+		} else {
+			gravarPorShard(transacoes, erros);
+		}
+
+		List<ResultadoLinhaLote> linhas = new ArrayList<>(transacoes.size());
+		int inseridas = 0;
+		for (int i = 0; i < transacoes.size(); i++) {
+			if (erros[i] == null) {
+				linhas.add(new ResultadoLinhaLote(i, transacoes.get(i).getId(), null));
+				inseridas++;
+			} else {
+				linhas.add(new ResultadoLinhaLote(i, null, erros[i]));
+			}
+		}
+		return new ResultadoLoteDTO(transacoes.size(), inseridas, transacoes.size() - inseridas, linhas);
+	}
+
+	private void gravar(List<Transacao> transacoes, String[] erros) {
+		for (int inicio = 0; inicio < transacoes.size(); inicio += transacoesPorBloco) {
+			gravarBloco(transacoes, inicio, Math.min(inicio + transacoesPorBloco, transacoes.size()), erros);
+		}
+	}
+
+	// 🔹 O lote pode ter transações de usuários em shards diferentes: cada parte é
+	// gravada no shard do seu usuário, e os erros voltam para a posição original
+	private void gravarPorShard(List<Transacao> transacoes, String[] erros) {
+		Map<Integer, List<Integer>> posicoesPorShard = new TreeMap<>();
+		for (int i = 0; i < transacoes.size(); i++) {
+			Integer shard = shardDa(transacoes.get(i));
+			if (shard == null) {
+				erros[i] = "Os dados do usuário estão sendo movidos de shard; envie a transação novamente.";
+			} else {
+				posicoesPorShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(i);
+			}
+		}
+		posicoesPorShard.forEach((shard, posicoes) -> {
+			List<Transacao> parte = posicoes.stream().map(transacoes::get).toList();
+			String[] errosParte = new String[parte.size()];
+			ContextoShard.executar(shard, () -> gravar(parte, errosParte));
+			for (int i = 0; i < posicoes.size(); i++) {
+				erros[posicoes.get(i)] = errosParte[i];
+			}
+		});
+	}
+
+	// 🔹 Sem usuário a transação é recusada na validação, em qualquer shard; null
+	// se o usuário está sendo movido
+	private Integer shardDa(Transacao transacao) {
+		if (transacao == null || transacao.getUsuario() == null || transacao.getUsuario().getId() == null) {
+			return ContextoShard.CATALOGO;
+		}
+		DiretorioShards.Localizacao localizacao = diretorioShards.localizar(transacao.getUsuario().getId());
+		return localizacao.emMovimentacao() ? null : localizacao.shard();
+	}
+
+	private void gravarBloco(List<Transacao> transacoes, int inicio, int fim, String[] erros) {
+		try {
+			transacao.executeWithoutResult(status -> {
+				List<Transacao> validas = validar(transacoes, inicio, fim, erros);
+				saldoContaService.registrar(validas);
+				gastoPeriodoService.registrar(validas);
+				transacaoLoteRepository.inserir(validas);
+			});
+		} catch (RuntimeException e) {
+			log.warn("Falha ao gravar as transações {} a {} do lote", inicio, fim - 1, e);
+			for (int i = inicio; i < fim; i++) {
+				if (erros[i] == null) {
+					erros[i] = "Falha ao gravar o bloco desta transação; envie-a novamente.";
+				}
+			}
+		}
+	}
+
+	/**
+	 * Confere as transações de um bloco, anota o erro das inválidas e devolve as
+	 * válidas, já com os valores padrão e as tags gravadas.
+	 */
+	private List<Transacao> validar(List<Transacao> transacoes, int inicio, int fim, String[] erros) {
+		Set<Long> usuarioIds = new HashSet<>();
+		Set<Long> contaIds = new HashSet<>();
+		Set<Long> categoriaIds = new HashSet<>();
+		for (int i = inicio; i < fim; i++) {
+			Transacao transacao = transacoes.get(i);
+			erros[i] = validarCampos(transacao);
+			if (erros[i] == null) {
+				preencherPadroes(transacao);
+				usuarioIds.add(transacao.getUsuario().getId());
+				contaIds.add(transacao.getConta().getId());
+				categoriaIds.add(transacao.getCategoria().getId());
+			}
+		}
+
+		// 🔹 Uma consulta por tipo de referência para o bloco inteiro
+		Set<Long> usuarios = usuarioIds.isEmpty() ? Set.of()
+				: new HashSet<>(usuarioRepository.findIdsExistentes(usuarioIds));
+		Map<Long, Long> usuarioDaConta = contaIds.isEmpty() ? Map.of()
+				: porId(contaRepository.findIdsEUsuarios(contaIds));
+		Map<Long, Long> usuarioDaCategoria = categoriaIds.isEmpty() ? Map.of()
+				: porId(categoriaRepository.findIdsEUsuarios(categoriaIds));
+
+		List<Tag> tags = new ArrayList<>();
+		for (int i = inicio; i < fim; i++) {
+			if (erros[i] != null) {
+				continue;
+			}
+			Transacao transacao = transacoes.get(i);
+			erros[i] = validarReferencias(transacao, usuarios, usuarioDaConta, usuarioDaCategoria);
+			if (erros[i] == null && transacao.getTag() != null) {
+				tags.addAll(transacao.getTag());
+			}
+		}
+
+		// 🔹 Tags de todo o bloco resolvidas juntas (ver TagService#resolverTodas)
+		TagService.Resolucao resolucao = tags.isEmpty() ? null : tagService.resolverTodas(tags);
+		List<Transacao> validas = new ArrayList<>();
+		for (int i = inicio; i < fim; i++) {
+			if (erros[i] != null) {
+				continue;
+			}
+			Transacao transacao = transacoes.get(i);
+			if (transacao.getTag() != null && !transacao.getTag().isEmpty()) {
+				Map<Long, Tag> resolvidas = new LinkedHashMap<>();
+				for (Tag tag : transacao.getTag()) {
+					Tag resolvida = resolucao.de(tag);
+					if (resolvida == null) {
+						erros[i] = "Tag não encontrada com ID: " + tag.getId();
+						break;
+					}
+					resolvidas.putIfAbsent(resolvida.getId(), resolvida);
+				}
+				if (erros[i] != null) {
+					continue;
+				}
+				transacao.setTag(new ArrayList<>(resolvidas.values()));
+			}
+			validas.add(transacao);
+		}
+		return validas;
+	}
+
+	private String validarCampos(Transacao transacao) {
+		if (transacao == null) {
+			return "Transação vazia.";
+		}
+		Set<ConstraintViolation<Transacao>> violacoes = validator.validate(transacao);
+		if (!violacoes.isEmpty()) {
+			return violacoes.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()).sorted()
+					.collect(Collectors.joining("; "));
+		}
+		if (transacao.getUsuario().getId() == null || transacao.getConta().getId() == null
+				|| transacao.getCategoria().getId() == null) {
+			return "Usuário, conta e categoria precisam ser informados pelo ID.";
+		}
+		if (transacao.getTransacaoRecorrente() != null) {
+			return "Transações de recorrências são geradas pelo sistema e não podem vir no lote.";
+		}
+		// 🔹 Colunas de texto do banco: um valor longo demais derrubaria o bloco inteiro
+		if (transacao.getDescricao().length() > TAMANHO_TEXTO || (transacao.getFormaPagamento() != null
+				&& transacao.getFormaPagamento().length() > TAMANHO_TEXTO)) {
+			return "Descrição e forma de pagamento devem ter no máximo " + TAMANHO_TEXTO + " caracteres.";
+		}
+		if (transacao.getTag() != null) {
+			for (Tag tag : transacao.getTag()) {
+				if (tag == null || (tag.getId() == null && (tag.getNome() == null || tag.getNome().isBlank()))) {
+					return "A tag precisa de um ID ou de um nome.";
+				}
+				Set<ConstraintViolation<Tag>> violacoesTag = validator.validate(tag);
+				if (!violacoesTag.isEmpty()) {
+					return violacoesTag.iterator().next().getMessage();
+				}
+			}
+		}
+		return null;
+	}
+
+	private static String validarReferencias(Transacao transacao, Set<Long> usuarios, Map<Long, Long> usuarioDaConta,
+			Map<Long, Long> usuarioDaCategoria) {
+		Long usuarioId = transacao.getUsuario().getId();
+		Long contaId = transacao.getConta().getId();
+		Long categoriaId = transacao.getCategoria().getId();
+		if (!usuarios.contains(usuarioId)) {
+			return "Usuário não encontrado com ID: " + usuarioId;
+		}
+		if (!usuarioDaConta.containsKey(contaId)) {
+			return "Conta não encontrada com ID: " + contaId;
+		}
+		if (!usuarioId.equals(usuarioDaConta.get(contaId))) {
+			return "A conta " + contaId + " não pertence ao usuário " + usuarioId + ".";
+		}
+		if (!usuarioDaCategoria.containsKey(categoriaId)) {
+			return "Categoria não encontrada com ID: " + categoriaId;
+		}
+		if (!usuarioId.equals(usuarioDaCategoria.get(categoriaId))) {
+			return "A categoria " + categoriaId + " não pertence ao usuário " + usuarioId + ".";
+		}
+		return null;
+	}
+
+	// 🔹 Mesmos padrões de TransacaoService#save
+	private static void preencherPadroes(Transacao transacao) {
+		if (transacao.getDataTransacao() == null) {
+			transacao.setDataTransacao(LocalDateTime.now());
+		}
+		if (transacao.getParcelaAtual() == null) {
+			transacao.setParcelaAtual(1);
+		}
+	}
+
+	private static Map<Long, Long> porId(Collection<Object[]> pares) {
+		Map<Long, Long> mapa = new HashMap<>();
+		for (Object[] par : pares) {
+			mapa.put((Long) par[0], (Long) par[1]);
+		}
+		return mapa;
+	}
+}
@@ -1,22 +1,27 @@
 package app.services;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import app.entities.Categoria;
 import app.entities.Conta;
 import app.entities.Transacao;
+import app.dto.Cursor;
+import app.dto.Pagina;
 import app.entities.TransacaoRecorrente;
 import app.entities.Usuario;
-import app.enums.Periodicidade;
 import app.exceptions.TransacaoRecorrenteNotFoundException;
 import app.repositories.CategoriaRepository;
 import app.repositories.ContaRepository;
+import app.repositories.TransacaoLoteRepository;
 import app.repositories.TransacaoRecorrenteRepository;
 import app.repositories.TransacaoRepository;
 import app.repositories.UsuarioRepository;
@@ -30,6 +35,15 @@ public class TransacaoRecorrenteService {
 	@Autowired
 	private TransacaoRepository transacaoRepository;
 
+	@Autowired
+	private TransacaoLoteRepository transacaoLoteRepository;
+
+	@Autowired
+	private SaldoContaService saldoContaService;
+
+	@Autowired
+	private GastoPeriodoService gastoPeriodoService;
+
 	@Autowired
 	private UsuarioRepository usuarioRepository;
 
@@ -39,15 +53,21 @@ public class TransacaoRecorrenteService {
 	@Autowired
 	private CategoriaRepository categoriaRepository;
 
-	public List<TransacaoRecorrente> findAll() {
-		return transacaoRecorrenteRepository.findAll();
+	@Transactional(readOnly = true)
+	public Pagina<TransacaoRecorrente> findAll(String cursor, Integer tamanho) {
+		int limite = Pagina.tamanho(tamanho);
+		List<TransacaoRecorrente> linhas = transacaoRecorrenteRepository.findPaginaAposId(Cursor.decodificarId(cursor, 0L),
+				Pagina.limiteConsulta(limite));
+		return Pagina.de(linhas, limite, item -> Cursor.codificar(item.getId()));
 	}
 
+	@Transactional(readOnly = true)
 	public TransacaoRecorrente findById(Long id) {
-		return transacaoRecorrenteRepository.findById(id)
+		return transacaoRecorrenteRepository.findComDetalhesById(id)
 				.orElseThrow(() -> new TransacaoRecorrenteNotFoundException(id));
 	}
 
+	@Transactional
 	public TransacaoRecorrente save(TransacaoRecorrente transacaoRecorrente) {
 
 		if (transacaoRecorrente.getDataInicial() == null) {
@@ -57,8 +77,7 @@ public class TransacaoRecorrenteService {
 		// Criar validação em caso de dataInicial já ter ocorrido (além de campo
 		// pago/não pago)
 		if (transacaoRecorrente.getProximaExecucao() == null) {
-			transacaoRecorrente.setProximaExecucao(calcularProximaExecucao(transacaoRecorrente.getDataInicial(),
-					transacaoRecorrente.getPeriodicidade()));
+			transacaoRecorrente.setProximaExecucao(CalendarioRecorrencia.de(transacaoRecorrente).ocorrencia(2));
 		}
 
 		Usuario usuario = usuarioRepository.findById(transacaoRecorrente.getUsuario().getId())
@@ -101,7 +120,15 @@ public class TransacaoRecorrenteService {
 		transacaoRecorrenteRepository.deleteById(id);
 	}
 
-	public void processarTransacoesRecorrentes(TransacaoRecorrente recorrente) {
+	/**
+	 * Gera as transações pendentes de uma recorrência até o momento atual e
+	 * avança a próxima execução. As datas pendentes são calculadas em memória,
+	 * as já materializadas vêm de uma única consulta e as que faltam são
+	 * inseridas em lote, tudo na mesma transação. Retorna quantas transações
+	 * foram criadas.
+	 */
+	@Transactional
+	public int processarTransacoesRecorrentes(TransacaoRecorrente recorrente) {
 
 		LocalDateTime agora = LocalDateTime.now();
 
@@ -111,109 +138,62 @@ public class TransacaoRecorrenteService {
 			recorrente.setProximaExecucao(recorrente.getDataInicial());
 		}
 
-		// 🔹 Se a transação já deveria ter ocorrido, calcula as ocorrências pendentes
-		if (recorrente.getProximaExecucao().isBefore(agora)) {
-			LocalDateTime dataExecucao = recorrente.getProximaExecucao();
-			int ocorrencias = 0;
-
-			// 🔹 Loop para gerar todas as transações que ficaram pendentes
-			while (!dataExecucao.isAfter(agora)) {
-				if (!transacaoRepository.existsByTransacaoRecorrenteAndDataTransacao(recorrente, dataExecucao)) {
-					criarTransacaoRecorrente(recorrente, dataExecucao); // 🔹 Cria a transação para a data específica
-					ocorrencias++;
-				}
-				dataExecucao = calcularProximaExecucao(dataExecucao, recorrente.getPeriodicidade());
-			}
+		// 🔹 Nada a fazer se a próxima execução ainda não chegou
+		if (!recorrente.getProximaExecucao().isBefore(agora)) {
+			return 0;
+		}
 
-			// 🔹 Atualiza a próxima data de execução
-			recorrente.setProximaExecucao(dataExecucao);
+		// 🔹 Calcula todas as datas que ficaram pendentes
+		CalendarioRecorrencia calendario = CalendarioRecorrencia.de(recorrente);
+		List<LocalDateTime> pendentes = new ArrayList<>();
+		for (LocalDateTime data : calendario.ocorrenciasEntre(recorrente.getProximaExecucao(), agora)) {
+			pendentes.add(data);
+		}
+		LocalDateTime dataExecucao = calendario.proximaApos(agora);
 
-			// 🔹 Salva a recorrência atualizada no banco
+		if (pendentes.isEmpty()) {
+			recorrente.setProximaExecucao(dataExecucao);
 			transacaoRecorrenteRepository.save(recorrente);
-
-			System.out.println(
-					"⚡ Processadas " + ocorrencias + " transações pendentes para " + recorrente.getDescricao());
+			return 0;
 		}
-	}
 
-	/**
-	 * Calcula a próxima data de execução de uma transação recorrente com base na
-	 * periodicidade.
-	 */
-	private LocalDateTime calcularProximaExecucao(LocalDateTime dataAtual, Periodicidade periodicidade) {
-		switch (periodicidade) {
-			case DIARIA:
-				return dataAtual.plusDays(1);
-			case SEMANAL:
-				return dataAtual.plusWeeks(1);
-			case MENSAL:
-				return dataAtual.plusMonths(1);
-			case ANUAL:
-				return dataAtual.plusYears(1);
-			default:
-				throw new IllegalArgumentException("Periodicidade inválida: " + periodicidade);
-		}
-	}
+		// 🔹 Uma consulta traz as datas já geradas no intervalo, evitando duplicação
+		Set<LocalDateTime> existentes = new HashSet<>(transacaoRepository.findDatasByTransacaoRecorrenteIdEntre(
+				recorrente.getId(), pendentes.get(0), pendentes.get(pendentes.size() - 1)));
 
-	private void criarTransacaoRecorrente(TransacaoRecorrente recorrente, LocalDateTime dataExecucao) {
-		// 🔹 Verifica se a transação já foi gerada para essa data para evitar
-		// duplicação
-		if (transacaoRepository.existsByTransacaoRecorrenteAndDataTransacao(recorrente, dataExecucao)) {
-			return; // Se já existe uma transação para essa data, não cria outra
+		List<Transacao> novas = new ArrayList<>();
+		for (LocalDateTime data : pendentes) {
+			if (!existentes.contains(data)) {
+				novas.add(montarTransacaoRecorrente(recorrente, data, calendario.indiceDe(data)));
+			}
 		}
 
-		// 🔹 Calcula o número da parcela atual
-		Integer parcelaAtual = calcularParcelaAtual(recorrente, dataExecucao);
+		// 🔹 Atualiza o saldo da conta e os gastos, e insere as transações que faltam em lote
+		saldoContaService.registrar(novas);
+		gastoPeriodoService.registrar(novas);
+		transacaoLoteRepository.inserir(novas);
 
+		// 🔹 Atualiza a próxima data de execução
+		recorrente.setProximaExecucao(dataExecucao);
+		transacaoRecorrenteRepository.save(recorrente);
+
+		return novas.size();
+	}
+
+	private Transacao montarTransacaoRecorrente(TransacaoRecorrente recorrente, LocalDateTime dataExecucao,
+			long parcelaAtual) {
 		// 🔹 Define a descrição correta para despesas fixas ou parcelamentos fechados
 		String descricao = recorrente.isDespesaFixa() ? recorrente.getDescricao() // Se for despesa fixa, mantém a
 																					// descrição original
 				: recorrente.getDescricao() + " - Parcela " + parcelaAtual + "/" + recorrente.getTotalParcelas();
 
 		// 🔹 Criação da transação com os dados da recorrência
-		Transacao transacao = Transacao.builder().usuario(recorrente.getUsuario()).conta(recorrente.getConta())
+		return Transacao.builder().usuario(recorrente.getUsuario()).conta(recorrente.getConta())
 				.categoria(recorrente.getCategoria()).tipo(recorrente.getTipo()).valor(recorrente.getValor())
 				.descricao(descricao) // Usa a descrição correta com ou sem parcela
-				.parcelaAtual(parcelaAtual).dataTransacao(dataExecucao) // Usa a data correta de execução
+				.parcelaAtual((int) parcelaAtual).dataTransacao(dataExecucao) // Usa a data correta de execução
 				.transacaoRecorrente(recorrente) // Mantém a referência à recorrente
 				.build();
-
-		// 🔹 Salva a transação gerada
-		transacaoRepository.save(transacao);
-	}
-
-	/**
-	 * Calcula qual é a parcela atual de uma transação recorrente com base no número
-	 * de transações já geradas.
-	 */
-	private int calcularParcelaAtual(TransacaoRecorrente recorrente, LocalDateTime dataExecucao) {
-		// Verifica se a transação recorrente tem uma data inicial válida
-		if (recorrente.getDataInicial() == null) {
-			throw new IllegalArgumentException("A transação recorrente precisa ter uma data inicial definida.");
-		}
-
-		// Calcula a diferença de tempo entre a data inicial e a data da transação que
-		// será gerada
-		long diferenca = 0;
-
-		switch (recorrente.getPeriodicidade()) {
-			case DIARIA:
-				diferenca = ChronoUnit.DAYS.between(recorrente.getDataInicial(), dataExecucao);
-				break;
-			case SEMANAL:
-				diferenca = ChronoUnit.WEEKS.between(recorrente.getDataInicial(), dataExecucao);
-				break;
-			case MENSAL:
-				diferenca = ChronoUnit.MONTHS.between(recorrente.getDataInicial(), dataExecucao);
-				break;
-			case ANUAL:
-				diferenca = ChronoUnit.YEARS.between(recorrente.getDataInicial(), dataExecucao);
-				break;
-			default:
-				throw new IllegalArgumentException("Periodicidade desconhecida: " + recorrente.getPeriodicidade());
-		}
-
-		return (int) diferenca + 1; // Retorna a parcela correta, considerando a primeira como 1
 	}
 
 }
@@ -2,134 +2,307 @@ package app.services;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import app.config.NoShardDoUsuario;
+import app.dto.Cursor;
+import app.dto.MovimentoTransacao;
+import app.dto.Pagina;
+import app.dto.TransacaoDTO;
+import app.dto.TransacaoFiltro;
 import app.entities.Categoria;
 import app.entities.Conta;
-import app.entities.Tag;
 import app.entities.Transacao;
-import app.entities.TransacaoRecorrente;
 import app.entities.Usuario;
 import app.enums.Periodicidade;
 import app.enums.TipoTransacao;
 import app.exceptions.TransacaoNotFoundException;
+import app.exceptions.UsuarioNotFoundException;
 import app.repositories.CategoriaRepository;
 import app.repositories.ContaRepository;
-import app.repositories.TagRepository;
-import app.repositories.TransacaoRecorrenteRepository;
 import app.repositories.TransacaoRepository;
+import app.repositories.TransacaoSpecifications;
 import app.repositories.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 @Transactional
 public class TransacaoService {
 
+	private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("dataTransacao", "valor", "descricao", "id");
 
 	@Autowired
 	private TransacaoRepository transacaoRepository;
 
 	@Autowired
-	private TransacaoRecorrenteService transacaoRecorrenteService;
+	private UsuarioRepository usuarioRepository;
 
 	@Autowired
-	private TransacaoRecorrenteRepository transacaoRecorrenteRepository;
+	private ContaRepository contaRepository;
 
 	@Autowired
-	private UsuarioRepository usuarioRepository;
+	private CategoriaRepository categoriaRepository;
 
 	@Autowired
-	private ContaRepository contaRepository;
+	private TagService tagService;
 
 	@Autowired
-	private CategoriaRepository categoriaRepository;
-  
-  @Autowired
-    private TagRepository tagRepository;
+	private SaldoContaService saldoContaService;
+
+	@Autowired
+	private GastoPeriodoService gastoPeriodoService;
+
+	@PersistenceContext
+	private EntityManager entityManager;
 
 	/**
-	 * Retorna todas as transações cadastradas no banco. Gera registros na tabela
-	 * transacoes sob demanda, conforme a coluna proximaExecucao da tabela
-	 * transacoes_recorrentes.
+	 * Busca transações combinando os filtros informados em uma única consulta no
+	 * banco, já ordenada e limitada a no máximo {@link TransacaoFiltro#LIMITE_MAXIMO}
+	 * linhas, já como {@link TransacaoDTO}.
 	 */
-  
-  public List<Transacao> buscarComFiltros(String tipo, Long categoriaId, Long contaId, Long usuarioId) {
-	    List<Transacao> todas = transacaoRepository.findAll();
-
-	    return todas.stream()
-	            .filter(t -> (tipo == null || t.getTipo().name().equalsIgnoreCase(tipo)))
-	            .filter(t -> (categoriaId == null || (t.getCategoria() != null && t.getCategoria().getId().equals(categoriaId))))
-	            .filter(t -> (contaId == null || (t.getConta() != null && t.getConta().getId().equals(contaId))))
-	            .filter(t -> (usuarioId == null || (t.getUsuario() != null && t.getUsuario().getId().equals(usuarioId))))
-	            .toList();
-	}
-
-	public List<Transacao> findAll() {
-		// 🔹 Busca transações recorrentes pendentes de execução
-		List<TransacaoRecorrente> recorrenciasPendentes = transacaoRecorrenteRepository.findRecorrenciasParaProcessar();
-
-		// 🔹 Processa cada transação recorrente pendente e gera novas transações, se
-		// necessário
-		for (TransacaoRecorrente recorrente : recorrenciasPendentes) {
-			if (!transacaoRepository.existsByTransacaoRecorrenteAndDataTransacao(recorrente,
-					recorrente.getProximaExecucao())) {
-				transacaoRecorrenteService.processarTransacoesRecorrentes(recorrente);
+	@Transactional(readOnly = true)
+	public List<TransacaoDTO> buscarComFiltros(TransacaoFiltro filtro) {
+		Specification<Transacao> especificacao = montarEspecificacao(filtro);
+		Sort ordenacao = montarOrdenacao(filtro);
+		int limite = limitar(filtro.getLimite());
+
+		return comTags(transacaoRepository.buscarLinhas(especificacao, ordenacao, limite));
+	}
+
+	/**
+	 * {@link #buscarComFiltros} quando o filtro tem usuário: a consulta vai ao
+	 * shard desse usuário, e não ao do usuário autenticado.
+	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
+	public List<TransacaoDTO> buscarComFiltrosDoUsuario(Long usuarioId, TransacaoFiltro filtro) {
+		return buscarComFiltros(filtro);
+	}
+
+	private Specification<Transacao> montarEspecificacao(TransacaoFiltro filtro) {
+		List<Specification<Transacao>> criterios = new ArrayList<>();
+
+		if (filtro.getTipo() != null && !filtro.getTipo().isBlank()) {
+			try {
+				criterios.add(TransacaoSpecifications.doTipo(TipoTransacao.valueOf(filtro.getTipo().trim().toUpperCase())));
+			} catch (IllegalArgumentException e) {
+				// Tipo desconhecido: nenhuma transação corresponde ao filtro
+				criterios.add(TransacaoSpecifications.nenhuma());
 			}
 		}
+		if (filtro.getUsuarioId() != null) {
+			criterios.add(TransacaoSpecifications.doUsuario(filtro.getUsuarioId()));
+		}
+		if (filtro.getContaId() != null) {
+			criterios.add(TransacaoSpecifications.daConta(filtro.getContaId()));
+		}
+		if (filtro.getCategoriaId() != null) {
+			criterios.add(TransacaoSpecifications.daCategoria(filtro.getCategoriaId()));
+		}
+		if (filtro.getDataInicio() != null) {
+			criterios.add(TransacaoSpecifications.dataAPartirDe(filtro.getDataInicio().atStartOfDay()));
+		}
+		if (filtro.getDataFim() != null) {
+			criterios.add(TransacaoSpecifications.dataAntesDe(filtro.getDataFim().plusDays(1).atStartOfDay()));
+		}
+		if (filtro.getValorMinimo() != null) {
+			criterios.add(TransacaoSpecifications.valorMinimo(filtro.getValorMinimo()));
+		}
+		if (filtro.getValorMaximo() != null) {
+			criterios.add(TransacaoSpecifications.valorMaximo(filtro.getValorMaximo()));
+		}
+		if (filtro.getTagIds() != null && !filtro.getTagIds().isEmpty()) {
+			criterios.add(TransacaoSpecifications.comAlgumaTag(filtro.getTagIds()));
+		}
+		if (filtro.getDescricao() != null && !filtro.getDescricao().isBlank()) {
+			criterios.add(TransacaoSpecifications.descricaoContem(filtro.getDescricao().trim()));
+		}
+		if (filtro.getRecorrente() != null) {
+			criterios.add(TransacaoSpecifications.geradaPorRecorrencia(filtro.getRecorrente()));
+		}
+		if (filtro.getTransacaoRecorrenteId() != null) {
+			criterios.add(TransacaoSpecifications.daRecorrencia(filtro.getTransacaoRecorrenteId()));
+		}
+
+		return Specification.allOf(criterios);
+	}
+
+	private Sort montarOrdenacao(TransacaoFiltro filtro) {
+		String campo = filtro.getOrdenarPor() != null && CAMPOS_ORDENAVEIS.contains(filtro.getOrdenarPor())
+				? filtro.getOrdenarPor()
+				: "dataTransacao";
+		Sort.Direction direcao = "ASC".equalsIgnoreCase(filtro.getDirecao()) ? Sort.Direction.ASC : Sort.Direction.DESC;
 
-		// 🔹 Retorna todas as transações após o processamento das recorrentes
-		return transacaoRepository.findAll();
+		// 🔹 O id desempata registros com o mesmo valor no campo de ordenação
+		return campo.equals("id") ? Sort.by(direcao, "id") : Sort.by(direcao, campo, "id");
+	}
+
+	/**
+	 * Percorre todo o histórico de transações de um usuário, da mais recente para
+	 * a mais antiga, entregando uma linha por vez ao destino. Cada entidade é
+	 * desanexada do contexto de persistência logo após ser entregue, de modo que a
+	 * memória usada não cresce com o tamanho do histórico.
+	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
+	public void transmitirHistorico(Long usuarioId, Consumer<TransacaoDTO> destino) {
+		try (Stream<Transacao> transacoes = transacaoRepository.streamByUsuarioId(usuarioId)) {
+			transacoes.forEach(transacao -> {
+				destino.accept(TransacaoDTO.de(transacao));
+				entityManager.detach(transacao);
+			});
+		}
+	}
+
+	/**
+	 * Como {@link #transmitirHistorico}, mas com as linhas montadas direto do
+	 * resultado da consulta, sem carregar as entidades. Usado na exportação.
+	 */
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
+	public void exportarHistorico(Long usuarioId, Consumer<TransacaoDTO> destino) {
+		try (Stream<TransacaoDTO> linhas = transacaoRepository.streamDtoByUsuarioId(usuarioId)) {
+			linhas.forEach(destino);
+		}
+	}
+
+	/**
+	 * Garante que o usuário existe antes de iniciar uma resposta em streaming, já
+	 * que depois do primeiro byte enviado não é mais possível devolver 404.
+	 */
+	@NoShardDoUsuario
+	public void verificarUsuario(Long usuarioId) {
+		if (!usuarioRepository.existsById(usuarioId)) {
+			throw new UsuarioNotFoundException(usuarioId);
+		}
+	}
+
+	private int limitar(Integer limite) {
+		if (limite == null || limite <= 0) {
+			return TransacaoFiltro.LIMITE_PADRAO;
+		}
+		return Math.min(limite, TransacaoFiltro.LIMITE_MAXIMO);
+	}
+
+	/**
+	 * Retorna uma página das transações cadastradas no banco, da mais recente para
+	 * a mais antiga. As transações de recorrências são geradas em segundo plano
+	 * pelo {@link MaterializadorRecorrenciasService}.
+	 */
+	@Transactional(readOnly = true)
+	public Pagina<TransacaoDTO> findAll(String cursor, Integer tamanho) {
+		Cursor posicao = Cursor.decodificarDataEId(cursor);
+		int limite = Pagina.tamanho(tamanho);
+		return paginar(transacaoRepository.findPagina(posicao.getData(), posicao.getId(),
+				Pagina.limiteConsulta(limite)), limite);
 	}
 
 	/**
 	 * Busca uma transação pelo ID. Lança exceção se não for encontrada.
 	 */
+	@Transactional(readOnly = true)
 	public Transacao findById(Long id) {
-		return transacaoRepository.findById(id).orElseThrow(() -> new TransacaoNotFoundException(id));
+		Transacao transacao = transacaoRepository.findComDetalhesById(id)
+				.orElseThrow(() -> new TransacaoNotFoundException(id));
+		Hibernate.initialize(transacao.getTag());
+		return transacao;
 	}
 
 	/**
-	 * Retorna transações associadas a uma conta específica.
+	 * Retorna uma página das transações associadas a uma conta específica.
 	 */
-	public List<Transacao> findByContaId(Long contaId) {
-		return transacaoRepository.findByContaId(contaId);
+	@Transactional(readOnly = true)
+	public Pagina<TransacaoDTO> findByContaId(Long contaId, String cursor, Integer tamanho) {
+		Cursor posicao = Cursor.decodificarDataEId(cursor);
+		int limite = Pagina.tamanho(tamanho);
+		return paginar(transacaoRepository.findPaginaByContaId(contaId, posicao.getData(), posicao.getId(),
+				Pagina.limiteConsulta(limite)), limite);
 	}
 
 	/**
-	 * Retorna transações associadas a uma categoria específica.
+	 * Retorna uma página das transações associadas a uma categoria específica.
 	 */
-	public List<Transacao> findByCategoriaId(Long categoriaId) {
-		return transacaoRepository.findByCategoriaId(categoriaId);
+	@Transactional(readOnly = true)
+	public Pagina<TransacaoDTO> findByCategoriaId(Long categoriaId, String cursor, Integer tamanho) {
+		Cursor posicao = Cursor.decodificarDataEId(cursor);
+		int limite = Pagina.tamanho(tamanho);
+		return paginar(transacaoRepository.findPaginaByCategoriaId(categoriaId, posicao.getData(), posicao.getId(),
+				Pagina.limiteConsulta(limite)), limite);
 	}
 
 	/**
-	 * Retorna transações filtradas pelo usuário e pelo tipo (Receita ou Despesa).
+	 * Retorna uma página das transações filtradas pelo usuário e pelo tipo
+	 * (Receita ou Despesa).
 	 */
-	public List<Transacao> findByUsuarioAndTipo(Long usuarioId, TipoTransacao tipo) {
-		return transacaoRepository.findByUsuarioAndTipo(usuarioId, tipo);
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
+	public Pagina<TransacaoDTO> findByUsuarioAndTipo(Long usuarioId, TipoTransacao tipo, String cursor,
+			Integer tamanho) {
+		Cursor posicao = Cursor.decodificarDataEId(cursor);
+		int limite = Pagina.tamanho(tamanho);
+		return paginar(transacaoRepository.findPaginaByUsuarioAndTipo(usuarioId, tipo, posicao.getData(),
+				posicao.getId(), Pagina.limiteConsulta(limite)), limite);
 	}
 
 	/**
-	 * Retorna transações filtradas pela periodicidade.
+	 * Retorna uma página das transações filtradas pela periodicidade.
 	 */
-	public List<Transacao> findByPeriodicidade(Periodicidade periodicidade) {
-		return transacaoRepository.findByPeriodicidade(periodicidade);
+	@Transactional(readOnly = true)
+	public Pagina<TransacaoDTO> findByPeriodicidade(Periodicidade periodicidade, String cursor, Integer tamanho) {
+		Cursor posicao = Cursor.decodificarDataEId(cursor);
+		int limite = Pagina.tamanho(tamanho);
+		return paginar(transacaoRepository.findPaginaByPeriodicidade(periodicidade, posicao.getData(),
+				posicao.getId(), Pagina.limiteConsulta(limite)), limite);
 	}
 
 	/**
-	 * Retorna transações filtradas por usuário e periodicidade.
+	 * Retorna uma página das transações filtradas por usuário e periodicidade.
 	 */
-	public List<Transacao> findByUsuarioAndPeriodicidade(Long usuarioId, Periodicidade periodicidade) {
-		return transacaoRepository.findByUsuarioAndPeriodicidade(usuarioId, periodicidade);
+	@NoShardDoUsuario
+	@Transactional(readOnly = true)
+	public Pagina<TransacaoDTO> findByUsuarioAndPeriodicidade(Long usuarioId, Periodicidade periodicidade,
+			String cursor, Integer tamanho) {
+		Cursor posicao = Cursor.decodificarDataEId(cursor);
+		int limite = Pagina.tamanho(tamanho);
+		return paginar(transacaoRepository.findPaginaByUsuarioAndPeriodicidade(usuarioId, periodicidade,
+				posicao.getData(), posicao.getId(), Pagina.limiteConsulta(limite)), limite);
+	}
+
+	private Pagina<TransacaoDTO> paginar(List<TransacaoDTO> linhas, int limite) {
+		return Pagina.de(comTags(linhas), limite, t -> Cursor.codificar(t.getDataTransacao(), t.getId()));
+	}
+
+	// 🔹 Ids das tags de todas as linhas em uma única consulta, e não uma por
+	// transação
+	private List<TransacaoDTO> comTags(List<TransacaoDTO> linhas) {
+		if (linhas.isEmpty()) {
+			return linhas;
+		}
+		Map<Long, List<Long>> tagsPorTransacao = new HashMap<>();
+		for (Object[] par : transacaoRepository.findTagIdsByTransacaoIds(linhas.stream().map(TransacaoDTO::getId).toList())) {
+			tagsPorTransacao.computeIfAbsent((Long) par[0], id -> new ArrayList<>()).add((Long) par[1]);
+		}
+		linhas.forEach(linha -> linha.setTagIds(tagsPorTransacao.getOrDefault(linha.getId(), List.of())));
+		return linhas;
 	}
 
 	/**
 	 * Salva uma transação no banco, garantindo que usuário, conta e categoria
-	 * existam.
+	 * existam. O saldo da conta é atualizado na mesma transação.
 	 */
 	public Transacao save(Transacao transacao) {
 		if (transacao.getDataTransacao() == null) {
@@ -155,22 +328,18 @@ public class TransacaoService {
 		transacao.setConta(conta);
 		transacao.setCategoria(categoria);
     
-    // Processa as tags, se houver
-        if (transacao.getTag() != null && !transacao.getTag().isEmpty()) {
-            List<Tag> tagsProcessadas = new ArrayList<>();
-            transacao.getTag().forEach(tag -> {
-                if (tag.getId() != null) {
-                    Tag tagCompleta = tagRepository.findById(tag.getId())
-                            .orElseThrow(() -> new DataIntegrityViolationException("Tag não encontrada com ID: " + tag.getId()));
-                    tagsProcessadas.add(tagCompleta);
-                } else {
-                    // Se desejar criar a tag nova caso não tenha id, você pode fazer:
-                    Tag novaTag = tagRepository.save(tag);
-                    tagsProcessadas.add(novaTag);
-                }
-            });
-            transacao.setTag(tagsProcessadas);
-        }
+		// 🔹 Tags resolvidas em lote (ver TagService#resolver)
+		transacao.setTag(tagService.resolver(transacao.getTag()));
+
+		// 🔹 Numa alteração, desfaz o efeito anterior no saldo e nos gastos antes de
+		// aplicar o novo
+		if (transacao.getId() != null) {
+			transacaoRepository.findMovimentoById(transacao.getId()).ifPresent(this::desfazer);
+		}
+		saldoContaService.registrar(conta.getId(), transacao.getDataTransacao(),
+				MovimentoTransacao.valorComSinal(transacao.getTipo(), transacao.getValor()));
+		gastoPeriodoService.registrar(usuario.getId(), categoria.getId(), transacao.getTipo(),
+				transacao.getDataTransacao(), transacao.getValor());
 
 		return transacaoRepository.save(transacao);
 	}
@@ -179,9 +348,17 @@ public class TransacaoService {
 	 * Exclui uma transação pelo ID. Lança exceção se não for encontrada.
 	 */
 	public void deleteById(Long id) {
-		if (!transacaoRepository.existsById(id)) {
-			throw new TransacaoNotFoundException(id);
-		}
+		MovimentoTransacao movimento = transacaoRepository.findMovimentoById(id)
+				.orElseThrow(() -> new TransacaoNotFoundException(id));
+		desfazer(movimento);
 		transacaoRepository.deleteById(id);
 	}
+
+	private void desfazer(MovimentoTransacao movimento) {
+		saldoContaService.registrar(movimento.getContaId(), movimento.getDataTransacao(), -movimento.valorComSinal());
+		if (movimento.getValor() != null) {
+			gastoPeriodoService.registrar(movimento.getUsuarioId(), movimento.getCategoriaId(), movimento.getTipo(),
+					movimento.getDataTransacao(), -movimento.getValor());
+		}
+	}
 }
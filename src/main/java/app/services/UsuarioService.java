@@ -4,34 +4,66 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import app.config.NoCatalogo;
+import app.config.NoShardDoUsuario;
+import app.dto.Cursor;
+import app.dto.Pagina;
 import app.entities.Usuario;
 import app.enums.StatusUsuario;
 import app.exceptions.UsuarioNotFoundException;
 import app.repositories.UsuarioRepository;
-import jakarta.transaction.Transactional;
 
+/**
+ * Cadastro de usuários. Com shards, os usuários ficam no catálogo e cada shard
+ * tem cópias dos seus (ver ShardService), atualizadas depois de cada commit.
+ */
 @Service
 @Transactional
+@NoCatalogo
 public class UsuarioService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private SenhaService senhaService;
 
-    public List<Usuario> listAll() {
-        return usuarioRepository.findAll();
+    @Autowired
+    private VersaoSegurancaService versaoSegurancaService;
+
+    @Autowired(required = false)
+    private ShardService shardService;
+
+    @Transactional(readOnly = true)
+    public Pagina<Usuario> listAll(String cursor, Integer tamanho) {
+        int limite = Pagina.tamanho(tamanho);
+        List<Usuario> linhas = usuarioRepository.findPaginaAposId(Cursor.decodificarId(cursor, 0L),
+                Pagina.limiteConsulta(limite));
+        return Pagina.de(linhas, limite, item -> Cursor.codificar(item.getId()));
     }
 
+    @Transactional(readOnly = true)
     public Usuario findById(Long id) {
         return usuarioRepository.findById(id)
                 .orElseThrow(() -> new UsuarioNotFoundException("Usuário não encontrado com o ID: " + id));
     }
 
+    /**
+     * Busca um usuário já com as metas carregadas, para respostas que as
+     * incluem. Nas demais leituras as metas não são carregadas. As metas ficam
+     * no shard do usuário, então a busca vai para lá.
+     */
+    @NoShardDoUsuario
+    @Transactional(readOnly = true)
+    public Usuario findComMetasById(Long id) {
+        return usuarioRepository.findComMetasById(id)
+                .orElseThrow(() -> new UsuarioNotFoundException("Usuário não encontrado com o ID: " + id));
+    }
+
+    @Transactional(readOnly = true)
     public Usuario findByEmail(String email) {
         Usuario usuario = usuarioRepository.findByEmailIgnoreCase(email);
         if (usuario == null) {
@@ -40,6 +72,7 @@ public class UsuarioService {
         return usuario;
     }
 
+    @Transactional(readOnly = true)
     public List<Usuario> findByNome(String nome) {
         List<Usuario> usuarios = usuarioRepository.findByNomeContainingIgnoreCase(nome);
         if (usuarios.isEmpty()) {
@@ -48,6 +81,7 @@ public class UsuarioService {
         return usuarios;
     }
 
+    @Transactional(readOnly = true)
     public List<Usuario> findByStatus(StatusUsuario status) {
         List<Usuario> usuarios = usuarioRepository.findByStatus(status);
         if (usuarios.isEmpty()) {
@@ -72,7 +106,21 @@ public class UsuarioService {
         /* ✔️ codifica a senha se ainda não estiver em BCrypt */
         usuario.setSenha(encodeIfNeeded(usuario.getSenha()));
 
-        return usuarioRepository.save(usuario);
+        /* ✔️ regravar um usuário existente revoga os tokens já emitidos */
+        boolean novo = usuario.getId() == null;
+        if (!novo) {
+            versaoSegurancaService.revogar(usuario.getId());
+        }
+
+        Usuario salvo = usuarioRepository.save(usuario);
+        if (shardService != null) {
+            if (novo) {
+                shardService.aoCadastrar(salvo.getId());
+            } else {
+                shardService.aoAlterar(salvo.getId());
+            }
+        }
+        return salvo;
     }
 
     /* ------------------------------------------------------------------ */
@@ -92,7 +140,14 @@ public class UsuarioService {
             existente.setStatus(usuarioAtualizado.getStatus());
         }
 
-        return usuarioRepository.save(existente);
+        /* ✔️ dados, senha ou status mudaram: tokens antigos deixam de valer */
+        versaoSegurancaService.revogar(id);
+
+        Usuario salvo = usuarioRepository.save(existente);
+        if (shardService != null) {
+            shardService.aoAlterar(id);
+        }
+        return salvo;
     }
 
     /* ------------------------------------------------------------------ */
@@ -100,6 +155,10 @@ public class UsuarioService {
     /* ------------------------------------------------------------------ */
     public void deleteById(Long id) {
         findById(id);                       // lança 404 se não existir
+        versaoSegurancaService.revogar(id);
+        if (shardService != null) {
+            shardService.aoExcluir(id);
+        }
         usuarioRepository.deleteById(id);
     }
 
@@ -108,7 +167,7 @@ public class UsuarioService {
     /* ------------------------------------------------------------------ */
     private String encodeIfNeeded(String rawOrEncoded) {
         return rawOrEncoded != null && !rawOrEncoded.startsWith("$2a$")
-               ? passwordEncoder.encode(rawOrEncoded)
+               ? senhaService.codificar(rawOrEncoded)   // BCrypt no pool de senhas
                : rawOrEncoded;
     }
 }
@@ -0,0 +1,83 @@
+package app.services;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.config.NoCatalogo;
+import app.repositories.UsuarioRepository;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Versões de segurança dos usuários, usadas para revogar tokens sem consultar
+ * o usuário a cada requisição. O token leva a versão vigente na emissão e só
+ * vale enquanto ela for a atual. As versões ficam em cache; a escrita local
+ * invalida a entrada na hora e as demais instâncias veem a mudança em até
+ * {@code granaguru.seguranca.versao-ttl}. Com shards, a versão que vale é a
+ * do catálogo.
+ */
+@Service
+@NoCatalogo
+public class VersaoSegurancaService {
+
+	// 🔹 Versão de usuários excluídos: nenhum token é aceito
+	public static final int REVOGADO = -1;
+
+	public static final int TAMANHO_CACHE = 10_000;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Value("${granaguru.seguranca.versao-ttl:PT1M}")
+	private Duration ttl;
+
+	private Cache<Long, Integer> versoes;
+
+	@PostConstruct
+	void iniciar() {
+		versoes = Caffeine.newBuilder().maximumSize(TAMANHO_CACHE).expireAfterWrite(ttl).build();
+	}
+
+	/**
+	 * Versão atual do usuário, ou {@link #REVOGADO} se ele não existe mais.
+	 */
+	public int atual(Long usuarioId) {
+		return versoes.get(usuarioId,
+				id -> usuarioRepository.findVersaoSegurancaById(id).orElse(REVOGADO));
+	}
+
+	/**
+	 * Indica se um token emitido com {@code versaoToken} ainda vale.
+	 */
+	public boolean valida(Long usuarioId, int versaoToken) {
+		int atual = atual(usuarioId);
+		return atual != REVOGADO && atual == versaoToken;
+	}
+
+	/**
+	 * Invalida todos os tokens já emitidos para o usuário. Deve ser chamado
+	 * dentro da transação que altera ou exclui o usuário.
+	 */
+	public void revogar(Long usuarioId) {
+		usuarioRepository.incrementarVersaoSeguranca(usuarioId);
+		versoes.invalidate(usuarioId);
+
+		// 🔍 Uma requisição concorrente pode recarregar a versão antiga antes do
+		// commit; invalida de novo quando a nova versão estiver visível
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					versoes.invalidate(usuarioId);
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,7 @@
+-- Índices da paginação por cursor (data e id como desempate) nas listagens de
+-- transações e notificações.
+create index idx_notificacoes_usuario on notificacoes (usuario_id, id);
+create index idx_transacoes_data on transacoes (data_transacao, id);
+create index idx_transacoes_conta_data on transacoes (conta_id, data_transacao, id);
+create index idx_transacoes_categoria_data on transacoes (categoria_id, data_transacao, id);
+create index idx_transacoes_usuario_tipo_data on transacoes (usuario_id, tipo, data_transacao, id);
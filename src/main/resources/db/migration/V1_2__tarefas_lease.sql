@@ -0,0 +1,11 @@
+-- Lease das tarefas agendadas (ver LeaseService): só a instância dona executa
+-- o materializador de recorrências, que varre as recorrentes vencidas em
+-- ordem de próxima execução.
+create table tarefas_lease (
+    nome varchar(100) not null,
+    dono varchar(200),
+    expira_em datetime(6) not null,
+    primary key (nome)
+) engine=InnoDB;
+
+create index idx_recorrentes_proxima_execucao on transacoes_recorrentes (proxima_execucao, id);
@@ -0,0 +1,3 @@
+-- Datas já geradas de uma recorrência, lidas de uma vez ao gravar em lote as
+-- ocorrências pendentes.
+create index idx_transacoes_recorrente_data on transacoes (transacao_recorrente_id, data_transacao);
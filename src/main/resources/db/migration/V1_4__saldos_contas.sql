@@ -0,0 +1,16 @@
+-- Saldo corrente por conta e fechamento mensal (ver SaldoContaService).
+create table saldos_conta (
+    conta_id bigint not null,
+    saldo float(53) not null,
+    primary key (conta_id)
+) engine=InnoDB;
+
+create table saldos_conta_mensais (
+    id bigint not null auto_increment,
+    conta_id bigint not null,
+    mes date not null,
+    saldo_final float(53) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table saldos_conta_mensais add constraint uk_saldos_conta_mes unique (conta_id, mes);
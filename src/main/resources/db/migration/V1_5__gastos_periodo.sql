@@ -0,0 +1,12 @@
+-- Total gasto por usuário, categoria e período corrente (ver GastoPeriodoService).
+create table gastos_periodo (
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    categoria_id bigint not null,
+    periodo enum ('ANUAL','DIARIO','MENSAL','SEMANAL') not null,
+    inicio date not null,
+    total float(53) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table gastos_periodo add constraint uk_gastos_periodo unique (usuario_id, categoria_id, periodo, inicio);
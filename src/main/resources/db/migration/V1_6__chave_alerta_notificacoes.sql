@@ -0,0 +1,4 @@
+-- Chave do alerta de despesa que gerou a notificação: a unicidade impede o
+-- mesmo alerta duas vezes no período.
+alter table notificacoes add column chave_alerta varchar(100);
+alter table notificacoes add constraint uk_notificacoes_chave_alerta unique (chave_alerta);
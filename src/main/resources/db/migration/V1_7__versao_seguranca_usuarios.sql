@@ -0,0 +1,3 @@
+-- Versão de segurança do usuário, gravada no JWT: incrementá-la revoga os
+-- tokens já emitidos (ver VersaoSegurancaService).
+alter table usuarios add column versao_seguranca int not null default 0;
@@ -0,0 +1,130 @@
+-- Esquema como era gerado pelo ddl-auto=update antes das tabelas, colunas e
+-- índices das versões 1.x. Bancos já existentes são marcados nesta versão
+-- (baseline-on-migrate) e seguem a partir da V1_1; os nomes das constraints
+-- são os mesmos gerados pelo Hibernate.
+
+create table usuarios (
+    id bigint not null auto_increment,
+    nome varchar(100) not null,
+    email varchar(255) not null,
+    senha varchar(255) not null,
+    role enum ('ADMIN','USER') not null,
+    data_criacao datetime(6) not null,
+    status enum ('ATIVO','INATIVO','SUSPENSO') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table categorias (
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    nome_categoria varchar(50) not null,
+    tipo enum ('DESPESA','RECEITA') not null,
+    icone varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table contas (
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    nome_conta varchar(50) not null,
+    tipo_conta enum ('CORRENTE','INVESTIMENTO','POUPANCA') not null,
+    saldo_inicial float(53) not null,
+    data_criacao datetime(6) not null,
+    status enum ('ATIVA','BLOQUEADA','INATIVA') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table metas (
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    descricao varchar(100) not null,
+    valor_objetivo float(53) not null,
+    valor_atual float(53) not null,
+    data_inicio date,
+    data_termino date,
+    status enum ('CANCELADA','CONCLUIDA','EM_ANDAMENTO') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table notificacoes (
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    titulo varchar(100) not null,
+    mensagem varchar(500) not null,
+    tipo enum ('ALERTA_DESPESA','META','VENCIMENTO') not null,
+    data_envio datetime(6) not null,
+    lida bit not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table orcamentos (
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    categoria_id bigint not null,
+    periodo varchar(255) not null,
+    valor_limite float(53) not null,
+    data_criacao datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table tags (
+    id bigint not null auto_increment,
+    nome varchar(100),
+    primary key (id)
+) engine=InnoDB;
+
+create table transacoes_recorrentes (
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    conta_id bigint not null,
+    categoria_id bigint not null,
+    valor float(53) not null,
+    tipo enum ('ENTRADA','SAIDA') not null,
+    descricao varchar(255),
+    periodicidade enum ('ANUAL','DIARIA','MENSAL','SEMANAL') not null,
+    data_inicial datetime(6),
+    data_final datetime(6),
+    proxima_execucao datetime(6),
+    total_parcelas integer,
+    despesa_fixa bit not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table transacoes (
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    conta_id bigint not null,
+    categoria_id bigint not null,
+    data_transacao datetime(6),
+    tipo enum ('ENTRADA','SAIDA') not null,
+    descricao varchar(255) not null,
+    valor float(53) not null,
+    forma_pagamento varchar(255),
+    parcela_atual integer,
+    transacao_recorrente_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table transacoes_tags (
+    transacao_id bigint not null,
+    tag_id bigint not null
+) engine=InnoDB;
+
+alter table usuarios add constraint UKkfsp0s1tflm1cwlj8idhqsad0 unique (email);
+alter table tags add constraint UKottj9u53x4vbaivltjqsg2cio unique (nome);
+
+alter table categorias add constraint FK7lnxm7e5lqkbw5qe0fy2pntl9 foreign key (usuario_id) references usuarios (id);
+alter table contas add constraint FK9ote8uj5ag7jahx9rtllx9mnx foreign key (usuario_id) references usuarios (id);
+alter table metas add constraint FKp2p60fjggyqg6nj3xa25eurbu foreign key (usuario_id) references usuarios (id);
+alter table notificacoes add constraint FK3jcnk0ggmxklk5sjxm2plk5ml foreign key (usuario_id) references usuarios (id);
+alter table orcamentos add constraint FKjmvbwtb5ele4ifedootj8k71d foreign key (categoria_id) references categorias (id);
+alter table orcamentos add constraint FKqglev9uveaiftbxu0q958jky2 foreign key (usuario_id) references usuarios (id);
+alter table transacoes add constraint FKpo0f1uru9p0eagc24edw76mw8 foreign key (categoria_id) references categorias (id);
+alter table transacoes add constraint FKqknvd0xl8u532gmq093dgvxoe foreign key (conta_id) references contas (id);
+alter table transacoes add constraint FKh9lygb037k30lno7xec2mqpa2 foreign key (transacao_recorrente_id) references transacoes_recorrentes (id);
+alter table transacoes add constraint FKkcpkacordh1eujovjxlgdmhcx foreign key (usuario_id) references usuarios (id);
+alter table transacoes_recorrentes add constraint FK62d99o71y99ddx3l3ke20rdmv foreign key (categoria_id) references categorias (id);
+alter table transacoes_recorrentes add constraint FKbgp7k4k9v84eiodsd8rw2px8h foreign key (conta_id) references contas (id);
+alter table transacoes_recorrentes add constraint FK4vwj6aqu9odkccd3hdwgbsfd0 foreign key (usuario_id) references usuarios (id);
+alter table transacoes_tags add constraint FKo7in0i2o51fqnllqwr9hfimqx foreign key (tag_id) references tags (id);
+alter table transacoes_tags add constraint FKp2k5d90y9tjykhhwpqwg6d4go foreign key (transacao_id) references transacoes (id);
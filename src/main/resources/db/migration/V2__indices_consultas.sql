@@ -0,0 +1,35 @@
+-- Índices compostos casados com as consultas dos repositórios.
+
+-- 🔹 Uma ocorrência por recorrência e data: sustenta
+-- existsByTransacaoRecorrenteAndDataTransacao e findDatasByTransacaoRecorrenteIdEntre
+-- e impede que o materializador grave a mesma ocorrência duas vezes. Se já
+-- houver duplicatas a migração falha e elas precisam ser resolvidas antes.
+-- Substitui o índice simples de mesmas colunas.
+alter table transacoes add constraint uk_transacoes_recorrente_data unique (transacao_recorrente_id, data_transacao);
+drop index idx_transacoes_recorrente_data on transacoes;
+
+-- 🔹 Histórico do usuário em ordem de data (streaming e listagem por
+-- periodicidade); o índice por usuário e tipo não serve quando o tipo não é filtrado
+create index idx_transacoes_usuario_data on transacoes (usuario_id, data_transacao, id);
+
+-- 🔹 Tags de uma página de transações (findTagIdsByTransacaoIds) e o EXISTS do
+-- filtro por tags; também impede a mesma tag duas vezes na transação. A tabela
+-- não tinha chave, então pares repetidos são reduzidos a um antes da chave.
+create table transacoes_tags_unicas (
+    transacao_id bigint not null,
+    tag_id bigint not null
+) engine=InnoDB;
+insert into transacoes_tags_unicas (transacao_id, tag_id)
+    select distinct transacao_id, tag_id from transacoes_tags;
+delete from transacoes_tags;
+insert into transacoes_tags (transacao_id, tag_id)
+    select transacao_id, tag_id from transacoes_tags_unicas;
+drop table transacoes_tags_unicas;
+alter table transacoes_tags add primary key (transacao_id, tag_id);
+
+-- 🔹 Consultas por usuário com um segundo filtro
+create index idx_orcamentos_usuario_categoria on orcamentos (usuario_id, categoria_id);
+create index idx_contas_usuario_status on contas (usuario_id, status);
+create index idx_categorias_usuario_tipo on categorias (usuario_id, tipo);
+create index idx_metas_usuario_status on metas (usuario_id, status);
+create index idx_notificacoes_usuario_tipo on notificacoes (usuario_id, tipo);
@@ -0,0 +1,20 @@
+-- IDs reservados em blocos (ver GeradorIds): um contador por tabela com o
+-- primeiro ID ainda livre, começando depois do maior ID já gravado. As colunas
+-- continuam auto_increment, que segue valendo para gastos_periodo e
+-- saldos_conta_mensais (inseridos só por SQL nativo).
+
+create table sequencias_ids (
+    entidade varchar(255) not null,
+    proximo_id bigint,
+    primary key (entidade)
+) engine=InnoDB;
+
+insert into sequencias_ids (entidade, proximo_id) select 'usuarios', coalesce(max(id), 0) + 1 from usuarios;
+insert into sequencias_ids (entidade, proximo_id) select 'contas', coalesce(max(id), 0) + 1 from contas;
+insert into sequencias_ids (entidade, proximo_id) select 'categorias', coalesce(max(id), 0) + 1 from categorias;
+insert into sequencias_ids (entidade, proximo_id) select 'tags', coalesce(max(id), 0) + 1 from tags;
+insert into sequencias_ids (entidade, proximo_id) select 'metas', coalesce(max(id), 0) + 1 from metas;
+insert into sequencias_ids (entidade, proximo_id) select 'orcamentos', coalesce(max(id), 0) + 1 from orcamentos;
+insert into sequencias_ids (entidade, proximo_id) select 'notificacoes', coalesce(max(id), 0) + 1 from notificacoes;
+insert into sequencias_ids (entidade, proximo_id) select 'transacoes_recorrentes', coalesce(max(id), 0) + 1 from transacoes_recorrentes;
+insert into sequencias_ids (entidade, proximo_id) select 'transacoes', coalesce(max(id), 0) + 1 from transacoes;
@@ -0,0 +1,10 @@
+-- Impressão digital das transações importadas de extratos (ver
+-- ImportacaoExtratoService): hash de data, valor e descrição normalizada.
+-- Fica nula nas transações lançadas pelo usuário.
+
+alter table transacoes add column impressao_digital bigint null;
+
+-- 🔹 Carrega de uma vez as impressões de uma conta (só lendo o índice) e
+-- impede que duas importações simultâneas do mesmo extrato gravem a mesma
+-- transação. Linhas com impressão nula não conflitam entre si.
+create unique index uk_transacoes_conta_impressao on transacoes (conta_id, impressao_digital);
@@ -0,0 +1,9 @@
+-- Diretório dos shards (ver ShardsConfig): em que banco ficam os dados de cada
+-- usuário. Só é lido no catálogo; nos shards a tabela fica vazia. Usuários sem
+-- linha ficam no próprio catálogo (shard 0), como todos ficavam antes.
+
+create table shards_usuarios (
+    usuario_id bigint not null,
+    shard int not null,
+    primary key (usuario_id)
+) engine=InnoDB;
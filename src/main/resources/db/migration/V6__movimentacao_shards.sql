@@ -0,0 +1,4 @@
+-- Shard para onde o usuário está sendo movido (ver ShardService#mover).
+-- Enquanto preenchido, as requisições e tarefas do usuário são recusadas em
+-- todas as instâncias, para nada ser gravado na origem durante a cópia.
+alter table shards_usuarios add column movendo_para int;
@@ -2,9 +2,14 @@ package app.auth;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,13 +18,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import app.config.JwtAuthenticationFilter;
 import app.config.JwtServiceGenerator;
+import app.config.LimiteRequisicoesFilter;
+import app.exceptions.SenhasSobrecarregadoException;
 
 @WebMvcTest(LoginController.class)
 @AutoConfigureMockMvc(addFilters = false) // Desabilita filtros de segurança para o teste
@@ -37,6 +46,9 @@ public class LoginControllerTest {
 	@MockBean
 	private JwtAuthenticationFilter jwtAuthFilter;
 
+	@MockBean
+	private LimiteRequisicoesFilter limiteRequisicoesFilter;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -52,10 +64,8 @@ public class LoginControllerTest {
 	@Test
 	@DisplayName("POST /api/login – Login bem-sucedido retorna token")
 	void testLoginSuccess() throws Exception {
-		when(loginService.logar(any(Login.class))).thenReturn("token-jwt");
-		mockMvc.perform(post("/api/login")
-				.contentType(MediaType.APPLICATION_JSON)
-				.content(objectMapper.writeValueAsString(login)))
+		when(loginService.logar(any(Login.class))).thenReturn(CompletableFuture.completedFuture("token-jwt"));
+		mockMvc.perform(asyncDispatch(logar()))
 				.andExpect(status().isOk())
 				.andExpect(content().string("token-jwt"));
 	}
@@ -63,10 +73,27 @@ public class LoginControllerTest {
 	@Test
 	@DisplayName("POST /api/login – Falha de autenticação retorna 400")
 	void testLoginFailure() throws Exception {
-		when(loginService.logar(any(Login.class))).thenThrow(new RuntimeException("Credenciais inválidas"));
-		mockMvc.perform(post("/api/login")
+		when(loginService.logar(any(Login.class)))
+				.thenReturn(CompletableFuture.failedFuture(new RuntimeException("Credenciais inválidas")));
+		mockMvc.perform(asyncDispatch(logar()))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("POST /api/login – Pool de senhas saturado retorna 503 com Retry-After")
+	void testLoginPoolSaturado() throws Exception {
+		when(loginService.logar(any(Login.class)))
+				.thenReturn(CompletableFuture.failedFuture(new SenhasSobrecarregadoException()));
+		mockMvc.perform(asyncDispatch(logar()))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+	}
+
+	private MvcResult logar() throws Exception {
+		return mockMvc.perform(post("/api/login")
 				.contentType(MediaType.APPLICATION_JSON)
 				.content(objectMapper.writeValueAsString(login)))
-				.andExpect(status().isBadRequest());
+				.andExpect(request().asyncStarted())
+				.andReturn();
 	}
 }
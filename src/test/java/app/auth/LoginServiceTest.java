@@ -5,6 +5,8 @@ import static org.mockito.Mockito.*;
 
 import java.util.Optional;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,7 +21,9 @@ import org.springframework.security.core.Authentication;
 
 import app.config.JwtServiceGenerator;
 import app.entities.Usuario;
+import app.exceptions.SenhasSobrecarregadoException;
 import app.repositories.UsuarioRepository;
+import app.services.SenhaService;
 
 public class LoginServiceTest {
 	@Mock
@@ -30,6 +34,8 @@ public class LoginServiceTest {
 	private AuthenticationManager authenticationManager;
 	@Mock
 	private Authentication authentication;
+	@Mock
+	private SenhaService senhaService;
 
 	@InjectMocks
 	private LoginService loginService;
@@ -47,6 +53,9 @@ public class LoginServiceTest {
 		usuario.setId(1L);
 		usuario.setEmail("user@email.com");
 		usuario.setSenha("senha123");
+		// Pool de senhas síncrono: a tarefa roda na própria thread do teste
+		when(senhaService.executar(any())).thenAnswer(
+				invocation -> CompletableFuture.supplyAsync(invocation.getArgument(0), Runnable::run));
 	}
 
 	@Test
@@ -57,7 +66,7 @@ public class LoginServiceTest {
 		when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
 				.thenReturn(authentication);
 
-		String token = loginService.logar(login);
+		String token = loginService.logar(login).join();
 		assertEquals("token-jwt", token);
 		verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
 		verify(jwtService).generateToken(usuario);
@@ -68,7 +77,8 @@ public class LoginServiceTest {
 	void testLogarComCredenciaisInvalidas() {
 		doThrow(new BadCredentialsException("Credenciais inválidas")).when(authenticationManager)
 				.authenticate(any(UsernamePasswordAuthenticationToken.class));
-		assertThrows(BadCredentialsException.class, () -> loginService.logar(login));
+		CompletionException erro = assertThrows(CompletionException.class, () -> loginService.logar(login).join());
+		assertInstanceOf(BadCredentialsException.class, erro.getCause());
 	}
 
 	@Test
@@ -77,6 +87,18 @@ public class LoginServiceTest {
 		when(usuarioRepository.findByEmail(login.getUsername())).thenReturn(Optional.empty());
 		when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
 				.thenReturn(authentication);
-		assertThrows(NoSuchElementException.class, () -> loginService.logar(login));
+		CompletionException erro = assertThrows(CompletionException.class, () -> loginService.logar(login).join());
+		assertInstanceOf(NoSuchElementException.class, erro.getCause());
+	}
+
+	@Test
+	@DisplayName("Deve falhar sem autenticar quando o pool de senhas está saturado")
+	void testLogarPoolSaturado() {
+		doReturn(CompletableFuture.failedFuture(new SenhasSobrecarregadoException())).when(senhaService)
+				.executar(any());
+
+		CompletionException erro = assertThrows(CompletionException.class, () -> loginService.logar(login).join());
+		assertInstanceOf(SenhasSobrecarregadoException.class, erro.getCause());
+		verifyNoInteractions(authenticationManager);
 	}
 }
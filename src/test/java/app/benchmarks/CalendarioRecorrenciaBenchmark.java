@@ -0,0 +1,118 @@
+package app.benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import app.enums.Periodicidade;
+import app.services.CalendarioRecorrencia;
+
+/**
+ * Compara {@link CalendarioRecorrencia} com o cálculo anterior, que avançava
+ * um período por vez: data da parcela N, parcela vigente numa data e
+ * ocorrências de uma janela (um mês inteiro, N parcelas depois do início).
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="CalendarioRecorrencia"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarioRecorrenciaBenchmark {
+
+	@Param({ "DIARIA", "MENSAL" })
+	private Periodicidade periodicidade;
+
+	@Param({ "37", "1000" })
+	private int parcela;
+
+	private final LocalDateTime inicio = LocalDateTime.of(2020, 1, 31, 9, 0);
+
+	private CalendarioRecorrencia calendario;
+	private LocalDateTime data;
+	private LocalDateTime fimJanela;
+
+	@Setup
+	public void preparar() {
+		calendario = new CalendarioRecorrencia(inicio, periodicidade);
+		data = calendario.ocorrencia(parcela);
+		fimJanela = data.plusMonths(1);
+	}
+
+	@Benchmark
+	public LocalDateTime ocorrenciaPorPassos() {
+		LocalDateTime atual = inicio;
+		for (int i = 1; i < parcela; i++) {
+			atual = proximaExecucao(atual);
+		}
+		return atual;
+	}
+
+	@Benchmark
+	public LocalDateTime ocorrenciaDireta() {
+		return calendario.ocorrencia(parcela);
+	}
+
+	@Benchmark
+	public long indicePorChronoUnit() {
+		ChronoUnit unidade = periodicidade == Periodicidade.DIARIA ? ChronoUnit.DAYS : ChronoUnit.MONTHS;
+		return unidade.between(inicio, data) + 1;
+	}
+
+	@Benchmark
+	public long indiceDireto() {
+		return calendario.indiceDe(data);
+	}
+
+	@Benchmark
+	public void janelaPorPassos(Blackhole bh) {
+		LocalDateTime atual = inicio;
+		while (atual.isBefore(data)) {
+			atual = proximaExecucao(atual);
+		}
+		while (!atual.isAfter(fimJanela)) {
+			bh.consume(atual);
+			atual = proximaExecucao(atual);
+		}
+	}
+
+	@Benchmark
+	public void janelaDireta(Blackhole bh) {
+		for (LocalDateTime ocorrencia : calendario.ocorrenciasEntre(data, fimJanela)) {
+			bh.consume(ocorrencia);
+		}
+	}
+
+	// 🔹 Cálculo anterior de TransacaoRecorrenteService.calcularProximaExecucao
+	private LocalDateTime proximaExecucao(LocalDateTime atual) {
+		switch (periodicidade) {
+			case DIARIA:
+				return atual.plusDays(1);
+			case SEMANAL:
+				return atual.plusWeeks(1);
+			case MENSAL:
+				return atual.plusMonths(1);
+			case ANUAL:
+				return atual.plusYears(1);
+			default:
+				throw new IllegalArgumentException("Periodicidade inválida: " + periodicidade);
+		}
+	}
+}
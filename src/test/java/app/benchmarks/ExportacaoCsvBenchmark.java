@@ -0,0 +1,78 @@
+package app.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import app.dto.TransacaoDTO;
+import app.enums.TipoTransacao;
+import app.services.EscritorCsvTransacoes;
+
+/**
+ * Linhas por segundo escritas por {@link EscritorCsvTransacoes}, sem e com
+ * gzip (nível mais rápido, como em GET /transacoes/export), num destino que
+ * descarta os bytes: mede só a CPU da exportação, sem banco nem rede. Com
+ * {@code -prof gc} mostra também quanto cada linha aloca.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ExportacaoCsv -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportacaoCsvBenchmark {
+
+	private static final int LINHAS = 10_000;
+
+	@Param({ "false", "true" })
+	private boolean gzip;
+
+	private TransacaoDTO[] linhas;
+
+	@Setup
+	public void preparar() {
+		linhas = new TransacaoDTO[LINHAS];
+		LocalDateTime data = LocalDateTime.of(2024, 1, 1, 12, 0);
+		for (int i = 0; i < LINHAS; i++) {
+			linhas[i] = new TransacaoDTO((long) i, 1L, "Usuário", 2L, "Conta corrente", 3L, "Mercado",
+					data.minusHours(i), i % 3 == 0 ? TipoTransacao.ENTRADA : TipoTransacao.SAIDA,
+					"Compra " + (i % 500) + (i % 50 == 0 ? ", parcelada" : ""), 10.0 + i % 997 / 100.0, "Débito", 1, null);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LINHAS)
+	public void exportar() throws IOException {
+		OutputStream destino = gzip ? new GZIPOutputStream(OutputStream.nullOutputStream(), 64 * 1024) {
+			{
+				def.setLevel(Deflater.BEST_SPEED);
+			}
+		} : OutputStream.nullOutputStream();
+		EscritorCsvTransacoes csv = new EscritorCsvTransacoes(destino);
+		for (TransacaoDTO linha : linhas) {
+			csv.escrever(linha);
+		}
+		csv.terminar();
+		destino.close();
+	}
+}
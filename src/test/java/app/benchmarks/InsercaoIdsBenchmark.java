@@ -0,0 +1,162 @@
+package app.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.entities.GeradorIds;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TableGenerator;
+
+/**
+ * Inserções por segundo de uma carga em massa pelo Hibernate (N persists numa
+ * transação) com IDs por IDENTITY, como era antes, e com IDs reservados em
+ * blocos ({@link GeradorIds}), que deixam os INSERTs sair em lotes de
+ * {@code hibernate.jdbc.batch_size}. As duas entidades têm as mesmas colunas
+ * de uma transação. Roda sobre H2 em memória, então a diferença no MySQL, com
+ * uma ida pela rede por INSERT, tende a ser maior.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="InsercaoIds"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercaoIdsBenchmark {
+
+	private static final int LINHAS = 1000;
+
+	private ConfigurableApplicationContext contexto;
+	private TransactionTemplate transactionTemplate;
+	private Insercao insercao;
+
+	// 🔹 Sem @Configuration, para não entrar na varredura de componentes de app
+	@EnableAutoConfiguration
+	@EntityScan(basePackageClasses = InsercaoIdsBenchmark.class)
+	static class Contexto {
+
+		@Bean
+		Insercao insercao() {
+			return new Insercao();
+		}
+	}
+
+	static class Insercao {
+
+		@PersistenceContext
+		private EntityManager entityManager;
+
+		void inserir(Supplier<Linha> nova) {
+			LocalDateTime agora = LocalDateTime.now();
+			for (int i = 0; i < LINHAS; i++) {
+				Linha linha = nova.get();
+				linha.usuarioId = 1L;
+				linha.contaId = 1L;
+				linha.categoriaId = 1L;
+				linha.dataTransacao = agora.minusDays(i);
+				linha.tipo = "SAIDA";
+				linha.descricao = "Carga";
+				linha.valor = 10.0;
+				entityManager.persist(linha);
+			}
+			// 🔹 Descarta as entidades gravadas para a próxima invocação não crescer a sessão
+			entityManager.flush();
+			entityManager.clear();
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = SpringApplication.run(Contexto.class, "--spring.main.web-application-type=none",
+				"--spring.main.banner-mode=off", "--spring.datasource.url=jdbc:h2:mem:insercao;MODE=MySQL;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+				"--spring.datasource.password=", "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+				"--spring.jpa.hibernate.ddl-auto=create-drop", "--spring.flyway.enabled=false",
+				"--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+		transactionTemplate = contexto.getBean(TransactionTemplate.class);
+		insercao = contexto.getBean(Insercao.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	/**
+	 * Antes: cada persist executa o INSERT na hora para ler o ID gerado.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(LINHAS)
+	public void identity() {
+		transactionTemplate.executeWithoutResult(status -> insercao.inserir(LinhaIdentity::new));
+	}
+
+	/**
+	 * Depois: um UPDATE no contador a cada bloco e os INSERTs em lotes.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(LINHAS)
+	public void emBlocos() {
+		transactionTemplate.executeWithoutResult(status -> insercao.inserir(LinhaEmBlocos::new));
+	}
+
+	@MappedSuperclass
+	abstract static class Linha {
+
+		Long usuarioId;
+		Long contaId;
+		Long categoriaId;
+		LocalDateTime dataTransacao;
+		String tipo;
+		String descricao;
+		Double valor;
+	}
+
+	@Entity(name = "LinhaIdentity")
+	static class LinhaIdentity extends Linha {
+
+		@Id
+		@GeneratedValue(strategy = GenerationType.IDENTITY)
+		Long id;
+	}
+
+	@Entity(name = "LinhaEmBlocos")
+	static class LinhaEmBlocos extends Linha {
+
+		@Id
+		@GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_linhas")
+		@TableGenerator(name = "ids_linhas", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+				valueColumnName = GeradorIds.COLUNA_PROXIMO, pkColumnValue = "linhas", allocationSize = GeradorIds.TAMANHO_BLOCO)
+		Long id;
+	}
+}
@@ -0,0 +1,99 @@
+package app.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.auth.UsuarioAutenticado;
+import app.config.LimiteRequisicoesFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+/**
+ * Custo por requisição do {@link LimiteRequisicoesFilter}: o filtro com o
+ * limite desligado (só a passagem pela cadeia) contra o limite ligado, com
+ * {@code usuarios} usuários distintos se alternando. Os limites são altos
+ * para nenhuma requisição ser rejeitada.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="LimiteRequisicoes"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LimiteRequisicoesBenchmark {
+
+	@Param({ "1", "10000" })
+	private int usuarios;
+
+	private SecurityContext[] contextos;
+	private int proximo;
+	private LimiteRequisicoesFilter semLimite;
+	private LimiteRequisicoesFilter comLimite;
+
+	@Setup
+	public void preparar() {
+		contextos = new SecurityContext[usuarios];
+		for (int i = 0; i < usuarios; i++) {
+			UsuarioAutenticado usuario = new UsuarioAutenticado((long) i, "benchmark@granaguru.app", "Benchmark",
+					"USER");
+			contextos[i] = new SecurityContextImpl(new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+		}
+		semLimite = filtro(false);
+		comLimite = filtro(true);
+	}
+
+	private static LimiteRequisicoesFilter filtro(boolean habilitado) {
+		LimiteRequisicoesFilter filtro = new LimiteRequisicoesFilter();
+		ReflectionTestUtils.setField(filtro, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(filtro, "habilitado", habilitado);
+		ReflectionTestUtils.setField(filtro, "leituraPorSegundo", 1_000_000_000L);
+		ReflectionTestUtils.setField(filtro, "leituraCapacidade", 1_000_000L);
+		ReflectionTestUtils.setField(filtro, "escritaPorSegundo", 1_000_000_000L);
+		ReflectionTestUtils.setField(filtro, "escritaCapacidade", 1_000_000L);
+		ReflectionTestUtils.invokeMethod(filtro, "iniciar");
+		return filtro;
+	}
+
+	@Benchmark
+	public int antes() throws ServletException, IOException {
+		return filtrar(semLimite);
+	}
+
+	@Benchmark
+	public int depois() throws ServletException, IOException {
+		return filtrar(comLimite);
+	}
+
+	private int filtrar(LimiteRequisicoesFilter filtro) throws ServletException, IOException {
+		SecurityContextHolder.setContext(contextos[proximo]);
+		proximo = (proximo + 1) % contextos.length;
+		MockHttpServletResponse resposta = new MockHttpServletResponse();
+		filtro.doFilter(new MockHttpServletRequest("GET", "/transacoes"), resposta, new MockFilterChain());
+		return resposta.getStatus();
+	}
+}
@@ -0,0 +1,135 @@
+package app.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.services.SenhaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Teste de carga: latência (p50/p99 no modo SampleTime) de uma requisição
+ * leve da API enquanto {@code atacantes} clientes repetem logins sem pausa. As
+ * requisições rodam em um pool fixo que faz o papel das threads do Tomcat.
+ * <ul>
+ * <li>{@code antes}: o BCrypt roda na thread da requisição. As threads ficam
+ * presas nos logins e a API espera na fila atrás deles.</li>
+ * <li>{@code depois}: o login só agenda o BCrypt no {@link SenhaService}
+ * (pool limitado, fila curta, rejeição imediata) e libera a thread.</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="LoginBulkhead"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(2)
+@Fork(1)
+public class LoginBulkheadBenchmark {
+
+	private static final int THREADS_REQUISICAO = 8;
+	private static final String SENHA = "senha123";
+
+	@Param({ "antes", "depois" })
+	private String modo;
+
+	@Param({ "16" })
+	private int atacantes;
+
+	private ThreadPoolExecutor requisicoes;
+	private ThreadPoolTaskExecutor senhasExecutor;
+	private ExecutorService rajada;
+	private SenhaService senhaService;
+	private BCryptPasswordEncoder encoder;
+	private String hash;
+
+	@Setup(Level.Iteration)
+	public void preparar() {
+		encoder = new BCryptPasswordEncoder(10);
+		hash = encoder.encode(SENHA);
+		requisicoes = new ThreadPoolExecutor(THREADS_REQUISICAO, THREADS_REQUISICAO, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>());
+
+		senhasExecutor = new ThreadPoolTaskExecutor();
+		senhasExecutor.setCorePoolSize(2);
+		senhasExecutor.setMaxPoolSize(2);
+		senhasExecutor.setQueueCapacity(50);
+		senhasExecutor.initialize();
+		senhaService = new SenhaService();
+		ReflectionTestUtils.setField(senhaService, "executor", senhasExecutor);
+		ReflectionTestUtils.setField(senhaService, "passwordEncoder", encoder);
+		ReflectionTestUtils.setField(senhaService, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(senhaService, "esperaMaxima", Duration.ofSeconds(2));
+		ReflectionTestUtils.invokeMethod(senhaService, "iniciar");
+
+		rajada = Executors.newFixedThreadPool(atacantes);
+		for (int i = 0; i < atacantes; i++) {
+			rajada.execute(this::atacar);
+		}
+	}
+
+	// 🔹 Cliente que faz um login atrás do outro; com 503 tenta de novo logo depois
+	private void atacar() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				if ("antes".equals(modo)) {
+					requisicoes.submit(() -> encoder.matches(SENHA, hash)).get();
+				} else {
+					CompletableFuture<Boolean> resposta = requisicoes
+							.submit(() -> senhaService.executar(() -> encoder.matches(SENHA, hash))).get();
+					try {
+						resposta.join();
+					} catch (CompletionException e) {
+						Thread.sleep(10);
+					}
+				}
+			}
+		} catch (InterruptedException | ExecutionException | RejectedExecutionException e) {
+			// fim da iteração
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void encerrar() {
+		rajada.shutdownNow();
+		requisicoes.shutdownNow();
+		senhasExecutor.shutdown();
+	}
+
+	@Benchmark
+	public Object api() throws Exception {
+		Future<?> resposta = requisicoes.submit(() -> Blackhole.consumeCPU(10_000));
+		return resposta.get();
+	}
+}
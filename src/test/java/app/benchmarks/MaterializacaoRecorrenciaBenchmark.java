@@ -0,0 +1,161 @@
+package app.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.entities.Categoria;
+import app.entities.Conta;
+import app.entities.Transacao;
+import app.entities.TransacaoRecorrente;
+import app.entities.Usuario;
+import app.enums.Periodicidade;
+import app.enums.Role;
+import app.enums.StatusConta;
+import app.enums.StatusUsuario;
+import app.enums.TipoCategoria;
+import app.enums.TipoConta;
+import app.enums.TipoTransacao;
+import app.repositories.CategoriaRepository;
+import app.repositories.ContaRepository;
+import app.repositories.GastoPeriodoLoteRepository;
+import app.repositories.TransacaoLoteRepository;
+import app.repositories.TransacaoRecorrenteRepository;
+import app.repositories.TransacaoRepository;
+import app.repositories.UsuarioRepository;
+import app.services.GastoPeriodoService;
+import app.services.LeaseService;
+import app.services.SaldoContaService;
+import app.services.TransacaoRecorrenteService;
+
+/**
+ * Compara a materialização de uma recorrência atrasada feita data a data (um
+ * SELECT de existência e um INSERT por ocorrência, como era antes) com a
+ * geração em lote de {@link TransacaoRecorrenteService}. Roda sobre H2 em
+ * memória; cada invocação materializa uma recorrência diária nova.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="MaterializacaoRecorrencia"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class MaterializacaoRecorrenciaBenchmark {
+
+	@Param({ "30", "365" })
+	private int diasAtrasados;
+
+	private ConfigurableApplicationContext contexto;
+	private TransacaoRecorrenteService service;
+	private TransacaoRecorrenteRepository recorrenteRepository;
+	private TransacaoRepository transacaoRepository;
+	private TransactionTemplate transactionTemplate;
+
+	private Usuario usuario;
+	private Conta conta;
+	private Categoria categoria;
+	private TransacaoRecorrente recorrente;
+
+	@Configuration
+	@EnableAutoConfiguration
+	@EntityScan("app.entities")
+	@EnableJpaRepositories("app.repositories")
+	@Import({ TransacaoRecorrenteService.class, TransacaoLoteRepository.class, SaldoContaService.class,
+			GastoPeriodoService.class, GastoPeriodoLoteRepository.class, LeaseService.class })
+	static class Contexto {
+	}
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = SpringApplication.run(Contexto.class, "--spring.main.web-application-type=none",
+				"--spring.main.banner-mode=off", "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+				"--spring.datasource.password=", "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+				"--spring.jpa.hibernate.ddl-auto=create-drop", "--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN");
+
+		service = contexto.getBean(TransacaoRecorrenteService.class);
+		recorrenteRepository = contexto.getBean(TransacaoRecorrenteRepository.class);
+		transacaoRepository = contexto.getBean(TransacaoRepository.class);
+		transactionTemplate = contexto.getBean(TransactionTemplate.class);
+
+		usuario = contexto.getBean(UsuarioRepository.class)
+				.save(Usuario.builder().nome("Benchmark").email("benchmark@granaguru.app").senha("benchmark")
+						.role(Role.USER).status(StatusUsuario.ATIVO).dataCriacao(LocalDateTime.now()).build());
+		conta = contexto.getBean(ContaRepository.class)
+				.save(Conta.builder().usuario(usuario).nomeConta("Conta").tipoConta(TipoConta.CORRENTE)
+						.saldoInicial(0.0).status(StatusConta.ATIVA).dataCriacao(LocalDateTime.now()).build());
+		categoria = contexto.getBean(CategoriaRepository.class).save(Categoria.builder().usuario(usuario)
+				.nomeCategoria("Assinaturas").tipo(TipoCategoria.DESPESA).build());
+	}
+
+	@Setup(Level.Invocation)
+	public void novaRecorrencia() {
+		LocalDateTime inicio = LocalDateTime.now().minusDays(diasAtrasados).withNano(0);
+		recorrente = recorrenteRepository.save(TransacaoRecorrente.builder().usuario(usuario).conta(conta)
+				.categoria(categoria).valor(29.9).tipo(TipoTransacao.SAIDA).descricao("Streaming")
+				.periodicidade(Periodicidade.DIARIA).dataInicial(inicio).proximaExecucao(inicio).despesaFixa(true)
+				.build());
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	/**
+	 * Materialização anterior: uma verificação de existência e um INSERT por data
+	 * pendente.
+	 */
+	@Benchmark
+	public int dataADataLegado() {
+		return transactionTemplate.execute(status -> {
+			int criadas = 0;
+			LocalDateTime agora = LocalDateTime.now();
+			LocalDateTime data = recorrente.getProximaExecucao();
+			while (!data.isAfter(agora)) {
+				if (!transacaoRepository.existsByTransacaoRecorrenteAndDataTransacao(recorrente, data)) {
+					transacaoRepository.save(Transacao.builder().usuario(usuario).conta(conta).categoria(categoria)
+							.tipo(recorrente.getTipo()).valor(recorrente.getValor())
+							.descricao(recorrente.getDescricao()).dataTransacao(data).transacaoRecorrente(recorrente)
+							.build());
+					criadas++;
+				}
+				data = data.plusDays(1);
+			}
+			recorrente.setProximaExecucao(data);
+			recorrenteRepository.save(recorrente);
+			return criadas;
+		});
+	}
+
+	@Benchmark
+	public int emLote() {
+		return service.processarTransacoesRecorrentes(recorrente);
+	}
+}
@@ -0,0 +1,80 @@
+package app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import app.auth.UsuarioAutenticado;
+import app.entities.Usuario;
+import app.enums.Role;
+import app.services.VersaoSegurancaService;
+
+public class JwtAuthenticationFilterTest {
+
+    @Spy
+    private JwtServiceGenerator jwtService = new JwtServiceGenerator();
+    @Mock
+    private VersaoSegurancaService versaoSegurancaService;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filtro;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Usuario usuario = Usuario.builder().id(1L).nome("Usuário Teste").email("teste@granaguru.app")
+                .role(Role.ADMIN).versaoSeguranca(4).build();
+        token = jwtService.generateToken(usuario);
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deve autenticar com o principal das claims sem buscar o usuário")
+    void testAutenticaPelasClaims() throws Exception {
+        when(versaoSegurancaService.valida(1L, 4)).thenReturn(true);
+
+        filtrar();
+
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(autenticacao);
+        UsuarioAutenticado principal = (UsuarioAutenticado) autenticacao.getPrincipal();
+        assertEquals(1L, principal.getId());
+        assertEquals("teste@granaguru.app", autenticacao.getName());
+        assertEquals("ROLE_ADMIN", autenticacao.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    @DisplayName("Não deve autenticar token de versão revogada")
+    void testTokenRevogado() throws Exception {
+        when(versaoSegurancaService.valida(1L, 4)).thenReturn(false);
+
+        filtrar();
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private void filtrar() throws Exception {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/transacoes");
+        requisicao.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(requisicao, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,99 @@
+package app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import app.auth.UsuarioAutenticado;
+import app.entities.Usuario;
+import app.enums.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+public class JwtServiceGeneratorTest {
+
+    private JwtServiceGenerator jwtService;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceGenerator();
+        usuario = Usuario.builder().id(1L).nome("Usuário Teste").email("teste@granaguru.app").role(Role.USER).build();
+    }
+
+    @Test
+    @DisplayName("Deve verificar o token uma única vez e reutilizar as claims")
+    void testExtractAllClaimsEmCache() {
+        String token = jwtService.generateToken(usuario);
+
+        Claims primeira = jwtService.extractAllClaims(token);
+        Claims segunda = jwtService.extractAllClaims(token);
+
+        assertSame(primeira, segunda);
+        assertEquals("teste@granaguru.app", jwtService.extractUsername(token));
+        assertTrue(jwtService.isTokenValid(token, usuario));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token com assinatura alterada")
+    void testTokenAdulterado() {
+        String token = jwtService.generateToken(usuario);
+        jwtService.extractAllClaims(token);
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.extractAllClaims(adulterado));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token expirado")
+    void testTokenExpirado() {
+        String token = Jwts.builder().setSubject("teste@granaguru.app")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtServiceGenerator.SECRET_KEY)),
+                        JwtServiceGenerator.ALGORITMO_ASSINATURA)
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractAllClaims(token));
+    }
+
+    @Test
+    @DisplayName("Não deve validar token de outro usuário")
+    void testTokenDeOutroUsuario() {
+        String token = jwtService.generateToken(usuario);
+        Usuario outro = Usuario.builder().id(2L).email("outro@granaguru.app").role(Role.USER).build();
+        assertFalse(jwtService.isTokenValid(token, outro));
+    }
+
+    @Test
+    @DisplayName("Deve montar o usuário autenticado e a versão a partir das claims")
+    void testExtractPrincipal() {
+        usuario.setVersaoSeguranca(3);
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario));
+
+        UsuarioAutenticado principal = jwtService.extractPrincipal(claims);
+
+        assertEquals(new UsuarioAutenticado(1L, "teste@granaguru.app", "Usuário Teste", "USER"), principal);
+        assertEquals("ROLE_USER", principal.getAuthorities().get(0).getAuthority());
+        assertEquals(3, jwtService.extractVersao(claims));
+    }
+
+    @Test
+    @DisplayName("Token emitido sem a claim de versão vale como versão 0")
+    void testExtractVersaoAusente() {
+        String token = Jwts.builder().setSubject("teste@granaguru.app")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtServiceGenerator.SECRET_KEY)),
+                        JwtServiceGenerator.ALGORITMO_ASSINATURA)
+                .compact();
+
+        assertEquals(0, jwtService.extractVersao(jwtService.extractAllClaims(token)));
+    }
+}
@@ -0,0 +1,123 @@
+package app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.auth.UsuarioAutenticado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LimiteRequisicoesFilterTest {
+
+    private LimiteRequisicoesFilter filtro;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new LimiteRequisicoesFilter();
+        ReflectionTestUtils.setField(filtro, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filtro, "habilitado", true);
+        ReflectionTestUtils.setField(filtro, "leituraPorSegundo", 1L);
+        ReflectionTestUtils.setField(filtro, "leituraCapacidade", 3L);
+        ReflectionTestUtils.setField(filtro, "escritaPorSegundo", 1L);
+        ReflectionTestUtils.setField(filtro, "escritaCapacidade", 1L);
+        filtro.iniciar();
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deve responder 429 com Retry-After quando o balde do usuário esvazia")
+    void testRejeitaAcimaDaCapacidade() throws Exception {
+        autenticar(1L);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, filtrar("GET").getStatus());
+        }
+
+        MockHttpServletResponse rejeitada = filtrar("GET");
+
+        assertEquals(429, rejeitada.getStatus());
+        assertEquals("1", rejeitada.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("granaguru.limites.rejeitadas").tag("classe", "leitura").counter()
+                .count());
+    }
+
+    @Test
+    @DisplayName("Deve manter baldes separados por usuário e por classe de endpoint")
+    void testBaldesSeparados() throws Exception {
+        autenticar(1L);
+        assertEquals(200, filtrar("POST").getStatus());
+        assertEquals(429, filtrar("DELETE").getStatus());
+        assertEquals(200, filtrar("GET").getStatus());
+
+        autenticar(2L);
+        assertEquals(200, filtrar("PUT").getStatus());
+        assertEquals(3.0, meterRegistry.get("granaguru.limites.baldes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Não deve limitar requisições sem usuário autenticado")
+    void testSemUsuario() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, filtrar("POST").getStatus());
+        }
+        assertEquals(0, filtro.totalBaldes());
+    }
+
+    @Test
+    @DisplayName("Deve remover apenas os baldes que já encheram de novo")
+    void testRemoverOciosos() throws Exception {
+        ReflectionTestUtils.setField(filtro, "leituraPorSegundo", 1000L);
+        filtro.iniciar();
+        autenticar(1L);
+        filtrar("GET");
+        autenticar(2L);
+        filtrar("POST");
+
+        Thread.sleep(5);
+        filtro.removerOciosos();
+
+        // 🔹 Leitura a 1000/s já encheu; escrita a 1/s ainda não
+        assertEquals(1, filtro.totalBaldes());
+    }
+
+    @Test
+    @DisplayName("Deve liberar um token por intervalo depois de esvaziar")
+    void testBaldeTokens() {
+        BaldeTokens balde = new BaldeTokens(0);
+        assertEquals(0, balde.consumir(0, 100, 2));
+        assertEquals(0, balde.consumir(0, 100, 2));
+        assertEquals(100, balde.consumir(0, 100, 2));
+        assertEquals(0, balde.consumir(100, 100, 2));
+        assertFalse(balde.ocioso(150));
+        assertTrue(balde.ocioso(300));
+    }
+
+    private void autenticar(Long id) {
+        UsuarioAutenticado usuario = new UsuarioAutenticado(id, "u" + id + "@granaguru.app", "Usuário", "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+    }
+
+    private MockHttpServletResponse filtrar(String metodo) throws Exception {
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest(metodo, "/transacoes"), resposta, new MockFilterChain());
+        return resposta;
+    }
+}
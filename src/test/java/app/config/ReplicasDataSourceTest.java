@@ -0,0 +1,152 @@
+package app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import app.auth.UsuarioAutenticado;
+
+public class ReplicasDataSourceTest {
+
+    // 🔹 Dois bancos H2 em memória; cada um responde com o próprio nome
+    private static final String URL_PRINCIPAL = "jdbc:h2:mem:replicas-principal;DB_CLOSE_DELAY=-1";
+    private static final String URL_REPLICA = "jdbc:h2:mem:replicas-replica;DB_CLOSE_DELAY=-1";
+
+    private DataSource principal;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        principal = banco(URL_PRINCIPAL, "principal");
+        replica = banco(URL_REPLICA, "replica");
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(principal).execute("shutdown");
+        try {
+            new JdbcTemplate(replica).execute("shutdown");
+        } catch (RuntimeException e) {
+            // 🔹 Já derrubada pelo teste
+        }
+    }
+
+    private static DataSource banco(String url, String nome) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table origem (nome varchar(20))");
+        jdbc.update("insert into origem values (?)", nome);
+        return dataSource;
+    }
+
+    private ReplicasDataSource replicas(Duration janela) {
+        return new ReplicasDataSource(principal, List.of(replica), janela);
+    }
+
+    /**
+     * Mesma montagem de ReplicasConfig#dataSource. Na primeira conexão o proxy
+     * abre uma conexão de escrita para ler os padrões (na aplicação, durante a
+     * subida); aqui isso é feito antes de autenticar o usuário do teste.
+     */
+    private static JdbcTemplate montar(ReplicasDataSource replicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicas.escritas());
+        dataSource.setReadOnlyDataSource(replicas);
+        dataSource.checkDefaultConnectionProperties();
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static String origem(JdbcTemplate jdbc, boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> jdbc.queryForObject("select nome from origem", String.class));
+    }
+
+    private static void autenticar(Long usuarioId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UsuarioAutenticado(usuarioId, "u" + usuarioId + "@granaguru.app", "Usuário", "USER"), null, List.of()));
+    }
+
+    @Test
+    @DisplayName("Deve ler da réplica nas transações somente leitura e gravar no principal")
+    void testRoteamento() {
+        JdbcTemplate jdbc = montar(replicas(Duration.ofSeconds(5)));
+
+        assertEquals("replica", origem(jdbc, true));
+        assertEquals("principal", origem(jdbc, false));
+    }
+
+    @Test
+    @DisplayName("Deve ler do principal logo depois de gravar, só para quem gravou")
+    void testLeituraPropria() {
+        JdbcTemplate jdbc = montar(replicas(Duration.ofMinutes(1)));
+
+        autenticar(1L);
+        assertEquals("replica", origem(jdbc, true));
+        origem(jdbc, false);
+        assertEquals("principal", origem(jdbc, true));
+
+        autenticar(2L);
+        assertEquals("replica", origem(jdbc, true));
+    }
+
+    @Test
+    @DisplayName("Deve voltar a ler da réplica depois da janela de leitura própria")
+    void testJanelaVencida() throws InterruptedException {
+        JdbcTemplate jdbc = montar(replicas(Duration.ofMillis(50)));
+
+        autenticar(1L);
+        origem(jdbc, false);
+        Thread.sleep(100);
+
+        assertEquals("replica", origem(jdbc, true));
+    }
+
+    @Test
+    @DisplayName("Deve ler do principal com a réplica fora do ar e voltar a ela depois da verificação")
+    void testReplicaForaDoAr() {
+        new JdbcTemplate(replica).execute("shutdown");
+        // 🔹 IFEXISTS: uma conexão nova não recria a réplica derrubada, vazia
+        replica = new DriverManagerDataSource(URL_REPLICA + ";IFEXISTS=TRUE", "sa", "");
+        ReplicasDataSource replicas = replicas(Duration.ofSeconds(5));
+        JdbcTemplate jdbc = montar(replicas);
+
+        assertEquals("principal", origem(jdbc, true));
+        assertEquals(0, replicas.replicasSaudaveis());
+
+        banco(URL_REPLICA, "replica");
+        replicas.verificar();
+
+        assertEquals(1, replicas.replicasSaudaveis());
+        assertEquals("replica", origem(jdbc, true));
+    }
+
+    @Test
+    @DisplayName("Deve falhar na subida com réplicas habilitadas e sem URLs")
+    void testSemUrls() {
+        for (List<String> urls : List.of(List.<String>of(), List.of(" ", ""))) {
+            IllegalStateException erro = assertThrows(IllegalStateException.class,
+                    () -> new ReplicasConfig().replicasDataSource(new HikariDataSource(), new DataSourceProperties(),
+                            null, urls, "sa", "", 10, Duration.ofSeconds(2), Duration.ofSeconds(5)));
+            assertTrue(erro.getMessage().contains("granaguru.replicas.urls"));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import app.entities.Usuario;
+import app.enums.Role;
+import app.repositories.UsuarioRepository;
+
+public class SecurityConfigTest {
+
+    private final SecurityConfig config = new SecurityConfig();
+    private UsuarioRepository repo;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(UsuarioRepository.class);
+        usuario = Usuario.builder().id(1L).email("user@email.com").role(Role.USER).build();
+        when(repo.findByEmail("user@email.com")).thenReturn(Optional.of(usuario));
+    }
+
+    private DaoAuthenticationProvider provider(int custo) {
+        PasswordEncoder encoder = config.passwordEncoder(custo);
+        return config.authenticationProvider(config.userDetailsService(repo),
+                config.userDetailsPasswordService(repo), encoder);
+    }
+
+    @Test
+    @DisplayName("Deve refazer o hash no login quando o custo configurado aumentou")
+    void testRehashCustoMaior() {
+        usuario.setSenha(new BCryptPasswordEncoder(4).encode("senha123"));
+
+        provider(5).authenticate(new UsernamePasswordAuthenticationToken("user@email.com", "senha123"));
+
+        ArgumentCaptor<String> novoHash = ArgumentCaptor.forClass(String.class);
+        verify(repo).atualizarSenha(eq("user@email.com"), novoHash.capture());
+        assertTrue(novoHash.getValue().startsWith("$2a$05$"));
+        assertTrue(new BCryptPasswordEncoder().matches("senha123", novoHash.getValue()));
+    }
+
+    @Test
+    @DisplayName("Não deve refazer o hash quando o custo não mudou")
+    void testSemRehash() {
+        usuario.setSenha(new BCryptPasswordEncoder(4).encode("senha123"));
+
+        provider(4).authenticate(new UsernamePasswordAuthenticationToken("user@email.com", "senha123"));
+
+        verify(repo, never()).atualizarSenha(any(), any());
+    }
+}
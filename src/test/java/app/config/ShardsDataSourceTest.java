@@ -0,0 +1,191 @@
+package app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import app.auth.UsuarioAutenticado;
+import app.exceptions.UsuarioEmMovimentacaoException;
+
+public class ShardsDataSourceTest {
+
+    // 🔹 Catálogo e dois shards H2 em memória; cada um responde com o próprio nome
+    private static final List<String> NOMES = List.of("catalogo", "shard1", "shard2");
+
+    private List<DataSource> bancos;
+    private DiretorioShards diretorio;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        bancos = NOMES.stream().map(ShardsDataSourceTest::banco).toList();
+        new JdbcTemplate(bancos.get(0)).execute(
+                "create table shards_usuarios (usuario_id bigint not null primary key, shard int not null,"
+                        + " movendo_para int)");
+        diretorio = new DiretorioShards(bancos, List.of(1, 2), Duration.ofMinutes(1));
+        jdbc = new JdbcTemplate(new ShardsDataSource(diretorio));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+        bancos.forEach(banco -> new JdbcTemplate(banco).execute("shutdown"));
+    }
+
+    private static DataSource banco(String nome) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:shards-" + nome + ";DB_CLOSE_DELAY=-1",
+                "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table origem (nome varchar(20))");
+        jdbc.update("insert into origem values (?)", nome);
+        return dataSource;
+    }
+
+    private String origem() {
+        return jdbc.queryForObject("select nome from origem", String.class);
+    }
+
+    private static void autenticar(Long usuarioId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UsuarioAutenticado(usuarioId, "u" + usuarioId + "@granaguru.app", "Usuário", "USER"), null, List.of()));
+    }
+
+    @Test
+    @DisplayName("Deve usar o catálogo sem usuário autenticado e para usuários fora do diretório")
+    void testCatalogoPadrao() {
+        assertEquals("catalogo", origem());
+
+        autenticar(1L);
+        assertEquals("catalogo", origem());
+    }
+
+    @Test
+    @DisplayName("Deve usar o shard do usuário autenticado registrado no diretório")
+    void testShardDoUsuario() {
+        diretorio.registrar(1L, 2);
+
+        autenticar(1L);
+        assertEquals("shard2", origem());
+        assertEquals(1, new JdbcTemplate(bancos.get(0))
+                .queryForObject("select count(*) from shards_usuarios where usuario_id = 1 and shard = 2", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve preferir o shard definido explicitamente ao do usuário autenticado")
+    void testContextoExplicito() {
+        diretorio.registrar(1L, 2);
+        autenticar(1L);
+
+        assertEquals("shard1", ContextoShard.executar(1, this::origem));
+        assertEquals("catalogo", ContextoShard.executar(ContextoShard.CATALOGO, this::origem));
+        assertEquals("shard2", origem());
+    }
+
+    @Test
+    @DisplayName("Deve ver a mudança de outra instância ao reler o diretório")
+    void testRecarregar() {
+        diretorio.registrar(1L, 2);
+        new JdbcTemplate(bancos.get(0)).update("update shards_usuarios set shard = 1 where usuario_id = 1");
+
+        assertEquals(2, diretorio.shardDe(1L));
+        assertEquals(1, diretorio.recarregar(1L));
+
+        diretorio.remover(1L);
+        assertEquals(ContextoShard.CATALOGO, diretorio.shardDe(1L));
+    }
+
+    @Test
+    @DisplayName("Deve espalhar os usuários novos só pelos shards abertos")
+    void testPosicionar() {
+        Set<Integer> usados = new HashSet<>();
+        for (long id = 1; id <= 100; id++) {
+            usados.add(diretorio.posicionar(id));
+        }
+        assertEquals(Set.of(1, 2), usados);
+        assertThrows(IllegalArgumentException.class,
+                () -> new DiretorioShards(bancos, List.of(3), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("Deve rotear pelas anotações NoCatalogo e NoShardDoUsuario")
+    void testAnotacoes() {
+        diretorio.registrar(1L, 1);
+        diretorio.registrar(2L, 2);
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(new Consultas(jdbc));
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new RoteamentoShardsAspect(diretorio));
+        Consultas consultas = fabrica.getProxy();
+
+        autenticar(1L);
+        assertEquals("shard1", consultas.doAutenticado());
+        assertEquals("catalogo", consultas.noCatalogo());
+        assertEquals("shard2", consultas.doUsuario(2L));
+        assertNull(ContextoShard.atual());
+    }
+
+    @Test
+    @DisplayName("Deve recusar o usuário em movimentação em todas as instâncias até ele ser registrado no destino")
+    void testMovimentacao() throws Exception {
+        diretorio.registrar(1L, 1);
+        autenticar(1L);
+        diretorio.iniciarMovimentacao(1L, 1, 2);
+
+        assertThrows(UsuarioEmMovimentacaoException.class, this::origem);
+        assertEquals(new DiretorioShards.Localizacao(1, 2), diretorio.localizar(1L));
+        // 🔹 Outra instância, com o cache vazio, lê a marca do diretório
+        DiretorioShards outraInstancia = new DiretorioShards(bancos, List.of(1, 2), Duration.ofMinutes(1));
+        assertThrows(UsuarioEmMovimentacaoException.class, () -> outraInstancia.shardDe(1L));
+
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        MockFilterChain cadeia = new MockFilterChain();
+        new MovimentacaoShardsFilter(diretorio).doFilter(new MockHttpServletRequest(), resposta, cadeia);
+        assertEquals(503, resposta.getStatus());
+        assertEquals("60", resposta.getHeader("Retry-After"));
+        assertNull(cadeia.getRequest());
+
+        diretorio.registrar(1L, 2);
+        assertEquals("shard2", origem());
+        assertEquals(2, outraInstancia.recarregar(1L));
+    }
+
+    static class Consultas {
+
+        private final JdbcTemplate jdbc;
+
+        Consultas(JdbcTemplate jdbc) {
+            this.jdbc = jdbc;
+        }
+
+        public String doAutenticado() {
+            return jdbc.queryForObject("select nome from origem", String.class);
+        }
+
+        @NoCatalogo
+        public String noCatalogo() {
+            return doAutenticado();
+        }
+
+        @NoShardDoUsuario
+        public String doUsuario(Long usuarioId) {
+            return doAutenticado();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package app.config;
 
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,12 +13,20 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import app.services.VersaoSegurancaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import static org.mockito.Mockito.mock;
 
 @TestConfiguration
 @EnableWebSecurity
 public class TestSecurityConfig {
 
+    // Dependência do JwtAuthenticationFilter
+    @MockBean
+    private VersaoSegurancaService versaoSegurancaService;
+
     @Bean
     @Primary
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -35,6 +44,11 @@ public class TestSecurityConfig {
         return new JwtServiceGenerator(); // Fornece um bean do JwtServiceGenerator para testes
     }
 
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry(); // Métricas do LimiteRequisicoesFilter
+    }
+
     @Bean
     @Primary
     public PasswordEncoder passwordEncoder() {
@@ -1,5 +1,6 @@
 package app.controllers;
 
+import app.dto.Pagina;
 import app.entities.Categoria;
 import app.entities.Usuario;
 import app.enums.TipoCategoria;
@@ -52,7 +53,7 @@ public class CategoriaControllerTest {
     @DisplayName("GET /categorias - deve retornar todas as categorias")
     void testFindAll() throws Exception {
         List<Categoria> categorias = Arrays.asList(categoria);
-        Mockito.when(categoriaService.findAll()).thenReturn(categorias);
+        Mockito.when(categoriaService.findAll(null, null)).thenReturn(new Pagina<>(categorias, null));
         mockMvc.perform(get("/categorias"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
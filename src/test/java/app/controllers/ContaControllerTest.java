@@ -1,9 +1,12 @@
 package app.controllers;
 
+import app.dto.Pagina;
+import app.dto.SaldoDTO;
 import app.entities.Conta;
 import app.entities.Usuario;
 import app.exceptions.ContaNotFoundException;
 import app.services.ContaService;
+import app.services.SaldoContaService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +17,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,6 +34,8 @@ public class ContaControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private ContaService contaService;
+    @MockBean
+    private SaldoContaService saldoContaService;
     @Autowired
     private ObjectMapper objectMapper;
     private Conta conta;
@@ -50,7 +56,7 @@ public class ContaControllerTest {
     @DisplayName("GET /contas - deve retornar todas as contas")
     void testFindAll() throws Exception {
         List<Conta> contas = Arrays.asList(conta);
-        Mockito.when(contaService.findAll()).thenReturn(contas);
+        Mockito.when(contaService.findAll(null, null)).thenReturn(new Pagina<>(contas, null));
         mockMvc.perform(get("/contas"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
@@ -73,6 +79,24 @@ public class ContaControllerTest {
                 .andExpect(status().is4xxClientError());
     }
 
+    @Test
+    @DisplayName("GET /contas/{id}/saldo - deve retornar o saldo em uma data")
+    void testSaldo() throws Exception {
+        LocalDateTime data = LocalDateTime.of(2025, 6, 30, 23, 59);
+        Mockito.when(saldoContaService.consultar(1L, data)).thenReturn(new SaldoDTO(1L, data, 450.0));
+        mockMvc.perform(get("/contas/1/saldo").param("data", "2025-06-30T23:59:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saldo").value(450.0));
+    }
+
+    @Test
+    @DisplayName("GET /contas/{id}/saldo - not found")
+    void testSaldoNotFound() throws Exception {
+        Mockito.when(saldoContaService.consultar(999L, null)).thenThrow(new ContaNotFoundException(999L));
+        mockMvc.perform(get("/contas/999/saldo"))
+                .andExpect(status().is4xxClientError());
+    }
+
     @Test
     @DisplayName("GET /contas/usuario/{usuarioId} - deve retornar contas do usuário")
     void testFindByUsuarioId() throws Exception {
@@ -1,5 +1,6 @@
 package app.controllers;
 
+import app.dto.Pagina;
 import app.entities.Meta;
 import app.entities.Usuario;
 import app.enums.StatusMeta;
@@ -57,7 +58,7 @@ public class MetaControllerTest {
     @DisplayName("GET /metas - deve retornar todas as metas")
     void testListAll() throws Exception {
         List<Meta> metas = Arrays.asList(meta);
-        Mockito.when(metaService.listAll()).thenReturn(metas);
+        Mockito.when(metaService.listAll(null, null)).thenReturn(new Pagina<>(metas, null));
         mockMvc.perform(get("/metas"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
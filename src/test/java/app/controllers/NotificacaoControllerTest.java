@@ -1,5 +1,6 @@
 package app.controllers;
 
+import app.dto.Pagina;
 import app.entities.Notificacao;
 import app.entities.Usuario;
 import app.exceptions.NotificacaoNotFoundException;
@@ -50,7 +51,7 @@ public class NotificacaoControllerTest {
     @DisplayName("GET /notificacoes - deve retornar todas as notificações")
     void testFindAll() throws Exception {
         List<Notificacao> notificacoes = Arrays.asList(notificacao);
-        Mockito.when(notificacaoService.findAll()).thenReturn(notificacoes);
+        Mockito.when(notificacaoService.findAll(null, null)).thenReturn(new Pagina<>(notificacoes, null));
         mockMvc.perform(get("/notificacoes"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
@@ -77,7 +78,7 @@ public class NotificacaoControllerTest {
     @DisplayName("GET /notificacoes/usuario/{usuarioId} - deve retornar notificações do usuário")
     void testFindByUsuarioId() throws Exception {
         List<Notificacao> notificacoes = Arrays.asList(notificacao);
-        Mockito.when(notificacaoService.findByUsuarioId(1L)).thenReturn(notificacoes);
+        Mockito.when(notificacaoService.findByUsuarioId(1L, null, null)).thenReturn(new Pagina<>(notificacoes, null));
         mockMvc.perform(get("/notificacoes/usuario/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
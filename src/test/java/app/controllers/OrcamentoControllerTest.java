@@ -1,7 +1,10 @@
 package app.controllers;
 
+import app.dto.Pagina;
+import app.dto.StatusOrcamentoDTO;
 import app.entities.Orcamento;
 import app.entities.Usuario;
+import app.enums.PeriodoOrcamento;
 import app.exceptions.OrcamentoNotFoundException;
 import app.services.OrcamentoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,6 +17,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
@@ -49,7 +53,7 @@ public class OrcamentoControllerTest {
     @DisplayName("GET /orcamentos - deve retornar todos os orçamentos")
     void testFindAll() throws Exception {
         List<Orcamento> orcamentos = Arrays.asList(orcamento);
-        Mockito.when(orcamentoService.findAll()).thenReturn(orcamentos);
+        Mockito.when(orcamentoService.findAll(null, null)).thenReturn(new Pagina<>(orcamentos, null));
         mockMvc.perform(get("/orcamentos"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
@@ -119,4 +123,27 @@ public class OrcamentoControllerTest {
         mockMvc.perform(delete("/orcamentos/999"))
                 .andExpect(status().is4xxClientError());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /orcamentos/usuario/{usuarioId}/status - deve retornar o consumo dos orçamentos")
+    void testStatusPorUsuario() throws Exception {
+        StatusOrcamentoDTO status = new StatusOrcamentoDTO(1L, 2L, "Mercado", PeriodoOrcamento.MENSAL,
+                LocalDate.of(2025, 3, 1), 400.0, 100.0, 25.0);
+        Mockito.when(orcamentoService.statusPorUsuario(1L)).thenReturn(List.of(status));
+        mockMvc.perform(get("/orcamentos/usuario/1/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].orcamentoId").value(1))
+                .andExpect(jsonPath("$[0].periodo").value("MENSAL"))
+                .andExpect(jsonPath("$[0].consumido").value(100.0))
+                .andExpect(jsonPath("$[0].percentual").value(25.0));
+    }
+
+    @Test
+    @DisplayName("GET /orcamentos/usuario/{usuarioId}/status - not found")
+    void testStatusPorUsuarioNotFound() throws Exception {
+        Mockito.when(orcamentoService.statusPorUsuario(999L))
+                .thenThrow(new OrcamentoNotFoundException("Usuário não encontrado para o ID: 999"));
+        mockMvc.perform(get("/orcamentos/usuario/999/status"))
+                .andExpect(status().is4xxClientError());
+    }
+}
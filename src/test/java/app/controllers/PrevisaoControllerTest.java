@@ -0,0 +1,70 @@
+package app.controllers;
+
+import app.dto.PrevisaoSaldoDTO;
+import app.dto.SerieSaldoConta;
+import app.enums.GranularidadePrevisao;
+import app.exceptions.ContaNotFoundException;
+import app.services.PrevisaoSaldoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDate;
+import java.util.List;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import app.config.TestSecurityConfig;
+import app.exceptions.GlobalExceptionHandler;
+import org.springframework.context.annotation.Import;
+
+@WebMvcTest(PrevisaoController.class)
+@Import({ TestSecurityConfig.class, GlobalExceptionHandler.class })
+public class PrevisaoControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private PrevisaoSaldoService previsaoSaldoService;
+    private PrevisaoSaldoDTO previsao;
+
+    @BeforeEach
+    void setUp() {
+        SerieSaldoConta serie = new SerieSaldoConta(1L, "Conta Teste", 150.0, new double[] { 150.0, 140.0 });
+        previsao = new PrevisaoSaldoDTO(GranularidadePrevisao.MENSAL,
+                List.of(LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 28)), new double[] { 150.0, 140.0 },
+                List.of(serie));
+    }
+
+    @Test
+    @DisplayName("GET /previsoes/usuario/{usuarioId} - deve retornar a previsão do usuário")
+    void testPreverPorUsuario() throws Exception {
+        Mockito.when(previsaoSaldoService.preverPorUsuario(1L, 6, GranularidadePrevisao.DIARIA)).thenReturn(previsao);
+        mockMvc.perform(get("/previsoes/usuario/1").param("meses", "6").param("granularidade", "DIARIA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularidade").value("MENSAL"))
+                .andExpect(jsonPath("$.total[1]").value(140.0))
+                .andExpect(jsonPath("$.contas[0].contaId").value(1))
+                .andExpect(jsonPath("$.contas[0].saldos[0]").value(150.0));
+    }
+
+    @Test
+    @DisplayName("GET /previsoes/conta/{contaId} - deve usar granularidade mensal por padrão")
+    void testPreverPorConta() throws Exception {
+        Mockito.when(previsaoSaldoService.preverPorConta(1L, null, GranularidadePrevisao.MENSAL)).thenReturn(previsao);
+        mockMvc.perform(get("/previsoes/conta/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contas[0].nomeConta").value("Conta Teste"));
+    }
+
+    @Test
+    @DisplayName("GET /previsoes/conta/{contaId} - not found")
+    void testPreverPorContaNotFound() throws Exception {
+        Mockito.when(previsaoSaldoService.preverPorConta(999L, null, GranularidadePrevisao.MENSAL))
+                .thenThrow(new ContaNotFoundException(999L));
+        mockMvc.perform(get("/previsoes/conta/999"))
+                .andExpect(status().is4xxClientError());
+    }
+}
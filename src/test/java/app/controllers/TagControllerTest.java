@@ -1,5 +1,6 @@
 package app.controllers;
 
+import app.dto.Pagina;
 import app.entities.Tag;
 import app.exceptions.TagNotFoundException;
 import app.services.TagService;
@@ -44,7 +45,7 @@ public class TagControllerTest {
     @DisplayName("GET /tags - deve retornar todas as tags")
     void testFindAll() throws Exception {
         List<Tag> tags = Arrays.asList(tag);
-        Mockito.when(tagService.findAll()).thenReturn(tags);
+        Mockito.when(tagService.findAll(null, null)).thenReturn(new Pagina<>(tags, null));
         mockMvc.perform(get("/tags"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
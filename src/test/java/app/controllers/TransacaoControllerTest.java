@@ -1,29 +1,53 @@
 package app.controllers;
 
+import app.dto.Pagina;
+import app.dto.ResultadoImportacaoDTO;
+import app.dto.ResultadoLinhaLote;
+import app.dto.ResultadoLoteDTO;
+import app.dto.TransacaoDTO;
+import app.dto.TransacaoFiltro;
 import app.entities.Transacao;
 import app.entities.Usuario;
 import app.entities.Conta;
 import app.entities.Categoria;
 import app.entities.Tag;
 import app.enums.TipoTransacao;
+import app.enums.FormatoExtrato;
 import app.enums.Periodicidade;
+import app.exceptions.CursorInvalidoException;
+import app.exceptions.LoteInvalidoException;
 import app.exceptions.TransacaoNotFoundException;
+import app.exceptions.UsuarioNotFoundException;
+import app.services.ImportacaoExtratoService;
+import app.services.TransacaoLoteService;
 import app.services.TransacaoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import app.config.TestSecurityConfig;
@@ -37,6 +61,10 @@ public class TransacaoControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private TransacaoService transacaoService;
+    @MockBean
+    private TransacaoLoteService transacaoLoteService;
+    @MockBean
+    private ImportacaoExtratoService importacaoExtratoService;
     @Autowired
     private ObjectMapper objectMapper;
     private Transacao transacao;
@@ -76,11 +104,125 @@ public class TransacaoControllerTest {
     @Test
     @DisplayName("GET /transacoes - deve retornar todas as transações")
     void testFindAll() throws Exception {
-        List<Transacao> transacoes = Arrays.asList(transacao);
-        Mockito.when(transacaoService.findAll()).thenReturn(transacoes);
+        TransacaoDTO linha = TransacaoDTO.de(transacao);
+        linha.setTagIds(List.of(1L));
+        List<TransacaoDTO> transacoes = Arrays.asList(linha);
+        Mockito.when(transacaoService.findAll(null, null)).thenReturn(new Pagina<>(transacoes, null));
         mockMvc.perform(get("/transacoes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].contaId").value(1))
+                .andExpect(jsonPath("$[0].tagIds[0]").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /transacoes - deve devolver o cursor da próxima página no cabeçalho")
+    void testFindAllComProximoCursor() throws Exception {
+        Mockito.when(transacaoService.findAll("abc", 1)).thenReturn(new Pagina<>(List.of(TransacaoDTO.de(transacao)), "def"));
+        mockMvc.perform(get("/transacoes").param("cursor", "abc").param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Pagina.CABECALHO_PROXIMO_CURSOR, "def"))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /transacoes - cursor inválido deve retornar 400")
+    void testFindAllCursorInvalido() throws Exception {
+        Mockito.when(transacaoService.findAll("xyz", null)).thenThrow(new CursorInvalidoException("xyz"));
+        mockMvc.perform(get("/transacoes").param("cursor", "xyz"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /transacoes/usuario/{id}/stream - deve transmitir uma transação por linha")
+    @SuppressWarnings("unchecked")
+    void testStreamByUsuarioId() throws Exception {
+        Mockito.doAnswer(invocacao -> {
+            Consumer<TransacaoDTO> destino = invocacao.getArgument(1);
+            destino.accept(TransacaoDTO.de(transacao));
+            destino.accept(TransacaoDTO.de(transacao));
+            return null;
+        }).when(transacaoService).transmitirHistorico(eq(1L), any(Consumer.class));
+        MvcResult resultado = mockMvc.perform(get("/transacoes/usuario/1/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] linhas = corpo.split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals(1L, objectMapper.readValue(linhas[1], TransacaoDTO.class).getId());
+    }
+
+    @Test
+    @DisplayName("GET /transacoes/export - deve exportar o histórico em CSV compactado")
+    @SuppressWarnings("unchecked")
+    void testExportarGzip() throws Exception {
+        Mockito.doAnswer(invocacao -> {
+            Consumer<TransacaoDTO> destino = invocacao.getArgument(1);
+            destino.accept(TransacaoDTO.de(transacao));
+            return null;
+        }).when(transacaoService).exportarHistorico(eq(1L), any(Consumer.class));
+        MvcResult resultado = mockMvc.perform(get("/transacoes/export").param("usuarioId", "1")
+                        .param("formato", "csv").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transacoes-usuario-1.csv.gz\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(corpo)).readAllBytes(), StandardCharsets.UTF_8);
+        String[] linhas = csv.split("\r\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[1].startsWith("1,"));
+    }
+
+    @Test
+    @DisplayName("GET /transacoes/export - formato não suportado")
+    void testExportarFormatoInvalido() throws Exception {
+        mockMvc.perform(get("/transacoes/export").param("usuarioId", "1").param("formato", "xlsx"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("xlsx")));
+    }
+
+    @Test
+    @DisplayName("GET /transacoes/usuario/{id}/stream - usuário inexistente")
+    void testStreamByUsuarioIdNotFound() throws Exception {
+        Mockito.doThrow(new UsuarioNotFoundException(999L)).when(transacaoService).verificarUsuario(999L);
+        mockMvc.perform(get("/transacoes/usuario/999/stream"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    @DisplayName("GET /transacoes/filtro - deve repassar os filtros ao serviço")
+    void testBuscarComFiltros() throws Exception {
+        ArgumentCaptor<TransacaoFiltro> filtro = ArgumentCaptor.forClass(TransacaoFiltro.class);
+        Mockito.when(transacaoService.buscarComFiltrosDoUsuario(Mockito.eq(1L), filtro.capture()))
+                .thenReturn(List.of(TransacaoDTO.de(transacao)));
+        mockMvc.perform(get("/transacoes/filtro")
+                .param("usuarioId", "1")
+                .param("dataInicio", "2025-01-01")
+                .param("tagIds", "2,3")
+                .param("limite", "20"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
+        assertEquals(1L, filtro.getValue().getUsuarioId());
+        assertEquals(LocalDate.of(2025, 1, 1), filtro.getValue().getDataInicio());
+        assertEquals(List.of(2L, 3L), filtro.getValue().getTagIds());
+        assertEquals(20, filtro.getValue().getLimite());
+    }
+
+    @Test
+    @DisplayName("GET /transacoes/filtro - sem usuário deve buscar com os filtros informados")
+    void testBuscarComFiltrosSemUsuario() throws Exception {
+        Mockito.when(transacaoService.buscarComFiltros(Mockito.any())).thenReturn(List.of());
+        mockMvc.perform(get("/transacoes/filtro").param("descricao", "feira"))
+                .andExpect(status().isNoContent());
+        Mockito.verify(transacaoService, Mockito.never()).buscarComFiltrosDoUsuario(Mockito.any(), Mockito.any());
     }
 
     @Test
@@ -111,6 +253,45 @@ public class TransacaoControllerTest {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    @DisplayName("POST /transacoes/lote - deve devolver o resultado de cada transação")
+    void testSaveAll() throws Exception {
+        Mockito.when(transacaoLoteService.importar(any())).thenReturn(new ResultadoLoteDTO(2, 1, 1,
+                List.of(new ResultadoLinhaLote(0, 10L, null), new ResultadoLinhaLote(1, null, "Conta não encontrada com ID: 9"))));
+        mockMvc.perform(post("/transacoes/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"descricao\":\"Mercado\"},{\"descricao\":\"Padaria\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inseridas").value(1))
+                .andExpect(jsonPath("$.linhas[0].id").value(10))
+                .andExpect(jsonPath("$.linhas[1].erro").value("Conta não encontrada com ID: 9"));
+    }
+
+    @Test
+    @DisplayName("POST /transacoes/lote - lote inválido")
+    void testSaveAllLoteInvalido() throws Exception {
+        Mockito.when(transacaoLoteService.importar(any())).thenThrow(new LoteInvalidoException("O lote não tem transações."));
+        mockMvc.perform(post("/transacoes/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /transacoes/importacao - deve importar o extrato enviado")
+    void testImportarExtrato() throws Exception {
+        Mockito.when(importacaoExtratoService.importar(eq(1L), eq(2L), eq(FormatoExtrato.OFX), any(), eq("UTF-8")))
+                .thenReturn(new ResultadoImportacaoDTO(3, 2, 1, 0, List.of()));
+        mockMvc.perform(multipart("/transacoes/importacao")
+                .file(new MockMultipartFile("arquivo", "extrato.ofx", "application/x-ofx", "<OFX></OFX>".getBytes()))
+                .param("contaId", "1")
+                .param("categoriaId", "2")
+                .param("formato", "OFX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importadas").value(2))
+                .andExpect(jsonPath("$.duplicadas").value(1));
+    }
+
     @Test
     @DisplayName("PUT /transacoes/{id} - deve atualizar transação")
     void testUpdate() throws Exception {
@@ -1,5 +1,6 @@
 package app.controllers;
 
+import app.dto.Pagina;
 import app.entities.TransacaoRecorrente;
 import app.entities.Usuario;
 import app.entities.Conta;
@@ -72,7 +73,7 @@ public class TransacaoRecorrenteControllerTest {
     @DisplayName("GET /transacoes-recorrentes - deve retornar todas as transações recorrentes")
     void testFindAll() throws Exception {
         List<TransacaoRecorrente> lista = Arrays.asList(recorrente);
-        Mockito.when(service.findAll()).thenReturn(lista);
+        Mockito.when(service.findAll(null, null)).thenReturn(new Pagina<>(lista, null));
         mockMvc.perform(get("/transacoes-recorrentes"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
@@ -1,5 +1,6 @@
 package app.controllers;
 
+import app.dto.Pagina;
 import app.entities.Usuario;
 import app.enums.StatusUsuario;
 import app.enums.Role;
@@ -49,7 +50,7 @@ public class UsuarioControllerTest {
     @Test
     @DisplayName("GET /usuarios - deve retornar todos os usuários")
     void testListAll() throws Exception {
-        Mockito.when(usuarioService.listAll()).thenReturn(List.of(usuario));
+        Mockito.when(usuarioService.listAll(null, null)).thenReturn(new Pagina<>(List.of(usuario), null));
         mockMvc.perform(get("/usuarios"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].nome").value("Vik"));
@@ -58,7 +59,7 @@ public class UsuarioControllerTest {
     @Test
     @DisplayName("GET /usuarios/{id} - deve retornar usuário por id")
     void testFindById() throws Exception {
-        Mockito.when(usuarioService.findById(1L)).thenReturn(usuario);
+        Mockito.when(usuarioService.findComMetasById(1L)).thenReturn(usuario);
         mockMvc.perform(get("/usuarios/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.nome").value("Vik"));
@@ -67,7 +68,7 @@ public class UsuarioControllerTest {
     @Test
     @DisplayName("GET /usuarios/{id} - not found")
     void testFindByIdNotFound() throws Exception {
-        Mockito.when(usuarioService.findById(999L)).thenThrow(new UsuarioNotFoundException("Usuário não encontrado"));
+        Mockito.when(usuarioService.findComMetasById(999L)).thenThrow(new UsuarioNotFoundException("Usuário não encontrado"));
         mockMvc.perform(get("/usuarios/999"))
                 .andExpect(status().is4xxClientError());
     }
@@ -0,0 +1,130 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.dto.StatusOrcamentoDTO;
+import app.entities.Notificacao;
+import app.enums.PeriodoOrcamento;
+import app.enums.TipoNotificacao;
+import app.events.GastoRegistradoEvent;
+import app.repositories.NotificacaoLoteRepository;
+import app.repositories.NotificacaoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AlertaOrcamentoServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 3, 1);
+
+    @Mock
+    private OrcamentoService orcamentoService;
+    @Mock
+    private NotificacaoRepository notificacaoRepository;
+    @Mock
+    private NotificacaoLoteRepository notificacaoLoteRepository;
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AlertaOrcamentoService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "habilitado", true);
+        ReflectionTestUtils.setField(service, "workers", 2);
+        ReflectionTestUtils.setField(service, "capacidadeFila", 2);
+        ReflectionTestUtils.setField(service, "tamanhoLote", 100);
+        ReflectionTestUtils.setField(service, "limiares", List.of(80, 100));
+        ReflectionTestUtils.invokeMethod(service, "iniciar");
+    }
+
+    private StatusOrcamentoDTO status(Long orcamentoId, double consumido) {
+        return new StatusOrcamentoDTO(orcamentoId, 2L, "Mercado", PeriodoOrcamento.MENSAL, INICIO, 100.0, consumido,
+                consumido);
+    }
+
+    @Test
+    @DisplayName("Deve iniciar um worker por thread configurada")
+    void testIniciarWorkers() {
+        verify(executor, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Deve enfileirar cada (usuário, categoria) uma única vez enquanto estiver pendente")
+    void testAoRegistrarGastoCoalesce() {
+        service.aoRegistrarGasto(new GastoRegistradoEvent(1L, 2L));
+        service.aoRegistrarGasto(new GastoRegistradoEvent(1L, 2L));
+        service.aoRegistrarGasto(new GastoRegistradoEvent(1L, 3L));
+        // 🔹 Fila com capacidade 2: o terceiro evento distinto é descartado
+        service.aoRegistrarGasto(new GastoRegistradoEvent(1L, 4L));
+
+        assertEquals(2.0, meterRegistry.get("granaguru.alertas.fila").gauge().value());
+        assertEquals(1.0, meterRegistry.get("granaguru.alertas.descartados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve gravar em lote os alertas dos limiares atingidos")
+    void testAvaliar() {
+        when(orcamentoService.statusPorCategorias(1L, Set.of(2L)))
+                .thenReturn(List.of(status(10L, 85.0), status(11L, 120.0), status(12L, 30.0)));
+        when(notificacaoRepository.findChavesAlertaExistentes(any())).thenReturn(List.of());
+
+        int gerados = service.avaliar(List.of(new GastoRegistradoEvent(1L, 2L)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notificacao>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificacaoLoteRepository).inserir(captor.capture());
+        List<String> chaves = captor.getValue().stream().map(Notificacao::getChaveAlerta).toList();
+        assertEquals(List.of("orcamento:10:80:2025-03-01", "orcamento:11:80:2025-03-01",
+                "orcamento:11:100:2025-03-01"), chaves);
+        assertEquals(3, gerados);
+        Notificacao alerta = captor.getValue().get(0);
+        assertEquals(TipoNotificacao.ALERTA_DESPESA, alerta.getTipo());
+        assertEquals(1L, alerta.getUsuario().getId());
+        assertFalse(alerta.isLida());
+    }
+
+    @Test
+    @DisplayName("Não deve repetir um alerta já enviado no mesmo intervalo")
+    void testAvaliarDeduplicado() {
+        when(orcamentoService.statusPorCategorias(1L, Set.of(2L))).thenReturn(List.of(status(10L, 85.0)));
+        when(notificacaoRepository.findChavesAlertaExistentes(any()))
+                .thenReturn(List.of("orcamento:10:80:2025-03-01"));
+
+        assertEquals(0, service.avaliar(List.of(new GastoRegistradoEvent(1L, 2L))));
+        verify(notificacaoLoteRepository).inserir(List.of());
+    }
+
+    @Test
+    @DisplayName("Deve consultar os orçamentos uma vez por usuário do lote")
+    void testAvaliarAgrupaPorUsuario() {
+        when(orcamentoService.statusPorCategorias(any(), any())).thenReturn(List.of());
+
+        service.avaliar(List.of(new GastoRegistradoEvent(1L, 2L), new GastoRegistradoEvent(1L, 3L),
+                new GastoRegistradoEvent(5L, 2L)));
+
+        verify(orcamentoService).statusPorCategorias(1L, Set.of(2L, 3L));
+        verify(orcamentoService).statusPorCategorias(5L, Set.of(2L));
+        verifyNoInteractions(notificacaoRepository, notificacaoLoteRepository);
+    }
+}
@@ -0,0 +1,118 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import app.enums.Periodicidade;
+
+public class CalendarioRecorrenciaTest {
+
+    private static final LocalDateTime FIM_DE_JANEIRO = LocalDateTime.of(2025, 1, 31, 10, 0);
+
+    @Test
+    @DisplayName("Deve calcular a ocorrência N diretamente a partir da data inicial")
+    void testOcorrencia() {
+        LocalDateTime inicio = LocalDateTime.of(2025, 3, 10, 8, 30);
+        assertEquals(inicio, new CalendarioRecorrencia(inicio, Periodicidade.DIARIA).ocorrencia(1));
+        assertEquals(inicio.plusDays(36), new CalendarioRecorrencia(inicio, Periodicidade.DIARIA).ocorrencia(37));
+        assertEquals(inicio.plusWeeks(36), new CalendarioRecorrencia(inicio, Periodicidade.SEMANAL).ocorrencia(37));
+        assertEquals(LocalDateTime.of(2028, 3, 10, 8, 30),
+                new CalendarioRecorrencia(inicio, Periodicidade.MENSAL).ocorrencia(37));
+        assertEquals(LocalDateTime.of(2061, 3, 10, 8, 30),
+                new CalendarioRecorrencia(inicio, Periodicidade.ANUAL).ocorrencia(37));
+    }
+
+    @Test
+    @DisplayName("Deve ajustar ao último dia do mês sem perder o dia original nos meses seguintes")
+    void testOcorrenciaFimDeMes() {
+        CalendarioRecorrencia calendario = new CalendarioRecorrencia(FIM_DE_JANEIRO, Periodicidade.MENSAL);
+        assertEquals(LocalDateTime.of(2025, 2, 28, 10, 0), calendario.ocorrencia(2));
+        assertEquals(LocalDateTime.of(2025, 3, 31, 10, 0), calendario.ocorrencia(3));
+        assertEquals(LocalDateTime.of(2025, 4, 30, 10, 0), calendario.ocorrencia(4));
+        assertEquals(LocalDateTime.of(2028, 2, 29, 10, 0), calendario.ocorrencia(38));
+    }
+
+    @Test
+    @DisplayName("Deve ajustar 29 de fevereiro em recorrências anuais")
+    void testOcorrenciaAnualBissexto() {
+        CalendarioRecorrencia calendario = new CalendarioRecorrencia(LocalDateTime.of(2024, 2, 29, 0, 0),
+                Periodicidade.ANUAL);
+        assertEquals(LocalDateTime.of(2025, 2, 28, 0, 0), calendario.ocorrencia(2));
+        assertEquals(LocalDateTime.of(2028, 2, 29, 0, 0), calendario.ocorrencia(5));
+        assertEquals(4, calendario.indiceDe(LocalDateTime.of(2028, 2, 28, 23, 59)));
+        assertEquals(5, calendario.indiceDe(LocalDateTime.of(2028, 2, 29, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Deve mapear uma data de volta para a parcela vigente")
+    void testIndiceDe() {
+        CalendarioRecorrencia calendario = new CalendarioRecorrencia(FIM_DE_JANEIRO, Periodicidade.MENSAL);
+        assertEquals(0, calendario.indiceDe(FIM_DE_JANEIRO.minusSeconds(1)));
+        assertEquals(1, calendario.indiceDe(FIM_DE_JANEIRO));
+        assertEquals(1, calendario.indiceDe(LocalDateTime.of(2025, 2, 28, 9, 59)));
+        assertEquals(2, calendario.indiceDe(LocalDateTime.of(2025, 2, 28, 10, 0)));
+        assertEquals(2, calendario.indiceDe(LocalDateTime.of(2025, 3, 30, 23, 0)));
+        assertEquals(3, calendario.indiceDe(LocalDateTime.of(2025, 3, 31, 10, 0)));
+
+        CalendarioRecorrencia semanal = new CalendarioRecorrencia(FIM_DE_JANEIRO, Periodicidade.SEMANAL);
+        assertEquals(1, semanal.indiceDe(FIM_DE_JANEIRO.plusDays(6)));
+        assertEquals(2, semanal.indiceDe(FIM_DE_JANEIRO.plusDays(7)));
+    }
+
+    @Test
+    @DisplayName("Deve retornar a primeira ocorrência posterior a uma data")
+    void testProximaApos() {
+        CalendarioRecorrencia calendario = new CalendarioRecorrencia(FIM_DE_JANEIRO, Periodicidade.MENSAL);
+        assertEquals(FIM_DE_JANEIRO, calendario.proximaApos(FIM_DE_JANEIRO.minusDays(10)));
+        assertEquals(LocalDateTime.of(2025, 2, 28, 10, 0), calendario.proximaApos(FIM_DE_JANEIRO));
+        assertEquals(LocalDateTime.of(2025, 3, 31, 10, 0), calendario.proximaApos(LocalDateTime.of(2025, 3, 1, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Deve listar apenas as ocorrências dentro da janela, incluindo os extremos")
+    void testOcorrenciasEntre() {
+        CalendarioRecorrencia calendario = new CalendarioRecorrencia(FIM_DE_JANEIRO, Periodicidade.MENSAL);
+        List<LocalDateTime> datas = new ArrayList<>();
+        calendario.ocorrenciasEntre(LocalDateTime.of(2025, 2, 28, 10, 0), LocalDateTime.of(2025, 5, 31, 10, 0))
+                .forEach(datas::add);
+        assertEquals(List.of(LocalDateTime.of(2025, 2, 28, 10, 0), LocalDateTime.of(2025, 3, 31, 10, 0),
+                LocalDateTime.of(2025, 4, 30, 10, 0), LocalDateTime.of(2025, 5, 31, 10, 0)), datas);
+    }
+
+    @Test
+    @DisplayName("Deve começar na data inicial quando a janela abre antes dela")
+    void testOcorrenciasEntreAntesDoInicio() {
+        CalendarioRecorrencia calendario = new CalendarioRecorrencia(FIM_DE_JANEIRO, Periodicidade.DIARIA);
+        Iterator<LocalDateTime> datas = calendario
+                .ocorrenciasEntre(FIM_DE_JANEIRO.minusYears(1), FIM_DE_JANEIRO.plusHours(30)).iterator();
+        assertEquals(FIM_DE_JANEIRO, datas.next());
+        assertEquals(FIM_DE_JANEIRO.plusDays(1), datas.next());
+        assertFalse(datas.hasNext());
+        assertThrows(NoSuchElementException.class, datas::next);
+    }
+
+    @Test
+    @DisplayName("Deve retornar janela vazia quando não há ocorrência no intervalo")
+    void testOcorrenciasEntreVazia() {
+        CalendarioRecorrencia calendario = new CalendarioRecorrencia(FIM_DE_JANEIRO, Periodicidade.MENSAL);
+        assertFalse(calendario
+                .ocorrenciasEntre(LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 3, 30, 0, 0))
+                .iterator().hasNext());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar data inicial ausente e ocorrência menor que 1")
+    void testValidacoes() {
+        assertThrows(IllegalArgumentException.class, () -> new CalendarioRecorrencia(null, Periodicidade.MENSAL));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CalendarioRecorrencia(FIM_DE_JANEIRO, Periodicidade.MENSAL).ocorrencia(0));
+    }
+}
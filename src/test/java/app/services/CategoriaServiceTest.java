@@ -14,7 +14,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import app.dto.Pagina;
 import app.entities.Categoria;
 import app.entities.Usuario;
 import app.enums.TipoCategoria;
@@ -24,6 +26,9 @@ import app.repositories.CategoriaRepository;
 import app.repositories.UsuarioRepository;
 
 public class CategoriaServiceTest {
+
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private CategoriaRepository categoriaRepository;
 
@@ -55,14 +60,14 @@ public class CategoriaServiceTest {
     @DisplayName("Deve retornar todas as categorias")
     void testFindAll() {
         List<Categoria> categorias = Arrays.asList(categoria);
-        when(categoriaRepository.findAll()).thenReturn(categorias);
+        when(categoriaRepository.findPaginaAposId(0L, PRIMEIRA_PAGINA)).thenReturn(categorias);
 
-        List<Categoria> resultado = service.findAll();
+        List<Categoria> resultado = service.findAll(null, null).getItens();
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals(categoria.getNomeCategoria(), resultado.get(0).getNomeCategoria());
-        verify(categoriaRepository).findAll();
+        verify(categoriaRepository).findPaginaAposId(0L, PRIMEIRA_PAGINA);
     }
 
     @Test
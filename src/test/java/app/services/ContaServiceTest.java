@@ -14,7 +14,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import app.dto.Pagina;
 import app.entities.Conta;
 import app.entities.Usuario;
 import app.exceptions.ContaNotFoundException;
@@ -23,6 +25,9 @@ import app.repositories.ContaRepository;
 import app.repositories.UsuarioRepository;
 
 public class ContaServiceTest {
+
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private ContaRepository contaRepository;
 
@@ -52,13 +57,13 @@ public class ContaServiceTest {
     @DisplayName("Deve retornar todas as contas")
     void testFindAll() {
         List<Conta> contas = Arrays.asList(conta);
-        when(contaRepository.findAll()).thenReturn(contas);
+        when(contaRepository.findPaginaAposId(0L, PRIMEIRA_PAGINA)).thenReturn(contas);
 
-        List<Conta> resultado = service.findAll();
+        List<Conta> resultado = service.findAll(null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals(conta.getNomeConta(), resultado.get(0).getNomeConta());
-        verify(contaRepository).findAll();
+        verify(contaRepository).findPaginaAposId(0L, PRIMEIRA_PAGINA);
     }
 
     @Test
@@ -0,0 +1,61 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import app.dto.LinhaExtrato;
+import app.dto.TransacaoDTO;
+import app.enums.FormatoExtrato;
+import app.enums.TipoTransacao;
+
+public class EscritorCsvTransacoesTest {
+
+    private static TransacaoDTO linha(Long id, TipoTransacao tipo, Double valor, String descricao) {
+        return new TransacaoDTO(id, 1L, "Usuário", 2L, "Conta, corrente", 3L, "Mercado",
+                LocalDateTime.of(2024, 1, 5, 9, 30), tipo, descricao, valor, null, 1, null);
+    }
+
+    private static String escrever(TransacaoDTO... linhas) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        EscritorCsvTransacoes csv = new EscritorCsvTransacoes(saida);
+        for (TransacaoDTO linha : linhas) {
+            csv.escrever(linha);
+        }
+        csv.terminar();
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Deve escrever o cabeçalho e uma linha por transação, com o valor com sinal")
+    void testEscrever() throws IOException {
+        String csv = escrever(linha(7L, TipoTransacao.SAIDA, 1234567.5, "Pão \"francês\""),
+                linha(8L, TipoTransacao.ENTRADA, 0.05, "Juros"));
+
+        String[] linhas = csv.split("\r\n");
+        assertEquals(EscritorCsvTransacoes.CABECALHO, linhas[0] + "\r\n");
+        assertEquals("7,2024-01-05 09:30:00,SAIDA,-1234567.50,\"Pão \"\"francês\"\"\",\"Conta, corrente\",Mercado,,1,",
+                linhas[1]);
+        assertEquals("8,2024-01-05 09:30:00,ENTRADA,0.05,Juros,\"Conta, corrente\",Mercado,,1,", linhas[2]);
+    }
+
+    @Test
+    @DisplayName("Deve gerar um arquivo que a importação de extratos lê de volta")
+    void testReimportar() throws IOException {
+        String csv = escrever(linha(7L, TipoTransacao.SAIDA, 10.0, "Almoço,\nsegunda"));
+
+        LinhaExtrato lida = LeitorExtrato.de(FormatoExtrato.CSV, new StringReader(csv)).proxima();
+
+        assertEquals(LocalDate.of(2024, 1, 5), lida.getData());
+        assertEquals(-10.0, lida.getValor());
+        assertEquals("Almoço,\nsegunda", lida.getDescricao());
+    }
+}
@@ -0,0 +1,172 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import app.entities.Categoria;
+import app.entities.GastoPeriodo;
+import app.entities.Transacao;
+import app.entities.Usuario;
+import app.enums.PeriodoOrcamento;
+import app.enums.TipoTransacao;
+import app.events.GastoRegistradoEvent;
+import app.repositories.GastoPeriodoLoteRepository;
+import app.repositories.GastoPeriodoRepository;
+
+public class GastoPeriodoServiceTest {
+
+    // 🔹 Quarta-feira
+    private static final LocalDateTime DATA = LocalDateTime.of(2025, 3, 12, 15, 0);
+
+    @Mock
+    private GastoPeriodoRepository gastoPeriodoRepository;
+    @Mock
+    private GastoPeriodoLoteRepository gastoPeriodoLoteRepository;
+    @Mock
+    private LeaseService leaseService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @InjectMocks
+    private GastoPeriodoService service;
+
+    private Usuario usuario;
+    private Categoria categoria;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "reconstrucaoHabilitada", true);
+        usuario = Usuario.builder().id(1L).build();
+        categoria = Categoria.builder().id(2L).build();
+    }
+
+    @Test
+    @DisplayName("Deve calcular o início do intervalo de cada período")
+    void testInicioPeriodo() {
+        LocalDate dia = DATA.toLocalDate();
+        assertEquals(dia, PeriodoOrcamento.DIARIO.inicio(dia));
+        assertEquals(LocalDate.of(2025, 3, 10), PeriodoOrcamento.SEMANAL.inicio(dia));
+        assertEquals(LocalDate.of(2025, 3, 10), PeriodoOrcamento.SEMANAL.inicio(LocalDate.of(2025, 3, 16)));
+        assertEquals(LocalDate.of(2025, 3, 1), PeriodoOrcamento.MENSAL.inicio(dia));
+        assertEquals(LocalDate.of(2025, 1, 1), PeriodoOrcamento.ANUAL.inicio(dia));
+    }
+
+    @Test
+    @DisplayName("Deve somar uma saída nos intervalos diário, semanal, mensal e anual")
+    void testRegistrarSaida() {
+        service.registrar(1L, 2L, TipoTransacao.SAIDA, DATA, 30.0);
+
+        verify(gastoPeriodoRepository).somar(1L, 2L, "DIARIO", LocalDate.of(2025, 3, 12), 30.0);
+        verify(gastoPeriodoRepository).somar(1L, 2L, "SEMANAL", LocalDate.of(2025, 3, 10), 30.0);
+        verify(gastoPeriodoRepository).somar(1L, 2L, "MENSAL", LocalDate.of(2025, 3, 1), 30.0);
+        verify(gastoPeriodoRepository).somar(1L, 2L, "ANUAL", LocalDate.of(2025, 1, 1), 30.0);
+        verify(eventos).publishEvent(new GastoRegistradoEvent(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Não deve publicar evento ao desfazer um gasto")
+    void testRegistrarEstorno() {
+        service.registrar(1L, 2L, TipoTransacao.SAIDA, DATA, -30.0);
+        verify(gastoPeriodoRepository, times(4)).somar(any(), any(), anyString(), any(), eq(-30.0));
+        verifyNoInteractions(eventos);
+    }
+
+    @Test
+    @DisplayName("Não deve registrar entradas nos gastos")
+    void testRegistrarEntrada() {
+        service.registrar(1L, 2L, TipoTransacao.ENTRADA, DATA, 30.0);
+        verifyNoInteractions(gastoPeriodoRepository, eventos);
+    }
+
+    @Test
+    @DisplayName("Deve registrar um lote com uma atualização por intervalo")
+    void testRegistrarLote() {
+        List<Transacao> transacoes = List.of(transacao(DATA, TipoTransacao.SAIDA, 10.0),
+                transacao(DATA.plusDays(1), TipoTransacao.SAIDA, 5.0),
+                transacao(DATA, TipoTransacao.ENTRADA, 100.0));
+
+        service.registrar(transacoes);
+
+        verify(gastoPeriodoRepository).somar(1L, 2L, "DIARIO", LocalDate.of(2025, 3, 12), 10.0);
+        verify(gastoPeriodoRepository).somar(1L, 2L, "DIARIO", LocalDate.of(2025, 3, 13), 5.0);
+        verify(gastoPeriodoRepository).somar(1L, 2L, "SEMANAL", LocalDate.of(2025, 3, 10), 15.0);
+        verify(gastoPeriodoRepository).somar(1L, 2L, "MENSAL", LocalDate.of(2025, 3, 1), 15.0);
+        verify(gastoPeriodoRepository).somar(1L, 2L, "ANUAL", LocalDate.of(2025, 1, 1), 15.0);
+        verify(gastoPeriodoRepository, times(5)).somar(any(), any(), anyString(), any(), anyDouble());
+        verify(eventos, times(1)).publishEvent(new GastoRegistradoEvent(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Deve indexar os gastos atuais por categoria e período")
+    void testAtuais() {
+        LocalDate hoje = DATA.toLocalDate();
+        when(gastoPeriodoRepository.findAtuaisByUsuarioId(1L, hoje, LocalDate.of(2025, 3, 10),
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 1, 1))).thenReturn(List.of(
+                        new GastoPeriodo(1L, 1L, 2L, PeriodoOrcamento.MENSAL, LocalDate.of(2025, 3, 1), 80.0),
+                        new GastoPeriodo(2L, 1L, 2L, PeriodoOrcamento.ANUAL, LocalDate.of(2025, 1, 1), 300.0)));
+
+        Map<Long, Map<PeriodoOrcamento, Double>> gastos = service.atuais(1L, hoje);
+
+        assertEquals(Map.of(PeriodoOrcamento.MENSAL, 80.0, PeriodoOrcamento.ANUAL, 300.0), gastos.get(2L));
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir os gastos a partir das saídas agrupadas por dia")
+    void testReconstruirSeVazio() {
+        when(gastoPeriodoRepository.count()).thenReturn(0L);
+        when(leaseService.adquirir(eq(GastoPeriodoService.TAREFA_RECONSTRUCAO), any(Duration.class))).thenReturn(true);
+        List<Object[]> dias = new ArrayList<>();
+        dias.add(new Object[] { 1L, 2L, LocalDate.of(2025, 3, 12), 10.0 });
+        dias.add(new Object[] { 1L, 2L, LocalDate.of(2025, 3, 13), 5.0 });
+        when(gastoPeriodoRepository.somarSaidasPorDia()).thenReturn(dias);
+
+        service.reconstruirSeVazio();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<GastoPeriodo>> captor = ArgumentCaptor.forClass(List.class);
+        verify(gastoPeriodoLoteRepository).inserir(captor.capture());
+        // 🔹 Dois dias, uma semana, um mês e um ano
+        assertEquals(5, captor.getValue().size());
+        assertEquals(15.0, captor.getValue().stream().filter(g -> g.getPeriodo() == PeriodoOrcamento.MENSAL)
+                .findFirst().orElseThrow().getTotal());
+        verify(leaseService).liberar(GastoPeriodoService.TAREFA_RECONSTRUCAO);
+    }
+
+    @Test
+    @DisplayName("Não deve reconstruir quando a tabela já tem gastos")
+    void testReconstruirComGastos() {
+        when(gastoPeriodoRepository.count()).thenReturn(10L);
+        service.reconstruirSeVazio();
+        verifyNoInteractions(leaseService, gastoPeriodoLoteRepository);
+    }
+
+    private Transacao transacao(LocalDateTime data, TipoTransacao tipo, double valor) {
+        return Transacao.builder().usuario(usuario).categoria(categoria).dataTransacao(data).tipo(tipo).valor(valor)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import app.dto.LinhaExtrato;
+import app.dto.ResultadoImportacaoDTO;
+import app.entities.Categoria;
+import app.entities.Conta;
+import app.entities.Transacao;
+import app.entities.Usuario;
+import app.enums.FormatoExtrato;
+import app.enums.TipoTransacao;
+import app.exceptions.ExtratoInvalidoException;
+import app.repositories.CategoriaRepository;
+import app.repositories.ContaRepository;
+import app.repositories.TransacaoLoteRepository;
+import app.repositories.TransacaoRepository;
+
+public class ImportacaoExtratoServiceTest {
+
+    @Mock
+    private ContaRepository contaRepository;
+    @Mock
+    private CategoriaRepository categoriaRepository;
+    @Mock
+    private TransacaoRepository transacaoRepository;
+    @Mock
+    private TransacaoLoteRepository transacaoLoteRepository;
+    @Mock
+    private SaldoContaService saldoContaService;
+    @Mock
+    private GastoPeriodoService gastoPeriodoService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ImportacaoExtratoService service;
+
+    private final List<Transacao> gravadas = new ArrayList<>();
+
+    private static final String CSV = "data;descricao;valor\n"
+            + "2024-01-05;Café;-5,00\n"
+            + "2024-01-05;Café;-5,00\n"
+            + "2024-01-06;Salário;3000,00\n"
+            + "2024-01-07;Mercado;-120,00\n";
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "transacoesPorBloco", 2);
+        service.iniciar();
+
+        Usuario usuario = Usuario.builder().id(1L).build();
+        when(contaRepository.findById(10L)).thenReturn(Optional.of(Conta.builder().id(10L).usuario(usuario).build()));
+        when(categoriaRepository.findById(20L))
+                .thenReturn(Optional.of(Categoria.builder().id(20L).usuario(usuario).build()));
+        when(transacaoRepository.streamImpressoesDigitaisByContaId(10L)).thenAnswer(invocacao -> Stream.empty());
+        doAnswer(invocacao -> {
+            gravadas.addAll(invocacao.getArgument(0));
+            return null;
+        }).when(transacaoLoteRepository).inserir(anyList());
+    }
+
+    private ResultadoImportacaoDTO importar(String conteudo) {
+        return service.importar(10L, 20L, FormatoExtrato.CSV,
+                new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), "UTF-8");
+    }
+
+    @Test
+    @DisplayName("Deve importar os lançamentos em blocos, com tipo pelo sinal e valor positivo")
+    void testImportar() {
+        ResultadoImportacaoDTO resultado = importar(CSV);
+
+        assertEquals(4, resultado.getLidas());
+        assertEquals(4, resultado.getImportadas());
+        assertEquals(0, resultado.getDuplicadas());
+        verify(transacaoLoteRepository, times(2)).inserir(anyList());
+        verify(saldoContaService, times(2)).registrar(anyList());
+        verify(gastoPeriodoService, times(2)).registrar(anyList());
+
+        Transacao salario = gravadas.get(2);
+        assertEquals(TipoTransacao.ENTRADA, salario.getTipo());
+        assertEquals(3000.0, salario.getValor());
+        assertEquals(LocalDate.of(2024, 1, 6).atStartOfDay(), salario.getDataTransacao());
+        assertEquals(1L, salario.getUsuario().getId());
+        assertEquals(TipoTransacao.SAIDA, gravadas.get(0).getTipo());
+        assertEquals(5.0, gravadas.get(0).getValor());
+        // 🔹 Os dois cafés iguais do mesmo dia são lançamentos diferentes
+        assertNotEquals(gravadas.get(0).getImpressaoDigital(), gravadas.get(1).getImpressaoDigital());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar os lançamentos já importados na conta sem consultar por linha")
+    void testReimportar() {
+        importar(CSV);
+        List<Long> impressoes = gravadas.stream().map(Transacao::getImpressaoDigital).toList();
+        when(transacaoRepository.streamImpressoesDigitaisByContaId(10L)).thenAnswer(invocacao -> impressoes.stream());
+        gravadas.clear();
+
+        // 🔹 Mesmo extrato, exportado com outra formatação e um café a mais
+        ResultadoImportacaoDTO resultado = importar("Data,Histórico,Valor\n"
+                + "05/01/2024,CAFÉ,-5.00\n"
+                + "05/01/2024,cafe ,-5.00\n"
+                + "05/01/2024,Cafe,-5.00\n"
+                + "06/01/2024,Salario,\"3,000.00\"\n"
+                + "07/01/2024,Mercado,-120\n");
+
+        assertEquals(5, resultado.getLidas());
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(4, resultado.getDuplicadas());
+        assertEquals(1, gravadas.size());
+        verify(transacaoRepository, times(2)).streamImpressoesDigitaisByContaId(10L);
+    }
+
+    @Test
+    @DisplayName("Deve recusar só as linhas inválidas e o bloco que falhou ao gravar")
+    void testRecusas() {
+        doThrow(new DataAccessResourceFailureException("fora do ar")).doAnswer(invocacao -> {
+            gravadas.addAll(invocacao.getArgument(0));
+            return null;
+        }).when(transacaoLoteRepository).inserir(anyList());
+
+        ResultadoImportacaoDTO resultado = importar(CSV + "2024-01-08;Estorno;0,00\n2024-01-09;Aluguel;x\n");
+
+        assertEquals(6, resultado.getLidas());
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(4, resultado.getRecusadas());
+        assertEquals(3, resultado.getErros().size());
+        assertEquals("Linha 7: valor inválido: x", resultado.getErros().get(2));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar categoria de outro usuário e codificação desconhecida")
+    void testParametrosInvalidos() {
+        when(categoriaRepository.findById(21L))
+                .thenReturn(Optional.of(Categoria.builder().id(21L).usuario(Usuario.builder().id(2L).build()).build()));
+
+        assertThrows(ExtratoInvalidoException.class, () -> service.importar(10L, 21L, FormatoExtrato.CSV,
+                new ByteArrayInputStream(new byte[0]), "UTF-8"));
+        assertThrows(ExtratoInvalidoException.class, () -> service.importar(10L, 20L, FormatoExtrato.CSV,
+                new ByteArrayInputStream(new byte[0]), "nao-existe"));
+        verifyNoInteractions(transacaoLoteRepository);
+    }
+
+    @Test
+    @DisplayName("Deve gerar a mesma chave para a mesma linha com outra formatação")
+    void testChave() {
+        LinhaExtrato original = new LinhaExtrato(2, LocalDate.of(2024, 1, 5), -5.0, "Pão de Açúcar - Loja 12", null);
+        LinhaExtrato reexportada = new LinhaExtrato(9, LocalDate.of(2024, 1, 5), -5.000001, "PAO DE ACUCAR  LOJA 12", null);
+
+        assertEquals("2024-01-05|-500|PAO DE ACUCAR LOJA 12", ImportacaoExtratoService.chave(original));
+        assertEquals(ImportacaoExtratoService.chave(original), ImportacaoExtratoService.chave(reexportada));
+    }
+}
@@ -0,0 +1,78 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import app.repositories.TarefaLeaseRepository;
+
+public class LeaseServiceTest {
+
+    private static final Duration DURACAO = Duration.ofMinutes(5);
+
+    @Mock
+    private TarefaLeaseRepository repo;
+
+    @InjectMocks
+    private LeaseService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @DisplayName("Deve adquirir o lease livre ou expirado")
+    void testAdquirir() {
+        when(repo.adquirir(eq("tarefa"), eq(service.getDono()), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+        assertTrue(service.adquirir("tarefa", DURACAO));
+        verify(repo, never()).criar(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve adquirir o lease válido de outra instância")
+    void testAdquirirOcupado() {
+        when(repo.adquirir(any(), any(), any(), any())).thenReturn(0);
+        when(repo.existsById("tarefa")).thenReturn(true);
+        assertFalse(service.adquirir("tarefa", DURACAO));
+        verify(repo, never()).criar(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve criar a linha do lease na primeira execução da tarefa")
+    void testAdquirirPrimeiraVez() {
+        when(repo.adquirir(any(), any(), any(), any())).thenReturn(0);
+        when(repo.existsById("tarefa")).thenReturn(false);
+        when(repo.criar(eq("tarefa"), eq(service.getDono()), any(LocalDateTime.class))).thenReturn(1);
+        assertTrue(service.adquirir("tarefa", DURACAO));
+    }
+
+    @Test
+    @DisplayName("Não deve adquirir o lease se outra instância criou a linha ao mesmo tempo")
+    void testAdquirirConcorrente() {
+        when(repo.adquirir(any(), any(), any(), any())).thenReturn(0);
+        when(repo.existsById("tarefa")).thenReturn(false);
+        when(repo.criar(any(), any(), any())).thenThrow(new DataIntegrityViolationException("duplicada"));
+        assertFalse(service.adquirir("tarefa", DURACAO));
+    }
+
+    @Test
+    @DisplayName("Deve liberar apenas o lease desta instância")
+    void testLiberar() {
+        service.liberar("tarefa");
+        verify(repo).liberar(eq("tarefa"), eq(service.getDono()), any(LocalDateTime.class));
+    }
+}
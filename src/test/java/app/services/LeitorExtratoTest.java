@@ -0,0 +1,118 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import app.dto.LinhaExtrato;
+import app.enums.FormatoExtrato;
+import app.exceptions.ExtratoInvalidoException;
+
+public class LeitorExtratoTest {
+
+    private static List<LinhaExtrato> ler(FormatoExtrato formato, String conteudo) throws IOException {
+        LeitorExtrato leitor = LeitorExtrato.de(formato, new StringReader(conteudo));
+        List<LinhaExtrato> linhas = new ArrayList<>();
+        for (LinhaExtrato linha = leitor.proxima(); linha != null; linha = leitor.proxima()) {
+            linhas.add(linha);
+        }
+        return linhas;
+    }
+
+    @Test
+    @DisplayName("Deve ler CSV com ponto e vírgula, aspas e colunas em qualquer ordem")
+    void testCsv() throws IOException {
+        String csv = "\uFEFFHistórico;Data;Valor\r\n"
+                + "\"Padaria; pão\";05/01/2024;-12,50\r\n"
+                + "\r\n"
+                + "\"Salário \"\"janeiro\"\"\nempresa\";2024-01-06;\"R$ 1.234,56\"\n"
+                + "Mercado;31/02/2024;-10,00\n"
+                + "Farmácia;07/01/2024;abc\n";
+
+        List<LinhaExtrato> linhas = ler(FormatoExtrato.CSV, csv);
+
+        assertEquals(4, linhas.size());
+        assertEquals(LocalDate.of(2024, 1, 5), linhas.get(0).getData());
+        assertEquals(-12.5, linhas.get(0).getValor());
+        assertEquals("Padaria; pão", linhas.get(0).getDescricao());
+        assertEquals(2, linhas.get(0).getNumero());
+        assertEquals(1234.56, linhas.get(1).getValor());
+        assertEquals("Salário \"janeiro\"\nempresa", linhas.get(1).getDescricao());
+        assertEquals(4, linhas.get(1).getNumero());
+        assertEquals("Linha 6: data inválida: 31/02/2024", linhas.get(2).getErro());
+        assertEquals("Linha 7: valor inválido: abc", linhas.get(3).getErro());
+    }
+
+    @Test
+    @DisplayName("Deve recusar CSV sem as colunas de data, descrição e valor")
+    void testCsvSemCabecalho() {
+        assertThrows(ExtratoInvalidoException.class, () -> ler(FormatoExtrato.CSV, "05/01/2024,Padaria,-12.50\n"));
+        assertThrows(ExtratoInvalidoException.class, () -> ler(FormatoExtrato.CSV, ""));
+    }
+
+    @Test
+    @DisplayName("Deve recusar campo sem fim em vez de ler o arquivo inteiro para a memória")
+    void testCsvAspasSemFechamento() {
+        String csv = "data,descricao,valor\n2024-01-05,\"" + "x".repeat(LeitorExtrato.TAMANHO_MAXIMO_CAMPO + 1);
+        assertThrows(ExtratoInvalidoException.class, () -> ler(FormatoExtrato.CSV, csv));
+    }
+
+    @Test
+    @DisplayName("Deve ler os lançamentos de um OFX 1.x (SGML)")
+    void testOfxSgml() throws IOException {
+        String ofx = "OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\n\n<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS>"
+                + "<BANKTRANLIST><DTSTART>20240101\n"
+                + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20240105120000[-3:BRT]\n<TRNAMT>-12.50\n<FITID>1\n"
+                + "<NAME>PADARIA\n<MEMO>Compra no débito\n</STMTTRN>\n"
+                + "<STMTTRN>\n<TRNTYPE>CREDIT\n<DTPOSTED>20240106\n<TRNAMT>1234.56\n<MEMO>Salário &amp; bônus\n</STMTTRN>\n"
+                + "<STMTTRN>\n<DTPOSTED>ontem\n<TRNAMT>1.00\n<MEMO>X\n</STMTTRN>\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>";
+
+        List<LinhaExtrato> linhas = ler(FormatoExtrato.OFX, ofx);
+
+        assertEquals(3, linhas.size());
+        assertEquals(LocalDate.of(2024, 1, 5), linhas.get(0).getData());
+        assertEquals(-12.5, linhas.get(0).getValor());
+        assertEquals("PADARIA - Compra no débito", linhas.get(0).getDescricao());
+        assertEquals("Salário & bônus", linhas.get(1).getDescricao());
+        assertEquals("Lançamento 3: data inválida: ontem", linhas.get(2).getErro());
+    }
+
+    @Test
+    @DisplayName("Deve ler os lançamentos de um OFX 2.x (XML)")
+    void testOfxXml() throws IOException {
+        String ofx = "<?xml version=\"1.0\"?><?OFX OFXHEADER=\"200\"?><OFX><CREDITCARDMSGSRSV1><CCSTMTTRNRS><CCSTMTRS>"
+                + "<BANKTRANLIST><STMTTRN><DTPOSTED>20240110</DTPOSTED><TRNAMT>-99,90</TRNAMT>"
+                + "<NAME>Streaming</NAME></STMTTRN></BANKTRANLIST></CCSTMTRS></CCSTMTTRNRS></CREDITCARDMSGSRSV1></OFX>";
+
+        List<LinhaExtrato> linhas = ler(FormatoExtrato.OFX, ofx);
+
+        assertEquals(1, linhas.size());
+        assertEquals(-99.9, linhas.get(0).getValor());
+        assertEquals("Streaming", linhas.get(0).getDescricao());
+    }
+
+    @Test
+    @DisplayName("Deve recusar arquivo que não é OFX")
+    void testNaoOfx() {
+        assertThrows(ExtratoInvalidoException.class, () -> ler(FormatoExtrato.OFX, "data,descricao,valor\n"));
+    }
+
+    @Test
+    @DisplayName("Deve entender o separador decimal pelo último separador do valor")
+    void testValor() {
+        assertEquals(1234.56, LeitorExtrato.valor("1.234,56"));
+        assertEquals(1234.56, LeitorExtrato.valor("1,234.56"));
+        assertEquals(-10.0, LeitorExtrato.valor("-R$ 10,00"));
+        assertEquals(7.0, LeitorExtrato.valor("7"));
+        assertNull(LeitorExtrato.valor("NaN"));
+        assertNull(LeitorExtrato.valor(""));
+    }
+}
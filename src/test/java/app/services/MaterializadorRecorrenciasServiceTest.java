@@ -0,0 +1,133 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import app.entities.TransacaoRecorrente;
+import app.repositories.TransacaoRecorrenteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MaterializadorRecorrenciasServiceTest {
+
+    private static final Limit LOTE = Limit.of(2);
+
+    @Mock
+    private TransacaoRecorrenteRepository transacaoRecorrenteRepository;
+    @Mock
+    private TransacaoRecorrenteService transacaoRecorrenteService;
+    @Mock
+    private LeaseService leaseService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private MaterializadorRecorrenciasService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "habilitado", true);
+        ReflectionTestUtils.setField(service, "tamanhoLote", 2);
+        ReflectionTestUtils.setField(service, "duracaoLease", Duration.ofMinutes(5));
+        service.registrarMetricas();
+        when(leaseService.adquirir(eq(MaterializadorRecorrenciasService.TAREFA), any())).thenReturn(true);
+        when(transacaoRecorrenteRepository.findProximaExecucaoMaisAntiga()).thenReturn(Optional.empty());
+    }
+
+    private TransacaoRecorrente vencida(Long id) {
+        TransacaoRecorrente recorrente = new TransacaoRecorrente();
+        recorrente.setId(id);
+        recorrente.setProximaExecucao(LocalDateTime.now().minusDays(1));
+        when(transacaoRecorrenteRepository.findById(id)).thenReturn(Optional.of(recorrente));
+        return recorrente;
+    }
+
+    @Test
+    @DisplayName("Deve processar as recorrências vencidas em lotes e publicar as métricas")
+    void testMaterializarEmLotes() {
+        when(transacaoRecorrenteRepository.findIdsParaProcessar(any(), eq(0L), eq(LOTE))).thenReturn(List.of(1L, 2L));
+        when(transacaoRecorrenteRepository.findIdsParaProcessar(any(), eq(2L), eq(LOTE))).thenReturn(List.of(3L));
+        vencida(1L);
+        vencida(2L);
+        vencida(3L);
+        when(transacaoRecorrenteService.processarTransacoesRecorrentes(any())).thenReturn(2);
+
+        assertEquals(6, service.materializarPendentes());
+
+        verify(transacaoRecorrenteService, times(3)).processarTransacoesRecorrentes(any());
+        verify(transacaoRecorrenteRepository, never()).findIdsParaProcessar(any(), eq(3L), any());
+        assertEquals(6, meterRegistry.counter("granaguru.materializador.ocorrencias").count());
+        assertEquals(3, meterRegistry.counter("granaguru.materializador.recorrencias").count());
+    }
+
+    @Test
+    @DisplayName("Uma recorrência com falha não deve impedir as demais")
+    void testMaterializarComFalha() {
+        when(transacaoRecorrenteRepository.findIdsParaProcessar(any(), eq(0L), eq(LOTE))).thenReturn(List.of(1L));
+        TransacaoRecorrente recorrente = vencida(1L);
+        when(transacaoRecorrenteService.processarTransacoesRecorrentes(recorrente))
+                .thenThrow(new IllegalStateException("falha"));
+
+        assertEquals(0, service.materializarPendentes());
+        assertEquals(1, meterRegistry.counter("granaguru.materializador.falhas").count());
+    }
+
+    @Test
+    @DisplayName("Deve parar quando o lease é perdido entre lotes")
+    void testMaterializarLeasePerdido() {
+        when(transacaoRecorrenteRepository.findIdsParaProcessar(any(), eq(0L), eq(LOTE))).thenReturn(List.of(1L, 2L));
+        vencida(1L);
+        vencida(2L);
+        when(leaseService.adquirir(eq(MaterializadorRecorrenciasService.TAREFA), any())).thenReturn(false);
+
+        service.materializarPendentes();
+
+        verify(transacaoRecorrenteRepository, times(1)).findIdsParaProcessar(any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve executar sem o lease")
+    void testExecutarSemLease() {
+        when(leaseService.adquirir(eq(MaterializadorRecorrenciasService.TAREFA), any())).thenReturn(false);
+        service.executar();
+        verifyNoInteractions(transacaoRecorrenteRepository);
+        verify(leaseService, never()).liberar(any());
+    }
+
+    @Test
+    @DisplayName("Deve liberar o lease e publicar o atraso ao fim da execução")
+    void testExecutarAtraso() {
+        when(transacaoRecorrenteRepository.findIdsParaProcessar(any(), anyLong(), any())).thenReturn(List.of());
+        when(transacaoRecorrenteRepository.findProximaExecucaoMaisAntiga())
+                .thenReturn(Optional.of(LocalDateTime.now().minusHours(1)));
+
+        service.executar();
+
+        double atraso = meterRegistry.get("granaguru.materializador.atraso").gauge().value();
+        assertTrue(atraso >= 3599 && atraso <= 3601);
+        assertEquals(1, meterRegistry.timer("granaguru.materializador.execucao").count());
+        verify(leaseService).liberar(MaterializadorRecorrenciasService.TAREFA);
+    }
+}
@@ -15,7 +15,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import app.dto.Pagina;
 import app.entities.Meta;
 import app.entities.Usuario;
 import app.enums.StatusMeta;
@@ -24,6 +26,9 @@ import app.repositories.MetaRepository;
 import app.repositories.UsuarioRepository;
 
 public class MetaServiceTest {
+
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private MetaRepository metaRepository;
 
@@ -58,12 +63,12 @@ public class MetaServiceTest {
     @DisplayName("Deve retornar todas as metas")
     void testListAll() {
         List<Meta> metas = Arrays.asList(meta);
-        when(metaRepository.findAll()).thenReturn(metas);
-        List<Meta> resultado = service.listAll();
+        when(metaRepository.findPaginaAposId(0L, PRIMEIRA_PAGINA)).thenReturn(metas);
+        List<Meta> resultado = service.listAll(null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals(meta.getDescricao(), resultado.get(0).getDescricao());
-        verify(metaRepository).findAll();
+        verify(metaRepository).findPaginaAposId(0L, PRIMEIRA_PAGINA);
     }
 
     @Test
@@ -1,10 +1,12 @@
 package app.services;
 
+import org.springframework.data.domain.Limit;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import app.dto.Pagina;
 import app.entities.Notificacao;
 import app.entities.Usuario;
 import app.enums.TipoNotificacao;
@@ -22,6 +24,9 @@ import org.mockito.MockitoAnnotations;
 import app.repositories.NotificacaoRepository;
 
 public class NotificacaoServiceTest {
+
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private NotificacaoRepository repo;
     @Mock
@@ -48,26 +53,26 @@ public class NotificacaoServiceTest {
 
     @Test
     void testFindAll() {
-        when(repo.findAll()).thenReturn(Arrays.asList(notificacao));
-        List<Notificacao> result = service.findAll();
+        when(repo.findPaginaAntesDoId(Long.MAX_VALUE, PRIMEIRA_PAGINA)).thenReturn(Arrays.asList(notificacao));
+        List<Notificacao> result = service.findAll(null, null).getItens();
         assertEquals(1, result.size());
-        verify(repo).findAll();
+        verify(repo).findPaginaAntesDoId(Long.MAX_VALUE, PRIMEIRA_PAGINA);
     }
 
     @Test
     void testFindByUsuarioId() {
         when(usuarioRepository.existsById(1L)).thenReturn(true);
-        when(repo.findByUsuarioId(1L)).thenReturn(Arrays.asList(notificacao));
-        List<Notificacao> result = service.findByUsuarioId(1L);
+        when(repo.findPaginaByUsuarioId(1L, Long.MAX_VALUE, PRIMEIRA_PAGINA)).thenReturn(Arrays.asList(notificacao));
+        List<Notificacao> result = service.findByUsuarioId(1L, null, null).getItens();
         assertEquals(1, result.size());
         verify(usuarioRepository).existsById(1L);
-        verify(repo).findByUsuarioId(1L);
+        verify(repo).findPaginaByUsuarioId(1L, Long.MAX_VALUE, PRIMEIRA_PAGINA);
     }
 
     @Test
     void testFindByUsuarioIdNotFound() {
         when(usuarioRepository.existsById(999L)).thenReturn(false);
-        assertThrows(NotificacaoNotFoundException.class, () -> service.findByUsuarioId(999L));
+        assertThrows(NotificacaoNotFoundException.class, () -> service.findByUsuarioId(999L, null, null));
         verify(usuarioRepository).existsById(999L);
     }
 
@@ -1,13 +1,19 @@
 package app.services;
 
+import org.springframework.data.domain.Limit;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import app.dto.Pagina;
+import app.dto.StatusOrcamentoDTO;
 import app.entities.Orcamento;
 import app.entities.Usuario;
 import app.entities.Categoria;
+import app.enums.PeriodoOrcamento;
 import app.exceptions.OrcamentoNotFoundException;
 import app.repositories.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,10 +25,15 @@ import org.mockito.MockitoAnnotations;
 import app.repositories.OrcamentoRepository;
 
 public class OrcamentoServiceTest {
+
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private OrcamentoRepository repo;
     @Mock
     private UsuarioRepository usuarioRepository;
+    @Mock
+    private GastoPeriodoService gastoPeriodoService;
     @InjectMocks
     private OrcamentoService service;
     private Orcamento orcamento;
@@ -46,10 +57,10 @@ public class OrcamentoServiceTest {
 
     @Test
     void testFindAll() {
-        when(repo.findAll()).thenReturn(Arrays.asList(orcamento));
-        List<Orcamento> result = service.findAll();
+        when(repo.findPaginaAposId(0L, PRIMEIRA_PAGINA)).thenReturn(Arrays.asList(orcamento));
+        List<Orcamento> result = service.findAll(null, null).getItens();
         assertEquals(1, result.size());
-        verify(repo).findAll();
+        verify(repo).findPaginaAposId(0L, PRIMEIRA_PAGINA);
     }
 
     @Test
@@ -69,20 +80,60 @@ public class OrcamentoServiceTest {
         verify(usuarioRepository).existsById(999L);
     }
 
+    @Test
+    @DisplayName("Deve calcular o consumo de cada orçamento a partir dos gastos do período atual")
+    void testStatusPorUsuario() {
+        Orcamento anual = Orcamento.builder().id(2L).usuario(usuario).categoria(categoria).periodo("ANUAL")
+                .valorLimite(1000.0).build();
+        when(usuarioRepository.existsById(1L)).thenReturn(true);
+        when(gastoPeriodoService.atuais(eq(1L), any(LocalDate.class)))
+                .thenReturn(Map.of(1L, Map.of(PeriodoOrcamento.MENSAL, 80.0)));
+        when(repo.findComCategoriaByUsuarioId(1L)).thenReturn(List.of(orcamento, anual));
+
+        List<StatusOrcamentoDTO> status = service.statusPorUsuario(1L);
+
+        assertEquals(2, status.size());
+        assertEquals(80.0, status.get(0).getConsumido());
+        assertEquals(80.0, status.get(0).getPercentual(), 1e-9);
+        assertEquals(PeriodoOrcamento.MENSAL, status.get(0).getPeriodo());
+        assertEquals(LocalDate.now().withDayOfMonth(1), status.get(0).getInicioPeriodo());
+        assertEquals("Categoria Teste", status.get(0).getNomeCategoria());
+        // 🔹 Sem gasto no período: consumo zero
+        assertEquals(0.0, status.get(1).getConsumido());
+        assertEquals(0.0, status.get(1).getPercentual());
+        verify(gastoPeriodoService, times(1)).atuais(eq(1L), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao consultar status de usuário inexistente")
+    void testStatusPorUsuarioNotFound() {
+        when(usuarioRepository.existsById(999L)).thenReturn(false);
+        assertThrows(OrcamentoNotFoundException.class, () -> service.statusPorUsuario(999L));
+        verifyNoInteractions(gastoPeriodoService);
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio sem ler os gastos quando não há orçamento nas categorias")
+    void testStatusPorCategoriasSemOrcamento() {
+        when(repo.findComCategoriaByUsuarioIdAndCategoriaIds(1L, List.of(5L))).thenReturn(List.of());
+        assertTrue(service.statusPorCategorias(1L, List.of(5L)).isEmpty());
+        verifyNoInteractions(gastoPeriodoService);
+    }
+
     @Test
     void testFindById() {
-        when(repo.findById(1L)).thenReturn(Optional.of(orcamento));
+        when(repo.findComDetalhesById(1L)).thenReturn(Optional.of(orcamento));
         Orcamento result = service.findById(1L);
         assertNotNull(result);
         assertEquals(orcamento.getId(), result.getId());
-        verify(repo).findById(1L);
+        verify(repo).findComDetalhesById(1L);
     }
 
     @Test
     void testFindByIdNotFound() {
-        when(repo.findById(999L)).thenReturn(Optional.empty());
+        when(repo.findComDetalhesById(999L)).thenReturn(Optional.empty());
         assertThrows(OrcamentoNotFoundException.class, () -> service.findById(999L));
-        verify(repo).findById(999L);
+        verify(repo).findComDetalhesById(999L);
     }
 
     @Test
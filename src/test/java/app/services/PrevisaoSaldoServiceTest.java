@@ -0,0 +1,136 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import app.dto.PrevisaoSaldoDTO;
+import app.dto.RegraPrevisao;
+import app.entities.Conta;
+import app.enums.GranularidadePrevisao;
+import app.enums.Periodicidade;
+import app.enums.TipoTransacao;
+import app.exceptions.ContaNotFoundException;
+import app.exceptions.UsuarioNotFoundException;
+import app.repositories.ContaRepository;
+import app.repositories.TransacaoRecorrenteRepository;
+import app.repositories.UsuarioRepository;
+
+public class PrevisaoSaldoServiceTest {
+
+    @Mock
+    private ContaRepository contaRepository;
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @Mock
+    private SaldoContaService saldoContaService;
+    @Mock
+    private TransacaoRecorrenteRepository transacaoRecorrenteRepository;
+
+    @InjectMocks
+    private PrevisaoSaldoService service;
+
+    private Conta corrente;
+    private Conta cartao;
+    private LocalDateTime amanha;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        corrente = Conta.builder().id(1L).nomeConta("Corrente").saldoInicial(100.0).build();
+        cartao = Conta.builder().id(2L).nomeConta("Cartão").saldoInicial(0.0).build();
+        amanha = LocalDate.now().plusDays(1).atTime(12, 0);
+    }
+
+    private RegraPrevisao regra(Long contaId, TipoTransacao tipo, double valor, Integer totalParcelas) {
+        return new RegraPrevisao(contaId, tipo, valor, Periodicidade.DIARIA, amanha, null, totalParcelas,
+                totalParcelas == null);
+    }
+
+    @Test
+    @DisplayName("Deve projetar o saldo diário de cada conta e o total do usuário")
+    void testPreverPorUsuarioDiario() {
+        when(usuarioRepository.existsById(1L)).thenReturn(true);
+        when(contaRepository.findByUsuarioId(1L)).thenReturn(List.of(corrente, cartao));
+        when(saldoContaService.movimentado(List.of(1L, 2L))).thenReturn(Map.of(1L, 50.0, 2L, 0.0));
+        when(transacaoRecorrenteRepository.findRegrasPrevisaoByUsuarioId(eq(1L), any())).thenReturn(List.of(
+                regra(1L, TipoTransacao.ENTRADA, 10.0, null), regra(2L, TipoTransacao.SAIDA, 20.0, 3)));
+
+        PrevisaoSaldoDTO previsao = service.preverPorUsuario(1L, 1, GranularidadePrevisao.DIARIA);
+
+        LocalDate hoje = LocalDate.now();
+        int pontos = previsao.getDatas().size();
+        assertEquals(hoje, previsao.getDatas().get(0));
+        assertEquals(hoje.plusMonths(1), previsao.getDatas().get(pontos - 1));
+
+        double[] saldosCorrente = previsao.getContas().get(0).getSaldos();
+        double[] saldosCartao = previsao.getContas().get(1).getSaldos();
+        assertEquals(150.0, previsao.getContas().get(0).getSaldoAtual());
+        for (int i = 0; i < pontos; i++) {
+            assertEquals(150.0 + 10.0 * i, saldosCorrente[i], 1e-9);
+            // 🔹 Parcelamento fechado: só as 3 parcelas entram na projeção
+            assertEquals(-20.0 * Math.min(i, 3), saldosCartao[i], 1e-9);
+            assertEquals(saldosCorrente[i] + saldosCartao[i], previsao.getTotal()[i], 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve usar horizonte mensal de 12 meses por padrão")
+    void testPreverPorContaMensalPadrao() {
+        when(contaRepository.findById(1L)).thenReturn(Optional.of(corrente));
+        when(saldoContaService.movimentado(List.of(1L))).thenReturn(Map.of(1L, -40.0));
+        when(transacaoRecorrenteRepository.findRegrasPrevisaoByContaId(eq(1L), any())).thenReturn(List.of());
+
+        PrevisaoSaldoDTO previsao = service.preverPorConta(1L, null, null);
+
+        assertEquals(GranularidadePrevisao.MENSAL, previsao.getGranularidade());
+        assertEquals(PrevisaoSaldoService.MESES_PADRAO + 1, previsao.getDatas().size());
+        assertEquals(YearMonth.now().atEndOfMonth(), previsao.getDatas().get(0));
+        assertEquals(YearMonth.now().plusMonths(12).atEndOfMonth(), previsao.getDatas().get(12));
+        for (double saldo : previsao.getTotal()) {
+            assertEquals(60.0, saldo, 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve limitar o horizonte ao máximo permitido")
+    void testMeses() {
+        assertEquals(PrevisaoSaldoService.MESES_PADRAO, PrevisaoSaldoService.meses(null));
+        assertEquals(PrevisaoSaldoService.MESES_PADRAO, PrevisaoSaldoService.meses(0));
+        assertEquals(6, PrevisaoSaldoService.meses(6));
+        assertEquals(PrevisaoSaldoService.MESES_MAXIMO, PrevisaoSaldoService.meses(1000));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para usuário inexistente")
+    void testPreverPorUsuarioNotFound() {
+        when(usuarioRepository.existsById(999L)).thenReturn(false);
+        assertThrows(UsuarioNotFoundException.class,
+                () -> service.preverPorUsuario(999L, null, GranularidadePrevisao.MENSAL));
+        verifyNoInteractions(transacaoRecorrenteRepository);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para conta inexistente")
+    void testPreverPorContaNotFound() {
+        when(contaRepository.findById(999L)).thenReturn(Optional.empty());
+        assertThrows(ContaNotFoundException.class,
+                () -> service.preverPorConta(999L, null, GranularidadePrevisao.MENSAL));
+        verifyNoInteractions(transacaoRecorrenteRepository);
+    }
+}
@@ -0,0 +1,195 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.dto.SaldoDTO;
+import app.entities.Conta;
+import app.entities.SaldoConta;
+import app.entities.SaldoContaMensal;
+import app.entities.Transacao;
+import app.enums.TipoTransacao;
+import app.exceptions.ContaNotFoundException;
+import app.repositories.ContaRepository;
+import app.repositories.SaldoContaMensalRepository;
+import app.repositories.SaldoContaRepository;
+import app.repositories.TransacaoRepository;
+
+public class SaldoContaServiceTest {
+
+    @Mock
+    private SaldoContaRepository saldoContaRepository;
+    @Mock
+    private SaldoContaMensalRepository saldoContaMensalRepository;
+    @Mock
+    private TransacaoRepository transacaoRepository;
+    @Mock
+    private ContaRepository contaRepository;
+    @Mock
+    private LeaseService leaseService;
+
+    @InjectMocks
+    private SaldoContaService service;
+
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "fechamentoHabilitado", true);
+        conta = Conta.builder().id(1L).nomeConta("Conta Teste").saldoInicial(100.0).build();
+    }
+
+    @Test
+    @DisplayName("Deve inicializar o saldo que ainda não existe antes de somar e ajustar os checkpoints do mês em diante")
+    void testRegistrar() {
+        service.registrar(1L, LocalDateTime.of(2025, 3, 15, 10, 0), -30.0);
+
+        InOrder ordem = inOrder(saldoContaRepository, saldoContaMensalRepository);
+        ordem.verify(saldoContaRepository).somar(1L, -30.0);
+        ordem.verify(saldoContaRepository).inicializar(1L);
+        ordem.verify(saldoContaRepository).somar(1L, -30.0);
+        ordem.verify(saldoContaMensalRepository).ajustarAPartirDe(1L, LocalDate.of(2025, 3, 1), -30.0);
+    }
+
+    @Test
+    @DisplayName("Deve somar direto, sem reler o histórico, quando o saldo já existe")
+    void testRegistrarSaldoExistente() {
+        when(saldoContaRepository.somar(1L, -30.0)).thenReturn(1);
+
+        service.registrar(1L, LocalDateTime.of(2025, 3, 15, 10, 0), -30.0);
+
+        verify(saldoContaRepository, times(1)).somar(1L, -30.0);
+        verify(saldoContaRepository, never()).inicializar(any());
+        verify(saldoContaMensalRepository).ajustarAPartirDe(1L, LocalDate.of(2025, 3, 1), -30.0);
+    }
+
+    @Test
+    @DisplayName("Deve registrar um lote com uma atualização por conta e um ajuste por mês")
+    void testRegistrarLote() {
+        Conta outra = Conta.builder().id(2L).build();
+        List<Transacao> transacoes = List.of(
+                transacao(conta, LocalDateTime.of(2025, 1, 5, 0, 0), TipoTransacao.SAIDA, 10.0),
+                transacao(conta, LocalDateTime.of(2025, 1, 20, 0, 0), TipoTransacao.SAIDA, 10.0),
+                transacao(conta, LocalDateTime.of(2025, 2, 5, 0, 0), TipoTransacao.ENTRADA, 50.0),
+                transacao(outra, LocalDateTime.of(2025, 2, 5, 0, 0), TipoTransacao.SAIDA, 7.0));
+
+        service.registrar(transacoes);
+
+        verify(saldoContaRepository).inicializar(1L);
+        verify(saldoContaRepository, times(2)).somar(1L, 30.0);
+        verify(saldoContaMensalRepository).ajustarAPartirDe(1L, LocalDate.of(2025, 1, 1), -20.0);
+        verify(saldoContaMensalRepository).ajustarAPartirDe(1L, LocalDate.of(2025, 2, 1), 50.0);
+        verify(saldoContaRepository).inicializar(2L);
+        verify(saldoContaRepository, times(2)).somar(2L, -7.0);
+        verify(saldoContaMensalRepository, times(3)).ajustarAPartirDe(any(), any(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Deve ler o saldo atual do livro-razão")
+    void testConsultarSaldoAtual() {
+        when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
+        when(saldoContaRepository.findById(1L)).thenReturn(Optional.of(new SaldoConta(1L, 25.0)));
+
+        SaldoDTO saldo = service.consultar(1L, null);
+
+        assertEquals(125.0, saldo.getSaldo());
+        verify(transacaoRepository, never()).somarPorConta(any());
+    }
+
+    @Test
+    @DisplayName("Deve somar o histórico quando a conta ainda não tem saldo no livro-razão")
+    void testConsultarSaldoAtualSemLivroRazao() {
+        when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
+        when(saldoContaRepository.findById(1L)).thenReturn(Optional.empty());
+        when(transacaoRepository.somarPorConta(1L)).thenReturn(-20.0);
+
+        assertEquals(80.0, service.consultar(1L, null).getSaldo());
+    }
+
+    @Test
+    @DisplayName("Deve calcular o saldo em uma data a partir do checkpoint anterior")
+    void testConsultarSaldoEmData() {
+        LocalDateTime data = LocalDateTime.of(2025, 6, 30, 23, 59);
+        when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
+        when(saldoContaMensalRepository.findFirstByContaIdAndMesLessThanOrderByMesDesc(1L, LocalDate.of(2025, 6, 1)))
+                .thenReturn(Optional.of(new SaldoContaMensal(9L, 1L, LocalDate.of(2025, 5, 1), 400.0)));
+        when(transacaoRepository.somarPorContaEntre(1L, LocalDateTime.of(2025, 6, 1, 0, 0), data)).thenReturn(-50.0);
+
+        SaldoDTO saldo = service.consultar(1L, data);
+
+        assertEquals(450.0, saldo.getSaldo());
+        assertEquals(data, saldo.getData());
+        verify(transacaoRepository, never()).somarPorContaAte(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve somar as transações até a data quando não há checkpoint")
+    void testConsultarSaldoEmDataSemCheckpoint() {
+        LocalDateTime data = LocalDateTime.of(2025, 6, 30, 0, 0);
+        when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
+        when(saldoContaMensalRepository.findFirstByContaIdAndMesLessThanOrderByMesDesc(1L, LocalDate.of(2025, 6, 1)))
+                .thenReturn(Optional.empty());
+        when(transacaoRepository.somarPorContaAte(1L, data)).thenReturn(10.0);
+
+        assertEquals(110.0, service.consultar(1L, data).getSaldo());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao consultar saldo de conta inexistente")
+    void testConsultarContaNotFound() {
+        when(contaRepository.findById(999L)).thenReturn(Optional.empty());
+        assertThrows(ContaNotFoundException.class, () -> service.consultar(999L, null));
+    }
+
+    @Test
+    @DisplayName("Deve usar o livro-razão e somar o histórico só das contas sem saldo")
+    void testMovimentado() {
+        when(saldoContaRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(new SaldoConta(1L, 25.0)));
+        when(transacaoRepository.somarPorConta(2L)).thenReturn(-5.0);
+
+        assertEquals(Map.of(1L, 25.0, 2L, -5.0), service.movimentado(List.of(1L, 2L)));
+        verify(transacaoRepository, never()).somarPorConta(1L);
+    }
+
+    @Test
+    @DisplayName("Deve fechar o mês anterior quando adquirir o lease")
+    void testExecutarFechamento() {
+        when(leaseService.adquirir(eq(SaldoContaService.TAREFA_FECHAMENTO), any(Duration.class))).thenReturn(true);
+        YearMonth mes = YearMonth.now().minusMonths(1);
+
+        service.executarFechamento();
+
+        verify(saldoContaMensalRepository).fecharMes(mes.atDay(1), mes.plusMonths(1).atDay(1).atStartOfDay());
+        verify(leaseService).liberar(SaldoContaService.TAREFA_FECHAMENTO);
+    }
+
+    @Test
+    @DisplayName("Não deve fechar o mês sem o lease")
+    void testExecutarFechamentoSemLease() {
+        when(leaseService.adquirir(eq(SaldoContaService.TAREFA_FECHAMENTO), any(Duration.class))).thenReturn(false);
+        service.executarFechamento();
+        verifyNoInteractions(saldoContaMensalRepository);
+    }
+
+    private Transacao transacao(Conta conta, LocalDateTime data, TipoTransacao tipo, double valor) {
+        return Transacao.builder().conta(conta).dataTransacao(data).tipo(tipo).valor(valor).build();
+    }
+}
@@ -0,0 +1,95 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.exceptions.SenhasSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SenhaServiceTest {
+
+    private SenhaService service;
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+
+        service = new SenhaService();
+        ReflectionTestUtils.setField(service, "executor", executor);
+        ReflectionTestUtils.setField(service, "passwordEncoder", new BCryptPasswordEncoder(4));
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "esperaMaxima", Duration.ofSeconds(5));
+        service.iniciar();
+    }
+
+    @AfterEach
+    void parar() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve codificar a senha no pool de senhas")
+    void testCodificar() {
+        String hash = service.codificar("senha123");
+        assertTrue(new BCryptPasswordEncoder().matches("senha123", hash));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar na hora quando o pool e a fila estão cheios")
+    void testRejeitaPoolSaturado() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Boolean> ocupada = service.executar(() -> aguardar(liberar));
+        CompletableFuture<Boolean> naFila = service.executar(() -> true);
+
+        assertThrows(SenhasSobrecarregadoException.class, () -> service.codificar("senha123"));
+        assertEquals(1.0, meterRegistry.get("granaguru.senhas.rejeitadas").counter().count());
+
+        liberar.countDown();
+        assertTrue(ocupada.get(5, TimeUnit.SECONDS));
+        assertTrue(naFila.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve descartar a tarefa que esperou na fila além do limite")
+    void testDescartaEsperaExcedida() throws Exception {
+        ReflectionTestUtils.setField(service, "esperaMaxima", Duration.ZERO);
+        CountDownLatch liberar = new CountDownLatch(1);
+        service.executar(() -> aguardar(liberar));
+        CompletableFuture<String> atrasada = service.executar(() -> "hash");
+
+        Thread.sleep(10);
+        liberar.countDown();
+
+        CompletionException erro = assertThrows(CompletionException.class, atrasada::join);
+        assertInstanceOf(SenhasSobrecarregadoException.class, erro.getCause());
+    }
+
+    private static boolean aguardar(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import app.config.DiretorioShards;
+import app.dto.ResultadoMovimentacaoDTO;
+import app.exceptions.MovimentacaoShardInvalidaException;
+import app.exceptions.UsuarioEmMovimentacaoException;
+import app.exceptions.UsuarioNotFoundException;
+
+public class ShardServiceTest {
+
+    // 🔹 Catálogo (shard 0) e dois shards H2 com o esquema das migrações
+    private static final int BANCOS = 3;
+    // 🔹 Curto: a movimentação espera o cache do diretório expirar
+    private static final Duration TTL = Duration.ofMillis(20);
+
+    @Mock
+    private VersaoSegurancaService versaoSegurancaService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ShardService service;
+
+    private List<DataSource> bancos;
+    private List<JdbcTemplate> jdbc;
+    private DiretorioShards diretorio;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bancos = IntStream.range(0, BANCOS).mapToObj(ShardServiceTest::banco).toList();
+        jdbc = bancos.stream().map(JdbcTemplate::new).toList();
+        diretorio = new DiretorioShards(bancos, List.of(1, 2), TTL);
+        ReflectionTestUtils.setField(service, "diretorio", diretorio);
+        service.iniciar();
+
+        // 🔹 Usuário 1 com uma linha em cada tabela; o usuário 2 não deve ser tocado
+        JdbcTemplate catalogo = jdbc.get(0);
+        for (long usuario = 1; usuario <= 2; usuario++) {
+            catalogo.update("insert into usuarios (id, nome, email, senha, role, data_criacao, status)"
+                    + " values (?, 'Usuário', ?, 'x', 'USER', '2024-01-01 00:00:00', 'ATIVO')", usuario,
+                    "u" + usuario + "@granaguru.app");
+            long base = usuario * 100;
+            catalogo.update("insert into categorias (id, usuario_id, nome_categoria, tipo) values (?, ?, 'Mercado', 'DESPESA')",
+                    base + 10, usuario);
+            catalogo.update("insert into contas (id, usuario_id, nome_conta, tipo_conta, saldo_inicial, data_criacao, status)"
+                    + " values (?, ?, 'Banco', 'CORRENTE', 0, '2024-01-01 00:00:00', 'ATIVA')", base + 20, usuario);
+            catalogo.update("insert into transacoes_recorrentes (id, usuario_id, conta_id, categoria_id, valor, tipo,"
+                    + " periodicidade, despesa_fixa) values (?, ?, ?, ?, 50, 'SAIDA', 'MENSAL', 0)", base + 30, usuario,
+                    base + 20, base + 10);
+            catalogo.update("insert into transacoes (id, usuario_id, conta_id, categoria_id, data_transacao, tipo, descricao,"
+                    + " valor, transacao_recorrente_id) values (?, ?, ?, ?, '2024-01-10 00:00:00', 'SAIDA', 'Feira', 50, ?)",
+                    base + 40, usuario, base + 20, base + 10, base + 30);
+            catalogo.update("insert into tags (id, nome) values (?, ?)", base + 50, "tag" + usuario);
+            catalogo.update("insert into transacoes_tags (transacao_id, tag_id) values (?, ?)", base + 40, base + 50);
+            catalogo.update("insert into metas (id, usuario_id, descricao, valor_objetivo, valor_atual, status)"
+                    + " values (?, ?, 'Viagem', 1000, 0, 'EM_ANDAMENTO')", base + 60, usuario);
+            catalogo.update("insert into orcamentos (id, usuario_id, categoria_id, periodo, valor_limite, data_criacao)"
+                    + " values (?, ?, ?, 'MENSAL', 500, '2024-01-01 00:00:00')", base + 70, usuario, base + 10);
+            catalogo.update("insert into notificacoes (id, usuario_id, titulo, mensagem, tipo, data_envio, lida)"
+                    + " values (?, ?, 'Aviso', 'Aviso', 'META', '2024-01-01 00:00:00', 0)", base + 80, usuario);
+            catalogo.update("insert into saldos_conta (conta_id, saldo) values (?, -50)", base + 20);
+            catalogo.update("insert into gastos_periodo (usuario_id, categoria_id, periodo, inicio, total)"
+                    + " values (?, ?, 'MENSAL', '2024-01-01', 50)", usuario, base + 10);
+            catalogo.update("insert into saldos_conta_mensais (conta_id, mes, saldo_final) values (?, '2024-01-01', -50)",
+                    base + 20);
+        }
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbc.forEach(banco -> banco.execute("shutdown"));
+    }
+
+    private static DataSource banco(int shard) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:shard-service-" + shard + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        return dataSource;
+    }
+
+    private int contar(int shard, String tabela, String filtro, Object... parametros) {
+        return jdbc.get(shard).queryForObject("select count(*) from " + tabela + " where " + filtro, Integer.class,
+                parametros);
+    }
+
+    @Test
+    @DisplayName("Deve mover as linhas do usuário mantendo os IDs e limpar a origem")
+    void testMover() {
+        ResultadoMovimentacaoDTO resultado = service.mover(1L, 2);
+
+        assertEquals(0, resultado.getOrigem());
+        assertEquals(2, resultado.getDestino());
+        assertEquals(1, resultado.getLinhas().get("transacoes"));
+        assertEquals(1, resultado.getLinhas().get("saldos_conta_mensais"));
+        assertEquals(2, diretorio.recarregar(1L));
+        verify(versaoSegurancaService).revogar(1L);
+
+        assertEquals(1, contar(2, "usuarios", "id = 1"));
+        assertEquals(1, contar(2, "transacoes", "id = 140 and transacao_recorrente_id = 130"));
+        assertEquals(1, contar(2, "transacoes_tags", "transacao_id = 140 and tag_id = 150"));
+        assertEquals(1, contar(2, "tags", "id = 150 and nome = 'tag1'"));
+        assertEquals(1, contar(2, "gastos_periodo", "usuario_id = 1"));
+        assertEquals(0, contar(2, "usuarios", "id = 2"));
+
+        // 🔹 Usuário e tags continuam no catálogo; os dados do usuário saem de lá
+        assertEquals(1, contar(0, "usuarios", "id = 1"));
+        assertEquals(1, contar(0, "tags", "id = 150"));
+        assertEquals(0, contar(0, "transacoes", "usuario_id = 1"));
+        assertEquals(0, contar(0, "saldos_conta", "conta_id = 120"));
+        assertEquals(0, contar(0, "categorias", "usuario_id = 1"));
+        assertEquals(1, contar(0, "transacoes", "usuario_id = 2"));
+    }
+
+    @Test
+    @DisplayName("Deve mover entre shards e de volta ao catálogo sem deixar a cópia do usuário para trás")
+    void testMoverDeVolta() {
+        service.mover(1L, 2);
+        service.mover(1L, 1);
+
+        assertEquals(0, contar(2, "usuarios", "id = 1"));
+        assertEquals(0, contar(2, "metas", "usuario_id = 1"));
+        assertEquals(1, contar(1, "metas", "id = 160"));
+
+        ResultadoMovimentacaoDTO resultado = service.mover(1L, 0);
+
+        assertEquals(1, resultado.getOrigem());
+        assertEquals(1, contar(0, "transacoes", "id = 140"));
+        assertEquals(0, contar(1, "usuarios", "id = 1"));
+        assertEquals(0, diretorio.recarregar(1L));
+    }
+
+    @Test
+    @DisplayName("Deve recusar movimentação para o mesmo shard, shard inexistente ou usuário inexistente")
+    void testMovimentacaoInvalida() {
+        assertThrows(MovimentacaoShardInvalidaException.class, () -> service.mover(1L, 0));
+        assertThrows(MovimentacaoShardInvalidaException.class, () -> service.mover(1L, BANCOS));
+        assertThrows(UsuarioNotFoundException.class, () -> service.mover(9L, 1));
+        verifyNoInteractions(versaoSegurancaService);
+    }
+
+    @Test
+    @DisplayName("Deve recusar movimentação para shard que já tem dados do usuário")
+    void testDestinoComDados() {
+        jdbc.get(2).update("insert into usuarios (id, nome, email, senha, role, data_criacao, status)"
+                + " values (1, 'Usuário', 'u1@granaguru.app', 'x', 'USER', '2024-01-01 00:00:00', 'ATIVO')");
+        jdbc.get(2).update("insert into contas (id, usuario_id, nome_conta, tipo_conta, saldo_inicial, data_criacao, status)"
+                + " values (999, 1, 'Outra', 'CORRENTE', 0, '2024-01-01 00:00:00', 'ATIVA')");
+
+        assertThrows(MovimentacaoShardInvalidaException.class, () -> service.mover(1L, 2));
+        assertEquals(1, contar(0, "transacoes", "usuario_id = 1"));
+        assertEquals(0, diretorio.recarregar(1L));
+    }
+
+    @Test
+    @DisplayName("Deve manter o usuário bloqueado se a exclusão na origem falhar e retomar sem copiar de novo")
+    void testRetomarMovimentacao() {
+        // 🔹 Uma transação do usuário 2 na categoria do usuário 1 impede a exclusão na origem
+        jdbc.get(0).update("insert into transacoes (id, usuario_id, conta_id, categoria_id, data_transacao, tipo,"
+                + " descricao, valor) values (999, 2, 220, 110, '2024-01-10 00:00:00', 'SAIDA', 'Outro', 10)");
+
+        assertThrows(RuntimeException.class, () -> service.mover(1L, 2));
+
+        assertEquals(new DiretorioShards.Localizacao(0, 2), diretorio.relocalizar(1L));
+        assertThrows(UsuarioEmMovimentacaoException.class, () -> diretorio.shardDe(1L));
+        assertEquals(1, contar(2, "transacoes", "usuario_id = 1"));
+        assertEquals(1, contar(0, "transacoes", "usuario_id = 1"));
+        assertThrows(MovimentacaoShardInvalidaException.class, () -> service.mover(1L, 1));
+
+        jdbc.get(0).update("delete from transacoes where id = 999");
+        ResultadoMovimentacaoDTO resultado = service.mover(1L, 2);
+
+        assertEquals(0, resultado.getOrigem());
+        assertEquals(1, resultado.getLinhas().get("transacoes"));
+        assertEquals(1, contar(2, "transacoes", "usuario_id = 1"));
+        assertEquals(0, contar(0, "transacoes", "usuario_id = 1"));
+        assertEquals(0, contar(0, "categorias", "usuario_id = 1"));
+        assertEquals(2, diretorio.shardDe(1L));
+        verify(versaoSegurancaService, times(1)).revogar(1L);
+    }
+
+    @Test
+    @DisplayName("Deve refazer a cópia do usuário no destino com as alterações feitas durante a movimentação")
+    void testAlteracaoDuranteMovimentacao() {
+        service.mover(1L, 1);
+        diretorio.iniciarMovimentacao(1L, 1, 2);
+        jdbc.get(0).update("update usuarios set nome = 'Renomeado' where id = 1");
+        service.aoAlterar(1L);
+        assertEquals(1, contar(1, "usuarios", "id = 1 and nome = 'Usuário'"));
+
+        service.mover(1L, 2);
+
+        assertEquals(1, contar(2, "usuarios", "id = 1 and nome = 'Renomeado'"));
+        assertEquals(0, contar(1, "usuarios", "id = 1"));
+        assertEquals(new DiretorioShards.Localizacao(2, null), diretorio.relocalizar(1L));
+    }
+
+    @Test
+    @DisplayName("Deve copiar o usuário novo para o shard escolhido e manter a cópia atualizada")
+    void testCopiasDoUsuario() {
+        jdbc.get(0).update("insert into usuarios (id, nome, email, senha, role, data_criacao, status)"
+                + " values (3, 'Novo', 'u3@granaguru.app', 'x', 'USER', '2024-01-01 00:00:00', 'ATIVO')");
+
+        service.aoCadastrar(3L);
+
+        int shard = diretorio.recarregar(3L);
+        assertEquals(diretorio.posicionar(3L), shard);
+        assertEquals(1, contar(shard, "usuarios", "id = 3 and nome = 'Novo'"));
+
+        jdbc.get(0).update("update usuarios set nome = 'Renomeado' where id = 3");
+        service.aoAlterar(3L);
+        assertEquals(1, contar(shard, "usuarios", "id = 3 and nome = 'Renomeado'"));
+
+        service.aoExcluir(3L);
+        assertEquals(0, contar(shard, "usuarios", "id = 3"));
+        assertEquals(0, contar(0, "shards_usuarios", "usuario_id = 3"));
+    }
+
+    @Test
+    @DisplayName("Deve renomear e excluir as cópias das tags nos shards")
+    void testCopiasDasTags() {
+        service.mover(1L, 1);
+
+        service.aoRenomearTag(150L, "renomeada");
+        assertEquals(1, contar(1, "tags", "id = 150 and nome = 'renomeada'"));
+
+        // 🔹 A tag ainda é usada por uma transação do shard
+        assertThrows(RuntimeException.class, () -> service.aoExcluirTag(150L));
+        jdbc.get(1).update("delete from transacoes_tags where tag_id = 150");
+        service.aoExcluirTag(150L);
+        assertEquals(0, contar(1, "tags", "id = 150"));
+    }
+}
@@ -2,12 +2,17 @@ package app.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import app.dto.Pagina;
 import app.entities.Tag;
 import app.exceptions.TagNotFoundException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,8 +24,13 @@ import org.mockito.MockitoAnnotations;
 import app.repositories.TagRepository;
 
 public class TagServiceTest {
+
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private TagRepository repo;
+    @Mock
+    private ShardService shardService;
 
     @InjectMocks
     private TagService service;
@@ -41,10 +51,10 @@ public class TagServiceTest {
 
     @Test
     void testFindAll() {
-        when(repo.findAll()).thenReturn(Arrays.asList(tag));
-        List<Tag> result = service.findAll();
+        when(repo.findPaginaAposId(0L, PRIMEIRA_PAGINA)).thenReturn(Arrays.asList(tag));
+        List<Tag> result = service.findAll(null, null).getItens();
         assertEquals(1, result.size());
-        verify(repo).findAll();
+        verify(repo).findPaginaAposId(0L, PRIMEIRA_PAGINA);
     }
 
     @Test
@@ -65,31 +75,103 @@ public class TagServiceTest {
 
     @Test
     void testSave() {
-        when(repo.findByNome(tag.getNome())).thenReturn(Optional.empty());
         when(repo.save(tag)).thenReturn(tag);
         Tag result = service.save(tag);
         assertNotNull(result);
         assertEquals(tag.getId(), result.getId());
-        verify(repo).findByNome(tag.getNome());
+        verify(repo, never()).findByNome(any());
         verify(repo).save(tag);
     }
 
     @Test
     void testSaveNomeDuplicadoCriacao() {
         Tag existente = Tag.builder().id(2L).nome("Tag Teste").build();
-        when(repo.findByNome(tag.getNome())).thenReturn(Optional.of(existente));
+        carregar(existente);
+        when(repo.findById(2L)).thenReturn(Optional.of(existente));
         tag.setId(null);
         assertThrows(DataIntegrityViolationException.class, () -> service.save(tag));
+        verify(repo, never()).save(any());
     }
 
     @Test
     void testSaveNomeDuplicadoEdicao() {
         Tag existente = Tag.builder().id(2L).nome("Tag Teste").build();
-        when(repo.findByNome(tag.getNome())).thenReturn(Optional.of(existente));
+        carregar(existente);
+        when(repo.findById(2L)).thenReturn(Optional.of(existente));
         tag.setId(1L);
         assertThrows(DataIntegrityViolationException.class, () -> service.save(tag));
     }
 
+    @Test
+    @DisplayName("Deve ignorar maiúsculas e acentos ao comparar nomes")
+    void testSaveNomeDuplicadoSemAcento() {
+        Tag existente = Tag.builder().id(2L).nome("Mércado").build();
+        carregar(existente);
+        when(repo.findById(2L)).thenReturn(Optional.of(existente));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> service.save(Tag.builder().nome("mercado").build()));
+    }
+
+    @Test
+    @DisplayName("Deve salvar quando a tag do dicionário já foi excluída")
+    void testSaveEntradaVelhaNoDicionario() {
+        carregar(Tag.builder().id(2L).nome("Tag Teste").build());
+        when(repo.findById(2L)).thenReturn(Optional.empty());
+        when(repo.save(tag)).thenReturn(tag);
+        assertEquals(tag, service.save(tag));
+    }
+
+    @Test
+    @DisplayName("Deve resolver tags conhecidas com uma única consulta pelos ids")
+    void testResolverTagsConhecidas() {
+        Tag mercado = Tag.builder().id(2L).nome("Mercado").build();
+        carregar(mercado);
+        when(repo.findAllById(Set.of(1L, 2L))).thenReturn(List.of(tag, mercado));
+
+        List<Tag> resolvidas = service.resolver(List.of(Tag.builder().id(1L).build(),
+                Tag.builder().nome("mercado").build(), Tag.builder().id(2L).build()));
+
+        assertEquals(List.of(tag, mercado), resolvidas);
+        verify(repo).findAllById(Set.of(1L, 2L));
+        verify(repo, never()).inserirAusentes(any());
+        verify(repo, never()).findByNomeIn(any());
+    }
+
+    @Test
+    @DisplayName("Deve criar as tags novas em um único upsert e guardá-las no dicionário")
+    void testResolverTagsNovas() {
+        Tag viagem = Tag.builder().id(3L).nome("Viagem").build();
+        when(repo.findByNomeIn(Set.of("Viagem"))).thenReturn(List.of(viagem));
+
+        assertEquals(List.of(viagem), service.resolver(List.of(Tag.builder().nome("Viagem").build())));
+        verify(repo).inserirAusentes(Set.of("Viagem"));
+
+        when(repo.findAllById(Set.of(3L))).thenReturn(List.of(viagem));
+        assertEquals(List.of(viagem), service.resolver(List.of(Tag.builder().nome("viagem").build())));
+        verify(repo, times(1)).inserirAusentes(any());
+    }
+
+    @Test
+    @DisplayName("Deve resolver pelo banco quando a tag do dicionário foi renomeada")
+    void testResolverEntradaVelhaNoDicionario() {
+        carregar(Tag.builder().id(2L).nome("Mercado").build());
+        Tag renomeada = Tag.builder().id(2L).nome("Feira").build();
+        Tag mercado = Tag.builder().id(5L).nome("Mercado").build();
+        when(repo.findAllById(Set.of(2L))).thenReturn(List.of(renomeada));
+        when(repo.findByNomeIn(Set.of("Mercado"))).thenReturn(List.of(mercado));
+
+        assertEquals(List.of(mercado), service.resolver(List.of(Tag.builder().nome("Mercado").build())));
+        verify(repo).inserirAusentes(Set.of("Mercado"));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao resolver tag com id inexistente")
+    void testResolverTagNotFound() {
+        when(repo.findAllById(Set.of(9L))).thenReturn(List.of());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> service.resolver(List.of(Tag.builder().id(9L).build())));
+    }
+
     @Test
     void testDeleteById() {
         when(repo.existsById(1L)).thenReturn(true);
@@ -99,10 +181,60 @@ public class TagServiceTest {
         verify(repo).deleteById(1L);
     }
 
+    @Test
+    @DisplayName("Deve tirar a tag excluída do dicionário")
+    void testDeleteByIdAtualizaDicionario() {
+        carregar(tag);
+        when(repo.existsById(1L)).thenReturn(true);
+        service.deleteById(1L);
+
+        when(repo.findByNomeIn(Set.of("Tag Teste"))).thenReturn(List.of(tag));
+        service.resolver(List.of(Tag.builder().nome("Tag Teste").build()));
+        verify(repo).inserirAusentes(Set.of("Tag Teste"));
+    }
+
     @Test
     void testDeleteByIdNotFound() {
         when(repo.existsById(999L)).thenReturn(false);
         assertThrows(TagNotFoundException.class, () -> service.deleteById(999L));
         verify(repo).existsById(999L);
     }
+
+    @Test
+    @DisplayName("Com shards, deve resolver as tags no catálogo e copiá-las para o shard")
+    void testResolverEmShard() {
+        carregar(tag);
+        Tag viagem = Tag.builder().id(2L).nome("Viagem").build();
+        when(shardService.emShard()).thenReturn(true);
+        when(shardService.noCatalogo(any())).thenAnswer(invocacao -> ((Supplier<?>) invocacao.getArgument(0)).get());
+        when(repo.findAllById(Set.of(1L))).thenReturn(List.of(tag));
+        when(repo.findByNomeIn(Set.of("Viagem"))).thenReturn(List.of(viagem));
+
+        List<Tag> result = service.resolver(List.of(Tag.builder().id(1L).build(), Tag.builder().nome("Viagem").build()));
+
+        assertEquals(List.of(tag, viagem), result);
+        verify(shardService).noCatalogo(any());
+        verify(repo).copiar(argThat(copiadas -> copiadas.size() == 2 && copiadas.containsAll(List.of(tag, viagem))));
+    }
+
+    @Test
+    @DisplayName("Com shards, deve atualizar as cópias da tag renomeada e excluída")
+    void testCopiasEmShards() {
+        when(repo.save(tag)).thenReturn(tag);
+        service.save(tag);
+        verify(shardService).aoRenomearTag(1L, "Tag Teste");
+
+        when(repo.existsById(1L)).thenReturn(true);
+        service.deleteById(1L);
+        verify(shardService).aoExcluirTag(1L);
+    }
+
+    private void carregar(Tag... tags) {
+        List<Object[]> linhas = new ArrayList<>();
+        for (Tag t : tags) {
+            linhas.add(new Object[] { t.getNome(), t.getId() });
+        }
+        when(repo.findNomesEIds()).thenReturn(linhas);
+        service.carregarDicionario();
+    }
 }
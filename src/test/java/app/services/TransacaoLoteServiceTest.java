@@ -0,0 +1,229 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import app.config.ContextoShard;
+import app.config.DiretorioShards;
+import app.dto.ResultadoLoteDTO;
+import app.entities.Categoria;
+import app.entities.Conta;
+import app.entities.Tag;
+import app.entities.Transacao;
+import app.entities.Usuario;
+import app.enums.TipoTransacao;
+import app.exceptions.LoteInvalidoException;
+import app.repositories.CategoriaRepository;
+import app.repositories.ContaRepository;
+import app.repositories.TransacaoLoteRepository;
+import app.repositories.UsuarioRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+public class TransacaoLoteServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @Mock
+    private ContaRepository contaRepository;
+    @Mock
+    private CategoriaRepository categoriaRepository;
+    @Mock
+    private TagService tagService;
+    @Mock
+    private SaldoContaService saldoContaService;
+    @Mock
+    private GastoPeriodoService gastoPeriodoService;
+    @Mock
+    private TransacaoLoteRepository transacaoLoteRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private TransacaoLoteService service;
+
+    private long proximoId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "maximoTransacoes", 10);
+        ReflectionTestUtils.setField(service, "transacoesPorBloco", 3);
+        service.iniciar();
+
+        // 🔹 Usuário 1 com a conta 10 e a categoria 20; a conta 11 é do usuário 2
+        when(usuarioRepository.findIdsExistentes(any())).thenReturn(List.of(1L));
+        when(contaRepository.findIdsEUsuarios(any())).thenReturn(List.of(new Object[] { 10L, 1L }, new Object[] { 11L, 2L }));
+        when(categoriaRepository.findIdsEUsuarios(any())).thenReturn(List.<Object[]>of(new Object[] { 20L, 1L }));
+
+        proximoId = 100L;
+        doAnswer(invocacao -> {
+            List<Transacao> transacoes = invocacao.getArgument(0);
+            transacoes.forEach(transacao -> transacao.setId(proximoId++));
+            return null;
+        }).when(transacaoLoteRepository).inserir(anyList());
+    }
+
+    private Transacao transacao(Long usuarioId, Long contaId, Long categoriaId, Double valor) {
+        return Transacao.builder().usuario(Usuario.builder().id(usuarioId).build())
+                .conta(Conta.builder().id(contaId).build()).categoria(Categoria.builder().id(categoriaId).build())
+                .tipo(TipoTransacao.SAIDA).descricao("Mercado").valor(valor).dataTransacao(LocalDateTime.now()).build();
+    }
+
+    @Test
+    @DisplayName("Deve gravar as transações válidas e recusar só as inválidas")
+    void testRecusaPorLinha() {
+        List<Transacao> lote = List.of(transacao(1L, 10L, 20L, 50.0), transacao(1L, 10L, 20L, null),
+                transacao(1L, 99L, 20L, 10.0), transacao(1L, 11L, 20L, 10.0), transacao(3L, 10L, 20L, 10.0));
+
+        ResultadoLoteDTO resultado = service.importar(lote);
+
+        assertEquals(5, resultado.getRecebidas());
+        assertEquals(1, resultado.getInseridas());
+        assertEquals(4, resultado.getRecusadas());
+        assertEquals(100L, resultado.getLinhas().get(0).getId());
+        assertNull(resultado.getLinhas().get(0).getErro());
+        assertTrue(resultado.getLinhas().get(1).getErro().contains("valor"));
+        assertEquals("Conta não encontrada com ID: 99", resultado.getLinhas().get(2).getErro());
+        assertEquals("A conta 11 não pertence ao usuário 1.", resultado.getLinhas().get(3).getErro());
+        assertEquals("Usuário não encontrado com ID: 3", resultado.getLinhas().get(4).getErro());
+    }
+
+    @Test
+    @DisplayName("Deve conferir as referências com uma consulta por tipo em cada bloco")
+    void testUmaConsultaPorTipoPorBloco() {
+        List<Transacao> lote = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lote.add(transacao(1L, 10L, 20L, 10.0 + i));
+        }
+
+        ResultadoLoteDTO resultado = service.importar(lote);
+
+        assertEquals(5, resultado.getInseridas());
+        verify(usuarioRepository, times(2)).findIdsExistentes(any());
+        verify(contaRepository, times(2)).findIdsEUsuarios(any());
+        verify(categoriaRepository, times(2)).findIdsEUsuarios(any());
+        verify(transacaoLoteRepository, times(2)).inserir(anyList());
+        verify(saldoContaService, times(2)).registrar(anyList());
+        verify(gastoPeriodoService, times(2)).registrar(anyList());
+        verify(tagService, never()).resolverTodas(any());
+    }
+
+    @Test
+    @DisplayName("Deve trocar as tags pelas gravadas e recusar transação com tag inexistente")
+    void testTags() {
+        Tag mercado = Tag.builder().id(7L).nome("Mercado").build();
+        TagService.Resolucao resolucao = mock(TagService.Resolucao.class);
+        when(resolucao.de(any())).thenAnswer(invocacao -> {
+            Tag tag = invocacao.getArgument(0);
+            return tag.getId() == null ? mercado : null;
+        });
+        when(tagService.resolverTodas(anyList())).thenReturn(resolucao);
+
+        Transacao comNome = transacao(1L, 10L, 20L, 10.0);
+        comNome.setTag(new ArrayList<>(List.of(Tag.builder().nome("mercado").build(), Tag.builder().nome("Mercado").build())));
+        Transacao comIdInexistente = transacao(1L, 10L, 20L, 10.0);
+        comIdInexistente.setTag(new ArrayList<>(List.of(Tag.builder().id(8L).build())));
+        Transacao semNome = transacao(1L, 10L, 20L, 10.0);
+        semNome.setTag(new ArrayList<>(List.of(Tag.builder().nome(" ").build())));
+
+        ResultadoLoteDTO resultado = service.importar(List.of(comNome, comIdInexistente, semNome));
+
+        assertEquals(1, resultado.getInseridas());
+        assertEquals(List.of(mercado), comNome.getTag());
+        assertEquals("Tag não encontrada com ID: 8", resultado.getLinhas().get(1).getErro());
+        assertEquals("A tag precisa de um ID ou de um nome.", resultado.getLinhas().get(2).getErro());
+        verify(tagService, times(1)).resolverTodas(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve recusar só as transações do bloco que falhou ao gravar")
+    void testFalhaNoBloco() {
+        doThrow(new DataAccessResourceFailureException("fora do ar")).doAnswer(invocacao -> {
+            List<Transacao> transacoes = invocacao.getArgument(0);
+            transacoes.forEach(transacao -> transacao.setId(proximoId++));
+            return null;
+        }).when(transacaoLoteRepository).inserir(anyList());
+        List<Transacao> lote = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lote.add(transacao(1L, 10L, 20L, 10.0 + i));
+        }
+
+        ResultadoLoteDTO resultado = service.importar(lote);
+
+        assertEquals(1, resultado.getInseridas());
+        assertEquals(3, resultado.getRecusadas());
+        assertNotNull(resultado.getLinhas().get(2).getErro());
+        assertNull(resultado.getLinhas().get(2).getId());
+        assertEquals(100L, resultado.getLinhas().get(3).getId());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Com shards, deve gravar cada transação no shard do seu usuário mantendo a ordem do resultado")
+    void testPorShard() {
+        DiretorioShards diretorio = mock(DiretorioShards.class);
+        when(diretorio.localizar(1L)).thenReturn(new DiretorioShards.Localizacao(2, null));
+        when(diretorio.localizar(3L)).thenReturn(new DiretorioShards.Localizacao(1, null));
+        when(diretorio.localizar(4L)).thenReturn(new DiretorioShards.Localizacao(1, 2));
+        ReflectionTestUtils.setField(service, "diretorioShards", diretorio);
+
+        // 🔹 Cada shard só conhece o seu usuário; o usuário 3 tem a conta 12 e a categoria 21
+        when(usuarioRepository.findIdsExistentes(any()))
+                .thenAnswer(invocacao -> ContextoShard.atual() == 1 ? List.of(3L) : List.of(1L));
+        when(contaRepository.findIdsEUsuarios(any()))
+                .thenReturn(List.of(new Object[] { 10L, 1L }, new Object[] { 12L, 3L }));
+        when(categoriaRepository.findIdsEUsuarios(any()))
+                .thenReturn(List.of(new Object[] { 20L, 1L }, new Object[] { 21L, 3L }));
+        List<Integer> shards = new ArrayList<>();
+        doAnswer(invocacao -> {
+            shards.add(ContextoShard.atual());
+            List<Transacao> transacoes = invocacao.getArgument(0);
+            transacoes.forEach(transacao -> transacao.setId(proximoId++));
+            return null;
+        }).when(transacaoLoteRepository).inserir(anyList());
+
+        ResultadoLoteDTO resultado = service.importar(List.of(transacao(1L, 10L, 20L, 10.0),
+                transacao(3L, 12L, 21L, 20.0), transacao(1L, 10L, 20L, 30.0), transacao(null, 10L, 20L, 40.0),
+                transacao(4L, 13L, 22L, 50.0)));
+
+        assertEquals(3, resultado.getInseridas());
+        assertEquals(List.of(ContextoShard.CATALOGO, 1, 2), shards);
+        assertEquals(101L, resultado.getLinhas().get(0).getId());
+        assertEquals(100L, resultado.getLinhas().get(1).getId());
+        assertEquals(102L, resultado.getLinhas().get(2).getId());
+        assertNotNull(resultado.getLinhas().get(3).getErro());
+        // 🔹 O usuário 4 está mudando de shard: só a transação dele é recusada
+        assertTrue(resultado.getLinhas().get(4).getErro().contains("movidos"));
+        assertNull(ContextoShard.atual());
+    }
+
+    @Test
+    @DisplayName("Deve recusar lote vazio ou maior que o máximo")
+    void testLoteInvalido() {
+        assertThrows(LoteInvalidoException.class, () -> service.importar(List.of()));
+        assertThrows(LoteInvalidoException.class,
+                () -> service.importar(Collections.nCopies(11, transacao(1L, 10L, 20L, 10.0))));
+        verifyNoInteractions(transacaoLoteRepository);
+    }
+}
@@ -11,13 +11,17 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import app.dto.Pagina;
 import app.entities.Categoria;
 import app.entities.Conta;
+import app.entities.Transacao;
 import app.entities.TransacaoRecorrente;
 import app.entities.Usuario;
 import app.enums.Periodicidade;
@@ -25,16 +29,26 @@ import app.enums.TipoTransacao;
 import app.exceptions.TransacaoRecorrenteNotFoundException;
 import app.repositories.CategoriaRepository;
 import app.repositories.ContaRepository;
+import app.repositories.TransacaoLoteRepository;
 import app.repositories.TransacaoRecorrenteRepository;
 import app.repositories.TransacaoRepository;
 import app.repositories.UsuarioRepository;
 
 public class TransacaoRecorrenteServiceTest {
+
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private TransacaoRecorrenteRepository transacaoRecorrenteRepository;
     @Mock
     private TransacaoRepository transacaoRepository;
     @Mock
+    private TransacaoLoteRepository transacaoLoteRepository;
+    @Mock
+    private SaldoContaService saldoContaService;
+    @Mock
+    private GastoPeriodoService gastoPeriodoService;
+    @Mock
     private UsuarioRepository usuarioRepository;
     @Mock
     private ContaRepository contaRepository;
@@ -83,30 +97,30 @@ public class TransacaoRecorrenteServiceTest {
     @DisplayName("Deve retornar todas as transações recorrentes")
     void testFindAll() {
         List<TransacaoRecorrente> lista = Arrays.asList(recorrente);
-        when(transacaoRecorrenteRepository.findAll()).thenReturn(lista);
-        List<TransacaoRecorrente> resultado = service.findAll();
+        when(transacaoRecorrenteRepository.findPaginaAposId(0L, PRIMEIRA_PAGINA)).thenReturn(lista);
+        List<TransacaoRecorrente> resultado = service.findAll(null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals(recorrente.getDescricao(), resultado.get(0).getDescricao());
-        verify(transacaoRecorrenteRepository).findAll();
+        verify(transacaoRecorrenteRepository).findPaginaAposId(0L, PRIMEIRA_PAGINA);
     }
 
     @Test
     @DisplayName("Deve encontrar transação recorrente por ID")
     void testFindById() {
-        when(transacaoRecorrenteRepository.findById(1L)).thenReturn(Optional.of(recorrente));
+        when(transacaoRecorrenteRepository.findComDetalhesById(1L)).thenReturn(Optional.of(recorrente));
         TransacaoRecorrente resultado = service.findById(1L);
         assertNotNull(resultado);
         assertEquals(recorrente.getId(), resultado.getId());
-        verify(transacaoRecorrenteRepository).findById(1L);
+        verify(transacaoRecorrenteRepository).findComDetalhesById(1L);
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando transação recorrente não encontrada por ID")
     void testFindByIdNotFound() {
-        when(transacaoRecorrenteRepository.findById(999L)).thenReturn(Optional.empty());
+        when(transacaoRecorrenteRepository.findComDetalhesById(999L)).thenReturn(Optional.empty());
         assertThrows(TransacaoRecorrenteNotFoundException.class, () -> service.findById(999L));
-        verify(transacaoRecorrenteRepository).findById(999L);
+        verify(transacaoRecorrenteRepository).findComDetalhesById(999L);
     }
 
     @Test
@@ -167,4 +181,39 @@ public class TransacaoRecorrenteServiceTest {
         verify(transacaoRecorrenteRepository).existsById(999L);
         verify(transacaoRecorrenteRepository, never()).deleteById(any());
     }
+
+    @Test
+    @DisplayName("Deve gerar em lote apenas as ocorrências pendentes que ainda não existem")
+    void testProcessarTransacoesRecorrentesEmLote() {
+        LocalDateTime inicio = LocalDateTime.now().minusDays(4).withNano(0);
+        recorrente.setPeriodicidade(Periodicidade.DIARIA);
+        recorrente.setDespesaFixa(true);
+        recorrente.setDataInicial(inicio);
+        recorrente.setProximaExecucao(inicio);
+        when(transacaoRepository.findDatasByTransacaoRecorrenteIdEntre(1L, inicio, inicio.plusDays(4)))
+                .thenReturn(List.of(inicio, inicio.plusDays(2)));
+
+        int criadas = service.processarTransacoesRecorrentes(recorrente);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transacao>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transacaoLoteRepository).inserir(captor.capture());
+        verify(saldoContaService).registrar(captor.getValue());
+        verify(gastoPeriodoService).registrar(captor.getValue());
+        List<LocalDateTime> datas = captor.getValue().stream().map(Transacao::getDataTransacao).toList();
+        assertEquals(List.of(inicio.plusDays(1), inicio.plusDays(3), inicio.plusDays(4)), datas);
+        assertEquals(3, criadas);
+        assertEquals(inicio.plusDays(5), recorrente.getProximaExecucao());
+        verify(transacaoRepository, times(1)).findDatasByTransacaoRecorrenteIdEntre(any(), any(), any());
+        verify(transacaoRepository, never()).save(any());
+        verify(transacaoRecorrenteRepository).save(recorrente);
+    }
+
+    @Test
+    @DisplayName("Não deve gerar ocorrências quando a próxima execução ainda não chegou")
+    void testProcessarTransacoesRecorrentesSemPendencias() {
+        assertEquals(0, service.processarTransacoesRecorrentes(recorrente));
+        verifyNoInteractions(transacaoLoteRepository);
+        verify(transacaoRepository, never()).findDatasByTransacaoRecorrenteIdEntre(any(), any(), any());
+    }
 }
@@ -3,10 +3,13 @@ package app.services;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,45 +18,59 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import app.dto.Cursor;
+import app.dto.MovimentoTransacao;
+import app.dto.Pagina;
+import app.dto.TransacaoDTO;
+import app.dto.TransacaoFiltro;
 import app.entities.Categoria;
 import app.entities.Conta;
 import app.entities.Tag;
 import app.entities.Transacao;
-import app.entities.TransacaoRecorrente;
 import app.entities.Usuario;
 import app.enums.Periodicidade;
 import app.enums.TipoTransacao;
+import app.exceptions.CursorInvalidoException;
 import app.exceptions.TransacaoNotFoundException;
+import app.exceptions.UsuarioNotFoundException;
 import app.repositories.CategoriaRepository;
 import app.repositories.ContaRepository;
-import app.repositories.TagRepository;
-import app.repositories.TransacaoRecorrenteRepository;
 import app.repositories.TransacaoRepository;
 import app.repositories.UsuarioRepository;
+import jakarta.persistence.EntityManager;
 
 import java.util.ArrayList;
 
 public class TransacaoServiceTest {
+
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private TransacaoRepository transacaoRepository;
     @Mock
-    private TransacaoRecorrenteService transacaoRecorrenteService;
-    @Mock
-    private TransacaoRecorrenteRepository transacaoRecorrenteRepository;
-    @Mock
     private UsuarioRepository usuarioRepository;
     @Mock
     private ContaRepository contaRepository;
     @Mock
     private CategoriaRepository categoriaRepository;
     @Mock
-    private TagRepository tagRepository;
+    private TagService tagService;
+    @Mock
+    private SaldoContaService saldoContaService;
+    @Mock
+    private GastoPeriodoService gastoPeriodoService;
+    @Mock
+    private EntityManager entityManager;
 
     @InjectMocks
     private TransacaoService service;
 
     private Transacao transacao;
+    private TransacaoDTO linha;
     private Usuario usuario;
     private Conta conta;
     private Categoria categoria;
@@ -90,97 +107,190 @@ public class TransacaoServiceTest {
         transacao.setTipo(TipoTransacao.SAIDA);
         transacao.setDataTransacao(LocalDateTime.now());
         transacao.setTag(new ArrayList<>(List.of(tag)));
+        linha = TransacaoDTO.de(transacao);
     }
 
     @Test
     @DisplayName("Deve retornar todas as transações")
     void testFindAll() {
-        when(transacaoRecorrenteRepository.findRecorrenciasParaProcessar()).thenReturn(new ArrayList<>());
-        when(transacaoRepository.findAll()).thenReturn(Arrays.asList(transacao));
-        List<Transacao> resultado = service.findAll();
+        when(transacaoRepository.findPagina(Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA))
+                .thenReturn(Arrays.asList(linha));
+        when(transacaoRepository.findTagIdsByTransacaoIds(List.of(1L)))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 1L }));
+        List<TransacaoDTO> resultado = service.findAll(null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals(transacao.getDescricao(), resultado.get(0).getDescricao());
-        verify(transacaoRepository).findAll();
+        assertEquals(List.of(1L), resultado.get(0).getTagIds());
+        verify(transacaoRepository).findPagina(Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA);
+    }
+
+    @Test
+    @DisplayName("Deve devolver o cursor da próxima página e continuar a partir dele")
+    void testFindByContaIdProximaPagina() {
+        TransacaoDTO seguinte = new TransacaoDTO();
+        seguinte.setId(2L);
+        seguinte.setDataTransacao(transacao.getDataTransacao().minusDays(1));
+        when(transacaoRepository.findPaginaByContaId(1L, Cursor.DATA_MAXIMA, Long.MAX_VALUE, Limit.of(2)))
+                .thenReturn(Arrays.asList(linha, seguinte));
+
+        Pagina<TransacaoDTO> pagina = service.findByContaId(1L, null, 1);
+        assertEquals(List.of(linha), pagina.getItens());
+        assertEquals(List.of(), linha.getTagIds());
+        assertEquals(Cursor.codificar(transacao.getDataTransacao(), 1L), pagina.getProximoCursor());
+
+        service.findByContaId(1L, pagina.getProximoCursor(), 1);
+        verify(transacaoRepository).findPaginaByContaId(1L, transacao.getDataTransacao(), 1L, Limit.of(2));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor inválido")
+    void testFindByContaIdCursorInvalido() {
+        assertThrows(CursorInvalidoException.class, () -> service.findByContaId(1L, "não-é-cursor", null));
+        verifyNoInteractions(transacaoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve transmitir o histórico desanexando cada transação e fechando o stream")
+    void testTransmitirHistorico() {
+        AtomicBoolean fechado = new AtomicBoolean();
+        when(transacaoRepository.streamByUsuarioId(1L))
+                .thenReturn(Stream.of(transacao).onClose(() -> fechado.set(true)));
+        List<TransacaoDTO> linhas = new ArrayList<>();
+        service.transmitirHistorico(1L, linhas::add);
+        assertEquals(1, linhas.size());
+        assertEquals(transacao.getDescricao(), linhas.get(0).getDescricao());
+        assertEquals(1L, linhas.get(0).getContaId());
+        verify(entityManager).detach(transacao);
+        assertTrue(fechado.get());
+    }
+
+    @Test
+    @DisplayName("Deve exportar o histórico em linhas planas e fechar o stream")
+    void testExportarHistorico() {
+        AtomicBoolean fechado = new AtomicBoolean();
+        TransacaoDTO linha = TransacaoDTO.de(transacao);
+        when(transacaoRepository.streamDtoByUsuarioId(1L)).thenReturn(Stream.of(linha).onClose(() -> fechado.set(true)));
+        List<TransacaoDTO> linhas = new ArrayList<>();
+        service.exportarHistorico(1L, linhas::add);
+        assertEquals(List.of(linha), linhas);
+        verifyNoInteractions(entityManager);
+        assertTrue(fechado.get());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao transmitir histórico de usuário inexistente")
+    void testVerificarUsuarioNotFound() {
+        when(usuarioRepository.existsById(999L)).thenReturn(false);
+        assertThrows(UsuarioNotFoundException.class, () -> service.verificarUsuario(999L));
     }
 
     @Test
     @DisplayName("Deve buscar transações com filtros")
+    @SuppressWarnings("unchecked")
     void testBuscarComFiltros() {
-        when(transacaoRepository.findAll()).thenReturn(Arrays.asList(transacao));
-        List<Transacao> resultado = service.buscarComFiltros("SAIDA", 1L, 1L, 1L);
+        when(transacaoRepository.buscarLinhas(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(Arrays.asList(linha));
+        TransacaoFiltro filtro = TransacaoFiltro.builder().tipo("SAIDA").categoriaId(1L).contaId(1L).usuarioId(1L)
+                .dataInicio(LocalDate.now().minusDays(30)).dataFim(LocalDate.now()).valorMinimo(10.0)
+                .tagIds(List.of(1L)).descricao("teste").recorrente(false).build();
+        List<TransacaoDTO> resultado = service.buscarComFiltros(filtro);
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals(transacao.getDescricao(), resultado.get(0).getDescricao());
+        verify(transacaoRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar ordenação e limite máximo na busca com filtros")
+    @SuppressWarnings("unchecked")
+    void testBuscarComFiltrosLimiteEOrdenacao() {
+        when(transacaoRepository.buscarLinhas(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of());
+        TransacaoFiltro filtro = TransacaoFiltro.builder().ordenarPor("valor").direcao("asc").limite(50_000).build();
+        assertTrue(service.buscarComFiltros(filtro).isEmpty());
+
+        verify(transacaoRepository).buscarLinhas(any(Specification.class),
+                eq(Sort.by(Sort.Direction.ASC, "valor", "id")), eq(TransacaoFiltro.LIMITE_MAXIMO));
+        verify(transacaoRepository, never()).findTagIdsByTransacaoIds(any());
     }
 
     @Test
     @DisplayName("Deve encontrar transação por ID")
     void testFindById() {
-        when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao));
+        when(transacaoRepository.findComDetalhesById(1L)).thenReturn(Optional.of(transacao));
         Transacao resultado = service.findById(1L);
         assertNotNull(resultado);
         assertEquals(transacao.getId(), resultado.getId());
-        verify(transacaoRepository).findById(1L);
+        verify(transacaoRepository).findComDetalhesById(1L);
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando transação não encontrada por ID")
     void testFindByIdNotFound() {
-        when(transacaoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(transacaoRepository.findComDetalhesById(999L)).thenReturn(Optional.empty());
         assertThrows(TransacaoNotFoundException.class, () -> service.findById(999L));
-        verify(transacaoRepository).findById(999L);
+        verify(transacaoRepository).findComDetalhesById(999L);
     }
 
     @Test
     @DisplayName("Deve buscar transações por conta")
     void testFindByContaId() {
-        when(transacaoRepository.findByContaId(1L)).thenReturn(Arrays.asList(transacao));
-        List<Transacao> resultado = service.findByContaId(1L);
+        when(transacaoRepository.findPaginaByContaId(1L, Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA))
+                .thenReturn(Arrays.asList(linha));
+        List<TransacaoDTO> resultado = service.findByContaId(1L, null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(transacaoRepository).findByContaId(1L);
+        verify(transacaoRepository).findPaginaByContaId(1L,
+                Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA);
     }
 
     @Test
     @DisplayName("Deve buscar transações por categoria")
     void testFindByCategoriaId() {
-        when(transacaoRepository.findByCategoriaId(1L)).thenReturn(Arrays.asList(transacao));
-        List<Transacao> resultado = service.findByCategoriaId(1L);
+        when(transacaoRepository.findPaginaByCategoriaId(1L, Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA))
+                .thenReturn(Arrays.asList(linha));
+        List<TransacaoDTO> resultado = service.findByCategoriaId(1L, null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(transacaoRepository).findByCategoriaId(1L);
+        verify(transacaoRepository).findPaginaByCategoriaId(1L,
+                Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA);
     }
 
     @Test
     @DisplayName("Deve buscar transações por usuário e tipo")
     void testFindByUsuarioAndTipo() {
-        when(transacaoRepository.findByUsuarioAndTipo(1L, TipoTransacao.SAIDA)).thenReturn(Arrays.asList(transacao));
-        List<Transacao> resultado = service.findByUsuarioAndTipo(1L, TipoTransacao.SAIDA);
+        when(transacaoRepository.findPaginaByUsuarioAndTipo(1L, TipoTransacao.SAIDA,
+                Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA)).thenReturn(Arrays.asList(linha));
+        List<TransacaoDTO> resultado = service.findByUsuarioAndTipo(1L, TipoTransacao.SAIDA, null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(transacaoRepository).findByUsuarioAndTipo(1L, TipoTransacao.SAIDA);
+        verify(transacaoRepository).findPaginaByUsuarioAndTipo(1L, TipoTransacao.SAIDA,
+                Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA);
     }
 
     @Test
     @DisplayName("Deve buscar transações por periodicidade")
     void testFindByPeriodicidade() {
-        when(transacaoRepository.findByPeriodicidade(Periodicidade.MENSAL)).thenReturn(Arrays.asList(transacao));
-        List<Transacao> resultado = service.findByPeriodicidade(Periodicidade.MENSAL);
+        when(transacaoRepository.findPaginaByPeriodicidade(Periodicidade.MENSAL, Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA))
+               .thenReturn(Arrays.asList(linha));
+        List<TransacaoDTO> resultado = service.findByPeriodicidade(Periodicidade.MENSAL, null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(transacaoRepository).findByPeriodicidade(Periodicidade.MENSAL);
+        verify(transacaoRepository).findPaginaByPeriodicidade(Periodicidade.MENSAL,
+                Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA);
     }
 
     @Test
     @DisplayName("Deve buscar transações por usuário e periodicidade")
     void testFindByUsuarioAndPeriodicidade() {
-        when(transacaoRepository.findByUsuarioAndPeriodicidade(1L, Periodicidade.MENSAL))
-                .thenReturn(Arrays.asList(transacao));
-        List<Transacao> resultado = service.findByUsuarioAndPeriodicidade(1L, Periodicidade.MENSAL);
+        when(transacaoRepository.findPaginaByUsuarioAndPeriodicidade(1L, Periodicidade.MENSAL, Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA))
+                .thenReturn(Arrays.asList(linha));
+        List<TransacaoDTO> resultado = service.findByUsuarioAndPeriodicidade(1L, Periodicidade.MENSAL, null, null).getItens();
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(transacaoRepository).findByUsuarioAndPeriodicidade(1L, Periodicidade.MENSAL);
+        verify(transacaoRepository).findPaginaByUsuarioAndPeriodicidade(1L, Periodicidade.MENSAL,
+                Cursor.DATA_MAXIMA, Long.MAX_VALUE, PRIMEIRA_PAGINA);
     }
 
     @Test
@@ -189,7 +299,7 @@ public class TransacaoServiceTest {
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
         when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
-        when(tagRepository.findById(1L)).thenReturn(Optional.of(tag));
+        when(tagService.resolver(List.of(tag))).thenReturn(List.of(tag));
         when(transacaoRepository.save(any(Transacao.class))).thenReturn(transacao);
         Transacao resultado = service.save(transacao);
         assertNotNull(resultado);
@@ -197,8 +307,28 @@ public class TransacaoServiceTest {
         verify(usuarioRepository).findById(1L);
         verify(contaRepository).findById(1L);
         verify(categoriaRepository).findById(1L);
-        verify(tagRepository).findById(1L);
+        verify(tagService).resolver(List.of(tag));
         verify(transacaoRepository).save(transacao);
+        verify(saldoContaService).registrar(1L, transacao.getDataTransacao(), -100.0);
+        verify(gastoPeriodoService).registrar(1L, 1L, TipoTransacao.SAIDA, transacao.getDataTransacao(), 100.0);
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o efeito anterior no saldo e nos gastos ao alterar uma transação")
+    void testSaveAlteracaoAtualizaSaldo() {
+        LocalDateTime dataAnterior = LocalDateTime.of(2025, 1, 10, 0, 0);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+        when(tagService.resolver(List.of(tag))).thenReturn(List.of(tag));
+        when(transacaoRepository.findMovimentoById(1L))
+                .thenReturn(Optional.of(new MovimentoTransacao(1L, 2L, 3L, dataAnterior, TipoTransacao.ENTRADA, 40.0)));
+        when(transacaoRepository.save(any(Transacao.class))).thenReturn(transacao);
+        service.save(transacao);
+        verify(saldoContaService).registrar(2L, dataAnterior, -40.0);
+        verify(saldoContaService).registrar(1L, transacao.getDataTransacao(), -100.0);
+        verify(gastoPeriodoService).registrar(1L, 3L, TipoTransacao.ENTRADA, dataAnterior, -40.0);
+        verify(gastoPeriodoService).registrar(1L, 1L, TipoTransacao.SAIDA, transacao.getDataTransacao(), 100.0);
     }
 
     @Test
@@ -231,26 +361,31 @@ public class TransacaoServiceTest {
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
         when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
-        when(tagRepository.findById(1L)).thenReturn(Optional.empty());
+        when(tagService.resolver(List.of(tag))).thenThrow(new DataIntegrityViolationException("Tag não encontrada com ID: 1"));
         assertThrows(DataIntegrityViolationException.class, () -> service.save(transacao));
     }
 
     @Test
     @DisplayName("Deve excluir transação com sucesso")
     void testDeleteById() {
-        when(transacaoRepository.existsById(1L)).thenReturn(true);
+        LocalDateTime data = transacao.getDataTransacao();
+        when(transacaoRepository.findMovimentoById(1L))
+                .thenReturn(Optional.of(new MovimentoTransacao(1L, 1L, 1L, data, TipoTransacao.SAIDA, 100.0)));
         doNothing().when(transacaoRepository).deleteById(1L);
         assertDoesNotThrow(() -> service.deleteById(1L));
-        verify(transacaoRepository).existsById(1L);
+        verify(transacaoRepository).findMovimentoById(1L);
+        verify(saldoContaService).registrar(1L, data, 100.0);
+        verify(gastoPeriodoService).registrar(1L, 1L, TipoTransacao.SAIDA, data, -100.0);
         verify(transacaoRepository).deleteById(1L);
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao tentar excluir transação inexistente")
     void testDeleteByIdNotFound() {
-        when(transacaoRepository.existsById(999L)).thenReturn(false);
+        when(transacaoRepository.findMovimentoById(999L)).thenReturn(Optional.empty());
         assertThrows(TransacaoNotFoundException.class, () -> service.deleteById(999L));
-        verify(transacaoRepository).existsById(999L);
+        verify(transacaoRepository).findMovimentoById(999L);
+        verifyNoInteractions(saldoContaService, gastoPeriodoService);
         verify(transacaoRepository, never()).deleteById(any());
     }
 }
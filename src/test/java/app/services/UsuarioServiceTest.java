@@ -14,8 +14,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Limit;
 
+import app.dto.Pagina;
 import app.entities.Usuario;
 import app.enums.StatusUsuario;
 import app.exceptions.UsuarioNotFoundException;
@@ -23,6 +24,8 @@ import app.repositories.UsuarioRepository;
 
 public class UsuarioServiceTest {
 
+    private static final Limit PRIMEIRA_PAGINA = Limit.of(Pagina.TAMANHO_PADRAO + 1);
+
     @Mock
     private UsuarioRepository usuarioRepository;
 
@@ -30,7 +33,10 @@ public class UsuarioServiceTest {
     private UsuarioService usuarioService;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private SenhaService senhaService;
+
+    @Mock
+    private VersaoSegurancaService versaoSegurancaService;
 
     private Usuario usuario;
 
@@ -48,8 +54,8 @@ public class UsuarioServiceTest {
     @Test
     @DisplayName("Deve listar todos os usuários")
     void testListAll() {
-        when(usuarioRepository.findAll()).thenReturn(Arrays.asList(usuario));
-        List<Usuario> result = usuarioService.listAll();
+        when(usuarioRepository.findPaginaAposId(0L, PRIMEIRA_PAGINA)).thenReturn(Arrays.asList(usuario));
+        List<Usuario> result = usuarioService.listAll(null, null).getItens();
         assertEquals(1, result.size());
         assertEquals("Vik", result.get(0).getNome());
     }
@@ -69,6 +75,17 @@ public class UsuarioServiceTest {
         assertThrows(UsuarioNotFoundException.class, () -> usuarioService.findById(2L));
     }
 
+    @Test
+    @DisplayName("Deve buscar por ID já com as metas")
+    void testFindComMetasById() {
+        when(usuarioRepository.findComMetasById(1L)).thenReturn(Optional.of(usuario));
+        assertEquals("Vik", usuarioService.findComMetasById(1L).getNome());
+        verify(usuarioRepository, never()).findById(any());
+
+        when(usuarioRepository.findComMetasById(2L)).thenReturn(Optional.empty());
+        assertThrows(UsuarioNotFoundException.class, () -> usuarioService.findComMetasById(2L));
+    }
+
     @Test
     @DisplayName("Deve buscar por email com sucesso")
     void testFindByEmailSuccess() {
@@ -119,8 +136,10 @@ public class UsuarioServiceTest {
     void testSaveSuccess() {
         when(usuarioRepository.findByEmailIgnoreCase(usuario.getEmail())).thenReturn(null);
         when(usuarioRepository.save(usuario)).thenReturn(usuario);
+        when(senhaService.codificar("123")).thenReturn("$2a$10$hash");
         Usuario saved = usuarioService.save(usuario);
         assertEquals(StatusUsuario.ATIVO, saved.getStatus());
+        assertEquals("$2a$10$hash", saved.getSenha());
     }
 
     @Test
@@ -148,6 +167,7 @@ public class UsuarioServiceTest {
         Usuario result = usuarioService.update(1L, updated);
         assertEquals("Vitória", result.getNome());
         assertEquals(StatusUsuario.INATIVO, result.getStatus());
+        verify(versaoSegurancaService).revogar(1L);
     }
 
     @Test
@@ -157,5 +177,6 @@ public class UsuarioServiceTest {
         doNothing().when(usuarioRepository).deleteById(1L);
         assertDoesNotThrow(() -> usuarioService.deleteById(1L));
         verify(usuarioRepository).deleteById(1L);
+        verify(versaoSegurancaService).revogar(1L);
     }
 }
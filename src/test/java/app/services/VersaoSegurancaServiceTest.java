@@ -0,0 +1,66 @@
+package app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.repositories.UsuarioRepository;
+
+public class VersaoSegurancaServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @InjectMocks
+    private VersaoSegurancaService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofMinutes(1));
+        service.iniciar();
+    }
+
+    @Test
+    @DisplayName("Deve consultar a versão do usuário uma única vez")
+    void testValidaEmCache() {
+        when(usuarioRepository.findVersaoSegurancaById(1L)).thenReturn(Optional.of(2));
+
+        assertTrue(service.valida(1L, 2));
+        assertTrue(service.valida(1L, 2));
+        assertFalse(service.valida(1L, 1));
+        verify(usuarioRepository, times(1)).findVersaoSegurancaById(1L);
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar token de usuário excluído")
+    void testValidaUsuarioExcluido() {
+        when(usuarioRepository.findVersaoSegurancaById(9L)).thenReturn(Optional.empty());
+
+        assertEquals(VersaoSegurancaService.REVOGADO, service.atual(9L));
+        assertFalse(service.valida(9L, VersaoSegurancaService.REVOGADO));
+    }
+
+    @Test
+    @DisplayName("Deve incrementar a versão e descartar a versão em cache ao revogar")
+    void testRevogar() {
+        when(usuarioRepository.findVersaoSegurancaById(1L)).thenReturn(Optional.of(0), Optional.of(1));
+        assertTrue(service.valida(1L, 0));
+
+        service.revogar(1L);
+
+        verify(usuarioRepository).incrementarVersaoSeguranca(1L);
+        assertFalse(service.valida(1L, 0));
+        assertTrue(service.valida(1L, 1));
+    }
+}